@@ -0,0 +1,72 @@
+package com.project.library.library_backend.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latenz- und Fehlerstatistik eines Endpunkts während eines Lasttests.
+ *
+ * Die Latenzen werden in Mikrosekunden in einen HdrHistogram-{@link Recorder} geschrieben,
+ * der von mehreren Threads gleichzeitig beschrieben werden kann.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class EndpointStats {
+
+    /**
+     * Höchste erfasste Latenz (60 s), längere Anfragen werden auf diesen Wert begrenzt.
+     */
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final String name;
+
+    private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+
+    private final LongAdder errors = new LongAdder();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Erfasst eine Anfrage.
+     *
+     * @param latencyNanos Dauer der Anfrage in Nanosekunden
+     * @param success true, wenn die Anfrage erfolgreich war
+     */
+    public void record(long latencyNanos, boolean success) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Verwirft alle bisher erfassten Werte (z. B. nach der Aufwärmphase).
+     */
+    public void reset() {
+        recorder.reset();
+        errors.reset();
+    }
+
+    /**
+     * Gibt die seit dem letzten Aufruf bzw. {@link #reset()} erfassten Latenzen zurück.
+     *
+     * @return Histogramm in Mikrosekunden
+     */
+    public Histogram snapshot() {
+        return recorder.getIntervalHistogram();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
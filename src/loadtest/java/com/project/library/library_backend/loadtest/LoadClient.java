@@ -0,0 +1,125 @@
+package com.project.library.library_backend.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HTTP-Client des Lasttests, der jede Anfrage unter dem Namen ihres Endpunkts misst.
+ *
+ * Als Endpunktname wird das Muster verwendet (z. B. "GET /api/media/{id}"),
+ * damit Anfragen mit unterschiedlichen IDs zusammen ausgewertet werden.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class LoadClient {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    private final String baseUrl;
+
+    /**
+     * @param baseUrl Basis-URL der Anwendung, z. B. "http://localhost:8080"
+     */
+    public LoadClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Führt eine GET-Anfrage aus.
+     *
+     * @param endpoint Name des Endpunkts für die Statistik
+     * @param path Pfad inklusive Query-Parameter
+     * @return Antwort-Body oder null bei einem Fehler
+     */
+    public String get(String endpoint, String path) {
+        return send(endpoint, request(path).GET());
+    }
+
+    /**
+     * Führt eine POST-Anfrage mit JSON-Body aus.
+     *
+     * @param endpoint Name des Endpunkts für die Statistik
+     * @param path Pfad
+     * @param json JSON-Body
+     * @return Antwort-Body oder null bei einem Fehler
+     */
+    public String post(String endpoint, String path, String json) {
+        return send(endpoint, request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    /**
+     * Führt eine PATCH-Anfrage mit JSON-Body aus.
+     *
+     * @param endpoint Name des Endpunkts für die Statistik
+     * @param path Pfad
+     * @param json JSON-Body
+     * @return Antwort-Body oder null bei einem Fehler
+     */
+    public String patch(String endpoint, String path, String json) {
+        return send(endpoint, request(path)
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    /**
+     * Führt eine DELETE-Anfrage aus.
+     *
+     * @param endpoint Name des Endpunkts für die Statistik
+     * @param path Pfad
+     * @return Antwort-Body oder null bei einem Fehler
+     */
+    public String delete(String endpoint, String path) {
+        return send(endpoint, request(path).DELETE());
+    }
+
+    /**
+     * @return Statistiken aller bisher aufgerufenen Endpunkte
+     */
+    public Collection<EndpointStats> getStats() {
+        return stats.values();
+    }
+
+    /**
+     * Verwirft alle bisher erfassten Messwerte.
+     */
+    public void resetStats() {
+        stats.values().forEach(EndpointStats::reset);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+    }
+
+    private String send(String endpoint, HttpRequest.Builder builder) {
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, EndpointStats::new);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            boolean success = response.statusCode() < 400;
+            endpointStats.record(System.nanoTime() - start, success);
+            return success ? response.body() : null;
+        } catch (IOException e) {
+            endpointStats.record(System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.project.library.library_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gewichtete Mischung der Lasttest-Szenarien.
+ *
+ * Die Mischung wird als Text angegeben, z. B. "browse=40,search=25,checkout=15,account=20".
+ * Verfügbare Szenarien:
+ * <ul>
+ *     <li>browse – Katalog blättern: einzelne Medien, Mehrfachabfragen, Ausleihstatus</li>
+ *     <li>search – Titel- und Nachnamensuche</li>
+ *     <li>checkout – mehrere Ausleihen hintereinander, eine Verlängerung und anschliessende Rückgabe</li>
+ *     <li>account – Kundenkonto: Kunde, Adresse, Mitbewohner, Ausleihen und Historie</li>
+ *     <li>inventory – Inventur: Regalcode und Bewertung per PATCH ändern (standardmässig nicht enthalten)</li>
+ *     <li>list – vollständige Listen aller Medien (teuer, standardmässig nicht enthalten)</li>
+ * </ul>
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class LoadMix {
+
+    /**
+     * Standardmischung, wenn keine angegeben ist.
+     */
+    public static final String DEFAULT_MIX = "browse=40,search=25,checkout=15,account=20";
+
+    /**
+     * Anzahl Ausleihen pro checkout-Szenario.
+     */
+    private static final int CHECKOUT_BURST = 5;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Ein Szenario besteht aus einer oder mehreren Anfragen.
+     */
+    @FunctionalInterface
+    public interface Scenario {
+        void run(LoadClient client, LoadTestData data, ThreadLocalRandom random);
+    }
+
+    private final List<String> names = new ArrayList<>();
+
+    private final List<Scenario> scenarios = new ArrayList<>();
+
+    private final int[] cumulativeWeights;
+
+    private final int totalWeight;
+
+    /**
+     * @param mix Mischung im Format "name=gewicht,name=gewicht"
+     * @throws IllegalArgumentException bei unbekannten Szenarien oder ungültigen Gewichten
+     */
+    public LoadMix(String mix) {
+        Map<String, Scenario> available = availableScenarios();
+        List<Integer> weights = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split("=");
+            Scenario scenario = available.get(entry[0].trim());
+            if (scenario == null || entry.length != 2) {
+                throw new IllegalArgumentException("Unbekanntes Szenario: " + part + " (verfügbar: " + available.keySet() + ")");
+            }
+            int weight = Integer.parseInt(entry[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negatives Gewicht: " + part);
+            }
+            names.add(entry[0].trim());
+            scenarios.add(scenario);
+            weights.add(weight);
+        }
+        cumulativeWeights = new int[weights.size()];
+        int sum = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            sum += weights.get(i);
+            cumulativeWeights[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Die Mischung enthält kein Szenario mit Gewicht > 0: " + mix);
+        }
+        totalWeight = sum;
+    }
+
+    /**
+     * Wählt ein Szenario gemäss den Gewichten und führt es aus.
+     */
+    public void runNext(LoadClient client, LoadTestData data, ThreadLocalRandom random) {
+        int pick = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                scenarios.get(i).run(client, data, random);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 0; i < names.size(); i++) {
+            joiner.add(names.get(i) + "=" + (cumulativeWeights[i] - (i == 0 ? 0 : cumulativeWeights[i - 1])));
+        }
+        return joiner.toString();
+    }
+
+    private static Map<String, Scenario> availableScenarios() {
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("browse", LoadMix::browse);
+        scenarios.put("search", LoadMix::search);
+        scenarios.put("checkout", LoadMix::checkout);
+        scenarios.put("account", LoadMix::account);
+        scenarios.put("inventory", LoadMix::inventory);
+        scenarios.put("list", LoadMix::list);
+        return scenarios;
+    }
+
+    private static void browse(LoadClient client, LoadTestData data, ThreadLocalRandom random) {
+        long mediaId = pick(data.getMediaIds(), random);
+        client.get("GET /api/media/{id}", "/api/media/" + mediaId);
+        client.get("GET /api/borrowings/search/media", "/api/borrowings/search/media?id=" + mediaId);
+
+        StringJoiner ids = new StringJoiner(",");
+        for (int i = 0; i < 20; i++) {
+            ids.add(String.valueOf(pick(data.getMediaIds(), random)));
+        }
+        client.get("GET /api/media?ids", "/api/media?ids=" + ids);
+    }
+
+    private static void search(LoadClient client, LoadTestData data, ThreadLocalRandom random) {
+        String title = pick(data.getTitles(), random);
+        client.get("GET /api/media/search/title", "/api/media/search/title?title=" + encode(title));
+        String lastname = LoadTestData.LASTNAMES[random.nextInt(LoadTestData.LASTNAMES.length)];
+        client.get("GET /api/customers/search/lastname", "/api/customers/search/lastname?name=" + encode(lastname));
+        // Schalter-Suche mit abgeschnittenem Namen wie bei einer unvollständigen Eingabe
+        String prefix = lastname.substring(0, Math.min(lastname.length(), 2 + random.nextInt(3)));
+        client.get("GET /api/customers/search", "/api/customers/search?q=" + encode(prefix));
+    }
+
+    private static void checkout(LoadClient client, LoadTestData data, ThreadLocalRandom random) {
+        long customerId = pick(data.getCustomerIds(), random);
+        List<Long> borrowed = new ArrayList<>();
+        List<Long> borrowingIds = new ArrayList<>();
+        try {
+            for (int i = 0; i < CHECKOUT_BURST; i++) {
+                Long mediaId = data.getAvailableMedia().poll();
+                if (mediaId == null) {
+                    break;
+                }
+                borrowed.add(mediaId);
+                String json = "{\"duedate\":\"" + LocalDate.now().plusDays(28)
+                        + "\",\"customer\":{\"id\":" + customerId + "},\"media\":{\"id\":" + mediaId + "}}";
+                Long borrowingId = idOf(client.post("POST /api/borrowings", "/api/borrowings", json));
+                if (borrowingId != null) {
+                    borrowingIds.add(borrowingId);
+                }
+            }
+            if (!borrowingIds.isEmpty()) {
+                Long first = borrowingIds.get(0);
+                client.post("POST /api/borrowings/{id}/extend", "/api/borrowings/" + first + "/extend", "");
+            }
+            for (Long borrowingId : borrowingIds) {
+                client.post("POST /api/borrowings/{id}/return", "/api/borrowings/" + borrowingId + "/return", "");
+            }
+        } finally {
+            data.getAvailableMedia().addAll(borrowed);
+        }
+    }
+
+    private static void account(LoadClient client, LoadTestData data, ThreadLocalRandom random) {
+        long customerId = pick(data.getCustomerIds(), random);
+        client.get("GET /api/customers/{id}", "/api/customers/" + customerId);
+        client.get("GET /api/borrowings/search/customer", "/api/borrowings/search/customer?id=" + customerId);
+        client.get("GET /api/borrowings/history/search/customer", "/api/borrowings/history/search/customer?id=" + customerId);
+        long addressId = pick(data.getAddressIds(), random);
+        client.get("GET /api/addresses/{id}", "/api/addresses/" + addressId);
+        client.get("GET /api/customers/search/address", "/api/customers/search/address?id=" + addressId);
+    }
+
+    private static void inventory(LoadClient client, LoadTestData data, ThreadLocalRandom random) {
+        long mediaId = pick(data.getMediaIds(), random);
+        String json = "{\"shelfCode\":\"R" + random.nextInt(50) + "\",\"rating\":" + (1 + random.nextInt(5)) + "}";
+        client.patch("PATCH /api/media/{id}", "/api/media/" + mediaId, json);
+    }
+
+    private static void list(LoadClient client, LoadTestData data, ThreadLocalRandom random) {
+        client.get("GET /api/media", "/api/media");
+    }
+
+    private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static Long idOf(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            JsonNode id = OBJECT_MAPPER.readTree(json).get("id");
+            return id == null ? null : id.asLong();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
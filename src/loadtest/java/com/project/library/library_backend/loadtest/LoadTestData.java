@@ -0,0 +1,123 @@
+package com.project.library.library_backend.loadtest;
+
+import com.project.library.library_backend.model.Address;
+import com.project.library.library_backend.model.Borrowing;
+import com.project.library.library_backend.model.Customer;
+import com.project.library.library_backend.model.Media;
+import com.project.library.library_backend.repository.AddressRepository;
+import com.project.library.library_backend.repository.BorrowingRepository;
+import com.project.library.library_backend.repository.CustomerRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Testdaten des Lasttests.
+ *
+ * Legt Adressen, Kunden, Medien und einen Teil bereits ausgeliehener Medien direkt über die
+ * Repositories an und merkt sich die IDs für die Szenarien. Nicht ausgeliehene Medien liegen
+ * in einem Pool, aus dem die Ausleih-Szenarien Medien entnehmen und nach der Rückgabe wieder zurücklegen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class LoadTestData {
+
+    static final String[] TITLE_WORDS = {"Die", "Stadt", "Nacht", "Reise", "Garten", "Meer", "Winter", "Schatten"};
+
+    static final String[] LASTNAMES = {"Müller", "Meier", "Schmid", "Keller", "Weber", "Huber", "Schneider", "Fischer"};
+
+    private static final String[] GENRES = {"Fantasy", "Krimi", "Sachbuch", "Roman", "Kinderbuch"};
+
+    private static final String[] FSK = {"0", "6", "12", "16", "18"};
+
+    private final List<Long> mediaIds = new ArrayList<>();
+
+    private final List<String> titles = new ArrayList<>();
+
+    private final List<Long> customerIds = new ArrayList<>();
+
+    private final List<Long> addressIds = new ArrayList<>();
+
+    private final Queue<Long> availableMedia = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Legt die Testdaten an.
+     *
+     * @param media Anzahl Medien
+     * @param customers Anzahl Kunden (je zwei Kunden teilen sich eine Adresse)
+     * @param borrowedShare Anteil der Medien, die zu Beginn ausgeliehen sind (0..1)
+     */
+    public void seed(AddressRepository addressRepository, CustomerRepository customerRepository,
+                     MediaRepository mediaRepository, BorrowingRepository borrowingRepository,
+                     int media, int customers, double borrowedShare) {
+        Random random = new Random(42);
+
+        List<Address> addresses = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, customers / 2); i++) {
+            addresses.add(new Address("Bahnhofstrasse " + (i + 1), "Zürich", String.valueOf(8000 + random.nextInt(1000))));
+        }
+        addressRepository.saveAll(addresses).forEach(address -> addressIds.add(address.getId()));
+
+        List<Customer> customerList = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            Customer customer = new Customer("Kunde" + i, LASTNAMES[i % LASTNAMES.length],
+                    LocalDate.of(1950 + random.nextInt(55), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    "kunde" + i + "@example.com");
+            customer.setAddress(addresses.get(i % addresses.size()));
+            customerList.add(customer);
+        }
+        List<Customer> savedCustomers = customerRepository.saveAll(customerList);
+        savedCustomers.forEach(customer -> customerIds.add(customer.getId()));
+
+        List<Media> mediaList = new ArrayList<>();
+        for (int i = 0; i < media; i++) {
+            String title = TITLE_WORDS[i % TITLE_WORDS.length] + " " + (i / TITLE_WORDS.length);
+            mediaList.add(new Media(title, "Autor " + (i % 200), GENRES[i % GENRES.length], 1 + random.nextInt(5),
+                    9783000000000L + i, "R" + (i % 50), FSK[i % FSK.length]));
+        }
+        List<Media> savedMedia = mediaRepository.saveAll(mediaList);
+
+        List<Borrowing> borrowings = new ArrayList<>();
+        for (Media m : savedMedia) {
+            mediaIds.add(m.getId());
+            titles.add(m.getTitle());
+            if (random.nextDouble() < borrowedShare) {
+                LocalDate borrowed = LocalDate.now().minusDays(random.nextInt(28));
+                borrowings.add(new Borrowing(borrowed.plusDays(28), borrowed, null,
+                        savedCustomers.get(random.nextInt(savedCustomers.size())), m));
+            } else {
+                availableMedia.add(m.getId());
+            }
+        }
+        borrowingRepository.saveAll(borrowings);
+    }
+
+    public List<Long> getMediaIds() {
+        return mediaIds;
+    }
+
+    public List<String> getTitles() {
+        return titles;
+    }
+
+    public List<Long> getCustomerIds() {
+        return customerIds;
+    }
+
+    public List<Long> getAddressIds() {
+        return addressIds;
+    }
+
+    /**
+     * Pool der aktuell nicht ausgeliehenen Medien.
+     */
+    public Queue<Long> getAvailableMedia() {
+        return availableMedia;
+    }
+}
@@ -0,0 +1,159 @@
+package com.project.library.library_backend.loadtest;
+
+import com.project.library.library_backend.LibraryBackendApplication;
+import com.project.library.library_backend.repository.AddressRepository;
+import com.project.library.library_backend.repository.BorrowingRepository;
+import com.project.library.library_backend.repository.CustomerRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lastgenerator für das Backend.
+ *
+ * Startet die Anwendung mit einer eingebetteten H2-Datenbank, legt Testdaten an und führt
+ * mit mehreren Threads die konfigurierte {@link LoadMix Mischung} aus. Nach der Aufwärmphase
+ * werden pro Endpunkt Durchsatz sowie p50/p99/p99.9-Latenz gemessen und ausgegeben.
+ *
+ * Einstellungen über System-Properties (mit Gradle: {@code ./gradlew loadTest -Ploadtest.threads=32}):
+ * <ul>
+ *     <li>loadtest.threads – Anzahl gleichzeitiger Clients (Standard 16)</li>
+ *     <li>loadtest.warmup – Aufwärmphase in Sekunden (Standard 10)</li>
+ *     <li>loadtest.duration – Messdauer in Sekunden (Standard 30)</li>
+ *     <li>loadtest.mix – Mischung der Szenarien (Standard {@value LoadMix#DEFAULT_MIX})</li>
+ *     <li>loadtest.media / loadtest.customers – Umfang der Testdaten (Standard 5000 / 2000)</li>
+ *     <li>loadtest.borrowed – Anteil bereits ausgeliehener Medien (Standard 0.3)</li>
+ *     <li>loadtest.ratelimit – Rate Limiting aktivieren (Standard false, alle Clients teilen sich eine IP)</li>
+ * </ul>
+ *
+ * Die Clients arbeiten im geschlossenen Modell (nächste Anfrage erst nach der Antwort);
+ * die Latenzen unter Überlast sind daher eher zu optimistisch.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("loadtest.threads", 16);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30));
+        LoadMix mix = new LoadMix(System.getProperty("loadtest.mix", LoadMix.DEFAULT_MIX));
+
+        try (ConfigurableApplicationContext context = startApplication(args)) {
+            LoadTestData data = new LoadTestData();
+            data.seed(context.getBean(AddressRepository.class), context.getBean(CustomerRepository.class),
+                    context.getBean(MediaRepository.class), context.getBean(BorrowingRepository.class),
+                    Integer.getInteger("loadtest.media", 5000), Integer.getInteger("loadtest.customers", 2000),
+                    Double.parseDouble(System.getProperty("loadtest.borrowed", "0.3")));
+
+            String port = context.getEnvironment().getProperty("local.server.port");
+            LoadClient client = new LoadClient("http://localhost:" + port);
+
+            System.out.printf("Lasttest: %d Threads, Mischung %s, Aufwärmen %ds, Messung %ds%n",
+                    threads, mix, warmup.toSeconds(), duration.toSeconds());
+            run(client, data, mix, threads, warmup, duration);
+        }
+    }
+
+    /**
+     * Startet die Anwendung auf einem freien Port mit einer In-Memory-Datenbank.
+     */
+    static ConfigurableApplicationContext startApplication(String[] args) throws IOException {
+        Path journal = Files.createTempDirectory("loadtest-journal");
+        return new SpringApplicationBuilder(LibraryBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "library.datasource.routing.enabled=false",
+                        "library.catalog.snapshot.enabled=false",
+                        "library.media.write-behind.journal-dir=" + journal,
+                        "library.ratelimit.enabled=" + System.getProperty("loadtest.ratelimit", "false"),
+                        "logging.level.root=WARN")
+                .run(args);
+    }
+
+    private static void run(LoadClient client, LoadTestData data, LoadMix mix, int threads,
+                            Duration warmup, Duration duration) throws InterruptedException {
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                    mix.runNext(client, data, random);
+                }
+            });
+        }
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+        client.resetStats();
+        long measureStart = System.nanoTime();
+
+        executor.shutdown();
+        if (!executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+        report(client, seconds);
+    }
+
+    private static void report(LoadClient client, double seconds) {
+        List<EndpointStats> endpoints = new ArrayList<>(client.getStats());
+        endpoints.sort(Comparator.comparing(EndpointStats::getName));
+
+        String format = "%-38s %9s %7s %9s %9s %9s %9s %9s%n";
+        System.out.printf(format, "Endpunkt", "Anfragen", "Fehler", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = null;
+        long totalErrors = 0;
+        for (EndpointStats endpoint : endpoints) {
+            Histogram histogram = endpoint.snapshot();
+            print(format, endpoint.getName(), histogram, endpoint.getErrors(), seconds);
+            if (total == null) {
+                total = histogram.copy();
+            } else {
+                total.add(histogram);
+            }
+            totalErrors += endpoint.getErrors();
+        }
+        if (total != null) {
+            print(format, "Total", total, totalErrors, seconds);
+        }
+    }
+
+    private static void print(String format, String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf(format, name,
+                histogram.getTotalCount(),
+                errors,
+                String.format("%.1f", histogram.getTotalCount() / seconds),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.library.library_backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.library.library_backend.repository.AddressRepository;
+import com.project.library.library_backend.repository.BorrowingRepository;
+import com.project.library.library_backend.repository.CustomerRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+import com.project.library.library_backend.serialization.JsonStreamer;
+import com.project.library.library_backend.serialization.RowSerializer;
+import com.project.library.library_backend.serialization.RowSerializers;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Vergleicht die Serialisierung der Listen-Endpunkte über Entities und Jackson-Databind
+ * mit dem gestreamten Pfad über {@link JsonStreamer}.
+ *
+ * Pro Liste (Medien, Kunden, Ausleihen) und Pfad werden die im Thread allozierten Bytes
+ * ({@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}) und die Zeit pro
+ * Zeile gemessen. Vorher wird geprüft, dass beide Pfade dasselbe JSON erzeugen.
+ *
+ * Einstellungen über System-Properties (mit Gradle: {@code ./gradlew serializationBenchmark -Ploadtest.media=50000}):
+ * <ul>
+ *     <li>loadtest.media / loadtest.customers – Umfang der Testdaten (Standard 20000 / 5000)</li>
+ *     <li>loadtest.borrowed – Anteil ausgeliehener Medien (Standard 0.3)</li>
+ *     <li>loadtest.iterations – Messdurchläufe pro Fall nach ebenso vielen Aufwärmdurchläufen (Standard 10)</li>
+ * </ul>
+ *
+ * Die Messung läuft gegen H2; die Werte sind für den Vergleich der Pfade gedacht, nicht als
+ * absolute Zahlen für MariaDB.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class SerializationBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Ein Serialisierungspfad, der alle Zeilen schreibt und ihre Anzahl zurückgibt.
+     */
+    private interface Path {
+        long write(OutputStream out) throws IOException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = Integer.getInteger("loadtest.iterations", 10);
+
+        try (ConfigurableApplicationContext context = LoadTestRunner.startApplication(args)) {
+            MediaRepository mediaRepository = context.getBean(MediaRepository.class);
+            CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+            BorrowingRepository borrowingRepository = context.getBean(BorrowingRepository.class);
+            new LoadTestData().seed(context.getBean(AddressRepository.class), customerRepository,
+                    mediaRepository, borrowingRepository,
+                    Integer.getInteger("loadtest.media", 20000), Integer.getInteger("loadtest.customers", 5000),
+                    Double.parseDouble(System.getProperty("loadtest.borrowed", "0.3")));
+
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            JsonStreamer jsonStreamer = context.getBean(JsonStreamer.class);
+            TransactionTemplate readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            readOnly.setReadOnly(true);
+
+            String format = "%-12s %-10s %9s %14s %12s%n";
+            System.out.printf(format, "Liste", "Pfad", "Zeilen", "Bytes/Zeile", "µs/Zeile");
+            compare("Medien", mediaRepository, RowSerializers.MEDIA, objectMapper, jsonStreamer, readOnly, iterations, format);
+            compare("Kunden", customerRepository, RowSerializers.CUSTOMERS, objectMapper, jsonStreamer, readOnly, iterations, format);
+            compare("Ausleihen", borrowingRepository, RowSerializers.BORROWINGS, objectMapper, jsonStreamer, readOnly, iterations, format);
+        }
+    }
+
+    private static void compare(String name, JpaRepository<?, Long> repository, RowSerializer serializer,
+                                ObjectMapper objectMapper, JsonStreamer jsonStreamer, TransactionTemplate readOnly,
+                                int iterations, String format) throws IOException {
+        Path entities = out -> {
+            List<?> all = readOnly.execute(status -> repository.findAll());
+            objectMapper.writeValue(out, all);
+            return all.size();
+        };
+        Path streamed = out -> jsonStreamer.write(serializer, JsonStreamer.Format.JSON, out);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        entities.write(expected);
+        streamed.write(actual);
+        if (!objectMapper.readTree(expected.toString(StandardCharsets.UTF_8))
+                .equals(objectMapper.readTree(actual.toString(StandardCharsets.UTF_8)))) {
+            throw new IllegalStateException(name + ": gestreamtes JSON weicht von der Entity-Serialisierung ab");
+        }
+
+        measure(name, "Entities", entities, iterations, format);
+        measure(name, "Stream", streamed, iterations, format);
+    }
+
+    private static void measure(String name, String path, Path write, int iterations, String format) throws IOException {
+        for (int i = 0; i < iterations; i++) {
+            write.write(OutputStream.nullOutputStream());
+        }
+        long rows = 0;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            rows += write.write(OutputStream.nullOutputStream());
+        }
+        long nanos = System.nanoTime() - start;
+        allocated = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+        if (rows == 0) {
+            System.out.printf(format, name, path, 0, "-", "-");
+            return;
+        }
+        System.out.printf(format, name, path, rows / iterations,
+                String.format("%,d", allocated / rows), String.format("%.2f", nanos / 1000.0 / rows));
+    }
+}
@@ -2,8 +2,10 @@ package com.project.library.library_backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LibraryBackendApplication {
 
 	public static void main(String[] args) {
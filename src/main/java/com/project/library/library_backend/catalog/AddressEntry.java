@@ -0,0 +1,22 @@
+package com.project.library.library_backend.catalog;
+
+import com.project.library.library_backend.model.Address;
+
+/**
+ * Kompakte, unveränderliche Kopie einer Adresse im In-Memory-Katalog.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record AddressEntry(Long id, String streetandnum, String city, String plz) {
+
+    /**
+     * Erstellt einen Katalogeintrag aus einer Adresse.
+     *
+     * @param address Adresse
+     * @return Katalogeintrag
+     */
+    public static AddressEntry of(Address address) {
+        return new AddressEntry(address.getId(), address.getStreetandnum(), address.getCity(), address.getPlz());
+    }
+}
@@ -0,0 +1,74 @@
+package com.project.library.library_backend.catalog;
+
+/**
+ * Bloom-Filter über long-Werte.
+ *
+ * Beantwortet "kommt der Wert sicher nicht vor?" mit wenigen Bitzugriffen; ein "vielleicht"
+ * muss mit einer genauen Struktur bestätigt werden. Grösse und Anzahl Hashfunktionen werden aus
+ * der erwarteten Anzahl Werte und der gewünschten Fehlerrate berechnet; die k Positionen
+ * entstehen durch Double Hashing aus einem 64-Bit-Hash. Werte können nicht entfernt werden.
+ * Nicht threadsicher.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+final class BloomFilter {
+
+    private final long[] bits;
+
+    private final int size;
+
+    private final int hashes;
+
+    private final int expected;
+
+    private int count;
+
+    /**
+     * @param expected Erwartete Anzahl Werte
+     * @param falsePositiveRate Gewünschte Rate falscher Treffer bei {@code expected} Werten
+     */
+    BloomFilter(int expected, double falsePositiveRate) {
+        this.expected = Math.max(expected, 1);
+        double ln2 = Math.log(2);
+        long optimal = (long) Math.ceil(-this.expected * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.size = (int) Math.min(Math.max(optimal, 64), Integer.MAX_VALUE - 63);
+        this.hashes = Math.max(1, (int) Math.round((double) size / this.expected * ln2));
+        this.bits = new long[(size + 63) >>> 6];
+    }
+
+    void add(long value) {
+        long hash = LongHashIndex.mix(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            int bit = position(h1 + i * h2);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+        count++;
+    }
+
+    boolean mightContain(long value) {
+        long hash = LongHashIndex.mix(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            int bit = position(h1 + i * h2);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true, wenn mehr Werte eingefügt wurden als erwartet (die Fehlerrate steigt)
+     */
+    boolean isSaturated() {
+        return count > expected;
+    }
+
+    private int position(int combined) {
+        return (combined < 0 ? ~combined : combined) % size;
+    }
+}
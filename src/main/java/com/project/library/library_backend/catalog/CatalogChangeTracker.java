@@ -0,0 +1,329 @@
+package com.project.library.library_backend.catalog;
+
+import com.project.library.library_backend.model.Address;
+import com.project.library.library_backend.model.Borrowing;
+import com.project.library.library_backend.model.Customer;
+import com.project.library.library_backend.model.Media;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Synchronization;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Protokolliert Änderungen an Medien, Kunden, Adressen und Ausleihen.
+ *
+ * Jede Änderung wird in derselben Transaktion in die Tabelle "change_log" geschrieben und
+ * nach dem Commit in den {@link CatalogState} übernommen. Wird die Transaktion zurückgerollt,
+ * bleibt der Katalog unverändert. Die Sequenznummer des Protokolleintrags wird mitgegeben,
+ * damit sich überholende Commits den Katalog nicht auf einen älteren Stand zurücksetzen.
+ *
+ * Die Einträge werden erst unmittelbar vor dem Commit geschrieben, nach dem letzten Flush von
+ * Hibernate. Vorher wird die Zählerzeile "change_log_counter" erhöht; ihre Sperre hält die
+ * Transaktion bis zum Ende des Commits. Transaktionen mit Änderungen schreiben ihre Einträge
+ * damit nacheinander, und die Sequenznummern werden in derselben Reihenfolge vergeben, in der
+ * sie sichtbar werden: Ist eine Nummer sichtbar, sind es alle kleineren auch. Leser des
+ * Protokolls (Snapshots, Delta-Synchronisation, Nachführen im Cluster) können deshalb bis zur
+ * höchsten sichtbaren Nummer vorrücken, ohne später committete Änderungen zu verpassen.
+ *
+ * Änderungen über JPA werden automatisch über den {@link CatalogEntityListener} gemeldet.
+ * Direkte Updates (JPQL/JDBC), die keine Entity-Callbacks auslösen, müssen hier explizit
+ * gemeldet werden.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Component
+public class CatalogChangeTracker {
+
+    public static final String MEDIA = "media";
+
+    public static final String CUSTOMER = "customer";
+
+    public static final String BORROWING = "borrowing";
+
+    public static final String ADDRESS = "address";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO change_log (entitytype, entityid, operation, changedat) VALUES (?, ?, ?, ?)";
+
+    private static final String BUMP_SQL = "UPDATE change_log_counter SET commits = commits + 1 WHERE id = 1";
+
+    private static final String CREATE_SQL = "INSERT INTO change_log_counter (id, commits) VALUES (1, 1)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CatalogState catalogState;
+
+    /**
+     * Eine gemeldete, noch nicht geschriebene Änderung.
+     *
+     * @param apply Übernimmt die Änderung mit ihrer Sequenznummer in den Katalog
+     */
+    private record Change(String entityType, Long id, ChangeType type, LongConsumer apply) {}
+
+    /**
+     * Meldet ein gespeichertes Medium.
+     */
+    public void mediaSaved(Media media, ChangeType type) {
+        mediaSaved(MediaEntry.of(media), type);
+    }
+
+    /**
+     * Meldet ein gespeichertes Medium.
+     */
+    public void mediaSaved(MediaEntry entry, ChangeType type) {
+        record(MEDIA, entry.id(), type, seq -> catalogState.putMedia(entry, seq));
+    }
+
+    /**
+     * Meldet ein gelöschtes Medium.
+     */
+    public void mediaDeleted(Long id) {
+        record(MEDIA, id, ChangeType.DELETE, seq -> catalogState.removeMedia(id, seq));
+    }
+
+    /**
+     * Meldet einen gespeicherten Kunden.
+     */
+    public void customerSaved(Customer customer, ChangeType type) {
+        CustomerEntry entry = CustomerEntry.of(customer);
+        record(CUSTOMER, customer.getId(), type, seq -> catalogState.putCustomer(entry, seq));
+    }
+
+    /**
+     * Meldet einen gelöschten Kunden.
+     */
+    public void customerDeleted(Long id) {
+        record(CUSTOMER, id, ChangeType.DELETE, seq -> catalogState.removeCustomer(id, seq));
+    }
+
+    /**
+     * Meldet eine gespeicherte Adresse.
+     */
+    public void addressSaved(Address address, ChangeType type) {
+        AddressEntry entry = AddressEntry.of(address);
+        record(ADDRESS, address.getId(), type, seq -> catalogState.putAddress(entry, seq));
+    }
+
+    /**
+     * Meldet eine gelöschte Adresse.
+     */
+    public void addressDeleted(Long id) {
+        record(ADDRESS, id, ChangeType.DELETE, seq -> catalogState.removeAddress(id, seq));
+    }
+
+    /**
+     * Meldet eine gespeicherte Ausleihe.
+     */
+    public void loanSaved(LoanEntry entry, ChangeType type) {
+        record(BORROWING, entry.id(), type, seq -> catalogState.putLoan(entry, seq));
+    }
+
+    /**
+     * Meldet eine gespeicherte Ausleihe.
+     */
+    public void loanSaved(Borrowing borrowing, ChangeType type) {
+        loanSaved(LoanEntry.of(borrowing), type);
+    }
+
+    /**
+     * Meldet eine gelöschte (zurückgegebene) Ausleihe.
+     */
+    public void loanDeleted(Long id) {
+        record(BORROWING, id, ChangeType.DELETE, seq -> catalogState.removeLoan(id, seq));
+    }
+
+    /**
+     * Meldet mehrere gelöschte (zurückgegebene) Ausleihen. Die Einträge werden beim Commit
+     * zusammen mit den übrigen Änderungen der Transaktion per Batch-Insert geschrieben.
+     */
+    public void loansDeleted(Collection<Long> ids) {
+        for (Long id : List.copyOf(ids)) {
+            loanDeleted(id);
+        }
+    }
+
+    /**
+     * Merkt sich eine Änderung für den Commit der laufenden Transaktion. Ohne Transaktion wird
+     * die Änderung in einer eigenen Transaktion geschrieben.
+     */
+    private void record(String entityType, Long id, ChangeType type, LongConsumer apply) {
+        Change change = new Change(entityType, id, type, apply);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            transactionTemplate.executeWithoutResult(status -> pendingChanges().add(change));
+            return;
+        }
+        pendingChanges().add(change);
+    }
+
+    /**
+     * @return Änderungen der laufenden Transaktion; beim ersten Aufruf werden die Callbacks registriert
+     */
+    private PendingChanges pendingChanges() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending) {
+                return pending;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        if (entityManager.isJoinedToTransaction()) {
+            // Läuft nach dem Flush beim Commit, so dass auch erst dabei gemeldete Änderungen dabei sind
+            pending.atCompletion = true;
+            entityManager.unwrap(Session.class).getTransaction().registerSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                    pending.write();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                }
+            });
+        }
+        return pending;
+    }
+
+    /**
+     * Schreibt Einträge ins Änderungsprotokoll. Der Aufrufer hält die Sperre der Zählerzeile.
+     *
+     * @return Sequenznummern der Einträge
+     */
+    private long[] insert(List<Change> changes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        Change change = changes.get(i);
+                        statement.setString(1, change.entityType());
+                        statement.setLong(2, change.id());
+                        statement.setString(3, change.type().name());
+                        statement.setTimestamp(4, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return changes.size();
+                    }
+                }, keys);
+        long[] seqs = new long[changes.size()];
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        for (int i = 0; i < seqs.length; i++) {
+            // Ohne zurückgegebene Schlüssel wird die Änderung ohne Sequenznummer übernommen
+            seqs[i] = i < keyList.size() ? seqOf(keyList.get(i)) : CatalogState.UNSEQUENCED;
+        }
+        return seqs;
+    }
+
+    /**
+     * Erhöht die Zählerzeile und sperrt sie damit bis zum Ende der Transaktion. Fehlt die Zeile,
+     * wird sie angelegt; legt eine andere Transaktion sie gleichzeitig an, wird danach erhöht.
+     */
+    private void lockCounter() {
+        if (jdbcTemplate.update(BUMP_SQL) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(CREATE_SQL);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(BUMP_SQL);
+        }
+    }
+
+    private static long seqOf(Map<String, Object> key) {
+        return key == null || key.isEmpty() ? CatalogState.UNSEQUENCED : ((Number) key.values().iterator().next()).longValue();
+    }
+
+    /**
+     * Änderungen einer Transaktion.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<Change> changes = new ArrayList<>();
+
+        private final List<Long> seqs = new ArrayList<>();
+
+        /**
+         * true, wenn die Hibernate-Transaktion nach ihrem letzten Flush schreibt; sonst wird in
+         * {@link #beforeCommit} geschrieben.
+         */
+        private boolean atCompletion;
+
+        private boolean written;
+
+        private boolean locked;
+
+        void add(Change change) {
+            changes.add(change);
+            if (written) {
+                // Erst nach dem Schreiben gemeldet (z. B. durch einen späteren Flush)
+                insertUnwritten();
+            }
+        }
+
+        void write() {
+            if (!written) {
+                written = true;
+                insertUnwritten();
+            }
+        }
+
+        private void insertUnwritten() {
+            if (seqs.size() == changes.size()) {
+                return;
+            }
+            if (!locked) {
+                lockCounter();
+                locked = true;
+            }
+            for (long seq : insert(changes.subList(seqs.size(), changes.size()))) {
+                seqs.add(seq);
+            }
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!atCompletion) {
+                write();
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            for (int i = 0; i < changes.size(); i++) {
+                changes.get(i).apply().accept(seqs.get(i));
+            }
+        }
+    }
+}
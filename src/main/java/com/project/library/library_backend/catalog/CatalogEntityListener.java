@@ -0,0 +1,66 @@
+package com.project.library.library_backend.catalog;
+
+import com.project.library.library_backend.model.Address;
+import com.project.library.library_backend.model.Borrowing;
+import com.project.library.library_backend.model.Customer;
+import com.project.library.library_backend.model.Media;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA-Entity-Listener, der Änderungen an Medien, Kunden, Adressen und Ausleihen an den
+ * {@link CatalogChangeTracker} weitergibt.
+ *
+ * Der Listener wird von Hibernate über den Spring-Container erzeugt. Ist kein
+ * {@link CatalogChangeTracker} vorhanden (z. B. in {@code @DataJpaTest}), passiert nichts.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class CatalogEntityListener {
+
+    @Autowired
+    private ObjectProvider<CatalogChangeTracker> tracker;
+
+    @PostPersist
+    public void postPersist(Object entity) {
+        saved(entity, ChangeType.INSERT);
+    }
+
+    @PostUpdate
+    public void postUpdate(Object entity) {
+        saved(entity, ChangeType.UPDATE);
+    }
+
+    @PostRemove
+    public void postRemove(Object entity) {
+        tracker.ifAvailable(t -> {
+            if (entity instanceof Media media) {
+                t.mediaDeleted(media.getId());
+            } else if (entity instanceof Customer customer) {
+                t.customerDeleted(customer.getId());
+            } else if (entity instanceof Borrowing borrowing) {
+                t.loanDeleted(borrowing.getId());
+            } else if (entity instanceof Address address) {
+                t.addressDeleted(address.getId());
+            }
+        });
+    }
+
+    private void saved(Object entity, ChangeType type) {
+        tracker.ifAvailable(t -> {
+            if (entity instanceof Media media) {
+                t.mediaSaved(media, type);
+            } else if (entity instanceof Customer customer) {
+                t.customerSaved(customer, type);
+            } else if (entity instanceof Borrowing borrowing) {
+                t.loanSaved(borrowing, type);
+            } else if (entity instanceof Address address) {
+                t.addressSaved(address, type);
+            }
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.project.library.library_backend.catalog;
+
+/**
+ * Wird über Änderungen im {@link CatalogState} benachrichtigt.
+ *
+ * Bei einer neuen Entity ist {@code previous} null, bei einer gelöschten {@code current}.
+ * Die Methoden werden aus beliebigen Threads aufgerufen und müssen threadsicher sein.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public interface CatalogListener {
+
+    default void mediaChanged(MediaEntry previous, MediaEntry current) {}
+
+    default void customerChanged(CustomerEntry previous, CustomerEntry current) {}
+
+    default void loanChanged(LoanEntry previous, LoanEntry current) {}
+
+    default void addressChanged(AddressEntry previous, AddressEntry current) {}
+
+    /**
+     * Der gesamte Katalog wurde neu geladen (Snapshot oder vollständiges Laden).
+     *
+     * @param state Neu geladener Katalog
+     */
+    default void catalogReloaded(CatalogState state) {}
+}
@@ -0,0 +1,257 @@
+package com.project.library.library_backend.catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Liest und schreibt Snapshots des In-Memory-Katalogs im Binärformat.
+ *
+ * Aufbau der Datei:
+ * - Header: Magic "LBCS", Version, High-Water-Mark (Sequenznummer im Änderungsprotokoll), Erstellungszeit
+ * - Medien, Kunden, offene Ausleihen, Adressen (jeweils Anzahl + Einträge)
+ * - CRC32-Prüfsumme über alle vorherigen Bytes
+ *
+ * Geschrieben wird in eine temporäre Datei, die danach atomar umbenannt wird. Gelesen wird
+ * über eine Memory-Mapped-Datei; eine beschädigte oder unvollständige Datei wird anhand der
+ * Prüfsumme erkannt.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x4C424353;
+
+    private static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+
+    private static final int CHECKSUM_SIZE = 8;
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    private CatalogSnapshotFile() {}
+
+    /**
+     * Inhalt eines gelesenen Snapshots.
+     *
+     * @param highWaterMark Letzte im Snapshot enthaltene Sequenznummer des Änderungsprotokolls
+     * @param createdAt Erstellungszeit (Millisekunden seit Epoch)
+     */
+    public record Snapshot(long highWaterMark, long createdAt, List<MediaEntry> media,
+                           List<CustomerEntry> customers, List<LoanEntry> loans, List<AddressEntry> addresses) {}
+
+    /**
+     * Schreibt einen Snapshot.
+     *
+     * @param file Zieldatei
+     * @param highWaterMark Letzte im Snapshot enthaltene Sequenznummer
+     * @param media Alle Medien
+     * @param customers Alle Kunden
+     * @param loans Alle offenen Ausleihen
+     * @param addresses Alle Adressen
+     * @throws IOException bei Schreibfehlern
+     */
+    public static void write(Path file, long highWaterMark, Collection<MediaEntry> media,
+                             Collection<CustomerEntry> customers, Collection<LoanEntry> loans,
+                             Collection<AddressEntry> addresses) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        // Kopien, damit die geschriebene Anzahl zu den Einträgen passt, auch wenn sich der Katalog ändert
+        List<MediaEntry> mediaCopy = List.copyOf(media);
+        List<CustomerEntry> customerCopy = List.copyOf(customers);
+        List<LoanEntry> loanCopy = List.copyOf(loans);
+        List<AddressEntry> addressCopy = List.copyOf(addresses);
+
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Files.newOutputStream(tmp), crc), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(highWaterMark);
+            out.writeLong(System.currentTimeMillis());
+
+            out.writeInt(mediaCopy.size());
+            for (MediaEntry entry : mediaCopy) {
+                writeLong(out, entry.id());
+                writeString(out, entry.title());
+                writeString(out, entry.author());
+                writeString(out, entry.genre());
+                out.writeInt(entry.rating() != null ? entry.rating() : NULL_INT);
+                writeLong(out, entry.isbn());
+                writeString(out, entry.shelfCode());
+                writeString(out, entry.fsk());
+            }
+
+            out.writeInt(customerCopy.size());
+            for (CustomerEntry entry : customerCopy) {
+                writeLong(out, entry.id());
+                writeString(out, entry.firstname());
+                writeString(out, entry.lastname());
+                writeDate(out, entry.birthdate());
+                writeString(out, entry.email());
+                writeLong(out, entry.addressId());
+            }
+
+            out.writeInt(loanCopy.size());
+            for (LoanEntry entry : loanCopy) {
+                writeLong(out, entry.id());
+                writeLong(out, entry.customerId());
+                writeLong(out, entry.mediaId());
+                writeDate(out, entry.dateborrowed());
+                writeDate(out, entry.duedate());
+                writeDate(out, entry.extendedOn());
+            }
+
+            out.writeInt(addressCopy.size());
+            for (AddressEntry entry : addressCopy) {
+                writeLong(out, entry.id());
+                writeString(out, entry.streetandnum());
+                writeString(out, entry.city());
+                writeString(out, entry.plz());
+            }
+
+            out.flush();
+            out.writeLong(crc.getValue());
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Liest einen Snapshot und prüft seine Prüfsumme.
+     *
+     * @param file Snapshot-Datei
+     * @return Inhalt des Snapshots
+     * @throws IOException falls die Datei fehlt, beschädigt ist oder ein unbekanntes Format hat
+     */
+    public static Snapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + CHECKSUM_SIZE) {
+                throw new IOException("Snapshot ist unvollständig");
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot ist zu gross für eine einzelne Abbildung");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int payloadSize = (int) size - CHECKSUM_SIZE;
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, payloadSize));
+            if (crc.getValue() != buffer.getLong(payloadSize)) {
+                throw new IOException("Prüfsumme des Snapshots ist ungültig");
+            }
+
+            buffer.limit(payloadSize);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Keine Snapshot-Datei");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Nicht unterstützte Snapshot-Version " + version);
+            }
+            long highWaterMark = buffer.getLong();
+            long createdAt = buffer.getLong();
+
+            try {
+                int mediaCount = buffer.getInt();
+                List<MediaEntry> media = new ArrayList<>(mediaCount);
+                for (int i = 0; i < mediaCount; i++) {
+                    Long id = readLong(buffer);
+                    String title = readString(buffer);
+                    String author = readString(buffer);
+                    String genre = readString(buffer);
+                    int rating = buffer.getInt();
+                    Long isbn = readLong(buffer);
+                    String shelfCode = readString(buffer);
+                    String fsk = readString(buffer);
+                    media.add(new MediaEntry(id, title, author, genre, rating != NULL_INT ? rating : null,
+                            isbn, shelfCode, fsk));
+                }
+
+                int customerCount = buffer.getInt();
+                List<CustomerEntry> customers = new ArrayList<>(customerCount);
+                for (int i = 0; i < customerCount; i++) {
+                    customers.add(new CustomerEntry(readLong(buffer), readString(buffer), readString(buffer),
+                            readDate(buffer), readString(buffer), readLong(buffer)));
+                }
+
+                int loanCount = buffer.getInt();
+                List<LoanEntry> loans = new ArrayList<>(loanCount);
+                for (int i = 0; i < loanCount; i++) {
+                    loans.add(new LoanEntry(readLong(buffer), readLong(buffer), readLong(buffer),
+                            readDate(buffer), readDate(buffer), readDate(buffer)));
+                }
+
+                int addressCount = buffer.getInt();
+                List<AddressEntry> addresses = new ArrayList<>(addressCount);
+                for (int i = 0; i < addressCount; i++) {
+                    addresses.add(new AddressEntry(readLong(buffer), readString(buffer), readString(buffer),
+                            readString(buffer)));
+                }
+                return new Snapshot(highWaterMark, createdAt, media, customers, loans, addresses);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Snapshot ist beschädigt", e);
+            }
+        }
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeLong(value != null ? value : NULL_LONG);
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate date) throws IOException {
+        out.writeInt(date != null ? (int) date.toEpochDay() : NULL_INT);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Long readLong(MappedByteBuffer buffer) {
+        long value = buffer.getLong();
+        return value != NULL_LONG ? value : null;
+    }
+
+    private static LocalDate readDate(MappedByteBuffer buffer) {
+        int epochDay = buffer.getInt();
+        return epochDay != NULL_INT ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    private static String readString(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,261 @@
+package com.project.library.library_backend.catalog;
+
+import com.project.library.library_backend.model.ChangeLogEntry;
+import com.project.library.library_backend.repository.AddressRepository;
+import com.project.library.library_backend.repository.BorrowingRepository;
+import com.project.library.library_backend.repository.ChangeLogRepository;
+import com.project.library.library_backend.repository.CustomerRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Lädt den {@link CatalogState} beim Start und schreibt regelmässig Snapshots.
+ *
+ * Ablauf beim Start (vor "ready"):
+ * 1. Ist ein gültiger Snapshot vorhanden, wird er per Memory-Mapping gelesen.
+ * 2. Danach werden nur die Änderungen aus dem Änderungsprotokoll nachgeladen,
+ *    deren Sequenznummer grösser als die High-Water-Mark des Snapshots ist.
+ * 3. Fehlt der Snapshot, ist er beschädigt oder wurden die Änderungen seit seiner
+ *    High-Water-Mark bereits aus dem Protokoll entfernt ({@code ChangeLogRetention}),
+ *    wird der Katalog vollständig geladen.
+ *
+ * Die Sequenznummern werden in Commit-Reihenfolge vergeben ({@link CatalogChangeTracker}):
+ * Eine später committete Änderung hat immer eine grössere Nummer als alle bereits sichtbaren.
+ * Die High-Water-Mark ist deshalb die höchste Nummer, deren Änderung im Katalog enthalten ist.
+ * Vor dem Schreiben eines Snapshots werden die Änderungen seit der letzten High-Water-Mark aus
+ * der Datenbank nachgeladen; so enthält der Snapshot sicher alles bis zu seiner High-Water-Mark,
+ * auch Commits, deren Übernahme nach dem Commit noch nicht gelaufen ist, und im Cluster die
+ * Änderungen anderer Instanzen. Zu viel Nachgeladenes schadet nicht, da das Nachladen immer den
+ * aktuellen Stand aus der Datenbank übernimmt.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Component
+public class CatalogSnapshotService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private static final int REPLAY_PAGE_SIZE = 5000;
+
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private CatalogState catalogState;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${library.catalog.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    @Value("${library.catalog.snapshot.path:data/catalog.snapshot}")
+    private Path snapshotPath;
+
+    private volatile long highWaterMark;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmStart();
+    }
+
+    /**
+     * @return Letzte Sequenznummer des Änderungsprotokolls, die im Katalog enthalten ist
+     */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Lädt den Katalog aus dem Snapshot und den neueren Änderungen, sonst vollständig.
+     */
+    public void warmStart() {
+        long start = System.nanoTime();
+        if (snapshotEnabled && Files.exists(snapshotPath)) {
+            try {
+                CatalogSnapshotFile.Snapshot snapshot = CatalogSnapshotFile.read(snapshotPath);
+                if (isPruned(snapshot.highWaterMark())) {
+                    throw new IOException("Änderungen seit High-Water-Mark " + snapshot.highWaterMark()
+                            + " sind nicht mehr im Änderungsprotokoll");
+                }
+                catalogState.replaceAll(snapshot.media(), snapshot.customers(), snapshot.loans(), snapshot.addresses());
+                highWaterMark = snapshot.highWaterMark();
+                int replayed = replayChanges();
+                log.info("Katalog aus Snapshot geladen ({} Änderungen nachgeladen) in {} ms",
+                        replayed, Duration.ofNanos(System.nanoTime() - start).toMillis());
+                return;
+            } catch (IOException e) {
+                log.warn("Snapshot {} nicht verwendbar, Katalog wird vollständig geladen: {}",
+                        snapshotPath, e.getMessage());
+            }
+        }
+        loadFully();
+        log.info("Katalog vollständig geladen in {} ms", Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    /**
+     * Lädt den gesamten Katalog aus der Datenbank. High-Water-Mark und Entities werden in einer
+     * lesenden Transaktion gelesen, damit sie aus demselben Stand (und derselben Replica) stammen.
+     */
+    public synchronized void loadFully() {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        highWaterMark = readOnlyTransaction.execute(status -> {
+            Long last = changeLogRepository.findMaxSeq();
+            catalogState.replaceAll(mediaRepository.findAllCatalogEntries(),
+                    customerRepository.findAllCatalogEntries(),
+                    borrowingRepository.findAllCatalogEntries(),
+                    addressRepository.findAllCatalogEntries());
+            return last != null ? last : 0L;
+        });
+    }
+
+    /**
+     * Schreibt regelmässig einen Snapshot des Katalogs.
+     */
+    @Scheduled(fixedDelayString = "${library.catalog.snapshot.interval:600000}",
+            initialDelayString = "${library.catalog.snapshot.interval:600000}")
+    public void writeSnapshot() {
+        if (!snapshotEnabled || !catalogState.isLoaded()) {
+            return;
+        }
+        long settled;
+        synchronized (this) {
+            replayChanges();
+            settled = highWaterMark;
+        }
+        try {
+            CatalogSnapshotFile.write(snapshotPath, settled, catalogState.allMedia(),
+                    catalogState.allCustomers(), catalogState.allLoans(), catalogState.allAddresses());
+            log.debug("Katalog-Snapshot geschrieben (High-Water-Mark {})", settled);
+        } catch (IOException e) {
+            log.warn("Katalog-Snapshot konnte nicht geschrieben werden: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lädt alle Änderungen nach der aktuellen High-Water-Mark nach. Die High-Water-Mark rückt
+     * nur bis zur höchsten gelesenen Nummer vor; eine nachhinkende Replica liefert die fehlenden
+     * Änderungen beim nächsten Mal.
+     *
+     * @return Anzahl nachgeladener Änderungen
+     */
+    public synchronized int replayChanges() {
+        int replayed = 0;
+        while (true) {
+            List<ChangeLogEntry> page = changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(
+                    highWaterMark, PageRequest.of(0, REPLAY_PAGE_SIZE));
+            if (page.isEmpty()) {
+                return replayed;
+            }
+            applyChanges(page);
+            replayed += page.size();
+            highWaterMark = page.get(page.size() - 1).getSeq();
+        }
+    }
+
+    /**
+     * Übernimmt den aktuellen Stand aller Entities aus den angegebenen Änderungen in den Katalog.
+     * Mehrere Änderungen derselben Entity werden nur einmal geladen; das mehrfache Anwenden
+     * derselben Änderung schadet nicht. Der geladene Stand gilt als Stand der höchsten
+     * Sequenznummer der Entity, damit ein inzwischen übernommener neuerer Commit nicht
+     * überschrieben wird.
+     *
+     * @param changes Einträge des Änderungsprotokolls
+     */
+    public void applyChanges(Collection<ChangeLogEntry> changes) {
+        Map<Long, Long> mediaIds = new LinkedHashMap<>();
+        Map<Long, Long> customerIds = new LinkedHashMap<>();
+        Map<Long, Long> loanIds = new LinkedHashMap<>();
+        Map<Long, Long> addressIds = new LinkedHashMap<>();
+        for (ChangeLogEntry change : changes) {
+            Map<Long, Long> ids = switch (change.getEntitytype()) {
+                case CatalogChangeTracker.MEDIA -> mediaIds;
+                case CatalogChangeTracker.CUSTOMER -> customerIds;
+                case CatalogChangeTracker.BORROWING -> loanIds;
+                case CatalogChangeTracker.ADDRESS -> addressIds;
+                default -> null;
+            };
+            if (ids != null) {
+                ids.merge(change.getEntityid(), change.getSeq(), Math::max);
+            }
+        }
+        // Adressen zuerst, damit neue Kunden ihre Adresse bereits vorfinden
+        reload(addressIds, addressRepository::findCatalogEntriesByIdIn, AddressEntry::id,
+                catalogState::putAddress, catalogState::removeAddress);
+        reload(mediaIds, mediaRepository::findCatalogEntriesByIdIn, MediaEntry::id,
+                catalogState::putMedia, catalogState::removeMedia);
+        reload(customerIds, customerRepository::findCatalogEntriesByIdIn, CustomerEntry::id,
+                catalogState::putCustomer, catalogState::removeCustomer);
+        reload(loanIds, borrowingRepository::findCatalogEntriesByIdIn, LoanEntry::id,
+                catalogState::putLoan, catalogState::removeLoan);
+    }
+
+    /**
+     * Übernimmt den aktuellen Stand der angegebenen IDs aus der Datenbank in den Katalog.
+     * IDs, die nicht mehr existieren, werden aus dem Katalog entfernt.
+     *
+     * @param seqs Höchste Sequenznummer pro ID
+     */
+    private static <T> void reload(Map<Long, Long> seqs, Function<List<Long>, List<T>> loader, Function<T, Long> idOf,
+                                   BiConsumer<T, Long> put, BiConsumer<Long, Long> remove) {
+        List<Long> all = new ArrayList<>(seqs.keySet());
+        for (int from = 0; from < all.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = all.subList(from, Math.min(from + ID_CHUNK_SIZE, all.size()));
+            Set<Long> missing = new HashSet<>(chunk);
+            for (T entry : loader.apply(chunk)) {
+                Long id = idOf.apply(entry);
+                missing.remove(id);
+                put.accept(entry, seqs.get(id));
+            }
+            missing.forEach(id -> remove.accept(id, seqs.get(id)));
+        }
+    }
+
+    /**
+     * @return true, wenn Änderungen nach der Sequenznummer bereits aus dem Protokoll entfernt wurden
+     */
+    private boolean isPruned(long seq) {
+        Long first = changeLogRepository.findMinSeq();
+        return first != null && seq < first - 1;
+    }
+}
@@ -0,0 +1,270 @@
+package com.project.library.library_backend.catalog;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * In-Memory-Katalog aller Medien, Kunden, Adressen und offenen Ausleihen.
+ *
+ * Der Katalog ist die gemeinsame Grundlage für In-Memory-Strukturen (Indizes, Zähler usw.).
+ * Er wird beim Start aus einem Snapshot oder aus der Datenbank geladen und danach über
+ * {@link CatalogChangeTracker} nach jedem erfolgreichen Commit aktualisiert.
+ * Abhängige Strukturen melden sich als {@link CatalogListener} an.
+ *
+ * Eine Änderung und die Benachrichtigung der Listener laufen pro ID atomar ab
+ * ({@link ConcurrentHashMap#compute}); Listener sehen die Änderungen einer Entity daher in
+ * derselben Reihenfolge wie die Tabelle selbst und dürfen den Katalog nicht ändern.
+ * Änderungen tragen die Sequenznummer ihres Eintrags im Änderungsprotokoll. Da die Callbacks
+ * nach dem Commit nicht in der Reihenfolge der Sequenznummern eintreffen müssen, wird eine
+ * Änderung verworfen, wenn für dieselbe ID bereits eine neuere übernommen wurde. Die
+ * Sequenznummern gelöschter Entities bleiben dafür erhalten, bis das Protokoll aufgeräumt wird
+ * ({@link #forgetSequencesUpTo}).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Component
+public class CatalogState {
+
+    /**
+     * Sequenznummer für Änderungen ohne Bezug zum Änderungsprotokoll; sie werden immer übernommen.
+     */
+    public static final long UNSEQUENCED = Long.MAX_VALUE;
+
+    private final Entries<MediaEntry> media = new Entries<>();
+
+    private final Entries<CustomerEntry> customers = new Entries<>();
+
+    private final Entries<LoanEntry> loans = new Entries<>();
+
+    private final Entries<AddressEntry> addresses = new Entries<>();
+
+    private final List<CatalogListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean loaded;
+
+    /**
+     * Meldet einen Listener an.
+     *
+     * @param listener Listener für Änderungen
+     */
+    public void addListener(CatalogListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return true, sobald der Katalog beim Start geladen wurde
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Ersetzt den gesamten Inhalt des Katalogs.
+     *
+     * @param allMedia Alle Medien
+     * @param allCustomers Alle Kunden
+     * @param allLoans Alle offenen Ausleihen
+     * @param allAddresses Alle Adressen
+     */
+    public void replaceAll(Collection<MediaEntry> allMedia, Collection<CustomerEntry> allCustomers,
+                           Collection<LoanEntry> allLoans, Collection<AddressEntry> allAddresses) {
+        media.clear();
+        customers.clear();
+        loans.clear();
+        addresses.clear();
+        allMedia.forEach(entry -> media.entries.put(entry.id(), entry));
+        allCustomers.forEach(entry -> customers.entries.put(entry.id(), entry));
+        allLoans.forEach(entry -> loans.entries.put(entry.id(), entry));
+        allAddresses.forEach(entry -> addresses.entries.put(entry.id(), entry));
+        loaded = true;
+        listeners.forEach(listener -> listener.catalogReloaded(this));
+    }
+
+    /**
+     * Vergisst die Sequenznummern bis und mit der angegebenen; danach aus dem Protokoll
+     * entfernte Änderungen können nicht mehr verspätet eintreffen.
+     *
+     * @param seq Höchste aus dem Änderungsprotokoll entfernte Sequenznummer
+     */
+    public void forgetSequencesUpTo(long seq) {
+        media.forgetUpTo(seq);
+        customers.forgetUpTo(seq);
+        loans.forgetUpTo(seq);
+        addresses.forgetUpTo(seq);
+    }
+
+    // Medien
+
+    public MediaEntry getMedia(Long id) {
+        return media.entries.get(id);
+    }
+
+    public Collection<MediaEntry> allMedia() {
+        return media.entries.values();
+    }
+
+    public void putMedia(MediaEntry entry) {
+        putMedia(entry, UNSEQUENCED);
+    }
+
+    public void putMedia(MediaEntry entry, long seq) {
+        media.put(entry.id(), entry, seq, (previous, current) ->
+                listeners.forEach(listener -> listener.mediaChanged(previous, current)));
+    }
+
+    public void removeMedia(Long id) {
+        removeMedia(id, UNSEQUENCED);
+    }
+
+    public void removeMedia(Long id, long seq) {
+        media.remove(id, seq, (previous, current) ->
+                listeners.forEach(listener -> listener.mediaChanged(previous, current)));
+    }
+
+    // Kunden
+
+    public CustomerEntry getCustomer(Long id) {
+        return customers.entries.get(id);
+    }
+
+    public Collection<CustomerEntry> allCustomers() {
+        return customers.entries.values();
+    }
+
+    public void putCustomer(CustomerEntry entry) {
+        putCustomer(entry, UNSEQUENCED);
+    }
+
+    public void putCustomer(CustomerEntry entry, long seq) {
+        customers.put(entry.id(), entry, seq, (previous, current) ->
+                listeners.forEach(listener -> listener.customerChanged(previous, current)));
+    }
+
+    public void removeCustomer(Long id) {
+        removeCustomer(id, UNSEQUENCED);
+    }
+
+    public void removeCustomer(Long id, long seq) {
+        customers.remove(id, seq, (previous, current) ->
+                listeners.forEach(listener -> listener.customerChanged(previous, current)));
+    }
+
+    // Adressen
+
+    public AddressEntry getAddress(Long id) {
+        return addresses.entries.get(id);
+    }
+
+    public Collection<AddressEntry> allAddresses() {
+        return addresses.entries.values();
+    }
+
+    public void putAddress(AddressEntry entry) {
+        putAddress(entry, UNSEQUENCED);
+    }
+
+    public void putAddress(AddressEntry entry, long seq) {
+        addresses.put(entry.id(), entry, seq, (previous, current) ->
+                listeners.forEach(listener -> listener.addressChanged(previous, current)));
+    }
+
+    public void removeAddress(Long id) {
+        removeAddress(id, UNSEQUENCED);
+    }
+
+    public void removeAddress(Long id, long seq) {
+        addresses.remove(id, seq, (previous, current) ->
+                listeners.forEach(listener -> listener.addressChanged(previous, current)));
+    }
+
+    // Offene Ausleihen
+
+    public LoanEntry getLoan(Long id) {
+        return loans.entries.get(id);
+    }
+
+    public Collection<LoanEntry> allLoans() {
+        return loans.entries.values();
+    }
+
+    public void putLoan(LoanEntry entry) {
+        putLoan(entry, UNSEQUENCED);
+    }
+
+    public void putLoan(LoanEntry entry, long seq) {
+        loans.put(entry.id(), entry, seq, (previous, current) ->
+                listeners.forEach(listener -> listener.loanChanged(previous, current)));
+    }
+
+    public void removeLoan(Long id) {
+        removeLoan(id, UNSEQUENCED);
+    }
+
+    public void removeLoan(Long id, long seq) {
+        loans.remove(id, seq, (previous, current) ->
+                listeners.forEach(listener -> listener.loanChanged(previous, current)));
+    }
+
+    /**
+     * Einträge einer Entity-Art mit der Sequenznummer der zuletzt übernommenen Änderung pro ID.
+     */
+    private static final class Entries<V> {
+
+        private final ConcurrentHashMap<Long, V> entries = new ConcurrentHashMap<>();
+
+        private final ConcurrentHashMap<Long, Long> sequences = new ConcurrentHashMap<>();
+
+        void put(Long id, V entry, long seq, BiConsumer<V, V> notify) {
+            entries.compute(id, (key, previous) -> {
+                if (isOutdated(key, seq)) {
+                    return previous;
+                }
+                notify.accept(previous, entry);
+                return entry;
+            });
+        }
+
+        void remove(Long id, long seq, BiConsumer<V, V> notify) {
+            entries.compute(id, (key, previous) -> {
+                if (isOutdated(key, seq)) {
+                    return previous;
+                }
+                if (previous != null) {
+                    notify.accept(previous, null);
+                }
+                return null;
+            });
+        }
+
+        /**
+         * Prüft eine Änderung gegen die zuletzt übernommene und merkt sich deren Sequenznummer.
+         * Wird nur innerhalb von {@code compute} für dieselbe ID aufgerufen.
+         */
+        private boolean isOutdated(Long id, long seq) {
+            if (seq == UNSEQUENCED) {
+                return false;
+            }
+            Long applied = sequences.get(id);
+            if (applied != null && applied > seq) {
+                return true;
+            }
+            sequences.put(id, seq);
+            return false;
+        }
+
+        void forgetUpTo(long seq) {
+            sequences.values().removeIf(applied -> applied <= seq);
+        }
+
+        void clear() {
+            entries.clear();
+            sequences.clear();
+        }
+    }
+}
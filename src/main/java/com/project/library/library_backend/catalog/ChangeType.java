@@ -0,0 +1,13 @@
+package com.project.library.library_backend.catalog;
+
+/**
+ * Art einer Änderung im Änderungsprotokoll.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public enum ChangeType {
+    INSERT,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,27 @@
+package com.project.library.library_backend.catalog;
+
+import com.project.library.library_backend.model.Customer;
+
+import java.time.LocalDate;
+
+/**
+ * Kompakte, unveränderliche Kopie eines Kunden im In-Memory-Katalog.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record CustomerEntry(Long id, String firstname, String lastname, LocalDate birthdate,
+                            String email, Long addressId) {
+
+    /**
+     * Erstellt einen Katalogeintrag aus einem Kunden.
+     *
+     * @param customer Kunde
+     * @return Katalogeintrag
+     */
+    public static CustomerEntry of(Customer customer) {
+        Long addressId = customer.getAddress() != null ? customer.getAddress().getId() : null;
+        return new CustomerEntry(customer.getId(), customer.getFirstname(), customer.getLastname(),
+                customer.getBirthdate(), customer.getEmail(), addressId);
+    }
+}
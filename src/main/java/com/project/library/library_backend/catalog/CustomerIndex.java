@@ -0,0 +1,280 @@
+package com.project.library.library_backend.catalog;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-Memory-Suchindex über Vorname, Nachname, E-Mail und Geburtsdatum der Kunden.
+ *
+ * Jedes Wort eines Namens (und die E-Mail-Adresse) wird normalisiert (Kleinschreibung,
+ * ä → ae, ß → ss, Akzente entfernt) als Schlüssel "wort\0id" in einer sortierten Menge abgelegt,
+ * damit eine Präfixsuche ein einfacher Bereichsscan ist. Zusätzlich wird jedes Namenswort unter
+ * seinem {@link KoelnerPhonetik}-Code abgelegt, so dass auch Tippfehler wie "Maier" statt "Meyer"
+ * gefunden werden.
+ *
+ * Der Index wird als {@link CatalogListener} bei jeder Änderung eines Kunden inkrementell
+ * nachgeführt und beim Laden des Katalogs neu aufgebaut.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Component
+public class CustomerIndex implements CatalogListener {
+
+    /**
+     * Maximale Anzahl Kandidaten pro Suchwort und Trefferart, damit kurze Präfixe
+     * ("m") oder häufige Codes die Antwortzeit nicht sprengen.
+     */
+    static final int MAX_CANDIDATES = 5000;
+
+    private static final int EXACT = 4;
+
+    private static final int PREFIX = 2;
+
+    private static final int PHONETIC = 1;
+
+    private static final char SEPARATOR = '\0';
+
+    private final CatalogState catalogState;
+
+    private volatile Index index = new Index();
+
+    public CustomerIndex(CatalogState catalogState) {
+        this.catalogState = catalogState;
+        catalogState.addListener(this);
+    }
+
+    @Override
+    public void customerChanged(CustomerEntry previous, CustomerEntry current) {
+        Index target = index;
+        if (previous != null) {
+            target.remove(previous);
+        }
+        if (current != null) {
+            target.add(current);
+        }
+    }
+
+    @Override
+    public void catalogReloaded(CatalogState state) {
+        Index rebuilt = new Index();
+        state.allCustomers().forEach(rebuilt::add);
+        index = rebuilt;
+    }
+
+    /**
+     * Sucht Kunden anhand eines Suchtexts und/oder Geburtsdatums.
+     *
+     * Jedes Wort des Suchtexts muss auf mindestens ein Feld des Kunden passen (exakt, als
+     * Präfix oder phonetisch). Treffer werden nach Güte sortiert: exakte Wörter vor Präfixen
+     * vor phonetischen Treffern, danach alphabetisch nach Nachname und Vorname.
+     *
+     * @param query Suchtext, z. B. "müller hans" oder "hans.mu"; darf leer sein, wenn ein Geburtsdatum angegeben ist
+     * @param birthdate Geburtsdatum zur Eingrenzung oder null
+     * @param limit Maximale Anzahl Treffer
+     * @return Gefundene Kunden
+     */
+    public List<CustomerEntry> search(String query, LocalDate birthdate, int limit) {
+        Index current = index;
+        List<String> words = query == null ? List.of() : words(query);
+        Map<Long, Integer> scores = null;
+        for (String word : words) {
+            Map<Long, Integer> matches = current.match(word);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                Map<Long, Integer> combined = new HashMap<>();
+                for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                    Integer score = matches.get(entry.getKey());
+                    if (score != null) {
+                        combined.put(entry.getKey(), entry.getValue() + score);
+                    }
+                }
+                scores = combined;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        if (scores == null) {
+            if (birthdate == null) {
+                return List.of();
+            }
+            scores = new HashMap<>();
+            for (Long id : current.byBirthdate.getOrDefault(birthdate, Set.of())) {
+                scores.put(id, 0);
+            }
+        }
+
+        List<CustomerEntry> hits = new ArrayList<>(scores.size());
+        Map<CustomerEntry, Integer> scoreOf = new HashMap<>(scores.size());
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            CustomerEntry customer = catalogState.getCustomer(entry.getKey());
+            if (customer != null && (birthdate == null || birthdate.equals(customer.birthdate()))) {
+                hits.add(customer);
+                scoreOf.put(customer, entry.getValue());
+            }
+        }
+        hits.sort(Comparator.<CustomerEntry>comparingInt(scoreOf::get).reversed()
+                .thenComparing(CustomerEntry::lastname, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(CustomerEntry::firstname, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(CustomerEntry::id));
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Normalisiert einen Text für den Index: Kleinschreibung (unabhängig von der Standard-Locale),
+     * Umlaute ausgeschrieben,
+     * Akzente entfernt. Buchstaben, Ziffern und die Zeichen "@", ".", "_" und "-" bleiben erhalten.
+     */
+    static String normalize(String text) {
+        String lower = text.toLowerCase(Locale.ROOT)
+                .replace("ä", "ae").replace("ö", "oe").replace("ü", "ue").replace("ß", "ss");
+        String stripped = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        StringBuilder result = new StringBuilder(stripped.length());
+        for (int i = 0; i < stripped.length(); i++) {
+            char c = stripped.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '@' || c == '.' || c == '_' || c == '-') {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Zerlegt einen Suchtext in normalisierte Wörter.
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String part : text.trim().split("[\\s,]+")) {
+            String word = normalize(part);
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static Set<String> nameWords(CustomerEntry customer) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String name : new String[]{customer.firstname(), customer.lastname()}) {
+            if (name == null) {
+                continue;
+            }
+            // Doppelnamen zusätzlich als Ganzes und in Teilen indexieren
+            for (String word : words(name)) {
+                words.add(word);
+                for (String part : word.split("-")) {
+                    if (!part.isEmpty()) {
+                        words.add(part);
+                    }
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Die eigentlichen Indexstrukturen; beim Neuaufbau wird die ganze Instanz ersetzt.
+     */
+    private static final class Index {
+
+        private final NavigableSet<String> keys = new ConcurrentSkipListSet<>();
+
+        private final Map<String, Set<Long>> byPhonetic = new ConcurrentHashMap<>();
+
+        private final Map<LocalDate, Set<Long>> byBirthdate = new ConcurrentHashMap<>();
+
+        void add(CustomerEntry customer) {
+            Long id = customer.id();
+            for (String word : nameWords(customer)) {
+                keys.add(word + SEPARATOR + id);
+                String code = KoelnerPhonetik.encode(word);
+                if (!code.isEmpty()) {
+                    addId(byPhonetic, code, id);
+                }
+            }
+            if (customer.email() != null && !customer.email().isBlank()) {
+                keys.add(normalize(customer.email()) + SEPARATOR + id);
+            }
+            if (customer.birthdate() != null) {
+                addId(byBirthdate, customer.birthdate(), id);
+            }
+        }
+
+        void remove(CustomerEntry customer) {
+            Long id = customer.id();
+            for (String word : nameWords(customer)) {
+                keys.remove(word + SEPARATOR + id);
+                String code = KoelnerPhonetik.encode(word);
+                if (!code.isEmpty()) {
+                    removeId(byPhonetic, code, id);
+                }
+            }
+            if (customer.email() != null && !customer.email().isBlank()) {
+                keys.remove(normalize(customer.email()) + SEPARATOR + id);
+            }
+            if (customer.birthdate() != null) {
+                removeId(byBirthdate, customer.birthdate(), id);
+            }
+        }
+
+        /**
+         * Liefert alle Kunden, auf die ein Suchwort passt, mit der besten Trefferart als Wert.
+         */
+        Map<Long, Integer> match(String word) {
+            Map<Long, Integer> matches = new HashMap<>();
+            int count = 0;
+            for (String key : keys.tailSet(word, true)) {
+                if (!key.startsWith(word) || count++ >= MAX_CANDIDATES) {
+                    break;
+                }
+                int separator = key.lastIndexOf(SEPARATOR);
+                Long id = Long.valueOf(key.substring(separator + 1));
+                int score = separator == word.length() ? EXACT : PREFIX;
+                matches.merge(id, score, Math::max);
+            }
+            String code = KoelnerPhonetik.encode(word);
+            if (!code.isEmpty()) {
+                count = 0;
+                for (Long id : byPhonetic.getOrDefault(code, Set.of())) {
+                    if (count++ >= MAX_CANDIDATES) {
+                        break;
+                    }
+                    matches.putIfAbsent(id, PHONETIC);
+                }
+            }
+            return matches;
+        }
+
+        // compute statt computeIfAbsent, damit removeId keine Menge entfernt, in die gerade eingefügt wird
+        private static <K> void addId(Map<K, Set<Long>> map, K key, Long id) {
+            map.compute(key, (k, ids) -> {
+                Set<Long> result = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                result.add(id);
+                return result;
+            });
+        }
+
+        private static <K> void removeId(Map<K, Set<Long>> map, K key, Long id) {
+            map.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
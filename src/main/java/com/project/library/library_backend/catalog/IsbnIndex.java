@@ -0,0 +1,116 @@
+package com.project.library.library_backend.catalog;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index der Medien nach ISBN.
+ *
+ * Ein {@link LongHashIndex} bildet ISBN auf Medium-IDs ab (mehrere Exemplare pro ISBN möglich).
+ * Davor liegt ein {@link BloomFilter} über alle bekannten ISBNs: Bei der Prüfung auf Dubletten
+ * ist die ISBN fast immer neu, und diese Antwort kommt dann aus wenigen Bits, die im Cache
+ * bleiben, statt aus der Hash-Tabelle. Der Filter wird beim Laden des Katalogs mit doppelter
+ * Reserve angelegt und aus der Tabelle neu aufgebaut, sobald mehr ISBNs hinzugekommen sind als
+ * vorgesehen; dabei verschwinden auch die Bits gelöschter ISBNs.
+ *
+ * Der Index wird als {@link CatalogListener} nachgeführt. Solange der Katalog nicht geladen ist,
+ * ist er leer; Aufrufer müssen dann die Datenbank fragen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Component
+public class IsbnIndex implements CatalogListener {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private static final int MIN_EXPECTED = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongHashIndex mediaByIsbn = new LongHashIndex(MIN_EXPECTED);
+
+    private BloomFilter known = new BloomFilter(MIN_EXPECTED, FALSE_POSITIVE_RATE);
+
+    public IsbnIndex(CatalogState catalogState) {
+        catalogState.addListener(this);
+    }
+
+    @Override
+    public void mediaChanged(MediaEntry previous, MediaEntry current) {
+        Long before = previous != null ? previous.isbn() : null;
+        Long after = current != null ? current.isbn() : null;
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (before != null) {
+                mediaByIsbn.remove(before, previous.id());
+            }
+            if (after != null) {
+                add(after, current.id());
+                if (known.isSaturated()) {
+                    rebuildFilter();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void catalogReloaded(CatalogState state) {
+        lock.writeLock().lock();
+        try {
+            mediaByIsbn.clear(state.allMedia().size());
+            for (MediaEntry media : state.allMedia()) {
+                if (media.isbn() != null) {
+                    mediaByIsbn.put(media.isbn(), media.id());
+                }
+            }
+            rebuildFilter();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param isbn ISBN
+     * @return true, wenn ein Medium mit dieser ISBN existiert
+     */
+    public boolean contains(long isbn) {
+        lock.readLock().lock();
+        try {
+            return known.mightContain(isbn) && mediaByIsbn.containsKey(isbn);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param isbn ISBN
+     * @return IDs aller Medien mit dieser ISBN, aufsteigend
+     */
+    public long[] mediaIds(long isbn) {
+        lock.readLock().lock();
+        try {
+            return known.mightContain(isbn) ? mediaByIsbn.get(isbn) : new long[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(long isbn, long mediaId) {
+        mediaByIsbn.put(isbn, mediaId);
+        known.add(isbn);
+    }
+
+    private void rebuildFilter() {
+        BloomFilter filter = new BloomFilter(Math.max(mediaByIsbn.size() * 2, MIN_EXPECTED), FALSE_POSITIVE_RATE);
+        mediaByIsbn.forEachKey(filter::add);
+        known = filter;
+    }
+}
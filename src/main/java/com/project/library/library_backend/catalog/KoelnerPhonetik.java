@@ -0,0 +1,105 @@
+package com.project.library.library_backend.catalog;
+
+import java.util.Locale;
+
+/**
+ * Kölner Phonetik: phonetischer Code für deutschsprachige Namen.
+ *
+ * Gleich klingende Namen (z. B. "Meier", "Maier", "Mayer") erhalten denselben Zifferncode.
+ * Umlaute und ß werden wie die entsprechenden Grundbuchstaben behandelt, andere Zeichen ignoriert.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public final class KoelnerPhonetik {
+
+    private KoelnerPhonetik() {}
+
+    /**
+     * Berechnet den phonetischen Code.
+     *
+     * @param text Name oder Wort
+     * @return Zifferncode, leer wenn der Text keine Buchstaben enthält
+     */
+    public static String encode(String text) {
+        char[] letters = letters(text);
+        StringBuilder raw = new StringBuilder(letters.length * 2);
+        for (int i = 0; i < letters.length; i++) {
+            char previous = i > 0 ? letters[i - 1] : 0;
+            char next = i + 1 < letters.length ? letters[i + 1] : 0;
+            raw.append(code(letters[i], previous, next, i == 0));
+        }
+
+        // Gleiche aufeinanderfolgende Codes zusammenfassen, danach "0" ausser am Anfang entfernen
+        StringBuilder result = new StringBuilder(raw.length());
+        char last = 0;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c != last && (c != '0' || result.isEmpty())) {
+                result.append(c);
+            }
+            last = c;
+        }
+        return result.toString();
+    }
+
+    private static String code(char c, char previous, char next, boolean first) {
+        switch (c) {
+            case 'A', 'E', 'I', 'J', 'O', 'U', 'Y':
+                return "0";
+            case 'H':
+                return "";
+            case 'B':
+                return "1";
+            case 'P':
+                return next == 'H' ? "3" : "1";
+            case 'D', 'T':
+                return next == 'C' || next == 'S' || next == 'Z' ? "8" : "2";
+            case 'F', 'V', 'W':
+                return "3";
+            case 'G', 'K', 'Q':
+                return "4";
+            case 'C':
+                if (first) {
+                    return isOneOf(next, "AHKLOQRUX") ? "4" : "8";
+                }
+                return isOneOf(next, "AHKOQUX") && previous != 'S' && previous != 'Z' ? "4" : "8";
+            case 'X':
+                return previous == 'C' || previous == 'K' || previous == 'Q' ? "8" : "48";
+            case 'L':
+                return "5";
+            case 'M', 'N':
+                return "6";
+            case 'R':
+                return "7";
+            case 'S', 'Z':
+                return "8";
+            default:
+                return "";
+        }
+    }
+
+    private static boolean isOneOf(char c, String chars) {
+        return c != 0 && chars.indexOf(c) >= 0;
+    }
+
+    private static char[] letters(String text) {
+        // Locale.ROOT: unabhängig von der Standard-Locale; "ß" wird dabei zu "SS"
+        String upper = text.toUpperCase(Locale.ROOT);
+        StringBuilder letters = new StringBuilder(upper.length());
+        for (int i = 0; i < upper.length(); i++) {
+            char c = upper.charAt(i);
+            switch (c) {
+                case 'Ä' -> letters.append('A');
+                case 'Ö' -> letters.append('O');
+                case 'Ü' -> letters.append('U');
+                default -> {
+                    if (c >= 'A' && c <= 'Z') {
+                        letters.append(c);
+                    }
+                }
+            }
+        }
+        return letters.toString().toCharArray();
+    }
+}
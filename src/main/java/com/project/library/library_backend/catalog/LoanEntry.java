@@ -0,0 +1,28 @@
+package com.project.library.library_backend.catalog;
+
+import com.project.library.library_backend.model.Borrowing;
+
+import java.time.LocalDate;
+
+/**
+ * Kompakte, unveränderliche Kopie einer offenen Ausleihe im In-Memory-Katalog.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record LoanEntry(Long id, Long customerId, Long mediaId, LocalDate dateborrowed,
+                        LocalDate duedate, LocalDate extendedOn) {
+
+    /**
+     * Erstellt einen Katalogeintrag aus einer Ausleihe.
+     *
+     * @param borrowing Ausleihe
+     * @return Katalogeintrag
+     */
+    public static LoanEntry of(Borrowing borrowing) {
+        Long customerId = borrowing.getCustomer() != null ? borrowing.getCustomer().getId() : null;
+        Long mediaId = borrowing.getMedia() != null ? borrowing.getMedia().getId() : null;
+        return new LoanEntry(borrowing.getId(), customerId, mediaId, borrowing.getDateborrowed(),
+                borrowing.getDuedate(), borrowing.getExtended_on());
+    }
+}
@@ -0,0 +1,220 @@
+package com.project.library.library_backend.catalog;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hash-Multimap von long auf long mit offener Adressierung (lineares Sondieren).
+ *
+ * Schlüssel und Werte liegen in zwei parallelen long-Arrays, ohne Boxing und ohne
+ * Eintragsobjekte. Ein Schlüssel darf mehrfach mit verschiedenen Werten vorkommen (z. B. mehrere
+ * Exemplare derselben ISBN); die Paare eines Schlüssels liegen in seiner Sondierkette. Beim
+ * Entfernen werden die folgenden Einträge zurückgeschoben, so dass keine Grabsteine entstehen.
+ * Die Tabelle wird bei halber Füllung verdoppelt.
+ *
+ * {@link Long#MIN_VALUE} ist als Schlüssel nicht erlaubt (Markierung für leere Plätze).
+ * Nicht threadsicher.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+final class LongHashIndex {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+
+    private long[] values;
+
+    private int mask;
+
+    private int size;
+
+    LongHashIndex(int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    /**
+     * Fügt ein Paar hinzu; ist es schon vorhanden, passiert nichts.
+     *
+     * @param key Schlüssel
+     * @param value Wert
+     */
+    void put(long key, long value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Ungültiger Schlüssel: " + key);
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key && values[slot] == value) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * Entfernt ein Paar.
+     *
+     * @param key Schlüssel
+     * @param value Wert
+     * @return true, wenn das Paar vorhanden war
+     */
+    boolean remove(long key, long value) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key && values[slot] == value) {
+                shiftBack(slot);
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @param key Schlüssel
+     * @return true, wenn mindestens ein Paar mit diesem Schlüssel existiert
+     */
+    boolean containsKey(long key) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @param key Schlüssel
+     * @return Alle Werte des Schlüssels, aufsteigend sortiert (leer, wenn keiner)
+     */
+    long[] get(long key) {
+        long[] found = new long[4];
+        int count = 0;
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        long[] result = Arrays.copyOf(found, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Ruft die Aktion für jeden Schlüssel auf (mehrfach vorhandene Schlüssel mehrfach).
+     *
+     * @param action Aktion
+     */
+    void forEachKey(LongConsumer action) {
+        for (long key : keys) {
+            if (key != EMPTY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * @return Anzahl Paare
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Entfernt alle Paare und passt die Kapazität an die erwartete Anzahl an.
+     *
+     * @param expected Erwartete Anzahl Paare
+     */
+    void clear(int expected) {
+        allocate(capacityFor(expected));
+        size = 0;
+    }
+
+    /**
+     * Verteilt die Bits des Schlüssels (Finalisierung von MurmurHash3), damit aufeinanderfolgende
+     * ISBNs nicht auf benachbarte Plätze fallen.
+     */
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private int slot(long key) {
+        return (int) mix(key) & mask;
+    }
+
+    /**
+     * Leert den Platz und schiebt nachfolgende Einträge der Kette zurück, deren Ausgangsplatz
+     * nicht zwischen dem freien und ihrem aktuellen Platz liegt.
+     */
+    private void shiftBack(int free) {
+        int current = free;
+        while (true) {
+            current = (current + 1) & mask;
+            long key = keys[current];
+            if (key == EMPTY) {
+                break;
+            }
+            int home = slot(key);
+            boolean movable = free <= current ? (home <= free || home > current) : (home <= free && home > current);
+            if (movable) {
+                keys[free] = key;
+                values[free] = values[current];
+                free = current;
+            }
+        }
+        keys[free] = EMPTY;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expected * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
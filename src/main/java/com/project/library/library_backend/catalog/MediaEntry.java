@@ -0,0 +1,52 @@
+package com.project.library.library_backend.catalog;
+
+import com.project.library.library_backend.model.Media;
+
+/**
+ * Kompakte, unveränderliche Kopie eines Mediums im In-Memory-Katalog.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record MediaEntry(Long id, String title, String author, String genre, Integer rating,
+                         Long isbn, String shelfCode, String fsk) {
+
+    /**
+     * Erstellt einen Katalogeintrag aus einem Medium.
+     *
+     * @param media Medium
+     * @return Katalogeintrag
+     */
+    public static MediaEntry of(Media media) {
+        return new MediaEntry(media.getId(), media.getTitle(), media.getAuthor(), media.getGenre(),
+                media.getRating(), media.getIsbn(), media.getShelfCode(), media.getFsk());
+    }
+
+    /**
+     * Mindestalter aus der FSK, z. B. "12", "12+" oder "FSK 16"; 0 ohne Altersgrenze.
+     *
+     * @param fsk FSK-Angabe
+     * @return Mindestalter in Jahren
+     */
+    public static int requiredAge(String fsk) {
+        Integer age = digits(fsk);
+        return age != null ? age : 0;
+    }
+
+    /**
+     * Liest die Ziffern einer Angabe wie "12+" oder "FSK 16" als Zahl.
+     *
+     * @param value Angabe
+     * @return Zahl aus höchstens zwei Ziffern, null ohne (oder mit mehr) Ziffern
+     */
+    public static Integer digits(String value) {
+        if (value == null) {
+            return null;
+        }
+        String digits = value.replaceAll("\\D", "");
+        if (digits.isEmpty() || digits.length() > 2) {
+            return null;
+        }
+        return Integer.parseInt(digits);
+    }
+}
@@ -0,0 +1,320 @@
+package com.project.library.library_backend.catalog;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Facettensuche über Medien mit komprimierten Bitmaps.
+ *
+ * Pro Wert von Genre, FSK, Bewertung und Autor gibt es eine {@link CompressedBitmap} mit den
+ * IDs der Medien, dazu eine Bitmap aller Medien und eine der ausgeliehenen Medien. Ein Filter
+ * wie "Fantasy, FSK bis 12, mindestens 4 Sterne, verfügbar" ist damit eine Vereinigung der
+ * passenden Werte pro Feld und eine Schnittmenge über die Felder.
+ *
+ * Die Zähler einer Facette werden ohne den Filter desselben Felds berechnet, so dass z. B.
+ * bei "Genre = Fantasy" die Anzahl der anderen Genres sichtbar bleibt und eine Mehrfachauswahl
+ * möglich ist. Der Index wird als {@link CatalogListener} bei Änderungen an Medien und Ausleihen
+ * nachgeführt.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Component
+public class MediaFacetIndex implements CatalogListener {
+
+    public static final String GENRE = "genre";
+
+    public static final String FSK = "fsk";
+
+    public static final String RATING = "rating";
+
+    public static final String AUTHOR = "author";
+
+    public static final String AVAILABILITY = "availability";
+
+    static final String AVAILABLE = "available";
+
+    static final String BORROWED = "borrowed";
+
+    private static final Comparator<FacetValue> BY_COUNT =
+            Comparator.comparingInt(FacetValue::count).reversed().thenComparing(FacetValue::value);
+
+    private static final Comparator<FacetValue> BY_NUMBER =
+            Comparator.comparing((FacetValue value) -> number(value.value()),
+                    Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(FacetValue::value);
+
+    private final CatalogState catalogState;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Map<String, CompressedBitmap>> fields = new LinkedHashMap<>();
+
+    private CompressedBitmap all = new CompressedBitmap();
+
+    private CompressedBitmap borrowed = new CompressedBitmap();
+
+    /**
+     * Offene Ausleihen pro Medium (normalerweise höchstens eine).
+     */
+    private final Map<Long, Integer> loansOfMedia = new HashMap<>();
+
+    public MediaFacetIndex(CatalogState catalogState) {
+        this.catalogState = catalogState;
+        for (String field : List.of(GENRE, FSK, RATING, AUTHOR)) {
+            fields.put(field, new HashMap<>());
+        }
+        catalogState.addListener(this);
+    }
+
+    /**
+     * Filter einer Facettenabfrage; nicht gesetzte Felder schränken nicht ein.
+     * Mehrere Werte desselben Felds sind mit ODER verknüpft, die Felder mit UND.
+     *
+     * @param genres Genres
+     * @param authors Autoren
+     * @param fsk FSK-Werte
+     * @param fskMax Höchste Altersfreigabe (inklusive, wie bei der Ausleihe: "12+" zählt als 12, ohne Ziffern als 0)
+     * @param ratingMin Mindestbewertung (inklusive)
+     * @param available true nur verfügbare, false nur ausgeliehene Medien
+     */
+    public record Query(Set<String> genres, Set<String> authors, Set<String> fsk, Integer fskMax,
+                        Integer ratingMin, Boolean available) {}
+
+    /**
+     * @param value Wert der Facette
+     * @param count Anzahl Medien mit diesem Wert
+     */
+    public record FacetValue(String value, int count) {}
+
+    /**
+     * @param total Anzahl Medien, die alle Filter erfüllen
+     * @param media Die ersten Treffer, aufsteigend nach ID
+     * @param facets Zähler pro Feld
+     */
+    public record Result(int total, List<MediaEntry> media, Map<String, List<FacetValue>> facets) {}
+
+    @Override
+    public void mediaChanged(MediaEntry previous, MediaEntry current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                int id = Math.toIntExact(previous.id());
+                all.remove(id);
+                forEachValue(previous, (field, value) -> {
+                    Map<String, CompressedBitmap> values = fields.get(field);
+                    CompressedBitmap bitmap = values.get(value);
+                    if (bitmap != null) {
+                        bitmap.remove(id);
+                        if (bitmap.isEmpty()) {
+                            values.remove(value);
+                        }
+                    }
+                });
+            }
+            if (current != null) {
+                add(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void loanChanged(LoanEntry previous, LoanEntry current) {
+        Long before = previous != null ? previous.mediaId() : null;
+        Long after = current != null ? current.mediaId() : null;
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (before != null) {
+                moveLoan(before, -1);
+            }
+            if (after != null) {
+                moveLoan(after, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void catalogReloaded(CatalogState state) {
+        lock.writeLock().lock();
+        try {
+            fields.values().forEach(Map::clear);
+            all = new CompressedBitmap();
+            borrowed = new CompressedBitmap();
+            loansOfMedia.clear();
+            state.allMedia().forEach(this::add);
+            for (LoanEntry loan : state.allLoans()) {
+                if (loan.mediaId() != null) {
+                    moveLoan(loan.mediaId(), 1);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filtert die Medien und zählt die Werte jeder Facette.
+     *
+     * @param query Filter
+     * @param limit Maximale Anzahl zurückgegebener Medien
+     * @param facetLimit Maximale Anzahl Werte pro Facette bei Genre und Autor
+     * @return Treffer und Facettenzähler
+     */
+    public Result query(Query query, int limit, int facetLimit) {
+        List<Integer> ids = new ArrayList<>();
+        Map<String, List<FacetValue>> facets = new LinkedHashMap<>();
+        int total;
+        lock.readLock().lock();
+        try {
+            Map<String, CompressedBitmap> filters = filters(query);
+            CompressedBitmap result = intersect(filters, null);
+            total = result.cardinality();
+            if (limit > 0) {
+                result.forEach(id -> {
+                    ids.add(id);
+                    return ids.size() < limit;
+                });
+            }
+            for (Map.Entry<String, Map<String, CompressedBitmap>> field : fields.entrySet()) {
+                CompressedBitmap base = intersect(filters, field.getKey());
+                List<FacetValue> values = new ArrayList<>();
+                for (Map.Entry<String, CompressedBitmap> value : field.getValue().entrySet()) {
+                    int count = CompressedBitmap.andCardinality(base, value.getValue());
+                    if (count > 0) {
+                        values.add(new FacetValue(value.getKey(), count));
+                    }
+                }
+                boolean numeric = field.getKey().equals(FSK) || field.getKey().equals(RATING);
+                values.sort(numeric ? BY_NUMBER : BY_COUNT);
+                facets.put(field.getKey(), numeric ? values : values.subList(0, Math.min(facetLimit, values.size())));
+            }
+            CompressedBitmap base = intersect(filters, AVAILABILITY);
+            int borrowedCount = CompressedBitmap.andCardinality(base, borrowed);
+            facets.put(AVAILABILITY, List.of(new FacetValue(AVAILABLE, base.cardinality() - borrowedCount),
+                    new FacetValue(BORROWED, borrowedCount)));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<MediaEntry> media = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            MediaEntry entry = catalogState.getMedia(id.longValue());
+            if (entry != null) {
+                media.add(entry);
+            }
+        }
+        return new Result(total, media, facets);
+    }
+
+    /**
+     * Bildet pro eingeschränktem Feld die Vereinigung der passenden Werte.
+     */
+    private Map<String, CompressedBitmap> filters(Query query) {
+        Map<String, CompressedBitmap> filters = new LinkedHashMap<>();
+        if (query.genres() != null && !query.genres().isEmpty()) {
+            filters.put(GENRE, union(GENRE, query.genres()::contains));
+        }
+        if (query.authors() != null && !query.authors().isEmpty()) {
+            filters.put(AUTHOR, union(AUTHOR, query.authors()::contains));
+        }
+        if ((query.fsk() != null && !query.fsk().isEmpty()) || query.fskMax() != null) {
+            filters.put(FSK, union(FSK, value -> (query.fsk() == null || query.fsk().isEmpty() || query.fsk().contains(value))
+                    && (query.fskMax() == null || MediaEntry.requiredAge(value) <= query.fskMax())));
+        }
+        if (query.ratingMin() != null) {
+            filters.put(RATING, union(RATING, value -> number(value) != null && number(value) >= query.ratingMin()));
+        }
+        if (query.available() != null) {
+            filters.put(AVAILABILITY, query.available()
+                    ? CompressedBitmap.andNot(all, borrowed)
+                    : CompressedBitmap.and(all, borrowed));
+        }
+        return filters;
+    }
+
+    private CompressedBitmap union(String field, Predicate<String> matches) {
+        CompressedBitmap union = new CompressedBitmap();
+        for (Map.Entry<String, CompressedBitmap> value : fields.get(field).entrySet()) {
+            if (matches.test(value.getKey())) {
+                union = CompressedBitmap.or(union, value.getValue());
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Schnittmenge aller Filter ausser dem des angegebenen Felds, die kleinsten zuerst.
+     */
+    private CompressedBitmap intersect(Map<String, CompressedBitmap> filters, String except) {
+        List<CompressedBitmap> bitmaps = new ArrayList<>();
+        filters.forEach((field, bitmap) -> {
+            if (!field.equals(except)) {
+                bitmaps.add(bitmap);
+            }
+        });
+        if (bitmaps.isEmpty()) {
+            return all;
+        }
+        bitmaps.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+        CompressedBitmap result = CompressedBitmap.and(bitmaps.get(0), all);
+        for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result = CompressedBitmap.and(result, bitmaps.get(i));
+        }
+        return result;
+    }
+
+    private void add(MediaEntry entry) {
+        int id = Math.toIntExact(entry.id());
+        all.add(id);
+        forEachValue(entry, (field, value) ->
+                fields.get(field).computeIfAbsent(value, v -> new CompressedBitmap()).add(id));
+    }
+
+    private void moveLoan(Long mediaId, int delta) {
+        Integer count = loansOfMedia.merge(mediaId, delta, (a, b) -> a + b == 0 ? null : a + b);
+        if (count == null) {
+            borrowed.remove(Math.toIntExact(mediaId));
+        } else {
+            borrowed.add(Math.toIntExact(mediaId));
+        }
+    }
+
+    private static void forEachValue(MediaEntry entry, BiConsumer<String, String> action) {
+        if (entry.genre() != null) {
+            action.accept(GENRE, entry.genre());
+        }
+        if (entry.fsk() != null) {
+            action.accept(FSK, entry.fsk());
+        }
+        if (entry.rating() != null) {
+            action.accept(RATING, entry.rating().toString());
+        }
+        if (entry.author() != null) {
+            action.accept(AUTHOR, entry.author());
+        }
+    }
+
+    /**
+     * @return Numerischer Wert von FSK oder Bewertung (z. B. 12 für "12+"), null wenn nicht numerisch
+     */
+    private static Integer number(String value) {
+        return MediaEntry.digits(value);
+    }
+}
@@ -0,0 +1,296 @@
+package com.project.library.library_backend.catalog;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Präfixbaum (Trie) über die Postleitzahlen aller Adressen mit vorberechneten Zählern.
+ *
+ * Jeder Knoten steht für ein PLZ-Präfix und kennt die Anzahl Adressen und Kunden in seinem
+ * Teilbaum. Eine Abfrage wie "alle PLZ mit 80" ist damit ein Abstieg über zwei Knoten,
+ * unabhängig von der Anzahl Adressen. Bereichsabfragen (z. B. 8000 bis 8099) übernehmen
+ * ganze Teilbäume, die vollständig im Bereich liegen, und steigen nur an den Rändern ab.
+ *
+ * Die Kunden werden über {@link CustomerEntry#addressId()} zugeordnet. Der Index wird als
+ * {@link CatalogListener} bei Änderungen an Adressen und Kunden nachgeführt; Kunden, deren
+ * Adresse (noch) nicht bekannt ist, werden gezählt, sobald die Adresse eintrifft.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Component
+public class PostalCodeIndex implements CatalogListener {
+
+    /**
+     * Maximale Länge der Gruppierung (längere Präfixe ergeben keine sinnvollen Gruppen).
+     */
+    static final int MAX_LENGTH = 10;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node();
+
+    private final Map<Long, String> postalCodeOfAddress = new HashMap<>();
+
+    private final Map<Long, Integer> customersOfAddress = new HashMap<>();
+
+    public PostalCodeIndex(CatalogState catalogState) {
+        catalogState.addListener(this);
+    }
+
+    /**
+     * Ergebnis einer Abfrage: Summe über den gesamten Ausschnitt und Aufteilung in Gruppen.
+     *
+     * @param prefix Abgefragtes Präfix ("" für alle)
+     * @param from Untere Grenze (inklusive) oder null
+     * @param to Obere Grenze (inklusive) oder null
+     * @param addresses Anzahl Adressen im Ausschnitt
+     * @param customers Anzahl Kunden im Ausschnitt
+     * @param groups Zähler pro Präfix der gewünschten Länge, aufsteigend sortiert
+     */
+    public record Report(String prefix, String from, String to, int addresses, int customers,
+                         List<PostalCodeStats> groups) {}
+
+    @Override
+    public void addressChanged(AddressEntry previous, AddressEntry current) {
+        lock.writeLock().lock();
+        try {
+            Long id = previous != null ? previous.id() : current.id();
+            String old = postalCodeOfAddress.remove(id);
+            int customers = customersOfAddress.getOrDefault(id, 0);
+            if (old != null) {
+                update(old, -1, -customers);
+            }
+            String postalCode = current != null ? normalize(current.plz()) : null;
+            if (postalCode != null) {
+                postalCodeOfAddress.put(id, postalCode);
+                update(postalCode, 1, customers);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void customerChanged(CustomerEntry previous, CustomerEntry current) {
+        Long before = previous != null ? previous.addressId() : null;
+        Long after = current != null ? current.addressId() : null;
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (before != null) {
+                moveCustomer(before, -1);
+            }
+            if (after != null) {
+                moveCustomer(after, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void catalogReloaded(CatalogState state) {
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            postalCodeOfAddress.clear();
+            customersOfAddress.clear();
+            for (CustomerEntry customer : state.allCustomers()) {
+                if (customer.addressId() != null) {
+                    customersOfAddress.merge(customer.addressId(), 1, Integer::sum);
+                }
+            }
+            for (AddressEntry address : state.allAddresses()) {
+                String postalCode = normalize(address.plz());
+                if (postalCode != null) {
+                    postalCodeOfAddress.put(address.id(), postalCode);
+                    update(postalCode, 1, customersOfAddress.getOrDefault(address.id(), 0));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Zählt Adressen und Kunden unter einem Präfix, optional eingeschränkt auf einen PLZ-Bereich,
+     * und teilt das Ergebnis in Gruppen mit Präfixen der angegebenen Länge auf.
+     *
+     * @param prefix PLZ-Präfix, z. B. "80"; null oder leer für alle
+     * @param from Kleinste PLZ (inklusive) oder null
+     * @param to Grösste PLZ (inklusive) oder null
+     * @param length Länge der Gruppenpräfixe, z. B. 3 für "800", "801", ...
+     * @return Summe und Gruppen; Gruppen ohne Adressen werden weggelassen
+     */
+    public Report query(String prefix, String from, String to, int length) {
+        String normalizedPrefix = normalize(prefix);
+        String start = normalizedPrefix != null ? normalizedPrefix : "";
+        String lower = normalize(from);
+        String upper = normalize(to);
+        int groupLength = Math.max(start.length(), Math.min(length, MAX_LENGTH));
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < start.length() && node != null; i++) {
+                node = node.children.get(start.charAt(i));
+            }
+            if (node == null) {
+                return new Report(start, lower, upper, 0, 0, List.of());
+            }
+            Range range = new Range(lower, upper);
+            int[] total = range.count(node, start);
+            List<PostalCodeStats> groups = new ArrayList<>();
+            collect(node, new StringBuilder(start), range, groupLength, groups);
+            return new Report(start, lower, upper, total[0], total[1], groups);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalisiert eine PLZ (Leerzeichen entfernt, Grossbuchstaben unabhängig von der
+     * Standard-Locale, z. B. "i" nicht zu "İ" bei türkischer Locale).
+     *
+     * @return Normalisierte PLZ oder null, wenn keine angegeben ist
+     */
+    static String normalize(String postalCode) {
+        if (postalCode == null) {
+            return null;
+        }
+        String normalized = postalCode.replaceAll("\\s", "").toUpperCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private void moveCustomer(Long addressId, int delta) {
+        customersOfAddress.merge(addressId, delta, (a, b) -> a + b == 0 ? null : a + b);
+        String postalCode = postalCodeOfAddress.get(addressId);
+        if (postalCode != null) {
+            update(postalCode, 0, delta);
+        }
+    }
+
+    /**
+     * Passt die Zähler entlang des Pfads einer PLZ an und entfernt leere Knoten.
+     */
+    private void update(String postalCode, int addresses, int customers) {
+        Node[] path = new Node[postalCode.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < postalCode.length(); i++) {
+            path[i + 1] = path[i].children.computeIfAbsent(postalCode.charAt(i), c -> new Node());
+        }
+        for (Node node : path) {
+            node.addresses += addresses;
+            node.customers += customers;
+        }
+        Node leaf = path[postalCode.length()];
+        leaf.ownAddresses += addresses;
+        leaf.ownCustomers += customers;
+        for (int i = postalCode.length(); i > 0; i--) {
+            if (path[i].addresses == 0) {
+                path[i - 1].children.remove(postalCode.charAt(i - 1));
+            }
+        }
+    }
+
+    private static void collect(Node node, StringBuilder path, Range range, int length, List<PostalCodeStats> groups) {
+        if (range.disjoint(path)) {
+            return;
+        }
+        if (path.length() == length) {
+            int[] counts = range.count(node, path);
+            if (counts[0] > 0) {
+                groups.add(new PostalCodeStats(path.toString(), counts[0], counts[1]));
+            }
+            return;
+        }
+        // PLZ, die kürzer als die Gruppenlänge ist, bildet eine eigene Gruppe
+        if (node.ownAddresses > 0 && range.contains(path)) {
+            groups.add(new PostalCodeStats(path.toString(), node.ownAddresses, node.ownCustomers));
+        }
+        for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+            path.append(child.getKey());
+            collect(child.getValue(), path, range, length, groups);
+            path.setLength(path.length() - 1);
+        }
+    }
+
+    /**
+     * Ein Knoten des Präfixbaums; die Kinder sind nach Zeichen sortiert.
+     */
+    private static final class Node {
+
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+
+        /** Adressen und Kunden im gesamten Teilbaum. */
+        private int addresses;
+
+        private int customers;
+
+        /** Adressen und Kunden mit genau dieser PLZ. */
+        private int ownAddresses;
+
+        private int ownCustomers;
+    }
+
+    /**
+     * PLZ-Bereich mit optionalen Grenzen (beide inklusive, lexikografisch verglichen).
+     */
+    private record Range(String from, String to) {
+
+        boolean contains(CharSequence postalCode) {
+            String value = postalCode.toString();
+            return (from == null || value.compareTo(from) >= 0) && (to == null || value.compareTo(to) <= 0);
+        }
+
+        /**
+         * @return true, wenn keine PLZ mit diesem Präfix im Bereich liegt
+         */
+        boolean disjoint(CharSequence prefix) {
+            String value = prefix.toString();
+            return (to != null && value.compareTo(to) > 0)
+                    || (from != null && value.compareTo(from) < 0 && !from.startsWith(value));
+        }
+
+        /**
+         * @return true, wenn alle PLZ mit diesem Präfix im Bereich liegen
+         */
+        boolean covers(CharSequence prefix) {
+            String value = prefix.toString();
+            return (from == null || value.compareTo(from) >= 0)
+                    && (to == null || (value.compareTo(to) < 0 && !to.startsWith(value)));
+        }
+
+        /**
+         * Zählt Adressen und Kunden eines Teilbaums innerhalb des Bereichs.
+         */
+        int[] count(Node node, CharSequence prefix) {
+            if (disjoint(prefix)) {
+                return new int[]{0, 0};
+            }
+            if (covers(prefix)) {
+                return new int[]{node.addresses, node.customers};
+            }
+            int[] counts = contains(prefix) ? new int[]{node.ownAddresses, node.ownCustomers} : new int[]{0, 0};
+            StringBuilder path = new StringBuilder(prefix);
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                path.append(child.getKey());
+                int[] childCounts = count(child.getValue(), path);
+                counts[0] += childCounts[0];
+                counts[1] += childCounts[1];
+                path.setLength(path.length() - 1);
+            }
+            return counts;
+        }
+    }
+}
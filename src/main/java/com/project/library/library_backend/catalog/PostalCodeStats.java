@@ -0,0 +1,13 @@
+package com.project.library.library_backend.catalog;
+
+/**
+ * Anzahl Adressen und Kunden unter einem PLZ-Präfix.
+ *
+ * @param prefix PLZ-Präfix (bei einer vollständigen PLZ die PLZ selbst)
+ * @param addresses Anzahl Adressen
+ * @param customers Anzahl Kunden an diesen Adressen
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record PostalCodeStats(String prefix, int addresses, int customers) {}
@@ -0,0 +1,97 @@
+package com.project.library.library_backend.cluster;
+
+import com.project.library.library_backend.catalog.CatalogSnapshotService;
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.model.ChangeLogEntry;
+import com.project.library.library_backend.repository.ChangeLogRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Führt den Katalog mit den Änderungen anderer Instanzen nach.
+ *
+ * Jede Instanz schreibt ihre Änderungen ohnehin in derselben Transaktion in das
+ * Änderungsprotokoll; die Tabelle dient damit als Broadcast ohne zusätzlichen Broker.
+ * Diese Klasse liest das Protokoll in kurzen Abständen ab der zuletzt verarbeiteten
+ * Sequenznummer und lädt den aktuellen Stand der betroffenen Entities blockweise nach
+ * ({@link CatalogSnapshotService#applyChanges}). Alle Strukturen, die als
+ * {@link com.project.library.library_backend.catalog.CatalogListener} am Katalog hängen
+ * (Indizes, Ausleihregeln usw.), werden dadurch ebenfalls aktualisiert.
+ *
+ * Die eigenen Änderungen werden dabei noch einmal geladen; das ist unschädlich, da immer
+ * der aktuelle Stand übernommen wird.
+ *
+ * Die Sequenznummern werden in Commit-Reihenfolge vergeben
+ * ({@link com.project.library.library_backend.catalog.CatalogChangeTracker}). Später sichtbare
+ * Änderungen haben deshalb immer eine grössere Nummer als die zuletzt gelesene, und es genügt,
+ * sich diese als Cursor zu merken.
+ *
+ * Übernimmt diese Instanz die Lease eines Bereichs, holt sie mit {@link #catchUp()} zuerst alle
+ * Änderungen der bisherigen Inhaberin nach, bevor sie selbst über Ausleihen entscheidet.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class ChangeLogTail {
+
+    private static final int PAGE_SIZE = 5000;
+
+    private final CatalogState catalogState;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final ChangeLogRepository changeLogRepository;
+
+    private final TransactionTemplate primaryTransaction;
+
+    /**
+     * Höchste verarbeitete Sequenznummer; -1, solange der Katalog nicht geladen ist.
+     */
+    private long cursor = -1;
+
+    public ChangeLogTail(CatalogState catalogState, CatalogSnapshotService catalogSnapshotService,
+                         ChangeLogRepository changeLogRepository, PlatformTransactionManager transactionManager) {
+        this.catalogState = catalogState;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.changeLogRepository = changeLogRepository;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Übernimmt alle bis jetzt committeten Änderungen in den Katalog. Gelesen wird in einer
+     * schreibenden Transaktion und damit von der primären Datenquelle, da eine nachhinkende
+     * Replica die letzten Ausleihen der bisherigen Inhaberin eines Bereichs noch nicht kennt.
+     */
+    public void catchUp() {
+        primaryTransaction.executeWithoutResult(status -> poll());
+    }
+
+    /**
+     * Übernimmt alle noch nicht verarbeiteten Änderungen in den Katalog.
+     */
+    @Scheduled(fixedDelayString = "${library.cluster.poll-interval:500}")
+    public synchronized void poll() {
+        if (!catalogState.isLoaded()) {
+            return;
+        }
+        if (cursor < 0) {
+            cursor = catalogSnapshotService.getHighWaterMark();
+        }
+        while (true) {
+            List<ChangeLogEntry> page = changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(
+                    cursor, PageRequest.of(0, PAGE_SIZE));
+            if (page.isEmpty()) {
+                return;
+            }
+            catalogSnapshotService.applyChanges(page);
+            cursor = page.get(page.size() - 1).getSeq();
+            if (page.size() < PAGE_SIZE) {
+                return;
+            }
+        }
+    }
+}
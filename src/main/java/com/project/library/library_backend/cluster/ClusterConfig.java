@@ -0,0 +1,55 @@
+package com.project.library.library_backend.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.library.library_backend.catalog.CatalogSnapshotService;
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.repository.ChangeLogRepository;
+import com.project.library.library_backend.repository.ClusterLeaseRepository;
+import com.project.library.library_backend.repository.ClusterMemberRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Konfiguration für den Betrieb mehrerer Instanzen gegen dieselbe Datenbank.
+ *
+ * Nur aktiv mit library.cluster.enabled=true; ohne diese Einstellung entscheidet jede Instanz
+ * wie bisher allein. Alle Instanzen brauchen dasselbe library.cluster.secret.
+ *
+ * Ein AOT-Jar (-Dspring.aot.enabled=true) enthält diese Konfiguration nur, wenn es mit
+ * library.cluster.enabled=true gebaut wurde; mit abweichendem Wert startet es nicht
+ * ({@link com.project.library.library_backend.config.AotSwitches}).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.cluster", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ClusterProperties.class)
+public class ClusterConfig {
+
+    @Bean
+    public ClusterNode clusterNode(ClusterProperties properties, ClusterMemberRepository memberRepository,
+                                   ClusterLeaseRepository leaseRepository, ObjectMapper objectMapper,
+                                   ChangeLogTail changeLogTail, Environment environment) {
+        if (properties.getSecret().isBlank()) {
+            throw new IllegalStateException("library.cluster.secret muss im Cluster gesetzt sein");
+        }
+        String nodeId = properties.getNodeId().isBlank() ? ClusterNode.defaultNodeId() : properties.getNodeId();
+        String url = properties.getUrl().isBlank()
+                ? "http://localhost:" + environment.getProperty("server.port", "8080")
+                : properties.getUrl();
+        return new ClusterNode(properties, memberRepository, leaseRepository, objectMapper,
+                changeLogTail::catchUp, nodeId, url);
+    }
+
+    @Bean
+    public ChangeLogTail changeLogTail(CatalogState catalogState, CatalogSnapshotService catalogSnapshotService,
+                                       ChangeLogRepository changeLogRepository,
+                                       PlatformTransactionManager transactionManager) {
+        return new ChangeLogTail(catalogState, catalogSnapshotService, changeLogRepository, transactionManager);
+    }
+}
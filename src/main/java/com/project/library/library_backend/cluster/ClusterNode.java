@@ -0,0 +1,386 @@
+package com.project.library.library_backend.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.library.library_backend.model.ClusterLease;
+import com.project.library.library_backend.model.ClusterMember;
+import com.project.library.library_backend.repository.ClusterLeaseRepository;
+import com.project.library.library_backend.repository.ClusterMemberRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Mitgliedschaft einer Instanz im Cluster und Zuständigkeit für Ausleihentscheide.
+ *
+ * Die Koordination läuft vollständig über zwei Tabellen der gemeinsamen Datenbank:
+ * <ul>
+ *     <li>cluster_member – jede Instanz schreibt regelmässig einen Heartbeat mit ihrer URL;
+ *         Instanzen ohne aktuellen Heartbeat gelten als ausgefallen.</li>
+ *     <li>cluster_lease – die Medien-IDs sind in Bereiche zu {@code rangeSize} IDs aufgeteilt.
+ *         Wer die Lease eines Bereichs hält, entscheidet über Ausleihen dieser Medien. Leases
+ *         werden bei Bedarf übernommen und mit jedem Heartbeat verlängert; fällt eine Instanz
+ *         aus, laufen ihre Leases ab und werden von der nächsten Anfrage übernommen.</li>
+ * </ul>
+ *
+ * Eine Ausleihe für ein Medium, dessen Bereich eine andere Instanz hält, wird per HTTP an diese
+ * weitergeleitet. Dadurch prüft und speichert immer nur eine Instanz Ausleihen desselben Mediums,
+ * und die Prüfung gegen den lokalen Katalog ({@link com.project.library.library_backend.policy.LoanPolicy})
+ * bleibt auch mit mehreren Instanzen korrekt. Lokal werden Entscheide pro Medium über einen
+ * Lock serialisiert. Eine eigene Lease wird nur verwendet, solange sie noch mindestens eine halbe
+ * Lease-Dauer gültig ist, damit eine hängende Instanz nicht mehr entscheidet, wenn eine andere
+ * die Lease übernehmen kann.
+ *
+ * Nach der Übernahme eines Bereichs (z. B. nachdem die bisherige Inhaberin sich mit
+ * {@link #destroy()} abgemeldet hat oder ausgefallen ist) holt die Instanz zuerst das
+ * Änderungsprotokoll nach ({@link ChangeLogTail#catchUp()}); erst danach gilt die Lease als
+ * eigene und der lokale Katalog kennt alle Ausleihen der bisherigen Inhaberin.
+ *
+ * Ablauf von Leases und Heartbeats rechnet nur die Datenbank (CURRENT_TIMESTAMP), damit
+ * abweichende Uhren der Rechner nicht zwei Instanzen gleichzeitig dieselbe Lease zusprechen.
+ * Lokal wird die Gültigkeit einer eigenen Lease mit {@link System#nanoTime()} ab dem Absenden
+ * der Anweisung gemessen, die sie übernommen oder verlängert hat; die lokale Frist endet damit
+ * nie nach dem Ablauf in der Datenbank.
+ *
+ * Weitergeleitete Anfragen tragen das gemeinsame Geheimnis (library.cluster.secret) im Header
+ * {@link #SECRET_HEADER}. Nur mit passendem Geheimnis wird {@link #FORWARDED_HEADER} beachtet;
+ * sonst wird die Anfrage wie jede andere behandelt und bei Bedarf weitergeleitet.
+ *
+ * Mehrere Instanzen auf einem Rechner (gemeinsame Datenbank, eigener Snapshot pro Instanz).
+ * Journal und Inventurläufe liegen mit gesetzter node-id automatisch in einem Unterverzeichnis
+ * pro Instanz ({@link #nodeDirectory}); die node-id muss daher über Neustarts gleich bleiben:
+ * <pre>
+ * java -jar library-backend.jar --server.port=8080 --library.cluster.enabled=true \
+ *      --library.cluster.node-id=a --library.cluster.secret=geheim \
+ *      --library.catalog.snapshot.path=data/a.snapshot
+ * java -jar library-backend.jar --server.port=8081 --library.cluster.enabled=true \
+ *      --library.cluster.node-id=b --library.cluster.secret=geheim \
+ *      --library.catalog.snapshot.path=data/b.snapshot
+ * </pre>
+ *
+ * Der Zustand ist zusätzlich unter /actuator/health sichtbar.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class ClusterNode implements HealthIndicator, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterNode.class);
+
+    /**
+     * Header weitergeleiteter Anfragen mit der ID der weiterleitenden Instanz. Solche Anfragen
+     * werden immer lokal entschieden, damit keine Schleifen entstehen.
+     */
+    public static final String FORWARDED_HEADER = "X-Library-Forwarded-By";
+
+    /**
+     * Header weitergeleiteter Anfragen mit dem gemeinsamen Geheimnis der Instanzen.
+     */
+    public static final String SECRET_HEADER = "X-Library-Cluster-Secret";
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final ClusterProperties properties;
+
+    private final ClusterMemberRepository memberRepository;
+
+    private final ClusterLeaseRepository leaseRepository;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Holt die Änderungen anderer Instanzen nach, bevor eine übernommene Lease verwendet wird.
+     */
+    private final Runnable catchUp;
+
+    private final HttpClient httpClient;
+
+    private final String nodeId;
+
+    private final String url;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private volatile Map<String, Member> members = Map.of();
+
+    /**
+     * Inhaber der gültigen Leases nach Bereich, Stand des letzten Heartbeats.
+     */
+    private volatile Map<Long, String> owners = Map.of();
+
+    /**
+     * Eigene Leases mit ihrem lokalen Ablauf ({@link System#nanoTime()}).
+     */
+    private final Map<Long, Long> ownLeases = new ConcurrentHashMap<>();
+
+    /**
+     * Eine Instanz im Cluster.
+     *
+     * @param nodeId ID der Instanz
+     * @param url Basis-URL oder null, falls unbekannt
+     */
+    public record Member(String nodeId, String url) {}
+
+    public ClusterNode(ClusterProperties properties, ClusterMemberRepository memberRepository,
+                       ClusterLeaseRepository leaseRepository, ObjectMapper objectMapper,
+                       Runnable catchUp, String nodeId, String url) {
+        this.properties = properties;
+        this.memberRepository = memberRepository;
+        this.leaseRepository = leaseRepository;
+        this.objectMapper = objectMapper;
+        this.catchUp = catchUp;
+        this.nodeId = nodeId;
+        this.url = url;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(properties.getForwardTimeout()).build();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Schreibt den Heartbeat, verlängert die eigenen Leases und liest Mitglieder und Leases neu.
+     */
+    @Scheduled(fixedDelayString = "${library.cluster.heartbeat-interval:1000}")
+    public void heartbeat() {
+        try {
+            memberRepository.heartbeat(nodeId, url);
+            // Alle danach noch gültigen eigenen Leases wurden frühestens jetzt verlängert
+            long renewed = System.nanoTime();
+            leaseRepository.renew(nodeId, micros(properties.getLeaseDuration()));
+            long expires = renewed + properties.getLeaseDuration().toNanos();
+
+            Map<String, Member> live = new HashMap<>();
+            for (ClusterMember member : memberRepository.findAlive(micros(properties.getMemberTimeout()))) {
+                live.put(member.getNodeid(), new Member(member.getNodeid(), member.getUrl()));
+            }
+            Map<Long, String> leases = new HashMap<>();
+            Map<Long, Long> own = new HashMap<>();
+            for (ClusterLease lease : leaseRepository.findValid()) {
+                leases.put(lease.getRangeid(), lease.getOwner());
+                // Nur über acquire() übernommene Leases, deren Änderungen nachgeholt sind
+                if (nodeId.equals(lease.getOwner()) && ownLeases.containsKey(lease.getRangeid())) {
+                    own.put(lease.getRangeid(), expires);
+                }
+            }
+            members = Map.copyOf(live);
+            owners = Map.copyOf(leases);
+            ownLeases.keySet().retainAll(own.keySet());
+            ownLeases.putAll(own);
+
+            // Einträge längst ausgefallener Instanzen entfernen
+            memberRepository.deleteExpired(micros(properties.getMemberTimeout().multipliedBy(10)));
+        } catch (DataAccessException e) {
+            log.warn("Heartbeat von {} fehlgeschlagen: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Bestimmt die Instanz, die über Ausleihen eines Mediums entscheidet. Ist der Bereich frei
+     * oder die Lease abgelaufen, übernimmt diese Instanz ihn.
+     *
+     * @param mediaId ID des Mediums
+     * @return Zuständige andere Instanz, leer wenn diese Instanz selbst zuständig ist
+     */
+    public Optional<Member> ownerOf(long mediaId) {
+        long range = Math.floorDiv(mediaId, properties.getRangeSize());
+        Long own = ownLeases.get(range);
+        if (own != null && own - System.nanoTime() > properties.getLeaseDuration().dividedBy(2).toNanos()) {
+            return Optional.empty();
+        }
+        String owner = owners.get(range);
+        if (owner != null && !owner.equals(nodeId) && members.containsKey(owner)) {
+            return Optional.of(members.get(owner));
+        }
+        return acquire(range);
+    }
+
+    private Optional<Member> acquire(long range) {
+        long duration = micros(properties.getLeaseDuration());
+        long start = System.nanoTime();
+        boolean acquired = leaseRepository.acquire(range, nodeId, duration) == 1;
+        if (!acquired) {
+            try {
+                acquired = leaseRepository.insertLease(range, nodeId, duration) == 1;
+            } catch (DataIntegrityViolationException e) {
+                // Eine andere Instanz hat den Bereich gleichzeitig übernommen
+            }
+        }
+        if (acquired) {
+            catchUp.run();
+            ownLeases.put(range, start + properties.getLeaseDuration().toNanos());
+            return Optional.empty();
+        }
+        String owner = leaseRepository.findById(range).map(ClusterLease::getOwner).orElse(null);
+        if (owner == null || owner.equals(nodeId)) {
+            // Lease wurde dazwischen freigegeben: beim nächsten Versuch neu übernehmen
+            return Optional.of(new Member(owner, null));
+        }
+        Member member = members.get(owner);
+        if (member == null) {
+            member = memberRepository.findById(owner)
+                    .map(m -> new Member(m.getNodeid(), m.getUrl()))
+                    .orElse(new Member(owner, null));
+        }
+        return Optional.of(member);
+    }
+
+    /**
+     * Führt eine Ausleihe auf der zuständigen Instanz aus. Ist eine andere Instanz zuständig,
+     * wird die Anfrage an sie weitergeleitet, sonst lokal unter dem Lock des Mediums entschieden.
+     *
+     * @param mediaId ID des Mediums oder null
+     * @param forwardedBy Wert von {@link #FORWARDED_HEADER} oder null
+     * @param secret Wert von {@link #SECRET_HEADER} oder null
+     * @param body Request-Body für die Weiterleitung
+     * @param local Lokale Prüfung und Speicherung
+     * @return Antwort der zuständigen Instanz, 503 wenn sie nicht erreichbar ist
+     */
+    public ResponseEntity<?> checkout(Long mediaId, String forwardedBy, String secret, Object body,
+                                      Supplier<ResponseEntity<?>> local) {
+        if (mediaId != null && !isForwarded(forwardedBy, secret)) {
+            Optional<Member> owner = ownerOf(mediaId);
+            if (owner.isPresent()) {
+                return forward(owner.get(), "/api/borrowings", body);
+            }
+        }
+        ReentrantLock lock = locks[(int) Math.floorMod(mediaId != null ? mediaId : 0L, (long) LOCK_STRIPES)];
+        lock.lock();
+        try {
+            return local.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true, wenn die Anfrage von einer Instanz mit dem gemeinsamen Geheimnis stammt
+     */
+    boolean isForwarded(String forwardedBy, String secret) {
+        return forwardedBy != null && secret != null && MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8), properties.getSecret().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ResponseEntity<?> forward(Member member, String path, Object body) {
+        if (member.url() == null) {
+            return unavailable();
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(member.url() + path))
+                    .timeout(properties.getForwardTimeout())
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .header(FORWARDED_HEADER, nodeId)
+                    .header(SECRET_HEADER, properties.getSecret())
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            String contentType = response.headers().firstValue(HttpHeaders.CONTENT_TYPE)
+                    .orElse(MediaType.APPLICATION_JSON_VALUE);
+            return ResponseEntity.status(response.statusCode())
+                    .contentType(MediaType.parseMediaType(contentType))
+                    .body(response.body());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        } catch (IOException e) {
+            log.warn("Weiterleitung an {} fehlgeschlagen: {}", member.nodeId(), e.getMessage());
+            return unavailable();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return unavailable();
+        }
+    }
+
+    private ResponseEntity<?> unavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getLeaseDuration().toSeconds()))
+                .build();
+    }
+
+    @Override
+    public Health health() {
+        return Health.up()
+                .withDetail("nodeId", nodeId)
+                .withDetail("members", members.keySet())
+                .withDetail("ownedRanges", ownLeases.size())
+                .build();
+    }
+
+    /**
+     * Gibt beim Herunterfahren die eigenen Leases frei und meldet die Instanz ab, damit andere
+     * Instanzen die Bereiche sofort übernehmen können.
+     */
+    @Override
+    public void destroy() {
+        try {
+            leaseRepository.release(nodeId);
+            memberRepository.deleteById(nodeId);
+        } catch (DataAccessException e) {
+            log.warn("Abmelden von {} fehlgeschlagen: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Verzeichnis für lokale Dateien einer Instanz (Journal, Inventurläufe). Mit gesetzter
+     * node-id ein Unterverzeichnis pro Instanz, damit Instanzen im selben Arbeitsverzeichnis
+     * nicht die Dateien der anderen nachspielen oder löschen.
+     *
+     * @param base Konfiguriertes Verzeichnis
+     * @param nodeId Wert von library.cluster.node-id (leer ohne Cluster)
+     * @return Verzeichnis der Instanz
+     */
+    public static Path nodeDirectory(Path base, String nodeId) {
+        if (nodeId == null || nodeId.isBlank()) {
+            return base;
+        }
+        if (!nodeId.matches("[A-Za-z0-9._-]+") || nodeId.equals(".") || nodeId.equals("..")) {
+            throw new IllegalArgumentException("Ungültige library.cluster.node-id für ein Verzeichnis: " + nodeId);
+        }
+        return base.resolve(nodeId);
+    }
+
+    private static long micros(Duration duration) {
+        return duration.toNanos() / 1000;
+    }
+
+    /**
+     * Standard-ID einer Instanz aus Hostname und Prozess-ID.
+     */
+    static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            host = "localhost";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
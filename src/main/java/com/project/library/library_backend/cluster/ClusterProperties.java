@@ -0,0 +1,153 @@
+package com.project.library.library_backend.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Konfiguration für den Betrieb mehrerer Instanzen.
+ *
+ * Beispiel (application.properties):
+ * - library.cluster.enabled=true
+ * - library.cluster.node-id=node-a
+ * - library.cluster.url=http://10.0.0.5:8080
+ * - library.cluster.secret=geheim
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "library.cluster")
+public class ClusterProperties {
+
+    /**
+     * Aktiviert Mitgliedschaft, Leases und das Nachführen des Katalogs über das Änderungsprotokoll.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Eindeutige ID der Instanz; leer = Hostname und Prozess-ID.
+     */
+    private String nodeId = "";
+
+    /**
+     * Basis-URL, unter der die anderen Instanzen diese erreichen; leer = http://localhost:{server.port}.
+     */
+    private String url = "";
+
+    /**
+     * Gemeinsames Geheimnis aller Instanzen; weist weitergeleitete Anfragen aus. Pflicht im Cluster.
+     */
+    private String secret = "";
+
+    /**
+     * Abstand der Heartbeats in Millisekunden.
+     */
+    private long heartbeatInterval = 1000;
+
+    /**
+     * Zeit ohne Heartbeat, nach der eine Instanz als ausgefallen gilt.
+     */
+    private Duration memberTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Gültigkeit einer Lease; wird mit jedem Heartbeat verlängert.
+     */
+    private Duration leaseDuration = Duration.ofSeconds(10);
+
+    /**
+     * Anzahl Medien-IDs pro Bereich.
+     */
+    private long rangeSize = 1000;
+
+    /**
+     * Abstand, in dem das Änderungsprotokoll nach Änderungen anderer Instanzen abgefragt wird (Millisekunden).
+     */
+    private long pollInterval = 500;
+
+    /**
+     * Timeout für an die zuständige Instanz weitergeleitete Anfragen.
+     */
+    private Duration forwardTimeout = Duration.ofSeconds(5);
+
+    // Getter und Setter
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public long getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(long heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public Duration getMemberTimeout() {
+        return memberTimeout;
+    }
+
+    public void setMemberTimeout(Duration memberTimeout) {
+        this.memberTimeout = memberTimeout;
+    }
+
+    public Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    public void setLeaseDuration(Duration leaseDuration) {
+        this.leaseDuration = leaseDuration;
+    }
+
+    public long getRangeSize() {
+        return rangeSize;
+    }
+
+    public void setRangeSize(long rangeSize) {
+        this.rangeSize = rangeSize;
+    }
+
+    public long getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getForwardTimeout() {
+        return forwardTimeout;
+    }
+
+    public void setForwardTimeout(Duration forwardTimeout) {
+        this.forwardTimeout = forwardTimeout;
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.library.library_backend.config;
+
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * Schreibt bei processAot die Schalter der Konfigurationen als Ressource ins Jar, damit
+ * {@link AotSwitches} beim Start abweichende Werte erkennt.
+ *
+ * Registriert in META-INF/spring/aot.factories.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class AotSwitchRecorder implements BeanFactoryInitializationAotProcessor {
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        Environment environment = beanFactory.getBean(Environment.class);
+        StringWriter content = new StringWriter();
+        try {
+            AotSwitches.evaluate(environment::getProperty).store(content, "Schalter zur Build-Zeit (processAot)");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return (generationContext, code) -> generationContext.getGeneratedFiles()
+                .addResourceFile(AotSwitches.RESOURCE, content.toString());
+    }
+}
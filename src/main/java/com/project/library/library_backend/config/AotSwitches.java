@@ -0,0 +1,108 @@
+package com.project.library.library_backend.config;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.UnaryOperator;
+
+/**
+ * Prüft beim Start eines AOT-Jars, dass die Schalter der Konfigurationen zur Build-Zeit passen.
+ *
+ * Mit -Dspring.aot.enabled=true werden Bedingungen wie {@code @ConditionalOnProperty} nicht
+ * beim Start, sondern schon von processAot ausgewertet; die Beans sind danach fest im Jar.
+ * Ein anderer Wert beim Start (z. B. --library.cluster.enabled=true) würde still ignoriert.
+ * {@link AotSwitchRecorder} legt deshalb die zur Build-Zeit gültigen Werte als Ressource ins
+ * Jar, und diese Klasse bricht den Start ab, wenn ein Schalter davon abweicht. Ohne AOT wird
+ * nichts geprüft.
+ *
+ * Registriert in META-INF/spring.factories, damit die Prüfung vor dem Aufbau des Kontexts läuft.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class AotSwitches implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    /**
+     * Ressource mit den Schaltern zur Build-Zeit.
+     */
+    static final String RESOURCE = "META-INF/library/aot-switches.properties";
+
+    /**
+     * Schalter, von denen Konfigurationen über {@code @ConditionalOnProperty} abhängen.
+     *
+     * @param property Name der Eigenschaft
+     * @param matchIfMissing Wert, wenn die Eigenschaft nicht gesetzt ist
+     */
+    record Switch(String property, boolean matchIfMissing) {}
+
+    static final List<Switch> SWITCHES = List.of(
+            new Switch("library.cluster.enabled", false),
+            new Switch("library.datasource.routing.enabled", false),
+            new Switch("library.idempotency.enabled", true),
+            new Switch("library.jfr.enabled", false),
+            new Switch("library.ratelimit.enabled", false),
+            new Switch("library.reminders.enabled", false));
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        Properties built = new Properties();
+        try (InputStream in = AotSwitches.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException(RESOURCE + " fehlt im AOT-Jar; Jar mit processAot neu bauen");
+            }
+            built.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<String> differences = differences(built, event.getEnvironment()::getProperty);
+        if (!differences.isEmpty()) {
+            throw new IllegalStateException("Das AOT-Jar wurde mit anderen Schaltern gebaut: "
+                    + String.join(", ", differences)
+                    + ". Werte beim Bauen (processAot) setzen und das Jar neu bauen oder ohne -Dspring.aot.enabled starten");
+        }
+    }
+
+    /**
+     * Wertet alle Schalter so aus wie {@code @ConditionalOnProperty(havingValue = "true")}.
+     *
+     * @param lookup Liefert den Wert einer Eigenschaft oder null
+     * @return "true" oder "false" pro Schalter
+     */
+    static Properties evaluate(UnaryOperator<String> lookup) {
+        Properties values = new Properties();
+        for (Switch entry : SWITCHES) {
+            String value = lookup.apply(entry.property());
+            boolean enabled = value != null ? "true".equalsIgnoreCase(value.trim()) : entry.matchIfMissing();
+            values.setProperty(entry.property(), String.valueOf(enabled));
+        }
+        return values;
+    }
+
+    /**
+     * @param built Schalter zur Build-Zeit
+     * @param lookup Liefert den aktuellen Wert einer Eigenschaft oder null
+     * @return Beschreibung aller abweichenden Schalter, leer wenn alle passen
+     */
+    static List<String> differences(Properties built, UnaryOperator<String> lookup) {
+        Properties current = evaluate(lookup);
+        List<String> differences = new ArrayList<>();
+        for (Switch entry : SWITCHES) {
+            String before = built.getProperty(entry.property());
+            String now = current.getProperty(entry.property());
+            if (before != null && !before.equals(now)) {
+                differences.add(entry.property() + " (Build: " + before + ", Start: " + now + ")");
+            }
+        }
+        return differences;
+    }
+}
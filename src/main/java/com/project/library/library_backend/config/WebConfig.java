@@ -0,0 +1,41 @@
+package com.project.library.library_backend.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Web-Konfiguration für zusätzliche Antwortformate.
+ *
+ * Neben JSON (Standard) können alle Controller ihre Antworten auch binär liefern
+ * und Request-Bodies binär entgegennehmen. Das Format wird über den Accept- bzw.
+ * Content-Type-Header gewählt:
+ * - application/json → JSON (Standard)
+ * - application/cbor → CBOR
+ * - application/x-jackson-smile → Smile
+ *
+ * Spring MVC registriert die binären Konverter bereits hinter dem JSON-Konverter, so dass JSON
+ * ohne passenden Accept-Header der Standard bleibt. Die Beans hier ersetzen sie an derselben
+ * Stelle (siehe {@code HttpMessageConverters}) durch Konverter mit denselben Jackson-Einstellungen
+ * wie JSON (z. B. spring.jackson.*, Daten als yyyy-MM-dd).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Configuration
+public class WebConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.factory(new SmileFactory()).build());
+    }
+}
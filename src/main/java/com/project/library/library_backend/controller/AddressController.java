@@ -1,8 +1,15 @@
 package com.project.library.library_backend.controller;
 
+import com.project.library.library_backend.catalog.CatalogChangeTracker;
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.catalog.PostalCodeIndex;
 import com.project.library.library_backend.model.Address;
 import com.project.library.library_backend.repository.AddressRepository;
+import com.project.library.library_backend.service.BatchLookup;
+import com.project.library.library_backend.service.ChangeFeed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,9 +24,14 @@ import java.util.Optional;
  * API-Endpunkte:
  * - POST /api/addresses → erstellt eine neue Adresse
  * - GET /api/addresses → gibt alle Adressen zurück
+ * - GET /api/addresses/changes?since=... → Änderungen seit einem Token (Delta-Synchronisation)
  * - GET /api/addresses/{id} → gibt eine bestimmte Adresse zurück
+ * - GET /api/addresses?ids=1,2,3 → gibt mehrere Adressen in Anfragereihenfolge zurück
+ * - POST /api/addresses/batch → wie oben, IDs im Request-Body (für grosse Mengen)
  * - PUT /api/addresses/{id} → aktualisiert eine Adresse
  * - DELETE /api/addresses/{id} → löscht eine Adresse
+ * - GET /api/addresses/stats?prefix=80 → Adressen und Kunden pro PLZ-Region
+ * - GET /api/addresses/stats?from=8000&to=8099&length=3 → wie oben für einen PLZ-Bereich
  * 
  * @author Basil Ramseyer
  * @version 1.0
@@ -31,6 +43,15 @@ public class AddressController {
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private PostalCodeIndex postalCodeIndex;
+
+    @Autowired
+    private CatalogState catalogState;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
     /**
      * Gibt alle Adressen aus der Datenbank zurück.
      *
@@ -41,6 +62,49 @@ public class AddressController {
         return addressRepository.findAll();
     }
 
+    /**
+     * Gibt mehrere Adressen anhand ihrer IDs zurück (eine IN-Abfrage statt N Einzelabfragen).
+     *
+     * @param ids Kommagetrennte IDs der Adressen
+     * @return Gefundene Adressen in der Reihenfolge der IDs
+     */
+    @GetMapping(params = "ids")
+    public List<Address> getAddressesByIds(@RequestParam List<Long> ids) {
+        return BatchLookup.findAllInOrder(addressRepository, ids, Address::getId);
+    }
+
+    /**
+     * Gibt mehrere Adressen anhand ihrer IDs zurück, die IDs werden im Request-Body übergeben.
+     *
+     * @param ids Liste der IDs
+     * @return Gefundene Adressen in der Reihenfolge der IDs
+     */
+    @PostMapping("/batch")
+    public List<Address> getAddressesByIdsBatch(@RequestBody List<Long> ids) {
+        return BatchLookup.findAllInOrder(addressRepository, ids, Address::getId);
+    }
+
+    /**
+     * Zählt Adressen und Kunden pro PLZ-Region aus dem In-Memory-Index (ohne Datenbankabfrage).
+     *
+     * @param prefix PLZ-Präfix, z. B. "80"; leer für alle
+     * @param from Kleinste PLZ (inklusive)
+     * @param to Grösste PLZ (inklusive)
+     * @param length Länge der Gruppenpräfixe; Standard ist eine Stelle mehr als das Präfix
+     * @return 200 mit Summe und Aufteilung nach Präfix, 503, solange der Katalog nicht geladen ist
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<PostalCodeIndex.Report> getStats(@RequestParam(defaultValue = "") String prefix,
+                                                           @RequestParam(required = false) String from,
+                                                           @RequestParam(required = false) String to,
+                                                           @RequestParam(required = false) Integer length) {
+        if (!catalogState.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(postalCodeIndex.query(prefix, from, to,
+                length != null ? length : prefix.trim().length() + 1));
+    }
+
     /**
      * Gibt eine Adresse anhand der ID zurück.
      *
@@ -92,4 +156,21 @@ public class AddressController {
     public void deleteAddress(@PathVariable Long id) {
         addressRepository.deleteById(id);
     }
+
+    /**
+     * Liefert die Änderungen an Adressen seit einem Token für die Synchronisation von Clients.
+     * Ohne Token wird nur das aktuelle Token geliefert; danach einmal alle Adressen laden.
+     *
+     * @param since Token des letzten Aufrufs
+     * @param limit Maximale Anzahl Änderungen pro Seite
+     * @return 200 mit geänderten Adressen und IDs gelöschter Adressen,
+     *         410, wenn das Token nicht mehr gültig ist und alles neu geladen werden muss
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeed.Page<Address>> getChanges(@RequestParam(required = false) Long since,
+                                                               @RequestParam(defaultValue = "500") int limit) {
+        return changeFeed.changes(CatalogChangeTracker.ADDRESS, since, limit, addressRepository, Address::getId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE).build());
+    }
 }
@@ -1,15 +1,33 @@
 package com.project.library.library_backend.controller;
 
+import com.project.library.library_backend.catalog.CatalogChangeTracker;
+import com.project.library.library_backend.catalog.LoanEntry;
+import com.project.library.library_backend.cluster.ClusterNode;
 import com.project.library.library_backend.model.Borrowing;
+import com.project.library.library_backend.model.BorrowingHistory;
 import com.project.library.library_backend.model.Customer;
 import com.project.library.library_backend.model.Media;
+import com.project.library.library_backend.policy.LoanPolicy;
+import com.project.library.library_backend.policy.LoanViolation;
+import com.project.library.library_backend.profiling.CheckoutEvent;
 import com.project.library.library_backend.repository.BorrowingRepository;
 import com.project.library.library_backend.repository.CustomerRepository;
 import com.project.library.library_backend.repository.MediaRepository;
+import com.project.library.library_backend.service.LoanService;
+import com.project.library.library_backend.service.LookupCoalescer;
+import com.project.library.library_backend.service.ChangeFeed;
+import com.project.library.library_backend.serialization.JsonStreamer;
+import com.project.library.library_backend.serialization.RowSerializers;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -19,13 +37,26 @@ import java.util.Optional;
  * abzurufen, zu bearbeiten, zu löschen oder nach bestimmten Kriterien zu suchen.
  *
  * API-Endpunkte:
- * - POST /api/borrowings → erstellt eine neue Ausleihe
- * - GET /api/borrowings → gibt alle Ausleihen zurück
+ * - POST /api/borrowings → erstellt eine neue Ausleihe (422 mit allen verletzten Ausleihregeln)
+ * - GET /api/borrowings → gibt alle Ausleihen zurück (gestreamt)
+ * - GET /api/borrowings/export → alle Ausleihen als NDJSON (ein Objekt pro Zeile)
+ * - GET /api/borrowings/changes?since=... → Änderungen seit einem Token (Delta-Synchronisation)
  * - GET /api/borrowings/{id} → gibt eine bestimmte Ausleihe zurück
- * - PUT /api/borrowings/{id} → aktualisiert eine Ausleihe
- * - DELETE /api/borrowings/{id} → löscht eine Ausleihe
+ * - PUT /api/borrowings/{id} → aktualisiert die Daten einer bestehenden Ausleihe
+ * - DELETE /api/borrowings/{id} → gibt eine Ausleihe zurück (veraltet, wie POST /api/borrowings/{id}/return)
  * - GET /api/borrowings/search/media?id=... → findet Ausleihe zu einem Medium
  * - GET /api/borrowings/search/customer?id=... → findet alle Ausleihen eines Kunden
+ * - POST /api/borrowings/{id}/return → gibt eine Ausleihe zurück (Archivierung in der Historie)
+ * - POST /api/borrowings/return → gibt mehrere Ausleihen zurück (IDs im Body)
+ * - POST /api/borrowings/{id}/extend → verlängert eine Ausleihe
+ * - GET /api/borrowings/history/search/customer?id=...[&from=...&to=...] → abgeschlossene Ausleihen eines Kunden
+ * - GET /api/borrowings/history/search/media?id=...[&from=...&to=...] → abgeschlossene Ausleihen eines Mediums
+ *
+ * Mit library.cluster.enabled=true werden neue Ausleihen von der Instanz entschieden, die den
+ * Bereich des Mediums hält; andere Instanzen leiten die Anfrage an sie weiter (siehe {@link ClusterNode}).
+ *
+ * Aktive Ausleihen liegen in der Tabelle "borrowing", abgeschlossene in der nach Ausleihdatum
+ * partitionierten Tabelle "borrowing_history".
  * 
  * @author Basil
  * @version 1.0
@@ -43,14 +74,44 @@ public class BorrowingController {
     @Autowired
     private MediaRepository mediaRepository;
 
+    @Autowired
+    private LookupCoalescer lookupCoalescer;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private JsonStreamer jsonStreamer;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private LoanPolicy loanPolicy;
+
+    @Autowired(required = false)
+    private ClusterNode clusterNode;
+
     /**
-     * Gibt alle Ausleihen zurück.
+     * Gibt alle Ausleihen inklusive Kunde und Medium zurück. Die Zeilen werden mit einem
+     * einzigen JOIN direkt aus der Datenbank in die Antwort geschrieben, ohne Entities zu laden.
      *
+     * @param accept Accept-Header (JSON, CBOR oder Smile)
      * @return Liste aller Ausleihen
      */
     @GetMapping
-    public List<Borrowing> getAllBorrowings() {
-        return borrowingRepository.findAll();
+    public ResponseEntity<StreamingResponseBody> getAllBorrowings(@RequestHeader(value = "Accept", required = false) String accept) {
+        return jsonStreamer.response(RowSerializers.BORROWINGS, JsonStreamer.Format.fromAccept(accept));
+    }
+
+    /**
+     * Exportiert alle Ausleihen als NDJSON.
+     *
+     * @return Eine Ausleihe pro Zeile
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBorrowings() {
+        return jsonStreamer.response(RowSerializers.BORROWINGS, JsonStreamer.Format.NDJSON);
     }
 
     /**
@@ -65,46 +126,97 @@ public class BorrowingController {
     }
 
     /**
-     * Erstellt eine neue Ausleihe.
+     * Erstellt eine neue Ausleihe, sofern alle Ausleihregeln erfüllt sind
+     * (maximale Anzahl Ausleihen, keine überfälligen Ausleihen, Altersfreigabe, Medium verfügbar).
+     * Im Cluster wird die Anfrage bei Bedarf an die für das Medium zuständige Instanz weitergeleitet.
      *
      * @param borrowing Ausleihe-Objekt aus dem Request
-     * @return Gespeicherte Ausleihe
+     * @param forwardedBy ID der weiterleitenden Instanz, nur bei weitergeleiteten Anfragen
+     * @param clusterSecret Gemeinsames Geheimnis der Instanzen, nur bei weitergeleiteten Anfragen
+     * @return Gespeicherte Ausleihe, 422 mit allen verletzten Regeln oder 503, wenn die
+     *         zuständige Instanz nicht erreichbar ist
      */
     @PostMapping
-    public Borrowing createBorrowing(@RequestBody Borrowing borrowing) {
-        return borrowingRepository.save(borrowing);
+    public ResponseEntity<?> createBorrowing(@RequestBody Borrowing borrowing,
+            @RequestHeader(value = ClusterNode.FORWARDED_HEADER, required = false) String forwardedBy,
+            @RequestHeader(value = ClusterNode.SECRET_HEADER, required = false) String clusterSecret) {
+        CheckoutEvent event = new CheckoutEvent();
+        event.begin();
+        Long customerId = borrowing.getCustomer() != null ? borrowing.getCustomer().getId() : null;
+        Long mediaId = borrowing.getMedia() != null ? borrowing.getMedia().getId() : null;
+        ResponseEntity<?> response = clusterNode == null
+                ? checkout(borrowing)
+                : clusterNode.checkout(mediaId, forwardedBy, clusterSecret, borrowing, () -> checkout(borrowing));
+        event.end();
+        if (event.shouldCommit()) {
+            event.customerId = customerId != null ? customerId : 0;
+            event.mediaId = mediaId != null ? mediaId : 0;
+            event.status = response.getStatusCode().value();
+            event.commit();
+        }
+        return response;
+    }
+
+    private ResponseEntity<?> checkout(Borrowing borrowing) {
+        Long customerId = borrowing.getCustomer() != null ? borrowing.getCustomer().getId() : null;
+        Long mediaId = borrowing.getMedia() != null ? borrowing.getMedia().getId() : null;
+        List<LoanViolation> violations = loanPolicy.check(customerId, mediaId);
+        if (!violations.isEmpty()) {
+            return ResponseEntity.unprocessableEntity().body(Map.of("violations", violations));
+        }
+        return ResponseEntity.ok(borrowingRepository.save(borrowing));
     }
 
     /**
-     * Aktualisiert eine Ausleihe oder erstellt sie neu, wenn sie nicht existiert.
+     * Aktualisiert die Daten (Ausleih-, Fälligkeits- und Verlängerungsdatum) einer bestehenden
+     * Ausleihe. Neue Ausleihen entstehen nur über POST, damit die Ausleihregeln und im Cluster die
+     * zuständige Instanz immer beteiligt sind; ebenso kann eine Ausleihe nicht auf einen anderen
+     * Kunden oder ein anderes Medium umgeschrieben werden (zurückgeben und neu ausleihen).
      *
      * @param id ID der Ausleihe
-     * @param updatedBorrowing Neue Daten der Ausleihe
-     * @return Aktualisierte oder neu gespeicherte Ausleihe
+     * @param updatedBorrowing Neue Daten der Ausleihe; Kunde und Medium leer oder unverändert
+     * @return Aktualisierte Ausleihe, 404 bei unbekannter ID, 409 bei geändertem Kunden oder Medium
      */
     @PutMapping("/{id}")
-    public Borrowing updateBorrowing(@PathVariable Long id, @RequestBody Borrowing updatedBorrowing) {
-        return borrowingRepository.findById(id).map(borrowing -> {
-            borrowing.setDateborrowed(updatedBorrowing.getDateborrowed());
-            borrowing.setDuedate(updatedBorrowing.getDuedate());
-            borrowing.setExtended_on(updatedBorrowing.getExtended_on());
-            borrowing.setCustomer(updatedBorrowing.getCustomer());
-            borrowing.setMedia(updatedBorrowing.getMedia());
-            return borrowingRepository.save(borrowing);
-        }).orElseGet(() -> {
-            updatedBorrowing.setId(id);
-            return borrowingRepository.save(updatedBorrowing);
-        });
+    public ResponseEntity<?> updateBorrowing(@PathVariable Long id, @RequestBody Borrowing updatedBorrowing) {
+        Optional<Borrowing> existing = borrowingRepository.findById(id);
+        if (existing.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Borrowing borrowing = existing.get();
+        if (changes(borrowing.getCustomer() != null ? borrowing.getCustomer().getId() : null,
+                updatedBorrowing.getCustomer() != null ? updatedBorrowing.getCustomer().getId() : null)
+                || changes(borrowing.getMedia() != null ? borrowing.getMedia().getId() : null,
+                updatedBorrowing.getMedia() != null ? updatedBorrowing.getMedia().getId() : null)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Kunde und Medium einer Ausleihe können nicht geändert werden"));
+        }
+        borrowing.setDateborrowed(updatedBorrowing.getDateborrowed());
+        borrowing.setDuedate(updatedBorrowing.getDuedate());
+        borrowing.setExtended_on(updatedBorrowing.getExtended_on());
+        return ResponseEntity.ok(borrowingRepository.save(borrowing));
     }
 
     /**
-     * Löscht eine Ausleihe anhand der ID.
+     * @return true, wenn eine angegebene ID von der bestehenden abweicht
+     */
+    private static boolean changes(Long current, Long requested) {
+        return requested != null && !requested.equals(current);
+    }
+
+    /**
+     * Gibt eine Ausleihe zurück. Eine aktive Ausleihe wird nie ohne Eintrag in der Historie
+     * gelöscht; der Endpunkt bleibt nur für bestehende Clients erhalten. Ist das Medium
+     * vorgemerkt, wird es wie bei jeder Rückgabe dem nächsten Kunden der Warteschlange zugeteilt.
      *
-     * @param id ID der zu löschenden Ausleihe
+     * @param id ID der Ausleihe
+     * @return 204 bei Erfolg, 404 wenn die Ausleihe nicht (mehr) existiert
+     * @deprecated POST /api/borrowings/{id}/return verwenden
      */
+    @Deprecated
     @DeleteMapping("/{id}")
-    public void deleteBorrowing(@PathVariable Long id) {
-        borrowingRepository.deleteById(id);
+    public ResponseEntity<Void> deleteBorrowing(@PathVariable Long id) {
+        return returnBorrowing(id);
     }
 
     /**
@@ -115,7 +227,7 @@ public class BorrowingController {
      */
     @GetMapping("/search/media")
     public Optional<Borrowing> findByMedia(@RequestParam Long id) {
-        return (borrowingRepository.findByMedia_Id(id));
+        return lookupCoalescer.findBorrowingByMedia(id);
     }
 
     /**
@@ -128,4 +240,84 @@ public class BorrowingController {
     public List<Borrowing> findByCustomer(@RequestParam Long id) {
         return borrowingRepository.findByCustomer_Id(id);
     }
+
+    /**
+     * Gibt eine Ausleihe zurück. Die Ausleihe wird in die Historie übernommen und gelöscht.
+     *
+     * @param id ID der Ausleihe
+     * @return 204 bei Erfolg, 404 wenn die Ausleihe nicht (mehr) existiert
+     */
+    @PostMapping("/{id}/return")
+    public ResponseEntity<Void> returnBorrowing(@PathVariable Long id) {
+        return loanService.returnLoan(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Gibt mehrere Ausleihen zurück, die IDs werden im Request-Body übergeben.
+     *
+     * @param ids Liste der IDs
+     * @return Anzahl zurückgegebener Ausleihen
+     */
+    @PostMapping("/return")
+    public int returnBorrowings(@RequestBody List<Long> ids) {
+        return loanService.returnLoans(ids);
+    }
+
+    /**
+     * Verlängert eine Ausleihe um die Leihfrist ab heute.
+     *
+     * @param id ID der Ausleihe
+     * @return Verlängerte Ausleihe (IDs von Kunde und Medium, Daten) oder 404
+     */
+    @PostMapping("/{id}/extend")
+    public ResponseEntity<LoanEntry> extendBorrowing(@PathVariable Long id) {
+        return ResponseEntity.of(loanService.extend(id));
+    }
+
+    /**
+     * Sucht die abgeschlossenen Ausleihen eines Kunden in einem Zeitraum.
+     *
+     * @param id ID des Kunden
+     * @param from Frühestes Ausleihdatum (optional, Standard: heute minus library.history.search-years)
+     * @param to Spätestes Ausleihdatum (optional, Standard: heute)
+     * @return Liste der abgeschlossenen Ausleihen, die neuesten zuerst
+     */
+    @GetMapping("/history/search/customer")
+    public List<BorrowingHistory> findHistoryByCustomer(@RequestParam Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return loanService.findHistoryByCustomer(id, from, to);
+    }
+
+    /**
+     * Sucht die abgeschlossenen Ausleihen eines Mediums in einem Zeitraum.
+     *
+     * @param id ID des Mediums
+     * @param from Frühestes Ausleihdatum (optional, Standard: heute minus library.history.search-years)
+     * @param to Spätestes Ausleihdatum (optional, Standard: heute)
+     * @return Liste der abgeschlossenen Ausleihen, die neuesten zuerst
+     */
+    @GetMapping("/history/search/media")
+    public List<BorrowingHistory> findHistoryByMedia(@RequestParam Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return loanService.findHistoryByMedia(id, from, to);
+    }
+
+    /**
+     * Liefert die Änderungen an Ausleihen seit einem Token für die Synchronisation von Clients.
+     * Ohne Token wird nur das aktuelle Token geliefert; danach einmal alle Ausleihen laden.
+     *
+     * @param since Token des letzten Aufrufs
+     * @param limit Maximale Anzahl Änderungen pro Seite
+     * @return 200 mit geänderten Ausleihen und IDs gelöschter (zurückgegebener) Ausleihen,
+     *         410, wenn das Token nicht mehr gültig ist und alles neu geladen werden muss
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeed.Page<Borrowing>> getChanges(@RequestParam(required = false) Long since,
+                                                                 @RequestParam(defaultValue = "500") int limit) {
+        return changeFeed.changes(CatalogChangeTracker.BORROWING, since, limit, borrowingRepository, Borrowing::getId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE).build());
+    }
 }
@@ -1,12 +1,28 @@
 package com.project.library.library_backend.controller;
 
+import com.project.library.library_backend.catalog.CatalogChangeTracker;
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.catalog.CustomerEntry;
+import com.project.library.library_backend.catalog.CustomerIndex;
+import com.project.library.library_backend.fines.FinesEngine;
 import com.project.library.library_backend.model.Customer;
 import com.project.library.library_backend.model.Address;
+import com.project.library.library_backend.profiling.SearchEvent;
 import com.project.library.library_backend.repository.CustomerRepository;
 import com.project.library.library_backend.repository.AddressRepository;
+import com.project.library.library_backend.service.BatchLookup;
+import com.project.library.library_backend.service.LookupCoalescer;
+import com.project.library.library_backend.service.ChangeFeed;
+import com.project.library.library_backend.serialization.JsonStreamer;
+import com.project.library.library_backend.serialization.RowSerializers;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,12 +34,18 @@ import java.util.Optional;
  *
  * API-Endpunkte:
  * - POST /api/customers → erstellt einen neuen Kunden
- * - GET /api/customers → gibt alle Kunden zurück
+ * - GET /api/customers → gibt alle Kunden zurück (gestreamt)
+ * - GET /api/customers/export → alle Kunden als NDJSON (ein Objekt pro Zeile)
+ * - GET /api/customers/changes?since=... → Änderungen seit einem Token (Delta-Synchronisation)
  * - GET /api/customers/{id} → gibt einen bestimmten Kunden zurück
+ * - GET /api/customers?ids=1,2,3 → gibt mehrere Kunden in Anfragereihenfolge zurück
+ * - POST /api/customers/batch → wie oben, IDs im Request-Body (für grosse Mengen)
  * - PUT /api/customers/{id} → aktualisiert einen bestehenden Kunden
  * - DELETE /api/customers/{id} → löscht einen Kunden
  * - GET /api/customers/search/lastname?name=... → findet Kunden anhand des Nachnamens
+ * - GET /api/customers/search?q=...&birthdate=... → unscharfe Suche über Name, E-Mail und Geburtsdatum
  * - GET /api/customers/search/address?id=... → findet Kunden anhand der Address-ID
+ * - GET /api/customers/{id}/fines → Mahngebühren eines Kunden
  * 
  * @author Basil Ramseyer
  * @version 1.0
@@ -38,14 +60,66 @@ public class CustomerController {
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private LookupCoalescer lookupCoalescer;
+
+    @Autowired
+    private CustomerIndex customerIndex;
+
+    @Autowired
+    private JsonStreamer jsonStreamer;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private CatalogState catalogState;
+
+    @Autowired
+    private FinesEngine finesEngine;
+
     /**
-     * Gibt alle Kunden zurück.
+     * Gibt alle Kunden inklusive Adresse zurück. Die Zeilen werden direkt aus der Datenbank
+     * in die Antwort geschrieben, ohne Entities zu laden.
      *
+     * @param accept Accept-Header (JSON, CBOR oder Smile)
      * @return Liste aller Kunden
      */
     @GetMapping
-    public List<Customer> getAllCustomers() {
-        return customerRepository.findAll();
+    public ResponseEntity<StreamingResponseBody> getAllCustomers(@RequestHeader(value = "Accept", required = false) String accept) {
+        return jsonStreamer.response(RowSerializers.CUSTOMERS, JsonStreamer.Format.fromAccept(accept));
+    }
+
+    /**
+     * Exportiert alle Kunden als NDJSON.
+     *
+     * @return Ein Kunde pro Zeile
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers() {
+        return jsonStreamer.response(RowSerializers.CUSTOMERS, JsonStreamer.Format.NDJSON);
+    }
+
+    /**
+     * Gibt mehrere Kunden anhand ihrer IDs zurück (eine IN-Abfrage statt N Einzelabfragen).
+     *
+     * @param ids Kommagetrennte IDs der Kunden
+     * @return Gefundene Kunden in der Reihenfolge der IDs
+     */
+    @GetMapping(params = "ids")
+    public List<Customer> getCustomersByIds(@RequestParam List<Long> ids) {
+        return BatchLookup.findAllInOrder(customerRepository, ids, Customer::getId);
+    }
+
+    /**
+     * Gibt mehrere Kunden anhand ihrer IDs zurück, die IDs werden im Request-Body übergeben.
+     *
+     * @param ids Liste der IDs
+     * @return Gefundene Kunden in der Reihenfolge der IDs
+     */
+    @PostMapping("/batch")
+    public List<Customer> getCustomersByIdsBatch(@RequestBody List<Long> ids) {
+        return BatchLookup.findAllInOrder(customerRepository, ids, Customer::getId);
     }
 
     /**
@@ -56,7 +130,27 @@ public class CustomerController {
      */
     @GetMapping("/{id}")
     public Optional<Customer> getCustomerById(@PathVariable Long id) {
-        return customerRepository.findById(id);
+        return lookupCoalescer.findCustomer(id);
+    }
+
+    /**
+     * Gibt die Mahngebühren eines Kunden für seine offenen, überfälligen Ausleihen zurück.
+     *
+     * @param id ID des Kunden
+     * @return 200 mit Summe und Gebühr pro Ausleihe (Beträge in Rappen),
+     *         404, wenn der Kunde nicht existiert, 503, solange der Katalog nicht geladen ist
+     */
+    @GetMapping("/{id}/fines")
+    public ResponseEntity<FinesEngine.CustomerFines> getFines(@PathVariable Long id) {
+        if (!catalogState.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (catalogState.getCustomer(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return finesEngine.finesOf(id, LocalDate.now())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
     }
 
     /**
@@ -111,7 +205,29 @@ public class CustomerController {
      */
     @GetMapping("/search/lastname")
     public List<Customer> findByLastname(@RequestParam String name) {
-        return customerRepository.findByLastname(name);
+        return SearchEvent.record("customer.lastname", () -> name, () -> customerRepository.findByLastname(name), List::size);
+    }
+
+    /**
+     * Unscharfe Suche für den Schalter: Präfixe von Vor- und Nachname oder E-Mail sowie
+     * gleich klingende Namen (Kölner Phonetik), optional eingegrenzt auf ein Geburtsdatum.
+     *
+     * @param q Suchtext, z. B. "meier hans" oder "hans.m"
+     * @param birthdate Geburtsdatum (yyyy-MM-dd) zur Unterscheidung gleichnamiger Kunden
+     * @param limit Maximale Anzahl Treffer
+     * @return 200 mit den gefundenen Kunden, die besten Treffer zuerst,
+     *         503, solange der Katalog nicht geladen ist
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<CustomerEntry>> search(@RequestParam(required = false) String q,
+                                                      @RequestParam(required = false)
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate birthdate,
+                                                      @RequestParam(defaultValue = "20") int limit) {
+        if (!catalogState.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(SearchEvent.record("customer.search", () -> birthdate != null ? q + " " + birthdate : q,
+                () -> customerIndex.search(q, birthdate, Math.max(1, Math.min(limit, 200))), List::size));
     }
 
     /**
@@ -125,4 +241,21 @@ public class CustomerController {
         Optional<Address> address = addressRepository.findById(id);
         return address.map(customerRepository::findByAddress).orElse(List.of());
     }
+
+    /**
+     * Liefert die Änderungen an Kunden seit einem Token für die Synchronisation von Clients.
+     * Ohne Token wird nur das aktuelle Token geliefert; danach einmal alle Kunden laden.
+     *
+     * @param since Token des letzten Aufrufs
+     * @param limit Maximale Anzahl Änderungen pro Seite
+     * @return 200 mit geänderten Kunden und IDs gelöschter Kunden,
+     *         410, wenn das Token nicht mehr gültig ist und alles neu geladen werden muss
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeed.Page<Customer>> getChanges(@RequestParam(required = false) Long since,
+                                                                @RequestParam(defaultValue = "500") int limit) {
+        return changeFeed.changes(CatalogChangeTracker.CUSTOMER, since, limit, customerRepository, Customer::getId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE).build());
+    }
 }
@@ -0,0 +1,109 @@
+package com.project.library.library_backend.controller;
+
+import com.project.library.library_backend.model.Hold;
+import com.project.library.library_backend.repository.HoldRepository;
+import com.project.library.library_backend.service.HoldService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * REST-Controller für Vormerkungen.
+ *
+ * Statt eine Ausleihe für ein ausgeliehenes Medium wiederholt zu versuchen, reiht sich der
+ * Kunde einmal in die Warteschlange des Mediums ein. Bei der Rückgabe wird das Medium
+ * automatisch dem ersten Kunden der Warteschlange ausgeliehen.
+ *
+ * API-Endpunkte:
+ * - POST /api/holds → merkt ein Medium vor (Body: mediaid, customerid)
+ *   201 neu vorgemerkt, 200 bereits vorgemerkt, 404 Medium/Kunde unbekannt,
+ *   409 Medium ist verfügbar oder vom Kunden selbst ausgeliehen,
+ *   422 mit den verletzten Ausleihregeln
+ * - GET /api/holds/{id} → gibt eine Vormerkung zurück
+ * - DELETE /api/holds/{id} → storniert eine Vormerkung
+ * - GET /api/holds/search/media?id=... → Warteschlange eines Mediums
+ * - GET /api/holds/search/customer?id=... → Vormerkungen eines Kunden
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/holds")
+public class HoldController {
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    /**
+     * Merkt ein ausgeliehenes Medium für einen Kunden vor.
+     *
+     * @param hold Vormerkung mit Medium- und Kunden-ID
+     * @return Ergebnis mit Vormerkung und Position in der Warteschlange
+     */
+    @PostMapping
+    public ResponseEntity<HoldService.Placement> placeHold(@RequestBody Hold hold) {
+        if (hold.getMediaid() == null || hold.getCustomerid() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        HoldService.Placement placement = holdService.place(hold.getMediaid(), hold.getCustomerid());
+        HttpStatus status = switch (placement.status()) {
+            case QUEUED -> HttpStatus.CREATED;
+            case EXISTING -> HttpStatus.OK;
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case MEDIA_AVAILABLE, ALREADY_BORROWED -> HttpStatus.CONFLICT;
+            case INELIGIBLE -> HttpStatus.UNPROCESSABLE_ENTITY;
+        };
+        return ResponseEntity.status(status).body(placement);
+    }
+
+    /**
+     * Gibt eine Vormerkung anhand ihrer ID zurück.
+     *
+     * @param id ID der Vormerkung
+     * @return Optional mit Vormerkung
+     */
+    @GetMapping("/{id}")
+    public Optional<Hold> getHoldById(@PathVariable Long id) {
+        return holdRepository.findById(id);
+    }
+
+    /**
+     * Storniert eine Vormerkung.
+     *
+     * @param id ID der Vormerkung
+     * @return 204 bei Erfolg, 404 wenn die Vormerkung nicht (mehr) existiert
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelHold(@PathVariable Long id) {
+        return holdService.cancel(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Gibt die Warteschlange eines Mediums zurück.
+     *
+     * @param id ID des Mediums
+     * @return Vormerkungen in der Reihenfolge, in der sie bedient werden
+     */
+    @GetMapping("/search/media")
+    public List<Hold> findByMedia(@RequestParam Long id) {
+        return holdService.findByMedia(id);
+    }
+
+    /**
+     * Gibt alle Vormerkungen eines Kunden zurück.
+     *
+     * @param id ID des Kunden
+     * @return Vormerkungen, die ältesten zuerst
+     */
+    @GetMapping("/search/customer")
+    public List<Hold> findByCustomer(@RequestParam Long id) {
+        return holdService.findByCustomer(id);
+    }
+}
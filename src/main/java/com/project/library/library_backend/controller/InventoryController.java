@@ -0,0 +1,49 @@
+package com.project.library.library_backend.controller;
+
+import com.project.library.library_backend.inventory.InventoryService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+/**
+ * REST-Controller für die Inventur.
+ *
+ * API-Endpunkte:
+ * - POST /api/inventory/reconcile → gleicht eine Scan-Datei ("Medium-ID;Regalcode" pro Zeile)
+ *   mit dem Bestand ab und liefert fehlende, falsch eingeordnete, ausgeliehene und unbekannte
+ *   Medien als NDJSON, am Ende eine Zeile mit den Zählern
+ *
+ * Der Request-Body wird gestreamt gelesen; die Datei darf beliebig gross sein.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/inventory")
+public class InventoryController {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    /**
+     * Liest und sortiert die Scans, der Abgleich mit den Medien läuft beim Schreiben der Antwort.
+     *
+     * @param request Anfrage mit der Scan-Datei als Body (text/plain, UTF-8)
+     * @return Abweichungen als NDJSON
+     */
+    @PostMapping("/reconcile")
+    public ResponseEntity<StreamingResponseBody> reconcile(HttpServletRequest request) throws IOException {
+        InventoryService.Upload upload = inventoryService.upload(request.getInputStream());
+        StreamingResponseBody body = out -> inventoryService.report(upload, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
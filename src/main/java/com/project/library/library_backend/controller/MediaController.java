@@ -1,12 +1,30 @@
 package com.project.library.library_backend.controller;
 
+import com.project.library.library_backend.catalog.CatalogChangeTracker;
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.catalog.IsbnIndex;
+import com.project.library.library_backend.catalog.MediaFacetIndex;
 import com.project.library.library_backend.model.Media;
+import com.project.library.library_backend.profiling.SearchEvent;
 import com.project.library.library_backend.repository.MediaRepository;
+import com.project.library.library_backend.service.BatchLookup;
+import com.project.library.library_backend.service.LookupCoalescer;
+import com.project.library.library_backend.service.MediaMetadataUpdate;
+import com.project.library.library_backend.service.MediaWriteBehind;
+import com.project.library.library_backend.service.ChangeFeed;
+import com.project.library.library_backend.serialization.JsonStreamer;
+import com.project.library.library_backend.serialization.RowSerializers;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST-Controller zur Verwaltung von Medien.
@@ -15,13 +33,20 @@ import java.util.Optional;
  * abzurufen, zu bearbeiten, zu löschen oder nach bestimmten Kriterien zu suchen.
  *
  * API-Endpunkte:
- * - POST /api/media → erstellt ein neues Medium
- * - GET /api/media → gibt alle Medien zurück
+ * - POST /api/media → erstellt ein neues Medium (409 bei bekannter ISBN, ausser mit ?copy=true)
+ * - GET /api/media → gibt alle Medien zurück (gestreamt)
+ * - GET /api/media/export → alle Medien als NDJSON (ein Objekt pro Zeile)
+ * - GET /api/media/changes?since=... → Änderungen seit einem Token (Delta-Synchronisation)
  * - GET /api/media/{id} → gibt ein bestimmtes Medium zurück
- * - PUT /api/media/{id} → aktualisiert ein Medium
+ * - GET /api/media?ids=1,2,3 → gibt mehrere Medien in Anfragereihenfolge zurück
+ * - POST /api/media/batch → wie oben, IDs im Request-Body (für grosse Mengen)
+ * - PUT /api/media/{id} → aktualisiert ein bestehendes Medium (409 bei geänderter, bekannter ISBN, ausser mit ?copy=true)
+ * - PATCH /api/media/{id} → ändert Bewertung, Regalcode und/oder Genre (asynchron, 202 Accepted)
  * - DELETE /api/media/{id} → löscht ein Medium
  * - GET /api/media/search/title?title=... → findet Medien anhand des Titels
  * - GET /api/media/search/id?id=... → gibt ein Medium anhand der ID zurück
+ * - GET /api/media/isbn/{isbn} → gibt alle Exemplare mit dieser ISBN zurück
+ * - GET /api/media/facets?genre=...&fskMax=...&ratingMin=...&available=... → gefilterte Medien mit Facettenzählern
  * 
  * @author Basil Ramseyer
  * @version 1.0
@@ -33,14 +58,69 @@ public class MediaController {
     @Autowired
     private MediaRepository mediaRepository;
 
+    @Autowired
+    private LookupCoalescer lookupCoalescer;
+
+    @Autowired
+    private MediaWriteBehind mediaWriteBehind;
+
+    @Autowired
+    private CatalogState catalogState;
+
+    @Autowired
+    private JsonStreamer jsonStreamer;
+
+    @Autowired
+    private MediaFacetIndex mediaFacetIndex;
+
+    @Autowired
+    private IsbnIndex isbnIndex;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
     /**
-     * Gibt alle Medien zurück.
+     * Gibt alle Medien zurück. Die Zeilen werden direkt aus der Datenbank in die Antwort
+     * geschrieben, ohne Entities zu laden.
      *
+     * @param accept Accept-Header (JSON, CBOR oder Smile)
      * @return Liste aller Medien
      */
     @GetMapping
-    public List<Media> getAllMedia() {
-        return mediaRepository.findAll();
+    public ResponseEntity<StreamingResponseBody> getAllMedia(@RequestHeader(value = "Accept", required = false) String accept) {
+        return jsonStreamer.response(RowSerializers.MEDIA, JsonStreamer.Format.fromAccept(accept));
+    }
+
+    /**
+     * Exportiert alle Medien als NDJSON.
+     *
+     * @return Ein Medium pro Zeile
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMedia() {
+        return jsonStreamer.response(RowSerializers.MEDIA, JsonStreamer.Format.NDJSON);
+    }
+
+    /**
+     * Gibt mehrere Medien anhand ihrer IDs zurück (eine IN-Abfrage statt N Einzelabfragen).
+     *
+     * @param ids Kommagetrennte IDs der Medien
+     * @return Gefundene Medien in der Reihenfolge der IDs
+     */
+    @GetMapping(params = "ids")
+    public List<Media> getMediaByIds(@RequestParam List<Long> ids) {
+        return BatchLookup.findAllInOrder(mediaRepository, ids, Media::getId);
+    }
+
+    /**
+     * Gibt mehrere Medien anhand ihrer IDs zurück, die IDs werden im Request-Body übergeben.
+     *
+     * @param ids Liste der IDs
+     * @return Gefundene Medien in der Reihenfolge der IDs
+     */
+    @PostMapping("/batch")
+    public List<Media> getMediaByIdsBatch(@RequestBody List<Long> ids) {
+        return BatchLookup.findAllInOrder(mediaRepository, ids, Media::getId);
     }
 
     /**
@@ -51,42 +131,101 @@ public class MediaController {
      */
     @GetMapping("/{id}")
     public Optional<Media> getMediaById(@PathVariable Long id) {
-        return mediaRepository.findById(id);
+        return lookupCoalescer.findMedia(id);
     }
 
     /**
-     * Erstellt ein neues Medium.
+     * Erstellt ein neues Medium. Ist die ISBN schon vorhanden, wird das Medium nur als
+     * weiteres Exemplar angelegt, wenn dies mit {@code copy=true} bestätigt ist. Zwei
+     * gleichzeitige Anfragen mit derselben neuen ISBN werden beide angenommen.
      *
      * @param media Media-Objekt aus dem Request-Body
-     * @return Gespeichertes Medium
+     * @param copy true, um ein weiteres Exemplar einer bekannten ISBN zu erfassen
+     * @return 200 mit gespeichertem Medium, 409 bei bereits vorhandener ISBN (mit Hinweis auf copy=true)
      */
     @PostMapping
-    public Media createMedia(@RequestBody Media media) {
-        return mediaRepository.save(media);
+    public ResponseEntity<?> createMedia(@RequestBody Media media, @RequestParam(defaultValue = "false") boolean copy) {
+        if (!copy && media.getIsbn() != null && isbnExists(media.getIsbn())) {
+            return duplicateIsbn(media.getIsbn());
+        }
+        return ResponseEntity.ok(mediaRepository.save(media));
+    }
+
+    private static ResponseEntity<?> duplicateIsbn(Long isbn) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "isbn", isbn,
+                "message", "Ein Medium mit dieser ISBN existiert bereits. Mit ?copy=true wird ein weiteres"
+                        + " Exemplar erfasst; bestehende Exemplare: GET /api/media/isbn/" + isbn));
+    }
+
+    /**
+     * Gibt alle Exemplare mit einer ISBN zurück.
+     *
+     * @param isbn ISBN
+     * @return 200 mit den Medien aufsteigend nach ID, 404, wenn keines existiert
+     */
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<List<Media>> findByIsbn(@PathVariable Long isbn) {
+        // Mit geladenem Katalog liefert der Index die IDs, geladen wird nur über den Primärschlüssel
+        List<Media> media = catalogState.isLoaded()
+                ? BatchLookup.findAllInOrder(mediaRepository,
+                        Arrays.stream(isbnIndex.mediaIds(isbn)).boxed().toList(), Media::getId)
+                : mediaRepository.findByIsbnOrderByIdAsc(isbn);
+        return media.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(media);
     }
 
     /**
-     * Aktualisiert ein bestehendes Medium oder erstellt ein neues mit dieser ID.
+     * Aktualisiert ein bestehendes Medium. Neue Medien entstehen nur über POST. Wird die ISBN auf
+     * eine bereits vorhandene geändert, gilt wie beim Erstellen die Bestätigung mit {@code copy=true}.
      *
      * @param id ID des Mediums
      * @param updatedMedia Neue Mediadaten
-     * @return Aktualisiertes oder neu erstelltes Medium
+     * @param copy true, um das Medium als weiteres Exemplar einer bekannten ISBN zu führen
+     * @return 200 mit aktualisiertem Medium, 404 bei unbekannter ID, 409 bei bereits vorhandener ISBN
      */
     @PutMapping("/{id}")
-    public Media updateMedia(@PathVariable Long id, @RequestBody Media updatedMedia) {
-        return mediaRepository.findById(id).map(media -> {
-            media.setTitle(updatedMedia.getTitle());
-            media.setAuthor(updatedMedia.getAuthor());
-            media.setGenre(updatedMedia.getGenre());
-            media.setRating(updatedMedia.getRating());
-            media.setIsbn(updatedMedia.getIsbn());
-            media.setShelfCode(updatedMedia.getShelfCode());
-            media.setFsk(updatedMedia.getFsk());
-            return mediaRepository.save(media);
-        }).orElseGet(() -> {
-            updatedMedia.setId(id);
-            return mediaRepository.save(updatedMedia);
-        });
+    public ResponseEntity<?> updateMedia(@PathVariable Long id, @RequestBody Media updatedMedia,
+                                         @RequestParam(defaultValue = "false") boolean copy) {
+        mediaWriteBehind.drain(id);
+        Optional<Media> existing = mediaRepository.findById(id);
+        if (existing.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Media media = existing.get();
+        Long isbn = updatedMedia.getIsbn();
+        if (!copy && isbn != null && !isbn.equals(media.getIsbn()) && isbnExists(isbn)) {
+            return duplicateIsbn(isbn);
+        }
+        media.setTitle(updatedMedia.getTitle());
+        media.setAuthor(updatedMedia.getAuthor());
+        media.setGenre(updatedMedia.getGenre());
+        media.setRating(updatedMedia.getRating());
+        media.setIsbn(isbn);
+        media.setShelfCode(updatedMedia.getShelfCode());
+        media.setFsk(updatedMedia.getFsk());
+        return ResponseEntity.ok(mediaRepository.save(media));
+    }
+
+    /**
+     * Ändert die unkritischen Metadaten eines Mediums (Bewertung, Regalcode, Genre).
+     * Die Änderung wird im Journal gesichert und verzögert in die Datenbank geschrieben; im
+     * Cluster sofort, da der Puffer nur auf dieser Instanz liegt ({@link MediaWriteBehind}).
+     *
+     * @param id ID des Mediums
+     * @param update Zu ändernde Felder (nicht gesetzte Felder bleiben unverändert)
+     * @return 202 bei Annahme, 400 ohne Felder, 404 bei unbekanntem Medium
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchMediaMetadata(@PathVariable Long id, @RequestBody MediaMetadataUpdate update) {
+        if (update.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean exists = catalogState.isLoaded() ? catalogState.getMedia(id) != null : mediaRepository.existsById(id);
+        if (!exists) {
+            return ResponseEntity.notFound().build();
+        }
+        mediaWriteBehind.submit(id, update);
+        return ResponseEntity.accepted().build();
     }
 
     /**
@@ -96,6 +235,7 @@ public class MediaController {
      */
     @DeleteMapping("/{id}")
     public void deleteMedia(@PathVariable Long id) {
+        mediaWriteBehind.drain(id);
         mediaRepository.deleteById(id);
     }
 
@@ -107,7 +247,7 @@ public class MediaController {
      */
     @GetMapping("/search/title")
     public List<Media> findByTitle(@RequestParam String title) {
-        return mediaRepository.findByTitle(title);
+        return SearchEvent.record("media.title", () -> title, () -> mediaRepository.findByTitle(title), List::size);
     }
 
     /**
@@ -118,6 +258,61 @@ public class MediaController {
      */
     @GetMapping("/search/id")
     public Optional<Media> findById(@RequestParam Long id) {
-        return mediaRepository.findById(id);
+        return lookupCoalescer.findMedia(id);
+    }
+
+    /**
+     * Facettensuche für den Katalog: Filter über Genre, Autor, FSK, Bewertung und Verfügbarkeit
+     * sowie die Anzahl Medien pro Wert jeder Facette. Mehrere Werte eines Parameters
+     * (z. B. genre=Fantasy&genre=Krimi) sind mit ODER verknüpft.
+     *
+     * @param genre Genres
+     * @param author Autoren
+     * @param fsk FSK-Werte
+     * @param fskMax Höchste Altersfreigabe, z. B. 12
+     * @param ratingMin Mindestbewertung, z. B. 4
+     * @param available true nur verfügbare, false nur ausgeliehene Medien
+     * @param limit Maximale Anzahl zurückgegebener Medien
+     * @param facetLimit Maximale Anzahl Werte bei Genre und Autor
+     * @return 200 mit Anzahl Treffer, den ersten Medien und Facettenzählern,
+     *         503, solange der Katalog nicht geladen ist
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<MediaFacetIndex.Result> facets(@RequestParam(required = false) Set<String> genre,
+                                                         @RequestParam(required = false) Set<String> author,
+                                                         @RequestParam(required = false) Set<String> fsk,
+                                                         @RequestParam(required = false) Integer fskMax,
+                                                         @RequestParam(required = false) Integer ratingMin,
+                                                         @RequestParam(required = false) Boolean available,
+                                                         @RequestParam(defaultValue = "20") int limit,
+                                                         @RequestParam(defaultValue = "10") int facetLimit) {
+        if (!catalogState.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        MediaFacetIndex.Query query = new MediaFacetIndex.Query(genre, author, fsk, fskMax, ratingMin, available);
+        return ResponseEntity.ok(SearchEvent.record("media.facets", query::toString,
+                () -> mediaFacetIndex.query(query, Math.max(0, Math.min(limit, 200)), Math.max(1, Math.min(facetLimit, 100))),
+                MediaFacetIndex.Result::total));
+    }
+
+    /**
+     * Liefert die Änderungen an Medien seit einem Token für die Synchronisation von Clients.
+     * Ohne Token wird nur das aktuelle Token geliefert; danach einmal alle Medien laden.
+     *
+     * @param since Token des letzten Aufrufs
+     * @param limit Maximale Anzahl Änderungen pro Seite
+     * @return 200 mit geänderten Medien und IDs gelöschter Medien,
+     *         410, wenn das Token nicht mehr gültig ist und alles neu geladen werden muss
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeed.Page<Media>> getChanges(@RequestParam(required = false) Long since,
+                                                             @RequestParam(defaultValue = "500") int limit) {
+        return changeFeed.changes(CatalogChangeTracker.MEDIA, since, limit, mediaRepository, Media::getId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE).build());
+    }
+
+    private boolean isbnExists(Long isbn) {
+        return catalogState.isLoaded() ? isbnIndex.contains(isbn) : mediaRepository.existsByIsbn(isbn);
     }
 }
@@ -0,0 +1,79 @@
+package com.project.library.library_backend.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Leitet Datenbankzugriffe je nach Transaktion auf die primäre Datenquelle oder eine Read-Replica.
+ *
+ * Regeln:
+ * - Schreibende Transaktionen (und Zugriffe ohne Transaktion) → primäre Datenquelle
+ * - {@code @Transactional(readOnly = true)} → gesunde Replica (Round-Robin)
+ * - keine gesunde Replica oder Client hat kürzlich geschrieben → primäre Datenquelle
+ *
+ * Die Entscheidung fällt erst beim ersten Statement. Deshalb muss die Datenquelle über
+ * {@link #wrap(DataSource, ReplicaHealthChecker, ReadYourWritesTracker)} in einen
+ * {@link LazyConnectionDataSourceProxy} verpackt werden, sonst ist das readOnly-Flag beim
+ * Holen der Verbindung noch nicht gesetzt.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaHealthChecker healthChecker;
+
+    private final ReadYourWritesTracker tracker;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaHealthChecker healthChecker, ReadYourWritesTracker tracker) {
+        this.healthChecker = healthChecker;
+        this.tracker = tracker;
+        Map<Object, Object> targets = new HashMap<>(healthChecker.getReplicas());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Erstellt die routende Datenquelle und verpackt sie in einen {@link LazyConnectionDataSourceProxy}.
+     *
+     * @param primary Primäre Datenquelle für Schreibzugriffe
+     * @param healthChecker Zustand der Read-Replicas
+     * @param tracker Schreibzugriffe pro Client
+     * @return Einsatzbereite Datenquelle
+     */
+    public static DataSource wrap(DataSource primary, ReplicaHealthChecker healthChecker, ReadYourWritesTracker tracker) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, healthChecker, tracker);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                tracker.recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (tracker.isSticky()) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthChecker.getHealthyReplicas();
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+}
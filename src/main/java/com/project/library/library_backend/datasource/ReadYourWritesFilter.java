@@ -0,0 +1,40 @@
+package com.project.library.library_backend.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Setzt für jede Anfrage den Client im {@link ReadYourWritesTracker}.
+ *
+ * Der Client wird über den Header "X-Client-Id" erkannt, ohne Header über die IP-Adresse.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_HEADER = "X-Client-Id";
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = request.getHeader(CLIENT_HEADER);
+        tracker.bind(client != null ? client : request.getRemoteAddr());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            tracker.unbind();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.library.library_backend.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merkt sich pro Client den Zeitpunkt des letzten Schreibzugriffs.
+ *
+ * Solange der letzte Schreibzugriff eines Clients weniger als die konfigurierte Dauer
+ * zurückliegt, werden auch seine Lesezugriffe auf die primäre Datenquelle geleitet
+ * ("Read-your-writes"), damit er seine eigenen Änderungen trotz Replikationsverzögerung sieht.
+ *
+ * Der Client des aktuellen Threads wird von {@link ReadYourWritesFilter} gesetzt.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class ReadYourWritesTracker {
+
+    private final ThreadLocal<String> currentClient = new ThreadLocal<>();
+
+    private final ConcurrentHashMap<String, Long> lastWrite = new ConcurrentHashMap<>();
+
+    private final long stickinessNanos;
+
+    public ReadYourWritesTracker(Duration stickiness) {
+        this.stickinessNanos = stickiness.toNanos();
+    }
+
+    /**
+     * Setzt den Client für den aktuellen Thread.
+     *
+     * @param client Schlüssel des Clients (z. B. Client-ID oder IP-Adresse)
+     */
+    public void bind(String client) {
+        currentClient.set(client);
+    }
+
+    /**
+     * @return Client des aktuellen Threads oder null; zum Übertragen auf einen anderen Thread
+     *         (z. B. gestreamte Antworten im Async-Thread von Spring MVC) mit {@link #bind}
+     */
+    public String currentClient() {
+        return currentClient.get();
+    }
+
+    /**
+     * Entfernt den Client des aktuellen Threads.
+     */
+    public void unbind() {
+        currentClient.remove();
+    }
+
+    /**
+     * Vermerkt einen Schreibzugriff für den Client des aktuellen Threads.
+     */
+    public void recordWrite() {
+        String client = currentClient.get();
+        if (client != null) {
+            lastWrite.put(client, System.nanoTime());
+        }
+    }
+
+    /**
+     * @return true, wenn der Client des aktuellen Threads kürzlich geschrieben hat
+     */
+    public boolean isSticky() {
+        String client = currentClient.get();
+        if (client == null) {
+            return false;
+        }
+        Long written = lastWrite.get(client);
+        return written != null && System.nanoTime() - written < stickinessNanos;
+    }
+
+    /**
+     * Entfernt abgelaufene Einträge.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void expire() {
+        long now = System.nanoTime();
+        lastWrite.values().removeIf(written -> now - written >= stickinessNanos);
+    }
+}
@@ -0,0 +1,151 @@
+package com.project.library.library_backend.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prüft regelmässig, ob die Read-Replicas erreichbar und aktuell genug sind.
+ *
+ * Eine Replica gilt als gesund, wenn eine Verbindung aufgebaut werden kann und ihre
+ * Replikationsverzögerung höchstens {@code maxLag} beträgt. Nur gesunde Replicas werden
+ * vom {@link ReadWriteRoutingDataSource} für Lesezugriffe verwendet; ist keine gesund,
+ * wird auf die primäre Datenquelle ausgewichen.
+ *
+ * Der Zustand ist zusätzlich unter /actuator/health sichtbar.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class ReplicaHealthChecker implements HealthIndicator, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthChecker.class);
+
+    private static final String LAG_COLUMN = "Seconds_Behind_Master";
+
+    private final Map<String, DataSource> replicas;
+
+    private final Duration maxLag;
+
+    private final String lagQuery;
+
+    private final Map<String, String> states = new ConcurrentHashMap<>();
+
+    private volatile List<String> healthyReplicas = List.of();
+
+    /**
+     * @param replicas Read-Replicas nach Name (Reihenfolge bleibt erhalten)
+     * @param maxLag Maximal tolerierte Replikationsverzögerung
+     * @param lagQuery Abfrage für die Verzögerung in Sekunden, leer = keine Prüfung
+     */
+    public ReplicaHealthChecker(Map<String, DataSource> replicas, Duration maxLag, String lagQuery) {
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+    }
+
+    /**
+     * @return Die konfigurierten Read-Replicas nach Name
+     */
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * @return Namen der aktuell gesunden Replicas
+     */
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    /**
+     * Prüft alle Replicas und aktualisiert die Liste der gesunden Replicas.
+     */
+    @Scheduled(fixedDelayString = "${library.datasource.routing.health-check-interval:5000}")
+    public void check() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            String name = replica.getKey();
+            try {
+                long lag = measureLag(replica.getValue());
+                if (lag <= maxLag.toSeconds()) {
+                    healthy.add(name);
+                    states.put(name, "UP, lag " + lag + "s");
+                } else {
+                    states.put(name, "LAGGING, lag " + lag + "s");
+                }
+            } catch (SQLException e) {
+                states.put(name, "DOWN, " + e.getMessage());
+                log.warn("Replica {} nicht erreichbar: {}", name, e.getMessage());
+            }
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    @Override
+    public Health health() {
+        return Health.up()
+                .withDetail("healthyReplicas", healthyReplicas)
+                .withDetails(Map.copyOf(states))
+                .build();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Misst die Replikationsverzögerung einer Replica in Sekunden.
+     * Liefert die Abfrage keine Zeile (z. B. kein Replikations-Setup), gilt die Verzögerung als 0.
+     */
+    private long measureLag(DataSource replica) throws SQLException {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(2)) {
+                throw new SQLException("Verbindung ungültig");
+            }
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return 0;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    return 0;
+                }
+                Object lag = rs.getObject(lagColumnIndex(rs.getMetaData()));
+                if (lag == null) {
+                    throw new SQLException("Replikation gestoppt");
+                }
+                return ((Number) lag).longValue();
+            }
+        }
+    }
+
+    private static int lagColumnIndex(ResultSetMetaData meta) throws SQLException {
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            if (LAG_COLUMN.equalsIgnoreCase(meta.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 1;
+    }
+}
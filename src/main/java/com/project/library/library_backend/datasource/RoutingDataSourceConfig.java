@@ -0,0 +1,77 @@
+package com.project.library.library_backend.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Konfiguration des Lese-/Schreib-Routings.
+ *
+ * Aktiv nur mit {@code library.datasource.routing.enabled=true}. Die primäre Datenquelle
+ * wird wie bisher über {@code spring.datasource.*} konfiguriert, die Replicas über
+ * {@code library.datasource.routing.replicas[n].*}.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfig {
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(RoutingDataSourceProperties properties) {
+        return new ReadYourWritesTracker(properties.getStickiness());
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesTracker tracker) {
+        return new ReadYourWritesFilter(tracker);
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(RoutingDataSourceProperties properties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<RoutingDataSourceProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            RoutingDataSourceProperties.Replica replica = configured.get(i);
+            replicas.put("replica-" + i, DataSourceBuilder.create()
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build());
+        }
+        return new ReplicaHealthChecker(replicas, properties.getMaxLag(), properties.getLagQuery());
+    }
+
+    /**
+     * Primäre Datenquelle aus {@code spring.datasource.*}.
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Routende Datenquelle, die von JPA und allen Repositories verwendet wird.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource, ReplicaHealthChecker healthChecker,
+                                 ReadYourWritesTracker tracker) {
+        return ReadWriteRoutingDataSource.wrap(primaryDataSource, healthChecker, tracker);
+    }
+}
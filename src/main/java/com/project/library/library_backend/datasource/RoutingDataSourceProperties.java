@@ -0,0 +1,127 @@
+package com.project.library.library_backend.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Konfiguration für das Lese-/Schreib-Routing auf Read-Replicas.
+ *
+ * Beispiel (application.properties):
+ * - library.datasource.routing.enabled=true
+ * - library.datasource.routing.replicas[0].url=jdbc:mariadb://replica1:3306/library
+ * - library.datasource.routing.replicas[0].username=tecuser
+ * - library.datasource.routing.replicas[0].password=secret
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "library.datasource.routing")
+public class RoutingDataSourceProperties {
+
+    /**
+     * Aktiviert das Routing (sonst wird nur die primäre Datenquelle verwendet).
+     */
+    private boolean enabled;
+
+    /**
+     * Die Read-Replicas.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Maximal tolerierte Replikationsverzögerung, darüber wird die Replica nicht verwendet.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Wie lange ein Client nach einem Schreibzugriff auf der primären Datenquelle liest.
+     */
+    private Duration stickiness = Duration.ofSeconds(5);
+
+    /**
+     * Abfrage, die auf der Replica die Verzögerung in Sekunden liefert.
+     * Leer = keine Prüfung der Verzögerung (z. B. für lokale Tests).
+     */
+    private String lagQuery = "SHOW SLAVE STATUS";
+
+    // Getter und Setter
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getStickiness() {
+        return stickiness;
+    }
+
+    public void setStickiness(Duration stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    /**
+     * Verbindungsdaten einer Read-Replica.
+     */
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.library.library_backend.fines;
+
+import com.project.library.library_backend.catalog.CatalogState;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Konfiguration der Mahngebühren.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Configuration
+@EnableConfigurationProperties(FinesProperties.class)
+public class FinesConfig {
+
+    @Bean
+    public FinesEngine finesEngine(FinesProperties properties, CatalogState catalogState) {
+        return new FinesEngine(catalogState, properties.getFeePerDay(), properties.getMaxFee(),
+                properties.getGraceDays(), properties.getParallelThreshold(), properties.getRefreshInterval());
+    }
+}
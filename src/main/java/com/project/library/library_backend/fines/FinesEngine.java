@@ -0,0 +1,260 @@
+package com.project.library.library_backend.fines;
+
+import com.project.library.library_backend.catalog.CatalogListener;
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.catalog.LoanEntry;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Berechnet die Mahngebühren aller offenen, überfälligen Ausleihen auf einmal.
+ *
+ * Die Ausleihen aus dem {@link CatalogState} werden in {@link LoanColumns} übertragen; die
+ * Gebühren entstehen in einer einfachen Schleife über int-Arrays (ohne Verzweigungen, nur
+ * min/max und Multiplikation), die der JIT-Compiler vektorisieren kann. Ab
+ * {@code parallelThreshold} Ausleihen wird die Berechnung mit Fork/Join auf den gemeinsamen
+ * Pool verteilt, ebenso die Summen pro Kunde.
+ *
+ * Gebühr pro Ausleihe: {@code min(Tage seit chargeFrom × feePerDay, maxFee)}, in Rappen.
+ *
+ * Das Ergebnis wird als Schnappschuss gehalten und neu berechnet, wenn der Tag wechselt oder
+ * sich Ausleihen geändert haben; nach einer Änderung aber höchstens alle
+ * {@code refreshInterval}, damit viele Ausleihen hintereinander nicht jedes Mal die ganze
+ * Berechnung auslösen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class FinesEngine implements CatalogListener {
+
+    /**
+     * Gebühr einer Ausleihe.
+     *
+     * @param loanId ID der Ausleihe
+     * @param duedate Fälligkeitsdatum
+     * @param daysOverdue Tage seit der Fälligkeit
+     * @param fee Gebühr in Rappen
+     */
+    public record LoanFine(long loanId, LocalDate duedate, int daysOverdue, long fee) {}
+
+    /**
+     * Gebühren eines Kunden.
+     *
+     * @param customerId ID des Kunden
+     * @param date Stichtag der Berechnung
+     * @param balance Summe der Gebühren in Rappen
+     * @param loans Überfällige Ausleihen mit Gebühr, die älteste zuerst
+     */
+    public record CustomerFines(long customerId, LocalDate date, long balance, List<LoanFine> loans) {}
+
+    /**
+     * Ergebnis einer Berechnung.
+     */
+    record Snapshot(LoanColumns columns, int day, int[] fees, long[] balances, long version, long computedAt) {}
+
+    private final CatalogState catalogState;
+
+    private final int graceDays;
+
+    private final int feePerDay;
+
+    private final int maxFee;
+
+    private final int parallelThreshold;
+
+    private final long refreshIntervalNanos;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    public FinesEngine(CatalogState catalogState, int feePerDay, int maxFee, int graceDays,
+                       int parallelThreshold, Duration refreshInterval) {
+        this.catalogState = catalogState;
+        this.feePerDay = Math.max(feePerDay, 0);
+        this.maxFee = maxFee < 0 ? Integer.MAX_VALUE : maxFee;
+        this.graceDays = Math.max(graceDays, 0);
+        this.parallelThreshold = Math.max(parallelThreshold, 1);
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        catalogState.addListener(this);
+    }
+
+    @Override
+    public void loanChanged(LoanEntry previous, LoanEntry current) {
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void catalogReloaded(CatalogState state) {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Liefert die Gebühren eines Kunden.
+     *
+     * @param customerId ID des Kunden
+     * @param today Stichtag
+     * @return Gebühren (leer, solange der Katalog nicht geladen ist)
+     */
+    public Optional<CustomerFines> finesOf(long customerId, LocalDate today) {
+        if (!catalogState.isLoaded()) {
+            return Optional.empty();
+        }
+        Snapshot current = snapshot(today);
+        LoanColumns columns = current.columns();
+        int index = columns.customerIndex(customerId);
+        if (index < 0) {
+            return Optional.of(new CustomerFines(customerId, today, 0, List.of()));
+        }
+        List<LoanFine> loans = new ArrayList<>();
+        for (int i = columns.starts[index]; i < columns.starts[index + 1]; i++) {
+            if (current.fees()[i] > 0) {
+                loans.add(new LoanFine(columns.loanIds[i], LocalDate.ofEpochDay(columns.dueDays[i]),
+                        current.day() - columns.dueDays[i], current.fees()[i]));
+            }
+        }
+        return Optional.of(new CustomerFines(customerId, today, current.balances()[index], loans));
+    }
+
+    /**
+     * Liefert den aktuellen Schnappschuss und berechnet ihn bei Bedarf neu.
+     */
+    Snapshot snapshot(LocalDate today) {
+        int day = Math.toIntExact(today.toEpochDay());
+        Snapshot current = snapshot;
+        if (isFresh(current, day)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (isFresh(current, day)) {
+                return current;
+            }
+            long seen = version.get();
+            LoanColumns columns = LoanColumns.of(catalogState.allLoans(), graceDays);
+            int[] fees = new int[columns.size];
+            long[] balances = new long[columns.customerIds.length];
+            compute(columns, day, fees, balances);
+            current = new Snapshot(columns, day, fees, balances, seen, System.nanoTime());
+            snapshot = current;
+            return current;
+        }
+    }
+
+    private boolean isFresh(Snapshot current, int day) {
+        return current != null && current.day() == day
+                && (current.version() == version.get() || System.nanoTime() - current.computedAt() < refreshIntervalNanos);
+    }
+
+    /**
+     * Berechnet die Gebühren pro Ausleihe und die Summen pro Kunde.
+     */
+    void compute(LoanColumns columns, int day, int[] fees, long[] balances) {
+        if (columns.size < parallelThreshold) {
+            fees(columns.chargeFrom, day, feePerDay, maxFee, fees, 0, columns.size);
+            balances(fees, columns.starts, balances, 0, balances.length);
+            return;
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        pool.invoke(new FeeTask(columns.chargeFrom, day, feePerDay, maxFee, fees, 0, columns.size, parallelThreshold));
+        pool.invoke(new BalanceTask(fees, columns.starts, balances, 0, balances.length, parallelThreshold));
+    }
+
+    /**
+     * Gebühren für die Zeilen {@code from} bis {@code to} (exklusive). Das Produkt wird in long
+     * gerechnet, damit es vor der Begrenzung auf {@code maxFee} nicht überläuft.
+     */
+    static void fees(int[] chargeFrom, int day, int feePerDay, int maxFee, int[] fees, int from, int to) {
+        for (int i = from; i < to; i++) {
+            fees[i] = (int) Math.min((long) Math.max(day - chargeFrom[i], 0) * feePerDay, maxFee);
+        }
+    }
+
+    /**
+     * Summen pro Kunde für die Kunden {@code from} bis {@code to} (exklusive).
+     */
+    static void balances(int[] fees, int[] starts, long[] balances, int from, int to) {
+        for (int c = from; c < to; c++) {
+            long sum = 0;
+            for (int i = starts[c]; i < starts[c + 1]; i++) {
+                sum += fees[i];
+            }
+            balances[c] = sum;
+        }
+    }
+
+    private static class FeeTask extends RecursiveAction {
+
+        private final int[] chargeFrom;
+        private final int day;
+        private final int feePerDay;
+        private final int maxFee;
+        private final int[] fees;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        FeeTask(int[] chargeFrom, int day, int feePerDay, int maxFee, int[] fees, int from, int to, int threshold) {
+            this.chargeFrom = chargeFrom;
+            this.day = day;
+            this.feePerDay = feePerDay;
+            this.maxFee = maxFee;
+            this.fees = fees;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                fees(chargeFrom, day, feePerDay, maxFee, fees, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new FeeTask(chargeFrom, day, feePerDay, maxFee, fees, from, mid, threshold),
+                    new FeeTask(chargeFrom, day, feePerDay, maxFee, fees, mid, to, threshold));
+        }
+    }
+
+    /**
+     * Teilt nach Kunden auf, so dass jeder Teil ganze Kunden summiert; die Grösse eines Teils
+     * wird an der Anzahl Ausleihen gemessen.
+     */
+    private static class BalanceTask extends RecursiveAction {
+
+        private final int[] fees;
+        private final int[] starts;
+        private final long[] balances;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        BalanceTask(int[] fees, int[] starts, long[] balances, int from, int to, int threshold) {
+            this.fees = fees;
+            this.starts = starts;
+            this.balances = balances;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < 2 || starts[to] - starts[from] <= threshold) {
+                balances(fees, starts, balances, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BalanceTask(fees, starts, balances, from, mid, threshold),
+                    new BalanceTask(fees, starts, balances, mid, to, threshold));
+        }
+    }
+}
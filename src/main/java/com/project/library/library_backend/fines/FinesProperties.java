@@ -0,0 +1,89 @@
+package com.project.library.library_backend.fines;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Konfiguration der Mahngebühren.
+ *
+ * Beispiel (application.properties):
+ * - library.fines.fee-per-day=50
+ * - library.fines.max-fee=2000
+ * - library.fines.grace-days=3
+ *
+ * Beträge in Rappen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "library.fines")
+public class FinesProperties {
+
+    /**
+     * Gebühr pro überfälligem Tag und Ausleihe.
+     */
+    private int feePerDay = 50;
+
+    /**
+     * Höchstgebühr pro Ausleihe (-1 = unbegrenzt).
+     */
+    private int maxFee = 2000;
+
+    /**
+     * Tage nach der Fälligkeit ohne Gebühr; gilt nicht für verlängerte Ausleihen.
+     */
+    private int graceDays = 0;
+
+    /**
+     * Ab dieser Anzahl Ausleihen wird parallel gerechnet.
+     */
+    private int parallelThreshold = 16384;
+
+    /**
+     * Mindestabstand zwischen zwei Neuberechnungen nach Änderungen an Ausleihen.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    // Getter und Setter
+
+    public int getFeePerDay() {
+        return feePerDay;
+    }
+
+    public void setFeePerDay(int feePerDay) {
+        this.feePerDay = feePerDay;
+    }
+
+    public int getMaxFee() {
+        return maxFee;
+    }
+
+    public void setMaxFee(int maxFee) {
+        this.maxFee = maxFee;
+    }
+
+    public int getGraceDays() {
+        return graceDays;
+    }
+
+    public void setGraceDays(int graceDays) {
+        this.graceDays = graceDays;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+}
@@ -0,0 +1,99 @@
+package com.project.library.library_backend.fines;
+
+import com.project.library.library_backend.catalog.LoanEntry;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Offene Ausleihen als Spalten primitiver Arrays (eine Zeile pro Ausleihe), sortiert nach
+ * Kunde und Fälligkeitsdatum.
+ *
+ * Daten werden als Epochentage gespeichert. Die Ausleihen eines Kunden liegen nebeneinander;
+ * {@link #starts} enthält pro Kunde den Index der ersten Zeile, so dass die Summe pro Kunde
+ * über einen zusammenhängenden Bereich läuft.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+final class LoanColumns {
+
+    private static final Comparator<LoanEntry> BY_CUSTOMER_AND_DUE =
+            Comparator.comparing(LoanEntry::customerId).thenComparing(LoanEntry::duedate).thenComparing(LoanEntry::id);
+
+    final int size;
+
+    final long[] loanIds;
+
+    final int[] dueDays;
+
+    /**
+     * Erster Tag, für den eine Gebühr anfällt: Fälligkeit plus Kulanzfrist, bei verlängerten
+     * Ausleihen die Fälligkeit selbst.
+     */
+    final int[] chargeFrom;
+
+    /**
+     * IDs der Kunden, aufsteigend und eindeutig.
+     */
+    final long[] customerIds;
+
+    /**
+     * Erste Zeile pro Kunde; {@code starts[customerIds.length]} ist {@link #size}.
+     */
+    final int[] starts;
+
+    private LoanColumns(int size, long[] loanIds, int[] dueDays, int[] chargeFrom, long[] customerIds, int[] starts) {
+        this.size = size;
+        this.loanIds = loanIds;
+        this.dueDays = dueDays;
+        this.chargeFrom = chargeFrom;
+        this.customerIds = customerIds;
+        this.starts = starts;
+    }
+
+    /**
+     * Überträgt die Ausleihen in Spalten. Ausleihen ohne Kunde oder Fälligkeit werden übersprungen.
+     *
+     * @param loans Offene Ausleihen
+     * @param graceDays Kulanzfrist in Tagen für nicht verlängerte Ausleihen
+     * @return Spalten
+     */
+    static LoanColumns of(Collection<LoanEntry> loans, int graceDays) {
+        LoanEntry[] rows = loans.stream()
+                .filter(loan -> loan.id() != null && loan.customerId() != null && loan.duedate() != null)
+                .toArray(LoanEntry[]::new);
+        Arrays.sort(rows, BY_CUSTOMER_AND_DUE);
+
+        int size = rows.length;
+        long[] loanIds = new long[size];
+        int[] dueDays = new int[size];
+        int[] chargeFrom = new int[size];
+        long[] customers = new long[size];
+        int[] starts = new int[size + 1];
+        int customerCount = 0;
+        for (int i = 0; i < size; i++) {
+            LoanEntry loan = rows[i];
+            loanIds[i] = loan.id();
+            dueDays[i] = Math.toIntExact(loan.duedate().toEpochDay());
+            chargeFrom[i] = dueDays[i] + (loan.extendedOn() == null ? graceDays : 0);
+            if (customerCount == 0 || customers[customerCount - 1] != loan.customerId()) {
+                customers[customerCount] = loan.customerId();
+                starts[customerCount] = i;
+                customerCount++;
+            }
+        }
+        starts[customerCount] = size;
+        return new LoanColumns(size, loanIds, dueDays, chargeFrom,
+                Arrays.copyOf(customers, customerCount), Arrays.copyOf(starts, customerCount + 1));
+    }
+
+    /**
+     * @param customerId ID des Kunden
+     * @return Index des Kunden in {@link #customerIds} oder ein negativer Wert
+     */
+    int customerIndex(long customerId) {
+        return Arrays.binarySearch(customerIds, customerId);
+    }
+}
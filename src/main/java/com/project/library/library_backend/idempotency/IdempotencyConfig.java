@@ -0,0 +1,29 @@
+package com.project.library.library_backend.idempotency;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Konfiguration für Idempotency-Keys (aktiv, solange library.idempotency.enabled nicht false ist).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties) {
+        return new IdempotencyStore(properties.getTtl().toNanos(), properties.getMaxEntries());
+    }
+
+    @Bean
+    public IdempotencyFilter idempotencyFilter(IdempotencyStore store, IdempotencyProperties properties) {
+        return new IdempotencyFilter(store, properties.getMaxBodySize(), properties.getWaitTimeout(),
+                properties.getClientHeader());
+    }
+}
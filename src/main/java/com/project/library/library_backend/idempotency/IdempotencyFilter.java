@@ -0,0 +1,253 @@
+package com.project.library.library_backend.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Beantwortet wiederholte POST- und PUT-Anfragen unter /api mit demselben Header
+ * "Idempotency-Key" aus dem {@link IdempotencyStore}.
+ *
+ * - Die erste Anfrage wird ausgeführt; Status, Content-Type und Body der Antwort werden
+ *   gespeichert (nicht bei 5xx, damit ein Serverfehler wiederholt werden kann).
+ * - Wiederholungen erhalten die gespeicherte Antwort mit dem Header "Idempotent-Replayed: true".
+ *   Läuft die erste Anfrage noch, warten sie auf deren Ergebnis (höchstens {@code waitTimeout},
+ *   danach 409).
+ * - Wird derselbe Schlüssel für eine andere Anfrage (Methode, Pfad oder Body) verwendet,
+ *   wird mit 422 geantwortet.
+ *
+ * Die Schlüssel gelten pro Client, damit ein Client nicht mit einem erratenen Schlüssel die
+ * Antwort eines anderen erhält. Der Client wird über den angemeldeten Benutzer erkannt, sonst
+ * über den Header {@code clientHeader} (z. B. API-Schlüssel), sonst über die IP-Adresse.
+ *
+ * Die Schlüssel gelten pro Instanz; im Cluster sollte ein Client Wiederholungen an dieselbe
+ * Instanz senden.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+
+    private final int maxBodySize;
+
+    private final Duration waitTimeout;
+
+    private final String clientHeader;
+
+    public IdempotencyFilter(IdempotencyStore store, int maxBodySize, Duration waitTimeout, String clientHeader) {
+        this.store = store;
+        this.maxBodySize = maxBodySize;
+        this.waitTimeout = waitTimeout;
+        this.clientHeader = clientHeader;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !request.getRequestURI().startsWith("/api/")
+                || !("POST".equals(method) || "PUT".equals(method))
+                || request.getHeader(KEY_HEADER) == null
+                || request.getContentLengthLong() > maxBodySize;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, "Ungültiger " + KEY_HEADER);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodySize + 1);
+        HttpServletRequest cached = new CachedBodyRequest(request, body);
+        if (body.length > maxBodySize) {
+            // Body ohne Content-Length und zu gross: ohne Deduplizierung ausführen
+            chain.doFilter(cached, response);
+            return;
+        }
+        String fingerprint = fingerprint(request, body);
+        String scopedKey = client(request) + " " + key;
+
+        while (true) {
+            IdempotencyStore.Claim claim = store.claim(scopedKey, fingerprint, System.nanoTime());
+            if (claim.first()) {
+                execute(cached, response, chain, claim.entry());
+                return;
+            }
+            if (!claim.entry().fingerprint().equals(fingerprint)) {
+                reject(response, HttpStatus.UNPROCESSABLE_ENTITY, KEY_HEADER + " wurde für eine andere Anfrage verwendet");
+                return;
+            }
+            IdempotencyStore.StoredResponse stored;
+            try {
+                stored = claim.entry().response().get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                reject(response, HttpStatus.CONFLICT, "Anfrage mit diesem " + KEY_HEADER + " läuft noch");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            } catch (ExecutionException e) {
+                throw new ServletException(e.getCause());
+            }
+            if (stored != null) {
+                replay(response, stored);
+                return;
+            }
+            // Erste Anfrage wurde verworfen: neu beanspruchen und ausführen
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                         IdempotencyStore.Entry entry) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(request, wrapper);
+            byte[] content = wrapper.getContentAsByteArray();
+            if (wrapper.getStatus() < 500 && content.length <= maxBodySize && !request.isAsyncStarted()) {
+                store.complete(entry, new IdempotencyStore.StoredResponse(wrapper.getStatus(), wrapper.getContentType(), content));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.abandon(entry);
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+
+    private String client(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        String value = clientHeader != null ? request.getHeader(clientHeader) : null;
+        return value != null && !value.isBlank() ? "header:" + value : "ip:" + request.getRemoteAddr();
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return request.getMethod() + " " + request.getRequestURI()
+                    + (request.getQueryString() != null ? "?" + request.getQueryString() : "")
+                    + " " + HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Request, dessen bereits gelesener Anfang des Bodys erneut gelesen werden kann. Danach
+     * wird aus dem ursprünglichen Stream weitergelesen; Zustand und ReadListener (nicht
+     * blockierendes Lesen) kommen ebenfalls von dort.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final ServletInputStream in;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] head) throws IOException {
+            super(request);
+            this.in = new CachedInputStream(new ByteArrayInputStream(head), request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return in;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+
+    private static class CachedInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream head;
+
+        private final ServletInputStream rest;
+
+        CachedInputStream(ByteArrayInputStream head, ServletInputStream rest) {
+            this.head = head;
+            this.rest = rest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = head.read();
+            return b != -1 ? b : rest.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (head.available() > 0) {
+                return head.read(b, off, len);
+            }
+            return rest.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return head.available() == 0 && rest.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return head.available() > 0 || rest.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            rest.setReadListener(listener);
+        }
+    }
+}
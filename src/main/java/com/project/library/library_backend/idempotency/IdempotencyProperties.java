@@ -0,0 +1,103 @@
+package com.project.library.library_backend.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Konfiguration für Idempotency-Keys.
+ *
+ * Beispiel (application.properties):
+ * - library.idempotency.ttl=1h
+ * - library.idempotency.max-entries=10000
+ * - library.idempotency.max-body-size=65536
+ * - library.idempotency.client-header=X-API-Key
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "library.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Aktiviert die Behandlung des Headers "Idempotency-Key".
+     */
+    private boolean enabled = true;
+
+    /**
+     * Aufbewahrungsdauer einer Antwort.
+     */
+    private Duration ttl = Duration.ofHours(1);
+
+    /**
+     * Maximale Anzahl gespeicherter Antworten; darüber werden die ältesten verworfen.
+     */
+    private int maxEntries = 10000;
+
+    /**
+     * Maximale Grösse von Request- und Antwort-Body in Bytes; grössere Anfragen werden
+     * ohne Deduplizierung ausgeführt.
+     */
+    private int maxBodySize = 64 * 1024;
+
+    /**
+     * Maximale Wartezeit einer Wiederholung auf die noch laufende erste Anfrage.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Header, über den ein Client ohne Anmeldung erkannt wird (wie bei der Ratenbegrenzung);
+     * ohne Header gilt die IP-Adresse.
+     */
+    private String clientHeader = "X-API-Key";
+
+    // Getter und Setter
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public int getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(int maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    public void setWaitTimeout(Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+    }
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+}
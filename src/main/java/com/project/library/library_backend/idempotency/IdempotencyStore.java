@@ -0,0 +1,175 @@
+package com.project.library.library_backend.idempotency;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Begrenzter Speicher für Antworten auf Anfragen mit Idempotency-Key.
+ *
+ * Pro Schlüssel wird ein Eintrag mit einem {@link CompletableFuture} angelegt, sobald die erste
+ * Anfrage eintrifft. Wiederholungen warten auf dieses Future, solange die erste Anfrage noch
+ * läuft, und erhalten danach die gespeicherte Antwort, ohne die Datenbank zu berühren.
+ *
+ * Alle Einträge leben gleich lang; die Reihenfolge des Einfügens ist daher auch die Reihenfolge
+ * des Ablaufs. Abgelaufene Einträge werden beim Einfügen vom Anfang einer Warteschlange entfernt,
+ * ebenso die ältesten Einträge, wenn die maximale Anzahl erreicht ist. Einträge, deren erste
+ * Anfrage noch läuft, werden nie verworfen (sonst würde eine Wiederholung die Anfrage ein
+ * zweites Mal ausführen); sie werden hinten wieder eingereiht. Die Zeit wird explizit übergeben
+ * (System.nanoTime()).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class IdempotencyStore {
+
+    private final long ttlNanos;
+
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+    /**
+     * Gespeicherte Antwort.
+     *
+     * @param status HTTP-Status
+     * @param contentType Content-Type oder null
+     * @param body Body
+     */
+    public record StoredResponse(int status, String contentType, byte[] body) {}
+
+    /**
+     * Eintrag für einen Schlüssel; die Antwort ist erst nach Abschluss der ersten Anfrage gesetzt.
+     */
+    public static final class Entry {
+
+        private final String key;
+
+        private final String fingerprint;
+
+        private final long expiresAt;
+
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        private Entry(String key, String fingerprint, long expiresAt) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * @return Merkmal der Anfrage (Methode, Pfad, Body), mit der der Schlüssel zuerst verwendet wurde
+         */
+        public String fingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * @return Antwort der ersten Anfrage; null, wenn sie nicht gespeichert wurde
+         *         und die Anfrage erneut ausgeführt werden muss
+         */
+        public CompletableFuture<StoredResponse> response() {
+            return response;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        private boolean isCompleted() {
+            return response.isDone();
+        }
+    }
+
+    /**
+     * @param entry Eintrag des Schlüssels
+     * @param first true, wenn der Aufrufer die Anfrage ausführen und das Ergebnis mit
+     *              {@link #complete} bzw. {@link #abandon} melden muss
+     */
+    public record Claim(Entry entry, boolean first) {}
+
+    /**
+     * @param ttlNanos Aufbewahrungsdauer einer Antwort in Nanosekunden
+     * @param maxEntries Maximale Anzahl Einträge
+     */
+    public IdempotencyStore(long ttlNanos, int maxEntries) {
+        if (ttlNanos <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("Aufbewahrungsdauer und Anzahl Einträge müssen positiv sein");
+        }
+        this.ttlNanos = ttlNanos;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Legt einen Eintrag für den Schlüssel an oder liefert den bestehenden.
+     *
+     * @param key Idempotency-Key
+     * @param fingerprint Merkmal der Anfrage
+     * @param now Aktuelle Zeit in Nanosekunden
+     * @return Eintrag und ob der Aufrufer die Anfrage ausführen muss
+     */
+    public Claim claim(String key, String fingerprint, long now) {
+        evict(now);
+        Entry fresh = new Entry(key, fingerprint, now + ttlNanos);
+        Entry current = entries.compute(key, (k, existing) ->
+                existing == null || existing.isExpired(now) && existing.isCompleted() ? fresh : existing);
+        if (current != fresh) {
+            return new Claim(current, false);
+        }
+        order.add(fresh);
+        return new Claim(fresh, true);
+    }
+
+    /**
+     * Speichert die Antwort der ersten Anfrage und gibt sie an wartende Wiederholungen weiter.
+     */
+    public void complete(Entry entry, StoredResponse response) {
+        entry.response.complete(response);
+    }
+
+    /**
+     * Verwirft den Eintrag, z. B. nach einem Serverfehler; die nächste Wiederholung wird ausgeführt.
+     */
+    public void abandon(Entry entry) {
+        entries.remove(entry.key, entry);
+        entry.response.complete(null);
+    }
+
+    /**
+     * @return Anzahl gespeicherter Einträge
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        // Räumt immer nur ein Thread auf; die anderen fügen direkt ein
+        if (!evictLock.tryLock()) {
+            return;
+        }
+        try {
+            int requeued = 0;
+            Entry head;
+            while ((head = order.peek()) != null && (head.isExpired(now) || entries.size() >= maxEntries)) {
+                order.poll();
+                if (head.isCompleted()) {
+                    entries.remove(head.key, head);
+                    continue;
+                }
+                // Erste Anfrage läuft noch: behalten; sind alle Einträge offen, wird vorübergehend
+                // mehr als maxEntries gespeichert
+                order.add(head);
+                if (++requeued >= maxEntries) {
+                    break;
+                }
+            }
+        } finally {
+            evictLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.project.library.library_backend.inventory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sortiert beliebig viele {@link Scan}s mit begrenztem Speicher.
+ *
+ * Es werden höchstens {@code runSize} Scans im Speicher gehalten; ist der Puffer voll, wird er
+ * sortiert und als Lauf in eine temporäre Datei geschrieben (pro Scan: long Medium-ID, UTF
+ * Regalcode, leer für null). {@link #sorted()} mischt die Läufe und den Rest im Puffer über
+ * eine Prioritätswarteschlange. Erreicht die Anzahl Läufe {@code fanIn}, werden sie vorab zu
+ * einem Lauf zusammengefasst, damit nie mehr als {@code fanIn} Dateien gleichzeitig offen sind.
+ *
+ * {@link #close()} schliesst alle Dateien und löscht die Läufe.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class ExternalSorter implements Closeable {
+
+    static final String RUN_SUFFIX = ".run";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+
+    private final int runSize;
+
+    private final int fanIn;
+
+    private final List<Scan> buffer = new ArrayList<>();
+
+    private final List<Path> runs = new ArrayList<>();
+
+    private final List<Closeable> open = new ArrayList<>();
+
+    private long size;
+
+    /**
+     * @param directory Verzeichnis für die Läufe
+     * @param runSize Maximale Anzahl Scans im Speicher
+     * @param fanIn Maximale Anzahl gleichzeitig gemischter Läufe (mindestens 2)
+     */
+    public ExternalSorter(Path directory, int runSize, int fanIn) {
+        this.directory = directory;
+        this.runSize = Math.max(runSize, 1);
+        this.fanIn = Math.max(fanIn, 2);
+    }
+
+    /**
+     * Nimmt einen Scan auf.
+     *
+     * @param scan Scan
+     */
+    public void add(Scan scan) throws IOException {
+        if (buffer.size() >= runSize) {
+            spill();
+        }
+        buffer.add(scan);
+        size++;
+    }
+
+    /**
+     * @return Anzahl aufgenommener Scans
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return Anzahl geschriebener Läufe
+     */
+    int runs() {
+        return runs.size();
+    }
+
+    /**
+     * Liefert alle Scans aufsteigend nach Medium-ID und Regalcode. Danach dürfen keine Scans
+     * mehr hinzugefügt werden.
+     *
+     * @return Cursor über die sortierten Scans
+     */
+    public Cursor sorted() throws IOException {
+        Collections.sort(buffer);
+        if (runs.size() + 1 > fanIn) {
+            mergeRuns();
+        }
+        List<Source> sources = new ArrayList<>();
+        for (Path run : runs) {
+            sources.add(openRun(run));
+        }
+        Iterator<Scan> rest = buffer.iterator();
+        sources.add(() -> rest.hasNext() ? rest.next() : null);
+        return new Cursor(sources);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Closeable closeable : open) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        open.clear();
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+        buffer.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void spill() throws IOException {
+        Collections.sort(buffer);
+        Iterator<Scan> scans = buffer.iterator();
+        runs.add(writeRun(new Cursor(List.of(() -> scans.hasNext() ? scans.next() : null))));
+        buffer.clear();
+        if (runs.size() >= fanIn) {
+            mergeRuns();
+        }
+    }
+
+    /**
+     * Fasst alle bisherigen Läufe zu einem zusammen.
+     */
+    private void mergeRuns() throws IOException {
+        List<Source> sources = new ArrayList<>();
+        for (Path run : runs) {
+            sources.add(openRun(run));
+        }
+        Path merged = writeRun(new Cursor(sources));
+        for (Closeable closeable : open) {
+            closeable.close();
+        }
+        open.clear();
+        for (Path run : runs) {
+            Files.delete(run);
+        }
+        runs.clear();
+        runs.add(merged);
+    }
+
+    private Path writeRun(Cursor scans) throws IOException {
+        Path run = Files.createTempFile(directory, "scans", RUN_SUFFIX);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), BUFFER_SIZE))) {
+            for (Scan scan = scans.next(); scan != null; scan = scans.next()) {
+                out.writeLong(scan.mediaId());
+                out.writeUTF(scan.shelfCode() != null ? scan.shelfCode() : "");
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(run);
+            throw e;
+        }
+        return run;
+    }
+
+    private Source openRun(Path run) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), BUFFER_SIZE));
+        open.add(in);
+        return () -> {
+            long mediaId;
+            try {
+                mediaId = in.readLong();
+            } catch (EOFException e) {
+                return null;
+            }
+            String shelfCode = in.readUTF();
+            return new Scan(mediaId, shelfCode.isEmpty() ? null : shelfCode);
+        };
+    }
+
+    /**
+     * Sortierte Quelle; liefert null am Ende.
+     */
+    @FunctionalInterface
+    private interface Source {
+        Scan next() throws IOException;
+    }
+
+    /**
+     * Mischt sortierte Quellen zu einer sortierten Folge.
+     */
+    public static class Cursor {
+
+        private record Head(Scan scan, int source) {}
+
+        private final List<Source> sources;
+
+        private final PriorityQueue<Head> heads;
+
+        private Cursor(List<Source> sources) throws IOException {
+            this.sources = sources;
+            this.heads = new PriorityQueue<>(Math.max(sources.size(), 1), (a, b) -> {
+                int order = a.scan().compareTo(b.scan());
+                return order != 0 ? order : Integer.compare(a.source(), b.source());
+            });
+            for (int i = 0; i < sources.size(); i++) {
+                advance(i);
+            }
+        }
+
+        /**
+         * @return Nächster Scan, ohne ihn zu entnehmen, oder null am Ende
+         */
+        public Scan peek() {
+            Head head = heads.peek();
+            return head != null ? head.scan() : null;
+        }
+
+        /**
+         * @return Nächster Scan oder null am Ende
+         */
+        public Scan next() throws IOException {
+            Head head = heads.poll();
+            if (head == null) {
+                return null;
+            }
+            advance(head.source());
+            return head.scan();
+        }
+
+        private void advance(int source) throws IOException {
+            Scan scan = sources.get(source).next();
+            if (scan != null) {
+                heads.add(new Head(scan, source));
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.project.library.library_backend.inventory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.library.library_backend.cluster.ClusterNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Konfiguration der Inventur.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Configuration
+@EnableConfigurationProperties(InventoryProperties.class)
+public class InventoryConfig {
+
+    @Bean
+    public InventoryService inventoryService(InventoryProperties properties, DataSource dataSource,
+                                             PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                             @Value("${library.serialization.fetch-size:500}") int fetchSize,
+                                             @Value("${library.cluster.node-id:}") String nodeId)
+            throws IOException {
+        return new InventoryService(dataSource, transactionManager, objectMapper.getFactory(), fetchSize,
+                ClusterNode.nodeDirectory(Path.of(properties.getDirectory()), nodeId), properties.getRunSize(), properties.getFanIn());
+    }
+}
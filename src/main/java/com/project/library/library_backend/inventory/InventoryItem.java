@@ -0,0 +1,46 @@
+package com.project.library.library_backend.inventory;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import java.util.List;
+
+/**
+ * Eine Abweichung der Inventur.
+ *
+ * @param status Art der Abweichung
+ * @param mediaId ID des Mediums
+ * @param title Titel (null bei {@link Status#UNKNOWN})
+ * @param shelfCode Regalcode laut Katalog
+ * @param scannedShelfCodes Regale, in denen das Medium gescannt wurde
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@JsonInclude(Include.NON_EMPTY)
+public record InventoryItem(Status status, long mediaId, String title, String shelfCode,
+                            List<String> scannedShelfCodes) {
+
+    public enum Status {
+        /**
+         * Nicht gescannt und nicht ausgeliehen.
+         */
+        MISSING,
+        /**
+         * In einem anderen Regal gescannt als im Katalog eingetragen.
+         */
+        MISPLACED,
+        /**
+         * Nicht gescannt, aber ausgeliehen.
+         */
+        LENT,
+        /**
+         * Gescannt, obwohl eine Ausleihe offen ist (Rückgabe nicht gebucht).
+         */
+        LENT_SCANNED,
+        /**
+         * Gescannte ID ohne Medium im Katalog.
+         */
+        UNKNOWN
+    }
+}
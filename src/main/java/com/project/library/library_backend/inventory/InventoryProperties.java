@@ -0,0 +1,58 @@
+package com.project.library.library_backend.inventory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Konfiguration der Inventur.
+ *
+ * Beispiel (application.properties):
+ * - library.inventory.directory=data/inventory
+ * - library.inventory.run-size=100000
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "library.inventory")
+public class InventoryProperties {
+
+    /**
+     * Verzeichnis für die sortierten Läufe der Scans.
+     */
+    private String directory = "data/inventory";
+
+    /**
+     * Maximale Anzahl Scans im Speicher pro Upload.
+     */
+    private int runSize = 100_000;
+
+    /**
+     * Maximale Anzahl gleichzeitig gemischter Läufe.
+     */
+    private int fanIn = 64;
+
+    // Getter und Setter
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getRunSize() {
+        return runSize;
+    }
+
+    public void setRunSize(int runSize) {
+        this.runSize = runSize;
+    }
+
+    public int getFanIn() {
+        return fanIn;
+    }
+
+    public void setFanIn(int fanIn) {
+        this.fanIn = fanIn;
+    }
+}
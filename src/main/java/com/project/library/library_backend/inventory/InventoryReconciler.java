@@ -0,0 +1,144 @@
+package com.project.library.library_backend.inventory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gleicht die sortierten Scans mit den nach ID sortierten Medien ab (Merge-Join).
+ *
+ * Die Medien werden einzeln mit {@link #media} übergeben, aufsteigend nach ID; die Scans
+ * kommen aus einem {@link ExternalSorter.Cursor}. Beide Seiten werden genau einmal gelesen,
+ * im Speicher liegen nur die Scans des aktuellen Mediums. Jede Abweichung geht sofort an die
+ * {@link Sink}; Medien am richtigen Platz werden nur gezählt.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class InventoryReconciler {
+
+    /**
+     * Ziel der Abweichungen.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(InventoryItem item) throws IOException;
+    }
+
+    /**
+     * Zähler einer Inventur.
+     *
+     * @param scans Gültige Scans
+     * @param invalidLines Nicht lesbare Zeilen der Scan-Datei
+     * @param media Medien im Katalog
+     * @param found Gescannte Medien
+     * @param missing Fehlende Medien
+     * @param misplaced Falsch eingeordnete Medien
+     * @param lent Ausgeliehene, nicht gescannte Medien
+     * @param lentScanned Ausgeliehene, aber gescannte Medien
+     * @param unknown Gescannte IDs ohne Medium
+     */
+    public record Summary(long scans, long invalidLines, long media, long found, long missing, long misplaced,
+                          long lent, long lentScanned, long unknown) {}
+
+    private final ExternalSorter.Cursor scans;
+
+    private final Sink sink;
+
+    private long lastId = Long.MIN_VALUE;
+
+    private long media;
+
+    private long found;
+
+    private long missing;
+
+    private long misplaced;
+
+    private long lent;
+
+    private long lentScanned;
+
+    private long unknown;
+
+    public InventoryReconciler(ExternalSorter.Cursor scans, Sink sink) {
+        this.scans = scans;
+        this.sink = sink;
+    }
+
+    /**
+     * Gleicht das nächste Medium ab.
+     *
+     * @param id ID, grösser als die des vorherigen Mediums
+     * @param title Titel
+     * @param shelfCode Regalcode laut Katalog (null = jedes Regal gilt als richtig)
+     * @param borrowed true, wenn eine Ausleihe offen ist
+     */
+    public void media(long id, String title, String shelfCode, boolean borrowed) throws IOException {
+        if (id <= lastId) {
+            throw new IllegalStateException("Medien nicht aufsteigend nach ID: " + id + " nach " + lastId);
+        }
+        lastId = id;
+        media++;
+        while (scans.peek() != null && scans.peek().mediaId() < id) {
+            unknown(scans.peek().mediaId());
+        }
+        List<String> shelves = takeShelves(id);
+        if (shelves == null) {
+            if (borrowed) {
+                lent++;
+                sink.accept(new InventoryItem(InventoryItem.Status.LENT, id, title, shelfCode, null));
+            } else {
+                missing++;
+                sink.accept(new InventoryItem(InventoryItem.Status.MISSING, id, title, shelfCode, null));
+            }
+            return;
+        }
+        found++;
+        if (borrowed) {
+            lentScanned++;
+            sink.accept(new InventoryItem(InventoryItem.Status.LENT_SCANNED, id, title, shelfCode, shelves));
+        } else if (shelfCode != null && shelves.stream().anyMatch(scanned -> !shelfCode.equalsIgnoreCase(scanned))) {
+            misplaced++;
+            sink.accept(new InventoryItem(InventoryItem.Status.MISPLACED, id, title, shelfCode, shelves));
+        }
+    }
+
+    /**
+     * Meldet die restlichen Scans als unbekannt.
+     *
+     * @param scanCount Anzahl gültiger Scans
+     * @param invalidLines Anzahl nicht lesbarer Zeilen
+     * @return Zähler
+     */
+    public Summary finish(long scanCount, long invalidLines) throws IOException {
+        while (scans.peek() != null) {
+            unknown(scans.peek().mediaId());
+        }
+        return new Summary(scanCount, invalidLines, media, found, missing, misplaced, lent, lentScanned, unknown);
+    }
+
+    private void unknown(long id) throws IOException {
+        unknown++;
+        sink.accept(new InventoryItem(InventoryItem.Status.UNKNOWN, id, null, null, takeShelves(id)));
+    }
+
+    /**
+     * Entnimmt alle Scans der ID; mehrfach gescannte Regale erscheinen einmal.
+     *
+     * @return Regale (ohne null) oder null, wenn die ID nicht gescannt wurde
+     */
+    private List<String> takeShelves(long id) throws IOException {
+        List<String> shelves = null;
+        while (scans.peek() != null && scans.peek().mediaId() == id) {
+            Scan scan = scans.next();
+            if (shelves == null) {
+                shelves = new ArrayList<>(1);
+            }
+            if (scan.shelfCode() != null && !shelves.contains(scan.shelfCode())) {
+                shelves.add(scan.shelfCode());
+            }
+        }
+        return shelves;
+    }
+}
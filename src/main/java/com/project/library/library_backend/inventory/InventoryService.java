@@ -0,0 +1,196 @@
+package com.project.library.library_backend.inventory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Inventur: gleicht eine Datei mit Scans gegen den Medienbestand ab.
+ *
+ * Ablauf mit begrenztem Speicher:
+ * 1. {@link #upload} liest die Scan-Datei zeilenweise und sortiert sie mit dem
+ *    {@link ExternalSorter} nach Medium-ID (Läufe im Verzeichnis {@code directory}).
+ * 2. {@link #report} liest alle Medien mit einem Cursor nach ID sortiert (feste Fetch-Size,
+ *    lesende Transaktion wie beim Export) und gleicht sie mit dem {@link InventoryReconciler}
+ *    ab. Die Abweichungen werden als NDJSON geschrieben, am Ende eine Zeile mit den Zählern.
+ *
+ * Format der Scan-Datei: eine Lesung pro Zeile, "Medium-ID;Regalcode" (Trennzeichen ";", ","
+ * oder Tabulator, Regalcode optional). Leere Zeilen und Zeilen mit "#" am Anfang werden
+ * übersprungen, andere nicht lesbare Zeilen gezählt.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+
+    /**
+     * Medien mit Regalcode und offener Ausleihe, aufsteigend nach ID.
+     */
+    private static final int MAX_SHELF_CODE_LENGTH = 255;
+
+    static final String MEDIA_SQL = "SELECT m.id, m.title, m.shelf_code,"
+            + " EXISTS (SELECT 1 FROM borrowing b WHERE b.mediaid = m.id) FROM media m ORDER BY m.id";
+
+    /**
+     * Hochgeladene, sortierte Scans; muss nach dem Bericht geschlossen werden.
+     *
+     * @param sorter Sortierte Scans
+     * @param invalidLines Anzahl nicht lesbarer Zeilen
+     */
+    public record Upload(ExternalSorter sorter, long invalidLines) implements AutoCloseable {
+
+        @Override
+        public void close() throws IOException {
+            sorter.close();
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final JsonFactory jsonFactory;
+
+    private final Path directory;
+
+    private final int runSize;
+
+    private final int fanIn;
+
+    public InventoryService(DataSource dataSource, PlatformTransactionManager transactionManager, JsonFactory jsonFactory,
+                            int fetchSize, Path directory, int runSize, int fanIn) throws IOException {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonFactory = jsonFactory;
+        this.directory = directory;
+        this.runSize = runSize;
+        this.fanIn = fanIn;
+        Files.createDirectories(directory);
+        deleteStaleRuns();
+    }
+
+    /**
+     * Liest und sortiert eine Scan-Datei.
+     *
+     * @param in Scan-Datei (UTF-8); wird nicht geschlossen
+     * @return Sortierte Scans
+     */
+    public Upload upload(InputStream in) throws IOException {
+        ExternalSorter sorter = new ExternalSorter(directory, runSize, fanIn);
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            long invalid = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                Scan scan = parse(line);
+                if (scan == null) {
+                    invalid++;
+                } else {
+                    sorter.add(scan);
+                }
+            }
+            return new Upload(sorter, invalid);
+        } catch (IOException | RuntimeException e) {
+            sorter.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Schreibt den Inventurbericht und schliesst den Upload.
+     *
+     * @param upload Sortierte Scans
+     * @param out Ziel; wird nicht geschlossen
+     * @return Zähler
+     */
+    public InventoryReconciler.Summary report(Upload upload, OutputStream out) throws IOException {
+        try (upload; JsonGenerator gen = jsonFactory.createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.setRootValueSeparator(new SerializedString("\n"));
+            InventoryReconciler reconciler = new InventoryReconciler(upload.sorter().sorted(), gen::writeObject);
+            try {
+                RowCallbackHandler handler = rs -> {
+                    try {
+                        reconciler.media(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBoolean(4));
+                    } catch (IOException e) {
+                        // Client hat die Verbindung geschlossen: Abfrage abbrechen
+                        throw new UncheckedIOException(e);
+                    }
+                };
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(MEDIA_SQL, handler));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            InventoryReconciler.Summary summary = reconciler.finish(upload.sorter().size(), upload.invalidLines());
+            gen.writeObject(Map.of("summary", summary));
+            gen.writeRaw('\n');
+            log.info("Inventur: {}", summary);
+            return summary;
+        }
+    }
+
+    /**
+     * @param line Zeile ohne führende und folgende Leerzeichen
+     * @return Scan oder null, wenn die Zeile nicht lesbar ist
+     */
+    static Scan parse(String line) {
+        int separator = -1;
+        for (int i = 0; i < line.length() && separator < 0; i++) {
+            char c = line.charAt(i);
+            if (c == ';' || c == ',' || c == '\t') {
+                separator = i;
+            }
+        }
+        String id = separator < 0 ? line : line.substring(0, separator).strip();
+        String shelfCode = separator < 0 ? "" : line.substring(separator + 1).strip();
+        try {
+            long mediaId = Long.parseLong(id);
+            if (shelfCode.length() > MAX_SHELF_CODE_LENGTH) {
+                return null;
+            }
+            return mediaId > 0 ? new Scan(mediaId, shelfCode.isEmpty() ? null : shelfCode) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Löscht Läufe, die nach einem Absturz oder abgebrochenen Bericht liegen geblieben sind.
+     */
+    private void deleteStaleRuns() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(ExternalSorter.RUN_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+}
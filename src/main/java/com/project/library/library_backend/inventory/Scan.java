@@ -0,0 +1,23 @@
+package com.project.library.library_backend.inventory;
+
+import java.util.Comparator;
+
+/**
+ * Eine Lesung des Barcode-Scanners bei der Inventur.
+ *
+ * @param mediaId ID des Mediums
+ * @param shelfCode Regal, in dem das Medium gefunden wurde (null, wenn nicht erfasst)
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record Scan(long mediaId, String shelfCode) implements Comparable<Scan> {
+
+    private static final Comparator<Scan> ORDER = Comparator.comparingLong(Scan::mediaId)
+            .thenComparing(Scan::shelfCode, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    @Override
+    public int compareTo(Scan other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.library.library_backend.model;
 
+import com.project.library.library_backend.catalog.CatalogEntityListener;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 
@@ -17,13 +18,16 @@ import jakarta.persistence.*;
  * - GET /api/addresses/{id} → gibt eine Adresse zurück
  * - PUT /api/addresses/{id} → aktualisiert eine Adresse
  * - DELETE /api/addresses/{id} → löscht eine Adresse
+ * - GET /api/addresses/stats?prefix=... → Adressen und Kunden pro PLZ-Region
  *
  * @author Basil Ramseyer
  * @version 1.0
  */
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @JsonInclude(Include.NON_NULL)
-@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"streetandnum", "city"}))
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"streetandnum", "city"}),
+        indexes = {@Index(columnList = "plz"), @Index(columnList = "city")})
 public class Address {
 
     /**
@@ -1,5 +1,6 @@
 package com.project.library.library_backend.model;
 
+import com.project.library.library_backend.catalog.CatalogEntityListener;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
@@ -23,11 +24,15 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
  * Zusätzlich existiert eine View "overdue", die überfällige Ausleihen anzeigt.
  * 
  * Ein Medium kann nur einmal gleichzeitig ausgeliehen sein (unique mediaId).
+ * Der Index auf (duedate, customerid, id) erlaubt es, Ausleihen nach Fälligkeit und Kunde
+ * blockweise zu lesen (Erinnerungen).
  * 
  * @author Basil Ramseyer
  * @version 1.0
  */
 @Entity
+@Table(indexes = @Index(columnList = "duedate, customerid, id"))
+@EntityListeners(CatalogEntityListener.class)
 @JsonInclude(Include.NON_NULL)
 public class Borrowing {
 
@@ -0,0 +1,130 @@
+package com.project.library.library_backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Eine abgeschlossene (zurückgegebene) Ausleihe.
+ *
+ * Bei der Rückgabe wird die Ausleihe per INSERT ... SELECT in diese Tabelle kopiert und aus
+ * der Tabelle "borrowing" gelöscht. Die Tabelle wird nur angehängt, nie aktualisiert.
+ * Kunde und Medium werden nur als ID gespeichert, damit die Historie auch nach dem Löschen
+ * eines Kunden oder Mediums erhalten bleibt.
+ *
+ * Unter MariaDB ist die Tabelle nach "dateborrowed" in Jahrespartitionen aufgeteilt
+ * (siehe {@link com.project.library.library_backend.service.HistoryPartitionMaintenance}).
+ * Da jeder eindeutige Schlüssel einer partitionierten Tabelle die Partitionsspalte enthalten muss,
+ * besteht der Primärschlüssel aus ID und Ausleihdatum.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Entity
+@Table(name = "borrowing_history", indexes = {
+        @Index(columnList = "customerid, dateborrowed"),
+        @Index(columnList = "mediaid, dateborrowed")
+})
+@IdClass(BorrowingHistoryId.class)
+public class BorrowingHistory {
+
+    /**
+     * ID der ursprünglichen Ausleihe.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * Datum der Ausleihe (Partitionsschlüssel).
+     */
+    @Id
+    private LocalDate dateborrowed;
+
+    /**
+     * Fälligkeitsdatum zum Zeitpunkt der Rückgabe.
+     */
+    private LocalDate duedate;
+
+    /**
+     * Datum der letzten Verlängerung (optional).
+     */
+    private LocalDate extended_on;
+
+    /**
+     * Datum der Rückgabe.
+     */
+    @Column(nullable = false)
+    private LocalDate returnedon;
+
+    /**
+     * ID des Kunden.
+     */
+    @Column(nullable = false)
+    private Long customerid;
+
+    /**
+     * ID des Mediums.
+     */
+    @Column(nullable = false)
+    private Long mediaid;
+
+    public BorrowingHistory() {}
+
+    // Getter und Setter
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDateborrowed() {
+        return dateborrowed;
+    }
+
+    public void setDateborrowed(LocalDate dateborrowed) {
+        this.dateborrowed = dateborrowed;
+    }
+
+    public LocalDate getDuedate() {
+        return duedate;
+    }
+
+    public void setDuedate(LocalDate duedate) {
+        this.duedate = duedate;
+    }
+
+    public LocalDate getExtended_on() {
+        return extended_on;
+    }
+
+    public void setExtended_on(LocalDate extended_on) {
+        this.extended_on = extended_on;
+    }
+
+    public LocalDate getReturnedon() {
+        return returnedon;
+    }
+
+    public void setReturnedon(LocalDate returnedon) {
+        this.returnedon = returnedon;
+    }
+
+    public Long getCustomerid() {
+        return customerid;
+    }
+
+    public void setCustomerid(Long customerid) {
+        this.customerid = customerid;
+    }
+
+    public Long getMediaid() {
+        return mediaid;
+    }
+
+    public void setMediaid(Long mediaid) {
+        this.mediaid = mediaid;
+    }
+}
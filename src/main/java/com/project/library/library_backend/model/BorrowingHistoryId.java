@@ -0,0 +1,49 @@
+package com.project.library.library_backend.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Zusammengesetzter Primärschlüssel von {@link BorrowingHistory} (ID und Ausleihdatum).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class BorrowingHistoryId implements Serializable {
+
+    private Long id;
+
+    private LocalDate dateborrowed;
+
+    public BorrowingHistoryId() {}
+
+    public BorrowingHistoryId(Long id, LocalDate dateborrowed) {
+        this.id = id;
+        this.dateborrowed = dateborrowed;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getDateborrowed() {
+        return dateborrowed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BorrowingHistoryId other)) {
+            return false;
+        }
+        return Objects.equals(id, other.id) && Objects.equals(dateborrowed, other.dateborrowed);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, dateborrowed);
+    }
+}
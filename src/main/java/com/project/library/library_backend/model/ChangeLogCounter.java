@@ -0,0 +1,52 @@
+package com.project.library.library_backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Zählerzeile, über die Transaktionen ihre Einträge ins Änderungsprotokoll nacheinander schreiben.
+ *
+ * Die Tabelle enthält genau eine Zeile. Jede Transaktion mit Änderungen erhöht den Zähler
+ * unmittelbar vor dem Commit und hält damit die Zeilensperre, bis der Commit abgeschlossen ist
+ * (siehe {@link com.project.library.library_backend.catalog.CatalogChangeTracker}). Dadurch
+ * werden die Sequenznummern in {@link ChangeLogEntry} in Commit-Reihenfolge vergeben und in
+ * dieser Reihenfolge sichtbar.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Entity
+@Table(name = "change_log_counter")
+public class ChangeLogCounter {
+
+    /**
+     * ID der einzigen Zeile (immer 1).
+     */
+    @Id
+    private Integer id;
+
+    /**
+     * Anzahl Commits, die Einträge ins Änderungsprotokoll geschrieben haben.
+     */
+    @Column(nullable = false)
+    private Long commits;
+
+    public ChangeLogCounter() {}
+
+    // Getter und Setter
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getCommits() {
+        return commits;
+    }
+
+    public void setCommits(Long commits) {
+        this.commits = commits;
+    }
+}
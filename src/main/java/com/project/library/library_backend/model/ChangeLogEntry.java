@@ -0,0 +1,100 @@
+package com.project.library.library_backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ein Eintrag im Änderungsprotokoll.
+ *
+ * Jede Änderung an einem Medium, Kunden, einer Adresse oder einer Ausleihe erhält eine fortlaufende,
+ * monoton steigende Sequenznummer. Die Nummern werden in Commit-Reihenfolge vergeben (siehe
+ * {@link ChangeLogCounter}); ist eine Nummer sichtbar, sind es alle kleineren auch. Darüber kann der In-Memory-Katalog nach einem Neustart
+ * nur die Änderungen seit dem letzten Snapshot nachladen, und Clients können sich über
+ * GET /api/{resource}/changes inkrementell synchronisieren.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Entity
+@Table(name = "change_log", indexes = {
+        @Index(columnList = "changedat"),
+        @Index(columnList = "entitytype, seq")
+})
+public class ChangeLogEntry {
+
+    /**
+     * Fortlaufende Sequenznummer der Änderung.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    /**
+     * Art der geänderten Entity (z. B. "media", "customer", "address", "borrowing").
+     */
+    @Column(nullable = false, length = 20)
+    private String entitytype;
+
+    /**
+     * ID der geänderten Entity.
+     */
+    @Column(nullable = false)
+    private Long entityid;
+
+    /**
+     * Art der Änderung (INSERT, UPDATE oder DELETE).
+     */
+    @Column(nullable = false, length = 10)
+    private String operation;
+
+    /**
+     * Zeitpunkt der Änderung.
+     */
+    @Column(nullable = false)
+    private LocalDateTime changedat;
+
+    public ChangeLogEntry() {}
+
+    // Getter und Setter
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public String getEntitytype() {
+        return entitytype;
+    }
+
+    public void setEntitytype(String entitytype) {
+        this.entitytype = entitytype;
+    }
+
+    public Long getEntityid() {
+        return entityid;
+    }
+
+    public void setEntityid(Long entityid) {
+        this.entityid = entityid;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public LocalDateTime getChangedat() {
+        return changedat;
+    }
+
+    public void setChangedat(LocalDateTime changedat) {
+        this.changedat = changedat;
+    }
+}
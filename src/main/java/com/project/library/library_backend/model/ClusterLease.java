@@ -0,0 +1,66 @@
+package com.project.library.library_backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Befristete Zuständigkeit einer Instanz für einen Bereich von Medien-IDs.
+ *
+ * Ausleihen eines Mediums werden von der Instanz entschieden, die den Bereich des Mediums
+ * hält. Die Instanz verlängert ihre Leases mit jedem Heartbeat; fällt sie aus, laufen sie ab
+ * und eine andere Instanz übernimmt den Bereich.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Entity
+@Table(name = "cluster_lease", indexes = @Index(columnList = "owner"))
+public class ClusterLease {
+
+    /**
+     * Nummer des Bereichs (Medien-ID geteilt durch die Bereichsgrösse).
+     */
+    @Id
+    private Long rangeid;
+
+    /**
+     * ID der Instanz, die den Bereich hält.
+     */
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    /**
+     * Ablauf der Lease.
+     */
+    @Column(nullable = false)
+    private LocalDateTime expiresat;
+
+    public ClusterLease() {}
+
+    // Getter und Setter
+
+    public Long getRangeid() {
+        return rangeid;
+    }
+
+    public void setRangeid(Long rangeid) {
+        this.rangeid = rangeid;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public LocalDateTime getExpiresat() {
+        return expiresat;
+    }
+
+    public void setExpiresat(LocalDateTime expiresat) {
+        this.expiresat = expiresat;
+    }
+}
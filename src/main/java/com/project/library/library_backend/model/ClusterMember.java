@@ -0,0 +1,72 @@
+package com.project.library.library_backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Eine laufende Instanz im Cluster.
+ *
+ * Jede Instanz aktualisiert ihren Eintrag regelmässig (Heartbeat). Instanzen ohne aktuellen
+ * Heartbeat gelten als ausgefallen (siehe {@link com.project.library.library_backend.cluster.ClusterNode}).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Entity
+@Table(name = "cluster_member")
+public class ClusterMember {
+
+    /**
+     * Eindeutige ID der Instanz.
+     */
+    @Id
+    @Column(length = 100)
+    private String nodeid;
+
+    /**
+     * Basis-URL, unter der die Instanz für weitergeleitete Anfragen erreichbar ist.
+     */
+    @Column(nullable = false)
+    private String url;
+
+    /**
+     * Zeitpunkt des letzten Heartbeats.
+     */
+    @Column(nullable = false)
+    private LocalDateTime heartbeatat;
+
+    public ClusterMember() {}
+
+    public ClusterMember(String nodeid, String url, LocalDateTime heartbeatat) {
+        this.nodeid = nodeid;
+        this.url = url;
+        this.heartbeatat = heartbeatat;
+    }
+
+    // Getter und Setter
+
+    public String getNodeid() {
+        return nodeid;
+    }
+
+    public void setNodeid(String nodeid) {
+        this.nodeid = nodeid;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public LocalDateTime getHeartbeatat() {
+        return heartbeatat;
+    }
+
+    public void setHeartbeatat(LocalDateTime heartbeatat) {
+        this.heartbeatat = heartbeatat;
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.library.library_backend.model;
 
+import com.project.library.library_backend.catalog.CatalogEntityListener;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
@@ -25,6 +26,7 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
  * @version 1.0
  */
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @JsonInclude(Include.NON_NULL)
 @Table(
     uniqueConstraints = @UniqueConstraint(columnNames = {"firstname", "lastname", "birthdate"})
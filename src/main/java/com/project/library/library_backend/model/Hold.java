@@ -0,0 +1,96 @@
+package com.project.library.library_backend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Eine Vormerkung (Reservation) eines ausgeliehenen Mediums durch einen Kunden.
+ *
+ * Vormerkungen eines Mediums werden in der Reihenfolge ihrer ID bedient. Bei der Rückgabe
+ * des Mediums wird die älteste Vormerkung gelöscht und daraus direkt eine neue Ausleihe erstellt
+ * (siehe {@link com.project.library.library_backend.service.HoldService}).
+ *
+ * API-Endpunkte:
+ * - POST /api/holds → merkt ein Medium für einen Kunden vor
+ * - GET /api/holds/{id} → gibt eine Vormerkung zurück
+ * - DELETE /api/holds/{id} → storniert eine Vormerkung
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Entity
+@JsonInclude(Include.NON_NULL)
+@Table(name = "media_hold",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"mediaid", "customerid"}),
+        indexes = @Index(columnList = "customerid"))
+public class Hold {
+
+    /**
+     * Die eindeutige ID der Vormerkung; bestimmt die Reihenfolge in der Warteschlange.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * ID des vorgemerkten Mediums.
+     */
+    @Column(nullable = false)
+    private Long mediaid;
+
+    /**
+     * ID des Kunden.
+     */
+    @Column(nullable = false)
+    private Long customerid;
+
+    /**
+     * Zeitpunkt der Vormerkung.
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdat = LocalDateTime.now();
+
+    public Hold() {}
+
+    public Hold(Long mediaid, Long customerid) {
+        this.mediaid = mediaid;
+        this.customerid = customerid;
+    }
+
+    // Getter und Setter
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getMediaid() {
+        return mediaid;
+    }
+
+    public void setMediaid(Long mediaid) {
+        this.mediaid = mediaid;
+    }
+
+    public Long getCustomerid() {
+        return customerid;
+    }
+
+    public void setCustomerid(Long customerid) {
+        this.customerid = customerid;
+    }
+
+    public LocalDateTime getCreatedat() {
+        return createdat;
+    }
+
+    public void setCreatedat(LocalDateTime createdat) {
+        this.createdat = createdat;
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.library.library_backend.model;
 
+import com.project.library.library_backend.catalog.CatalogEntityListener;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 
@@ -18,11 +19,15 @@ import jakarta.persistence.*;
  * - DELETE /api/media/{id} → löscht ein Medium
  * 
  * Zusätzlich gilt: ein Medium darf nur einmal gleichzeitig ausgeliehen sein.
+ * Mehrere Exemplare derselben ISBN sind möglich, müssen beim Erfassen aber ausdrücklich
+ * bestätigt werden (Index auf isbn für die Suche).
  * 
  * @author Basil Ramseyer
  * @version 1.0
  */
 @Entity
+@Table(indexes = @Index(columnList = "isbn"))
+@EntityListeners(CatalogEntityListener.class)
 @JsonInclude(Include.NON_NULL)
 public class Media {
 
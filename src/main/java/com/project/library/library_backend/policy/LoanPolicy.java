@@ -0,0 +1,274 @@
+package com.project.library.library_backend.policy;
+
+import com.project.library.library_backend.catalog.CatalogListener;
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.catalog.CustomerEntry;
+import com.project.library.library_backend.catalog.LoanEntry;
+import com.project.library.library_backend.catalog.MediaEntry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prüft die Ausleihregeln bei der Ausleihe, ohne die Datenbank abzufragen.
+ *
+ * Die konfigurierten Regeln ({@link LoanPolicyProperties}) werden beim Start zu einer Liste von
+ * Prüfungen zusammengestellt; deaktivierte Regeln kommen gar nicht erst hinein. Die Prüfungen
+ * arbeiten auf Zählern, die als {@link CatalogListener} nachgeführt werden:
+ * - offene Ausleihen pro Kunde mit dem frühesten Fälligkeitsdatum
+ * - offene Ausleihen pro Medium
+ * - Mindestalter pro Medium (aus der FSK vorberechnet)
+ *
+ * Alle Regeln werden geprüft, so dass der Schalter alle Gründe auf einmal sieht.
+ *
+ * Die Zähler werden nach dem Commit aktualisiert. Zwei gleichzeitige Ausleihen desselben
+ * Kunden sehen daher beide den alten Stand; die Grenze kann so im Einzelfall um eins
+ * überschritten werden. Solange der Katalog nicht geladen ist, wird nichts geprüft.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class LoanPolicy implements CatalogListener {
+
+    public static final String CUSTOMER_UNKNOWN = "customer-unknown";
+
+    public static final String MEDIA_UNKNOWN = "media-unknown";
+
+    public static final String MAX_LOANS = "max-loans";
+
+    public static final String OVERDUE = "overdue";
+
+    public static final String AGE = "age";
+
+    public static final String MEDIA_BORROWED = "media-borrowed";
+
+    /**
+     * Eine Regel; liefert null, wenn die Ausleihe erlaubt ist.
+     */
+    @FunctionalInterface
+    interface Rule {
+        LoanViolation check(Checkout checkout);
+    }
+
+    /**
+     * Alles, was die Regeln für eine Ausleihe benötigen.
+     */
+    record Checkout(CustomerEntry customer, MediaEntry media, CustomerLoans loans, int requiredAge,
+                    boolean mediaBorrowed, LocalDate today) {}
+
+    /**
+     * Offene Ausleihen eines Kunden.
+     *
+     * @param open Anzahl offener Ausleihen
+     * @param earliestDue Frühestes Fälligkeitsdatum oder null
+     */
+    record CustomerLoans(int open, LocalDate earliestDue) {
+
+        static final CustomerLoans NONE = new CustomerLoans(0, null);
+    }
+
+    private final CatalogState catalogState;
+
+    private final Rule[] rules;
+
+    /**
+     * Fälligkeitsdaten der offenen Ausleihen pro Kunde (Ausleihe-ID → Fälligkeit), nur unter
+     * der Sperre auf diesem Objekt; daraus werden die {@link CustomerLoans} berechnet.
+     */
+    private final Map<Long, Map<Long, LocalDate>> dueDatesOfCustomer = new HashMap<>();
+
+    private final Map<Long, CustomerLoans> loansOfCustomer = new ConcurrentHashMap<>();
+
+    private final Map<Long, Integer> loansOfMedia = new ConcurrentHashMap<>();
+
+    private final Map<Long, Integer> requiredAgeOfMedia = new ConcurrentHashMap<>();
+
+    public LoanPolicy(LoanPolicyProperties properties, CatalogState catalogState) {
+        this.catalogState = catalogState;
+        this.rules = compile(properties);
+        catalogState.addListener(this);
+    }
+
+    /**
+     * Prüft, ob ein Kunde ein Medium ausleihen darf.
+     *
+     * @param customerId ID des Kunden
+     * @param mediaId ID des Mediums
+     * @return Alle verletzten Regeln; leer, wenn die Ausleihe erlaubt ist
+     */
+    public List<LoanViolation> check(Long customerId, Long mediaId) {
+        if (rules.length == 0 || !catalogState.isLoaded()) {
+            return List.of();
+        }
+        CustomerEntry customer = customerId != null ? catalogState.getCustomer(customerId) : null;
+        MediaEntry media = mediaId != null ? catalogState.getMedia(mediaId) : null;
+        List<LoanViolation> violations = new ArrayList<>(2);
+        if (customer == null) {
+            violations.add(new LoanViolation(CUSTOMER_UNKNOWN, "Kunde nicht gefunden"));
+        }
+        if (media == null) {
+            violations.add(new LoanViolation(MEDIA_UNKNOWN, "Medium nicht gefunden"));
+        }
+        if (!violations.isEmpty()) {
+            return violations;
+        }
+
+        Checkout checkout = new Checkout(customer, media, loansOfCustomer.getOrDefault(customerId, CustomerLoans.NONE),
+                requiredAgeOfMedia.getOrDefault(mediaId, 0), loansOfMedia.containsKey(mediaId), LocalDate.now());
+        for (Rule rule : rules) {
+            LoanViolation violation = rule.check(checkout);
+            if (violation != null) {
+                violations.add(violation);
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Prüft, ob ein Kunde ein Medium vormerken bzw. aus einer Vormerkung erhalten darf: alle
+     * Regeln ausser der Verfügbarkeit des Mediums. Bei der Vormerkung ist es ausgeliehen, bei der
+     * Zuteilung zählt die Rückgabe bis zu ihrem Commit noch als offene Ausleihe.
+     *
+     * @param customerId ID des Kunden
+     * @param mediaId ID des Mediums
+     * @return Alle verletzten Regeln; leer, wenn der Kunde das Medium erhalten darf
+     */
+    public List<LoanViolation> checkHolder(Long customerId, Long mediaId) {
+        List<LoanViolation> violations = check(customerId, mediaId);
+        if (violations.isEmpty()) {
+            return violations;
+        }
+        return violations.stream().filter(violation -> !MEDIA_BORROWED.equals(violation.rule())).toList();
+    }
+
+    @Override
+    public void mediaChanged(MediaEntry previous, MediaEntry current) {
+        if (current == null) {
+            requiredAgeOfMedia.remove(previous.id());
+            return;
+        }
+        int age = requiredAge(current.fsk());
+        if (age > 0) {
+            requiredAgeOfMedia.put(current.id(), age);
+        } else {
+            requiredAgeOfMedia.remove(current.id());
+        }
+    }
+
+    @Override
+    public synchronized void loanChanged(LoanEntry previous, LoanEntry current) {
+        if (previous != null) {
+            removeLoan(previous);
+        }
+        if (current != null) {
+            addLoan(current);
+        }
+    }
+
+    @Override
+    public synchronized void catalogReloaded(CatalogState state) {
+        dueDatesOfCustomer.clear();
+        loansOfCustomer.clear();
+        loansOfMedia.clear();
+        requiredAgeOfMedia.clear();
+        state.allMedia().forEach(media -> mediaChanged(null, media));
+        state.allLoans().forEach(this::addLoan);
+    }
+
+    /**
+     * Stellt die aktiven Regeln zusammen.
+     */
+    static Rule[] compile(LoanPolicyProperties properties) {
+        if (!properties.isEnabled()) {
+            return new Rule[0];
+        }
+        List<Rule> rules = new ArrayList<>();
+        if (properties.getMaxLoans() >= 0) {
+            int maxLoans = properties.getMaxLoans();
+            rules.add(checkout -> checkout.loans().open() >= maxLoans
+                    ? new LoanViolation(MAX_LOANS, "Der Kunde hat bereits " + checkout.loans().open()
+                            + " Ausleihen (maximal " + maxLoans + ")")
+                    : null);
+        }
+        if (properties.getOverdueGraceDays() >= 0) {
+            int graceDays = properties.getOverdueGraceDays();
+            rules.add(checkout -> {
+                LocalDate due = checkout.loans().earliestDue();
+                return due != null && due.plusDays(graceDays).isBefore(checkout.today())
+                        ? new LoanViolation(OVERDUE, "Der Kunde hat überfällige Ausleihen (fällig seit " + due + ")")
+                        : null;
+            });
+        }
+        if (properties.isAgeCheck()) {
+            rules.add(checkout -> {
+                int age = checkout.requiredAge();
+                LocalDate birthdate = checkout.customer().birthdate();
+                if (age == 0) {
+                    return null;
+                }
+                if (birthdate == null) {
+                    return new LoanViolation(AGE, "Geburtsdatum unbekannt, das Medium ist ab " + age + " Jahren freigegeben");
+                }
+                return birthdate.plusYears(age).isAfter(checkout.today())
+                        ? new LoanViolation(AGE, "Das Medium ist ab " + age + " Jahren freigegeben")
+                        : null;
+            });
+        }
+        if (properties.isSingleLoanPerMedia()) {
+            rules.add(checkout -> checkout.mediaBorrowed()
+                    ? new LoanViolation(MEDIA_BORROWED, "Das Medium ist bereits ausgeliehen")
+                    : null);
+        }
+        return rules.toArray(Rule[]::new);
+    }
+
+    /**
+     * Mindestalter aus der FSK, z. B. "12" oder "FSK 16"; 0 ohne Altersgrenze.
+     */
+    static int requiredAge(String fsk) {
+        return MediaEntry.requiredAge(fsk);
+    }
+
+    private void addLoan(LoanEntry loan) {
+        if (loan.mediaId() != null) {
+            loansOfMedia.merge(loan.mediaId(), 1, Integer::sum);
+        }
+        if (loan.customerId() != null) {
+            dueDatesOfCustomer.computeIfAbsent(loan.customerId(), id -> new HashMap<>()).put(loan.id(), loan.duedate());
+            updateCustomer(loan.customerId());
+        }
+    }
+
+    private void removeLoan(LoanEntry loan) {
+        if (loan.mediaId() != null) {
+            loansOfMedia.computeIfPresent(loan.mediaId(), (id, count) -> count > 1 ? count - 1 : null);
+        }
+        Map<Long, LocalDate> dueDates = loan.customerId() != null ? dueDatesOfCustomer.get(loan.customerId()) : null;
+        if (dueDates != null) {
+            dueDates.remove(loan.id());
+            if (dueDates.isEmpty()) {
+                dueDatesOfCustomer.remove(loan.customerId());
+            }
+            updateCustomer(loan.customerId());
+        }
+    }
+
+    private void updateCustomer(Long customerId) {
+        Map<Long, LocalDate> dueDates = dueDatesOfCustomer.get(customerId);
+        if (dueDates == null) {
+            loansOfCustomer.remove(customerId);
+            return;
+        }
+        LocalDate earliest = null;
+        for (LocalDate due : dueDates.values()) {
+            if (due != null && (earliest == null || due.isBefore(earliest))) {
+                earliest = due;
+            }
+        }
+        loansOfCustomer.put(customerId, new CustomerLoans(dueDates.size(), earliest));
+    }
+}
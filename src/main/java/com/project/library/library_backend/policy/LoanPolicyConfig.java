@@ -0,0 +1,22 @@
+package com.project.library.library_backend.policy;
+
+import com.project.library.library_backend.catalog.CatalogState;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Konfiguration der Ausleihregeln.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Configuration
+@EnableConfigurationProperties(LoanPolicyProperties.class)
+public class LoanPolicyConfig {
+
+    @Bean
+    public LoanPolicy loanPolicy(LoanPolicyProperties properties, CatalogState catalogState) {
+        return new LoanPolicy(properties, catalogState);
+    }
+}
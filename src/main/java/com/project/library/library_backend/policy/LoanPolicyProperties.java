@@ -0,0 +1,87 @@
+package com.project.library.library_backend.policy;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Konfiguration der Ausleihregeln.
+ *
+ * Beispiel (application.properties):
+ * - library.loans.policy.max-loans=10
+ * - library.loans.policy.overdue-grace-days=0
+ * - library.loans.policy.age-check=true
+ *
+ * Eine Regel mit dem Wert -1 (bzw. false) wird nicht geprüft.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "library.loans.policy")
+public class LoanPolicyProperties {
+
+    /**
+     * Aktiviert die Prüfung bei der Ausleihe.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximale Anzahl gleichzeitig offener Ausleihen pro Kunde (-1 = unbegrenzt).
+     */
+    private int maxLoans = 10;
+
+    /**
+     * Tage nach dem Fälligkeitsdatum, ab denen ein Kunde gesperrt ist (-1 = keine Sperre).
+     */
+    private int overdueGraceDays = 0;
+
+    /**
+     * Prüft das Alter des Kunden gegen die FSK des Mediums.
+     */
+    private boolean ageCheck = true;
+
+    /**
+     * Lehnt Medien ab, die bereits ausgeliehen sind.
+     */
+    private boolean singleLoanPerMedia = true;
+
+    // Getter und Setter
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxLoans() {
+        return maxLoans;
+    }
+
+    public void setMaxLoans(int maxLoans) {
+        this.maxLoans = maxLoans;
+    }
+
+    public int getOverdueGraceDays() {
+        return overdueGraceDays;
+    }
+
+    public void setOverdueGraceDays(int overdueGraceDays) {
+        this.overdueGraceDays = overdueGraceDays;
+    }
+
+    public boolean isAgeCheck() {
+        return ageCheck;
+    }
+
+    public void setAgeCheck(boolean ageCheck) {
+        this.ageCheck = ageCheck;
+    }
+
+    public boolean isSingleLoanPerMedia() {
+        return singleLoanPerMedia;
+    }
+
+    public void setSingleLoanPerMedia(boolean singleLoanPerMedia) {
+        this.singleLoanPerMedia = singleLoanPerMedia;
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.library.library_backend.policy;
+
+/**
+ * Eine verletzte Ausleihregel.
+ *
+ * @param rule Name der Regel (z. B. "max-loans")
+ * @param message Beschreibung für den Schalter
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record LoanViolation(String rule, String message) {}
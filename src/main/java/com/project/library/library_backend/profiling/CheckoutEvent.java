@@ -0,0 +1,32 @@
+package com.project.library.library_backend.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Event für eine Ausleihe (POST /api/borrowings), von der Prüfung der Ausleihregeln
+ * bis zur gespeicherten Ausleihe bzw. der Weiterleitung an die zuständige Instanz.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Name("library.Checkout")
+@Label("Ausleihe")
+@Category({"Library", "Ausleihen"})
+@Description("Prüfung und Speicherung einer neuen Ausleihe")
+@StackTrace(false)
+public class CheckoutEvent extends Event {
+
+    @Label("Kunde")
+    public long customerId;
+
+    @Label("Medium")
+    public long mediaId;
+
+    @Label("HTTP-Status")
+    public int status;
+}
@@ -0,0 +1,69 @@
+package com.project.library.library_backend.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Dauerhaft laufende JFR-Aufzeichnung mit dem Profil library.jfc.
+ *
+ * Die Aufzeichnung wird beim Start der Anwendung gestartet und hält die Events der letzten
+ * {@code maxAge} bzw. höchstens {@code maxSize} Bytes in einem Ringpuffer auf der Festplatte.
+ * Bei einer Latenzspitze kann sie jederzeit ohne Neustart abgelegt und in JDK Mission Control
+ * ausgewertet werden.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class FlightRecording implements DisposableBean {
+
+    public static final String NAME = "library";
+
+    private final Recording recording;
+
+    private final Path dumpDir;
+
+    /**
+     * @param settings Profil im JFC-Format
+     * @param maxAge Maximales Alter der aufbewahrten Events
+     * @param maxSize Maximale Grösse der aufbewahrten Events in Bytes
+     * @param dumpDir Verzeichnis für abgelegte Aufzeichnungen
+     */
+    public FlightRecording(Reader settings, Duration maxAge, long maxSize, Path dumpDir)
+            throws IOException, ParseException {
+        this.recording = new Recording(Configuration.create(settings));
+        this.recording.setName(NAME);
+        this.recording.setToDisk(true);
+        this.recording.setMaxAge(maxAge);
+        this.recording.setMaxSize(maxSize);
+        this.dumpDir = dumpDir;
+    }
+
+    public void start() {
+        recording.start();
+    }
+
+    /**
+     * Legt den aktuellen Inhalt der Aufzeichnung in einer neuen Datei ab. Die Aufzeichnung läuft weiter.
+     *
+     * @return Abgelegte Aufzeichnung; der Aufrufer löscht sie nach Gebrauch
+     */
+    public Path dump() throws IOException {
+        Files.createDirectories(dumpDir);
+        Path file = Files.createTempFile(dumpDir, NAME + "-", ".jfr");
+        recording.dump(file);
+        return file;
+    }
+
+    @Override
+    public void destroy() {
+        recording.close();
+    }
+}
@@ -0,0 +1,63 @@
+package com.project.library.library_backend.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Actuator-Endpunkt zum Ablegen der laufenden JFR-Aufzeichnung.
+ *
+ * API-Endpunkte:
+ * - POST /actuator/jfr → liefert die Events der laufenden Aufzeichnung als .jfr-Datei
+ *
+ * Der Endpunkt existiert nur mit library.jfr.enabled=true und ist wie jeder Actuator-Endpunkt
+ * erst nach ausdrücklicher Freigabe erreichbar, vorzugsweise nur auf dem internen Management-Port:
+ * <pre>
+ * management.server.port=9090
+ * management.endpoints.web.exposure.include=health,metrics,jfr
+ * </pre>
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Endpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+
+    private final FlightRecording flightRecording;
+
+    public FlightRecordingEndpoint(FlightRecording flightRecording) {
+        this.flightRecording = flightRecording;
+    }
+
+    /**
+     * Legt die laufende Aufzeichnung ab und liefert sie aus; die Datei wird nach dem Lesen gelöscht.
+     *
+     * @return Aufzeichnung zur Auswertung in JDK Mission Control
+     */
+    @WriteOperation
+    public Resource dump() throws IOException {
+        Path file = flightRecording.dump();
+        return new FileSystemResource(file) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return new FilterInputStream(super.getInputStream()) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                };
+            }
+        };
+    }
+}
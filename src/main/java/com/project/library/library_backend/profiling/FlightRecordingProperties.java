@@ -0,0 +1,88 @@
+package com.project.library.library_backend.profiling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Konfiguration der dauerhaften JFR-Aufzeichnung.
+ *
+ * Beispiel (application.properties):
+ * - library.jfr.enabled=true
+ * - library.jfr.max-age=30m
+ * - library.jfr.max-size=200MB
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "library.jfr")
+public class FlightRecordingProperties {
+
+    /**
+     * Startet die Aufzeichnung beim Start der Anwendung.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Profil im JFC-Format.
+     */
+    private String settings = "classpath:jfr/library.jfc";
+
+    /**
+     * Maximales Alter der aufbewahrten Events.
+     */
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    /**
+     * Maximale Grösse der aufbewahrten Events.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(200);
+
+    /**
+     * Verzeichnis für abgelegte Aufzeichnungen.
+     */
+    private String dumpDir = "data/jfr";
+
+    // Getter und Setter
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public String getDumpDir() {
+        return dumpDir;
+    }
+
+    public void setDumpDir(String dumpDir) {
+        this.dumpDir = dumpDir;
+    }
+}
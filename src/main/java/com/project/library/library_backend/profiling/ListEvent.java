@@ -0,0 +1,31 @@
+package com.project.library.library_backend.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Event für einen gestreamten Listen-Endpunkt (alle Medien, Kunden oder Ausleihen).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Name("library.List")
+@Label("Liste")
+@Category({"Library", "Listen"})
+@Description("Gestreamte Liste vom JDBC-Cursor in die Antwort")
+@StackTrace(false)
+public class ListEvent extends Event {
+
+    @Label("Liste")
+    public String list;
+
+    @Label("Format")
+    public String format;
+
+    @Label("Zeilen")
+    public long rows;
+}
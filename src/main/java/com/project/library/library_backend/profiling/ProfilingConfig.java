@@ -0,0 +1,57 @@
+package com.project.library.library_backend.profiling;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Konfiguration der JFR-Events und der dauerhaften Aufzeichnung.
+ *
+ * Die Events selbst kosten nichts, solange keine Aufzeichnung sie aktiviert; der Interceptor für
+ * die Repositories ist daher immer registriert. Die Aufzeichnung startet nur mit
+ * library.jfr.enabled=true. Ohne sie kann auch von aussen aufgezeichnet werden, z. B.
+ * {@code jcmd <pid> JFR.start settings=src/main/resources/jfr/library.jfc}. Abgelegt wird die
+ * Aufzeichnung über den Actuator-Endpunkt {@link FlightRecordingEndpoint}.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Configuration
+@EnableConfigurationProperties(FlightRecordingProperties.class)
+public class ProfilingConfig {
+
+    @Bean
+    public static RepositoryEventPostProcessor repositoryEventPostProcessor() {
+        return new RepositoryEventPostProcessor();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "library.jfr", name = "enabled", havingValue = "true")
+    public FlightRecording flightRecording(FlightRecordingProperties properties, ResourceLoader resourceLoader)
+            throws IOException, ParseException {
+        try (Reader settings = new InputStreamReader(
+                resourceLoader.getResource(properties.getSettings()).getInputStream(), StandardCharsets.UTF_8)) {
+            FlightRecording recording = new FlightRecording(settings, properties.getMaxAge(),
+                    properties.getMaxSize().toBytes(), Path.of(properties.getDumpDir()));
+            recording.start();
+            return recording;
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "library.jfr", name = "enabled", havingValue = "true")
+    @ConditionalOnAvailableEndpoint
+    public FlightRecordingEndpoint flightRecordingEndpoint(FlightRecording flightRecording) {
+        return new FlightRecordingEndpoint(flightRecording);
+    }
+}
@@ -0,0 +1,37 @@
+package com.project.library.library_backend.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR-Event für einen Aufruf eines Spring-Data-Repositorys.
+ *
+ * Im Gegensatz zu den übrigen Events mit Stacktrace, damit in JDK Mission Control sichtbar ist,
+ * welcher Endpunkt die Abfrage ausgelöst hat; der Schwellwert im Profil hält die Kosten klein.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Name("library.RepositoryCall")
+@Label("Repository-Aufruf")
+@Category({"Library", "Datenbank"})
+@Description("Aufruf einer Repository-Methode")
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Methode")
+    public String method;
+
+    @Label("ID")
+    @Description("Erstes Argument, falls es eine ID ist, sonst 0")
+    public long entityId;
+
+    @Label("Zeilen")
+    @Description("Anzahl gelieferter oder geänderter Zeilen, -1 wenn unbekannt")
+    public long rows;
+}
@@ -0,0 +1,77 @@
+package com.project.library.library_backend.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Erzeugt für jeden Aufruf einer Repository-Methode ein {@link RepositoryCallEvent}.
+ *
+ * Ist das Event in der laufenden Aufzeichnung nicht aktiviert, wird nur die Methode aufgerufen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class RepositoryEventInterceptor implements MethodInterceptor {
+
+    private final String repository;
+
+    /**
+     * @param repository Name des Repositorys, z. B. "MediaRepository"
+     */
+    public RepositoryEventInterceptor(String repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        event.begin();
+        Object result = invocation.proceed();
+        event.end();
+        if (event.shouldCommit()) {
+            Object[] arguments = invocation.getArguments();
+            event.repository = repository;
+            event.method = invocation.getMethod().getName();
+            event.entityId = arguments.length > 0 && arguments[0] instanceof Long id ? id : 0;
+            event.rows = rows(result, invocation.getMethod().getReturnType());
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * @return Anzahl gelieferter bzw. bei ändernden Abfragen geänderter Zeilen, -1 wenn unbekannt
+     */
+    static long rows(Object result, Class<?> returnType) {
+        if (returnType == void.class) {
+            return -1;
+        }
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Iterable<?> || result instanceof Number || result instanceof Boolean) {
+            // count(), MAX(...), existsBy...: keine Zeilen im eigentlichen Sinn
+            return -1;
+        }
+        return 1;
+    }
+}
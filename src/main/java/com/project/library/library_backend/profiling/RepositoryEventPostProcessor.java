@@ -0,0 +1,26 @@
+package com.project.library.library_backend.profiling;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Hängt den {@link RepositoryEventInterceptor} an alle Spring-Data-Repositories.
+ *
+ * Der Interceptor wird der Repository-Factory hinzugefügt, bevor sie den Proxy erzeugt. Er läuft
+ * innerhalb der Transaktion des Repositorys; die Dauer enthält das Commit daher nicht.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class RepositoryEventPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> proxyFactory.addAdvice(
+                            new RepositoryEventInterceptor(information.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,33 @@
+package com.project.library.library_backend.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Event für die Rückgabe einer oder mehrerer Ausleihen inklusive Archivierung
+ * und Zuteilung von Vormerkungen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Name("library.Return")
+@Label("Rückgabe")
+@Category({"Library", "Ausleihen"})
+@Description("Rückgabe von Ausleihen mit Archivierung in der Historie")
+@StackTrace(false)
+public class ReturnEvent extends Event {
+
+    @Label("Ausleihe")
+    @Description("ID der Ausleihe, 0 bei mehreren")
+    public long borrowingId;
+
+    @Label("Angefragt")
+    public int requested;
+
+    @Label("Zurückgegeben")
+    public int returned;
+}
@@ -0,0 +1,58 @@
+package com.project.library.library_backend.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * JFR-Event für eine Suche (Titel, Nachname, unscharfe Kundensuche, Facetten).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Name("library.Search")
+@Label("Suche")
+@Category({"Library", "Suche"})
+@Description("Suche über Medien oder Kunden")
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    @Label("Suche")
+    @Description("Art der Suche, z. B. media.title")
+    public String search;
+
+    @Label("Suchtext")
+    public String query;
+
+    @Label("Treffer")
+    public int results;
+
+    /**
+     * Führt eine Suche aus und zeichnet sie auf, falls das Event aktiviert ist.
+     *
+     * @param search Art der Suche
+     * @param query Suchtext (nur bei Aufzeichnung ausgewertet)
+     * @param action Suche
+     * @param results Anzahl Treffer des Ergebnisses
+     * @return Ergebnis der Suche
+     */
+    public static <T> T record(String search, Supplier<String> query, Supplier<T> action, ToIntFunction<T> results) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        T result = action.get();
+        event.end();
+        if (event.shouldCommit()) {
+            event.search = search;
+            event.query = query.get();
+            event.results = results.applyAsInt(result);
+            event.commit();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,134 @@
+package com.project.library.library_backend.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive Begrenzung gleichzeitiger Anfragen anhand der gemessenen Latenz.
+ *
+ * Das Limit folgt dem AIMD-Prinzip: Steigt die kurzfristige Latenz (gleitender Mittelwert über
+ * wenige Anfragen) deutlich über die langfristige Grundlatenz, staut sich offenbar Arbeit in der
+ * Anwendung oder der Datenbank, und das Limit wird multiplikativ gesenkt. Ist die Latenz normal
+ * und das Limit tatsächlich ausgeschöpft, wird es um eins erhöht.
+ *
+ * Ein Teil des Limits ist für priorisierte Anfragen (Ausleihe, Rückgabe, Verlängerung) reserviert:
+ * normale Anfragen werden bereits abgewiesen, wenn nur noch die Reserve frei ist.
+ *
+ * Die Latenz wird als Stichprobe ausgewertet: Aktualisiert gerade eine andere Anfrage die
+ * Mittelwerte, wird die eigene Messung verworfen, statt zu warten. Die Freigabe blockiert so nie.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_ALPHA = 0.1;
+
+    private static final double LONG_ALPHA = 0.005;
+
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double priorityReserve;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private double shortRttNanos;
+
+    private double longRttNanos;
+
+    /**
+     * @param initialLimit Anfangslimit
+     * @param minLimit Untergrenze des Limits
+     * @param maxLimit Obergrenze des Limits
+     * @param tolerance Faktor, um den die kurzfristige Latenz die Grundlatenz übersteigen darf (z. B. 2.0)
+     * @param priorityReserve Anteil des Limits, der priorisierten Anfragen vorbehalten ist (0..1)
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double priorityReserve) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Ungültige Limits: " + minLimit + " <= " + initialLimit + " <= " + maxLimit);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.priorityReserve = priorityReserve;
+    }
+
+    /**
+     * Versucht, einen Platz für eine Anfrage zu belegen.
+     *
+     * @param priority true für priorisierte Anfragen, die auch die Reserve nutzen dürfen
+     * @return true, wenn die Anfrage ausgeführt werden darf; dann muss {@link #release(long)} folgen
+     */
+    public boolean tryAcquire(boolean priority) {
+        int allowed = priority ? limit : Math.max(1, (int) (limit * (1 - priorityReserve)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gibt einen Platz frei und passt das Limit anhand der gemessenen Latenz an.
+     *
+     * @param latencyNanos Dauer der Anfrage
+     */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        update(latencyNanos, current);
+    }
+
+    private void update(long latencyNanos, int inFlightAtCompletion) {
+        if (!updateLock.tryLock()) {
+            return;
+        }
+        try {
+            if (longRttNanos == 0) {
+                shortRttNanos = latencyNanos;
+                longRttNanos = latencyNanos;
+                return;
+            }
+            shortRttNanos += SHORT_ALPHA * (latencyNanos - shortRttNanos);
+            longRttNanos += LONG_ALPHA * (latencyNanos - longRttNanos);
+
+            if (shortRttNanos > longRttNanos * tolerance) {
+                limit = Math.max(minLimit, (int) (limit * DECREASE_FACTOR));
+                // Die Grundlatenz soll sich nicht an die Überlast gewöhnen
+                shortRttNanos = longRttNanos;
+            } else if (inFlightAtCompletion * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * @return Aktuelles Limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return Anzahl laufender Anfragen
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
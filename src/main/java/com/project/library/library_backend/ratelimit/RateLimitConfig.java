@@ -0,0 +1,28 @@
+package com.project.library.library_backend.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Konfiguration für Rate Limiting und Lastabwurf (nur aktiv mit library.ratelimit.enabled=true).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.ratelimit", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties) {
+        return new RateLimiter(properties);
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties) {
+        return new RateLimitFilter(rateLimiter, properties.getApiKeyHeader(), properties.getApiKeys());
+    }
+}
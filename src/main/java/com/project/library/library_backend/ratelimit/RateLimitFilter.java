@@ -0,0 +1,133 @@
+package com.project.library.library_backend.ratelimit;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wendet den {@link RateLimiter} auf alle Anfragen unter /api an.
+ *
+ * - Reichen die Tokens des Clients nicht aus, wird mit 429 (Too Many Requests) geantwortet.
+ * - Ist das Limit gleichzeitiger Anfragen erreicht, wird mit 503 (Service Unavailable) geantwortet.
+ *
+ * In beiden Fällen gibt der Header "Retry-After" an, nach wie vielen Sekunden ein neuer Versuch sinnvoll ist.
+ * Gestreamte Antworten (asynchron geschrieben) belegen ihre Erlaubnis bis zum Ende der Antwort.
+ *
+ * Ein Client wird über seinen API-Schlüssel erkannt, sofern dieser konfiguriert ist; sonst über
+ * die IP-Adresse (hinter einem Proxy die weitergeleitete Adresse, siehe {@link RateLimitProperties}).
+ * Unbekannte Schlüssel werden ignoriert, damit ein Client nicht mit immer neuen Schlüsseln
+ * immer neue Token-Buckets erhält.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    private final String apiKeyHeader;
+
+    private final Set<String> apiKeys;
+
+    public RateLimitFilter(RateLimiter rateLimiter, String apiKeyHeader, Set<String> apiKeys) {
+        this.rateLimiter = rateLimiter;
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        String apiKey = request.getHeader(apiKeyHeader);
+        String client = apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+        Set<String> parameters = "GET".equals(method) ? request.getParameterMap().keySet() : Set.of();
+
+        long wait = rateLimiter.tryConsume(client, rateLimiter.costOf(method, path, parameters));
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999L)));
+            return;
+        }
+        if (!rateLimiter.tryAcquire(rateLimiter.isPriority(method, path))) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Gestreamte Antworten laufen danach im Async-Thread weiter: erst am Ende freigeben
+                request.getAsyncContext().addListener(new ReleaseListener(start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                rateLimiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Gibt die Erlaubnis einer asynchron beendeten Anfrage genau einmal frei.
+     */
+    private class ReleaseListener implements AsyncListener {
+
+        private final long start;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseListener(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                rateLimiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(status.getReasonPhrase());
+    }
+}
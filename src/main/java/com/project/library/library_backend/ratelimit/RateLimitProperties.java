@@ -0,0 +1,230 @@
+package com.project.library.library_backend.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Konfiguration für Rate Limiting und Lastabwurf.
+ *
+ * Beispiel (application.properties):
+ * - library.ratelimit.enabled=true
+ * - library.ratelimit.api-keys=kasse-1,kasse-2
+ * - library.ratelimit.requests-per-second=20
+ * - library.ratelimit.burst=60
+ * - library.ratelimit.full-table-cost=10
+ * - library.ratelimit.costs[/api/media/batch]=5
+ *
+ * Clients ohne konfigurierten API-Schlüssel werden nach IP-Adresse begrenzt. Hinter einem
+ * Load Balancer muss dafür server.forward-headers-strategy=native gesetzt sein, damit die
+ * Adresse aus X-Forwarded-For übernommen wird (nur von internen Proxies, siehe
+ * server.tomcat.remoteip.internal-proxies).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "library.ratelimit")
+public class RateLimitProperties {
+
+    /**
+     * Aktiviert Rate Limiting und Lastabwurf.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Header mit dem API-Schlüssel des Clients.
+     */
+    private String apiKeyHeader = "X-API-Key";
+
+    /**
+     * Bekannte API-Schlüssel mit eigenem Token-Bucket. Andere Schlüssel werden ignoriert und
+     * der Client nach IP-Adresse begrenzt.
+     */
+    private Set<String> apiKeys = new HashSet<>();
+
+    /**
+     * Auffüllrate des Token-Buckets pro Client (Tokens pro Sekunde).
+     */
+    private double requestsPerSecond = 20;
+
+    /**
+     * Kapazität des Token-Buckets pro Client.
+     */
+    private int burst = 60;
+
+    /**
+     * Kosten einer Anfrage ohne eigene Regel.
+     */
+    private int defaultCost = 1;
+
+    /**
+     * Kosten der Endpunkte, die eine ganze Tabelle liefern (GET ohne einschränkenden Parameter).
+     */
+    private int fullTableCost = 10;
+
+    /**
+     * Endpunkte, die ohne Parameter eine ganze Tabelle liefern.
+     */
+    private List<String> fullTablePaths = List.of("/api/media", "/api/borrowings", "/api/customers", "/api/addresses");
+
+    /**
+     * Parameter, mit denen diese Endpunkte nur einen Teil der Tabelle liefern.
+     */
+    private Set<String> narrowingParameters = Set.of("ids");
+
+    /**
+     * Zusätzliche Kosten pro Pfadmuster (Ant-Syntax), z. B. costs[/api/media/batch]=5.
+     */
+    private Map<String, Integer> costs = new LinkedHashMap<>();
+
+    /**
+     * Anfangslimit gleichzeitiger Anfragen.
+     */
+    private int initialConcurrency = 50;
+
+    /**
+     * Untergrenze des Limits gleichzeitiger Anfragen.
+     */
+    private int minConcurrency = 8;
+
+    /**
+     * Obergrenze des Limits gleichzeitiger Anfragen.
+     */
+    private int maxConcurrency = 400;
+
+    /**
+     * Faktor, um den die aktuelle Latenz die Grundlatenz übersteigen darf, bevor das Limit sinkt.
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * Anteil des Limits, der für Ausleihe, Rückgabe und Verlängerung reserviert ist.
+     */
+    private double priorityReserve = 0.2;
+
+    // Getter und Setter
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getApiKeyHeader() {
+        return apiKeyHeader;
+    }
+
+    public void setApiKeyHeader(String apiKeyHeader) {
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    public Set<String> getApiKeys() {
+        return apiKeys;
+    }
+
+    public void setApiKeys(Set<String> apiKeys) {
+        this.apiKeys = apiKeys;
+    }
+
+    public Set<String> getNarrowingParameters() {
+        return narrowingParameters;
+    }
+
+    public void setNarrowingParameters(Set<String> narrowingParameters) {
+        this.narrowingParameters = narrowingParameters;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getDefaultCost() {
+        return defaultCost;
+    }
+
+    public void setDefaultCost(int defaultCost) {
+        this.defaultCost = defaultCost;
+    }
+
+    public int getFullTableCost() {
+        return fullTableCost;
+    }
+
+    public void setFullTableCost(int fullTableCost) {
+        this.fullTableCost = fullTableCost;
+    }
+
+    public List<String> getFullTablePaths() {
+        return fullTablePaths;
+    }
+
+    public void setFullTablePaths(List<String> fullTablePaths) {
+        this.fullTablePaths = fullTablePaths;
+    }
+
+    public Map<String, Integer> getCosts() {
+        return costs;
+    }
+
+    public void setCosts(Map<String, Integer> costs) {
+        this.costs = costs;
+    }
+
+    public int getInitialConcurrency() {
+        return initialConcurrency;
+    }
+
+    public void setInitialConcurrency(int initialConcurrency) {
+        this.initialConcurrency = initialConcurrency;
+    }
+
+    public int getMinConcurrency() {
+        return minConcurrency;
+    }
+
+    public void setMinConcurrency(int minConcurrency) {
+        this.minConcurrency = minConcurrency;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    public void setLatencyTolerance(double latencyTolerance) {
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    public double getPriorityReserve() {
+        return priorityReserve;
+    }
+
+    public void setPriorityReserve(double priorityReserve) {
+        this.priorityReserve = priorityReserve;
+    }
+}
@@ -0,0 +1,149 @@
+package com.project.library.library_backend.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate Limiting pro Client und adaptiver Lastabwurf.
+ *
+ * Jeder Client (API-Schlüssel oder IP-Adresse) erhält einen eigenen {@link TokenBucket}. Eine
+ * Anfrage verbraucht je nach Endpunkt unterschiedlich viele Tokens: Endpunkte, die eine ganze
+ * Tabelle liefern, kosten deutlich mehr als Einzelabfragen. Unabhängig davon begrenzt ein
+ * {@link AdaptiveConcurrencyLimiter} die Anzahl gleichzeitiger Anfragen, wobei Ausleihe,
+ * Rückgabe und Verlängerung Vorrang haben.
+ *
+ * Metriken (über /actuator/metrics):
+ * - library.ratelimit.rejected → abgewiesene Anfragen (reason=rate bzw. reason=overload)
+ * - library.ratelimit.concurrency.limit → aktuelles Limit gleichzeitiger Anfragen
+ * - library.ratelimit.clients → Anzahl Clients mit eigenem Token-Bucket
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class RateLimiter implements MeterBinder {
+
+    private final RateLimitProperties properties;
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final Set<String> fullTablePaths;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final LongAdder rateLimited = new LongAdder();
+
+    private final LongAdder shed = new LongAdder();
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.fullTablePaths = new HashSet<>(properties.getFullTablePaths());
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(properties.getInitialConcurrency(),
+                properties.getMinConcurrency(), properties.getMaxConcurrency(),
+                properties.getLatencyTolerance(), properties.getPriorityReserve());
+    }
+
+    /**
+     * Ermittelt die Kosten einer Anfrage in Tokens.
+     *
+     * @param method HTTP-Methode
+     * @param path Pfad ohne Query-String
+     * @param parameters Namen der Request-Parameter
+     * @return Kosten in Tokens
+     */
+    public int costOf(String method, String path, Set<String> parameters) {
+        if ("GET".equals(method) && fullTablePaths.contains(path)
+                && parameters.stream().noneMatch(properties.getNarrowingParameters()::contains)) {
+            return properties.getFullTableCost();
+        }
+        for (Map.Entry<String, Integer> rule : properties.getCosts().entrySet()) {
+            if (pathMatcher.match(rule.getKey(), path)) {
+                return rule.getValue();
+            }
+        }
+        return properties.getDefaultCost();
+    }
+
+    /**
+     * Prüft, ob eine Anfrage zum Ausleih-Ablauf gehört (Ausleihe, Rückgabe, Verlängerung).
+     */
+    public boolean isPriority(String method, String path) {
+        return "POST".equals(method) && path.startsWith("/api/borrowings")
+                && (path.equals("/api/borrowings") || path.endsWith("/return") || path.endsWith("/extend"));
+    }
+
+    /**
+     * Versucht, die Kosten einer Anfrage vom Token-Bucket des Clients abzuziehen.
+     *
+     * @param client API-Schlüssel oder IP-Adresse
+     * @param cost Kosten in Tokens
+     * @return 0, wenn die Anfrage erlaubt ist, sonst die Wartezeit in Nanosekunden
+     */
+    public long tryConsume(String client, int cost) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.computeIfAbsent(client,
+                key -> new TokenBucket(properties.getBurst(), properties.getRequestsPerSecond(), now));
+        long wait = bucket.tryConsume(cost, now);
+        if (wait > 0) {
+            rateLimited.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Versucht, einen Platz für eine gleichzeitige Anfrage zu belegen.
+     *
+     * @param priority true für Anfragen des Ausleih-Ablaufs
+     * @return true, wenn die Anfrage ausgeführt werden darf; dann muss {@link #release(long)} folgen
+     */
+    public boolean tryAcquire(boolean priority) {
+        boolean acquired = concurrencyLimiter.tryAcquire(priority);
+        if (!acquired) {
+            shed.increment();
+        }
+        return acquired;
+    }
+
+    /**
+     * Gibt den Platz einer abgeschlossenen Anfrage frei.
+     *
+     * @param latencyNanos Dauer der Anfrage
+     */
+    public void release(long latencyNanos) {
+        concurrencyLimiter.release(latencyNanos);
+    }
+
+    /**
+     * Entfernt die Token-Buckets von Clients, die zurzeit keine Tokens verbrauchen (Bucket voll).
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("library.ratelimit.rejected", rateLimited, LongAdder::sum)
+                .tag("reason", "rate")
+                .register(registry);
+        FunctionCounter.builder("library.ratelimit.rejected", shed, LongAdder::sum)
+                .tag("reason", "overload")
+                .register(registry);
+        Gauge.builder("library.ratelimit.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(registry);
+        Gauge.builder("library.ratelimit.clients", buckets, Map::size)
+                .register(registry);
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.library.library_backend.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-freier Token-Bucket.
+ *
+ * Statt Tokenstand und Zeitpunkt der letzten Auffüllung getrennt zu speichern, hält der Bucket
+ * nur einen einzigen Wert: den Zeitpunkt (in Nanosekunden), zu dem er wieder voll ist. Der
+ * aktuelle Tokenstand ergibt sich daraus und aus der aktuellen Zeit. Dadurch genügt für das
+ * Entnehmen ein einzelnes compareAndSet auf einem {@link AtomicLong}, ohne Sperren.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+
+    private final long capacityNanos;
+
+    /**
+     * Zeitpunkt (System.nanoTime()), ab dem der Bucket wieder voll ist.
+     */
+    private final AtomicLong fullAt;
+
+    /**
+     * @param capacity Maximale Anzahl Tokens (Burst)
+     * @param tokensPerSecond Auffüllrate
+     * @param now Aktuelle Zeit in Nanosekunden; der Bucket ist zu Beginn voll
+     */
+    public TokenBucket(long capacity, double tokensPerSecond, long now) {
+        if (capacity <= 0 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Kapazität und Rate müssen positiv sein");
+        }
+        this.nanosPerToken = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = capacity * nanosPerToken;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Versucht, Tokens zu entnehmen.
+     *
+     * @param tokens Anzahl Tokens (Kosten der Anfrage, höchstens die Kapazität wird verlangt)
+     * @param now Aktuelle Zeit in Nanosekunden
+     * @return 0, wenn die Tokens entnommen wurden, sonst die Wartezeit in Nanosekunden,
+     *         bis genügend Tokens vorhanden sind
+     */
+    public long tryConsume(long tokens, long now) {
+        long cost = Math.min(tokens * nanosPerToken, capacityNanos);
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + cost;
+            long overdraft = next - now - capacityNanos;
+            if (overdraft > 0) {
+                return overdraft;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @param now Aktuelle Zeit in Nanosekunden
+     * @return Anzahl aktuell verfügbarer Tokens
+     */
+    public long available(long now) {
+        long missing = Math.max(0, fullAt.get() - now);
+        return (capacityNanos - missing) / nanosPerToken;
+    }
+
+    /**
+     * @param now Aktuelle Zeit in Nanosekunden
+     * @return true, wenn der Bucket voll ist (der Client also seit einer Weile keine Tokens verbraucht hat)
+     */
+    public boolean isFull(long now) {
+        return fullAt.get() <= now;
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.library.library_backend.reminder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Legt Nachrichten als .eml-Dateien in einem Verzeichnis ab, statt sie zu versenden.
+ *
+ * Die Dateien können mit einem Mail-Client geöffnet werden; für Tests und Entwicklung, oder
+ * als Übergabe an ein externes Versandsystem.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class FileReminderSender implements ReminderSender {
+
+    private final Path directory;
+
+    private final String from;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param directory Zielverzeichnis
+     * @param from Absender
+     */
+    public FileReminderSender(Path directory, String from) {
+        this.directory = directory;
+        this.from = from;
+    }
+
+    @Override
+    public void send(ReminderMessage message) throws IOException {
+        Files.createDirectories(directory);
+        String eml = "From: " + from + "\r\n"
+                + "To: " + message.email() + "\r\n"
+                + "Date: " + DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now()) + "\r\n"
+                + "Subject: " + encodeHeader(message.subject()) + "\r\n"
+                + "MIME-Version: 1.0\r\n"
+                + "Content-Type: text/plain; charset=UTF-8\r\n"
+                + "\r\n"
+                + message.text().replace("\n", "\r\n");
+        String name = System.currentTimeMillis() + "-" + sequence.incrementAndGet() + ".eml";
+        Path temp = directory.resolve(name + ".tmp");
+        Files.writeString(temp, eml, StandardCharsets.UTF_8);
+        // Erst vollständig geschriebene Nachrichten erscheinen als .eml
+        Files.move(temp, directory.resolve(name));
+    }
+
+    /**
+     * Kodiert Umlaute in Kopfzeilen nach RFC 2047.
+     */
+    private static String encodeHeader(String value) {
+        return "=?UTF-8?B?" + Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8)) + "?=";
+    }
+}
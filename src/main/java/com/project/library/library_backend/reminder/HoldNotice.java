@@ -0,0 +1,60 @@
+package com.project.library.library_backend.reminder;
+
+import com.project.library.library_backend.policy.LoanViolation;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Benachrichtigung zu einer Vormerkung: Das Medium wurde dem Kunden ausgeliehen, oder er wurde
+ * bei der Zuteilung übersprungen, weil er eine Ausleihregel verletzt.
+ *
+ * @param email Empfänger
+ * @param firstname Vorname des Kunden
+ * @param lastname Nachname des Kunden
+ * @param title Titel des Mediums
+ * @param duedate Fälligkeitsdatum der neuen Ausleihe (null, wenn übersprungen)
+ * @param violations Verletzte Ausleihregeln (leer, wenn ausgeliehen)
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record HoldNotice(String email, String firstname, String lastname, String title, LocalDate duedate,
+                         List<LoanViolation> violations) implements ReminderMessage {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    /**
+     * @return true, wenn das Medium ausgeliehen wurde
+     */
+    public boolean assigned() {
+        return violations.isEmpty();
+    }
+
+    @Override
+    public String subject() {
+        return assigned()
+                ? "Vormerkung bereit: " + title
+                : "Vormerkung zurückgestellt: " + title;
+    }
+
+    @Override
+    public String text() {
+        StringBuilder text = new StringBuilder();
+        text.append("Guten Tag ").append(firstname).append(' ').append(lastname).append("\n\n");
+        if (assigned()) {
+            text.append("Das vorgemerkte Medium \"").append(title).append("\" wurde Ihnen ausgeliehen")
+                    .append(duedate != null ? " und ist fällig am " + DATE.format(duedate) : "")
+                    .append(".\nSie können es am Schalter abholen.\n");
+        } else {
+            text.append("Das vorgemerkte Medium \"").append(title)
+                    .append("\" ist zurück, konnte Ihnen aber nicht ausgeliehen werden:\n\n");
+            for (LoanViolation violation : violations) {
+                text.append("- ").append(violation.message()).append('\n');
+            }
+            text.append("\nIhre Vormerkung bleibt bestehen.\n");
+        }
+        return text.toString();
+    }
+}
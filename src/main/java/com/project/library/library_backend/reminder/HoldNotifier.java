@@ -0,0 +1,84 @@
+package com.project.library.library_backend.reminder;
+
+import com.project.library.library_backend.model.Borrowing;
+import com.project.library.library_backend.model.Customer;
+import com.project.library.library_backend.model.Media;
+import com.project.library.library_backend.policy.LoanViolation;
+import com.project.library.library_backend.repository.BorrowingRepository;
+import com.project.library.library_backend.repository.CustomerRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+import com.project.library.library_backend.service.HoldAssignedEvent;
+import com.project.library.library_backend.service.HoldSkippedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Benachrichtigt Kunden über zugeteilte und übersprungene Vormerkungen.
+ *
+ * Die Ereignisse werden erst nach dem Commit der Rückgabe verarbeitet, damit bei einem
+ * Rollback keine Nachricht verschickt wird. Die Nachrichten werden ohne zu warten in den
+ * {@link ReminderDispatcher} eingereiht, so dass eine volle Warteschlange die Rückgabe nicht
+ * aufhält; ist sie voll, wird die Nachricht verworfen und protokolliert. Kunden ohne
+ * E-Mail-Adresse werden nicht benachrichtigt.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class HoldNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldNotifier.class);
+
+    private final CustomerRepository customerRepository;
+
+    private final MediaRepository mediaRepository;
+
+    private final BorrowingRepository borrowingRepository;
+
+    private final ReminderDispatcher dispatcher;
+
+    public HoldNotifier(CustomerRepository customerRepository, MediaRepository mediaRepository,
+                        BorrowingRepository borrowingRepository, ReminderDispatcher dispatcher) {
+        this.customerRepository = customerRepository;
+        this.mediaRepository = mediaRepository;
+        this.borrowingRepository = borrowingRepository;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Meldet dem Kunden, dass ihm das vorgemerkte Medium ausgeliehen wurde.
+     *
+     * @param event Zuteilung
+     */
+    @TransactionalEventListener
+    public void holdAssigned(HoldAssignedEvent event) {
+        LocalDate duedate = borrowingRepository.findById(event.borrowingId()).map(Borrowing::getDuedate).orElse(null);
+        notify(event.customerId(), event.mediaId(), duedate, List.of());
+    }
+
+    /**
+     * Meldet dem Kunden, dass er bei der Zuteilung übersprungen wurde.
+     *
+     * @param event Übersprungene Vormerkung
+     */
+    @TransactionalEventListener
+    public void holdSkipped(HoldSkippedEvent event) {
+        notify(event.customerId(), event.mediaId(), null, event.violations());
+    }
+
+    private void notify(Long customerId, Long mediaId, LocalDate duedate, List<LoanViolation> violations) {
+        Customer customer = customerRepository.findById(customerId).orElse(null);
+        if (customer == null || customer.getEmail() == null || customer.getEmail().isBlank()) {
+            return;
+        }
+        String title = mediaRepository.findById(mediaId).map(Media::getTitle).orElse("Medium " + mediaId);
+        HoldNotice notice = new HoldNotice(customer.getEmail().trim(), customer.getFirstname(), customer.getLastname(),
+                title, duedate, List.copyOf(violations));
+        if (!dispatcher.offer(notice)) {
+            log.warn("Benachrichtigung zur Vormerkung an {} verworfen: Warteschlange voll", notice.email());
+        }
+    }
+}
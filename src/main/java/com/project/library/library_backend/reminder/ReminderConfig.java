@@ -0,0 +1,53 @@
+package com.project.library.library_backend.reminder;
+
+import com.project.library.library_backend.repository.BorrowingRepository;
+import com.project.library.library_backend.repository.CustomerRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Konfiguration der Erinnerungen (nur aktiv mit library.reminders.enabled=true).
+ *
+ * Für den Versand per SMTP genügt es, eine eigene {@link ReminderSender}-Bean zu registrieren;
+ * sonst werden die Nachrichten im Verzeichnis library.reminders.outbox abgelegt. Über denselben
+ * Versand benachrichtigt der {@link HoldNotifier} Kunden über zugeteilte und übersprungene Vormerkungen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.reminders", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReminderProperties.class)
+public class ReminderConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(ReminderSender.class)
+    public ReminderSender reminderSender(ReminderProperties properties) {
+        return new FileReminderSender(Path.of(properties.getOutbox()), properties.getFrom());
+    }
+
+    @Bean
+    public ReminderDispatcher reminderDispatcher(ReminderSender reminderSender, ReminderProperties properties) {
+        return new ReminderDispatcher(reminderSender, properties.getQueueCapacity(),
+                properties.getMessagesPerSecond(), properties.getBurst());
+    }
+
+    @Bean
+    public ReminderService reminderService(BorrowingRepository borrowingRepository, ReminderDispatcher reminderDispatcher,
+                                           ReminderProperties properties) {
+        return new ReminderService(borrowingRepository, reminderDispatcher, properties.getDaysBefore(),
+                properties.getChunkSize());
+    }
+
+    @Bean
+    public HoldNotifier holdNotifier(CustomerRepository customerRepository, MediaRepository mediaRepository,
+                                     BorrowingRepository borrowingRepository, ReminderDispatcher reminderDispatcher) {
+        return new HoldNotifier(customerRepository, mediaRepository, borrowingRepository, reminderDispatcher);
+    }
+}
@@ -0,0 +1,41 @@
+package com.project.library.library_backend.reminder;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Sammel-Erinnerung an eine E-Mail-Adresse mit allen fälligen Ausleihen.
+ *
+ * Mehrere Kunden können dieselbe Adresse verwenden (z. B. Familien); sie erhalten eine
+ * gemeinsame Nachricht.
+ *
+ * @param email Empfänger
+ * @param loans Fällige Ausleihen, nach Fälligkeit sortiert
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record ReminderDigest(String email, List<ReminderLoan> loans) implements ReminderMessage {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    @Override
+    public String subject() {
+        return loans.size() == 1
+                ? "Erinnerung: Rückgabe fällig am " + DATE.format(loans.get(0).duedate())
+                : "Erinnerung: " + loans.size() + " Rückgaben bald fällig";
+    }
+
+    @Override
+    public String text() {
+        StringBuilder text = new StringBuilder();
+        text.append("Guten Tag ").append(loans.get(0).firstname()).append(' ').append(loans.get(0).lastname())
+                .append("\n\nFolgende Ausleihen sind bald fällig:\n\n");
+        for (ReminderLoan loan : loans) {
+            text.append("- ").append(loan.title()).append(" (fällig am ").append(DATE.format(loan.duedate()))
+                    .append(")\n");
+        }
+        text.append("\nBitte bringen Sie die Medien rechtzeitig zurück oder verlängern Sie die Ausleihe.\n");
+        return text.toString();
+    }
+}
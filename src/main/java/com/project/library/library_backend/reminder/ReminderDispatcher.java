@@ -0,0 +1,150 @@
+package com.project.library.library_backend.reminder;
+
+import com.project.library.library_backend.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Versendet Erinnerungen asynchron über eine begrenzte Warteschlange mit begrenzter Rate.
+ *
+ * Ein einzelner Thread nimmt die Erinnerungen aus einer {@link ArrayBlockingQueue} und übergibt
+ * sie dem {@link ReminderSender}. Vor jeder Nachricht wird ein Token aus einem
+ * {@link TokenBucket} entnommen, so dass der Mail-Server höchstens die konfigurierte Rate
+ * (mit kurzem Burst) sieht. Ist die Warteschlange voll, blockiert {@link #enqueue}, bis wieder
+ * Platz ist; der Suchlauf über die Ausleihen wird dadurch auf die Versandrate gebremst.
+ *
+ * Neben den Erinnerungen werden auch Benachrichtigungen zu Vormerkungen ({@link HoldNotifier})
+ * über diese Warteschlange versendet.
+ *
+ * Fehlgeschlagene Nachrichten werden protokolliert und gezählt, aber nicht wiederholt.
+ *
+ * Metriken (über /actuator/metrics):
+ * - library.reminders.sent → versendete Erinnerungen
+ * - library.reminders.failed → fehlgeschlagene Erinnerungen
+ * - library.reminders.queued → wartende Erinnerungen
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class ReminderDispatcher implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderDispatcher.class);
+
+    private final ReminderSender sender;
+
+    private final BlockingQueue<ReminderMessage> queue;
+
+    private final TokenBucket bucket;
+
+    private final Thread worker;
+
+    private final LongAdder sent = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * @param sender Versand
+     * @param capacity Grösse der Warteschlange
+     * @param messagesPerSecond Maximale Versandrate
+     * @param burst Anzahl Nachrichten, die ohne Pause versendet werden dürfen
+     */
+    public ReminderDispatcher(ReminderSender sender, int capacity, double messagesPerSecond, int burst) {
+        this.sender = sender;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.bucket = new TokenBucket(burst, messagesPerSecond, System.nanoTime());
+        this.worker = new Thread(this::run, "reminder-dispatcher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Reiht eine Erinnerung ein und wartet, solange die Warteschlange voll ist.
+     *
+     * @param message Erinnerung
+     * @throws InterruptedException wenn der Thread beim Warten unterbrochen wird
+     */
+    public void enqueue(ReminderMessage message) throws InterruptedException {
+        queue.put(message);
+    }
+
+    /**
+     * Reiht eine Nachricht ein, ohne zu warten.
+     *
+     * @param message Nachricht
+     * @return false, wenn die Warteschlange voll ist und die Nachricht nicht eingereiht wurde
+     */
+    public boolean offer(ReminderMessage message) {
+        return queue.offer(message);
+    }
+
+    /**
+     * @return Anzahl wartender Erinnerungen
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * @return Anzahl versendeter Erinnerungen
+     */
+    public long getSent() {
+        return sent.sum();
+    }
+
+    /**
+     * @return Anzahl fehlgeschlagener Erinnerungen
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                ReminderMessage message = queue.take();
+                long wait;
+                while ((wait = bucket.tryConsume(1, System.nanoTime())) > 0) {
+                    LockSupport.parkNanos(wait);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+                try {
+                    sender.send(message);
+                    sent.increment();
+                } catch (IOException | RuntimeException e) {
+                    failed.increment();
+                    log.warn("Nachricht an {} fehlgeschlagen: {}", message.email(), e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            if (!queue.isEmpty()) {
+                log.warn("{} Erinnerungen beim Herunterfahren nicht versendet", queue.size());
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("library.reminders.sent", sent, LongAdder::sum).register(registry);
+        FunctionCounter.builder("library.reminders.failed", failed, LongAdder::sum).register(registry);
+        Gauge.builder("library.reminders.queued", queue, BlockingQueue::size).register(registry);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        worker.interrupt();
+        worker.join(1000);
+    }
+}
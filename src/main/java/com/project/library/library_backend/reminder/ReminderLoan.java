@@ -0,0 +1,20 @@
+package com.project.library.library_backend.reminder;
+
+import java.time.LocalDate;
+
+/**
+ * Eine fällige Ausleihe mit den Angaben, die für eine Erinnerung nötig sind.
+ *
+ * @param borrowingId ID der Ausleihe
+ * @param duedate Fälligkeitsdatum
+ * @param customerId ID des Kunden
+ * @param email E-Mail-Adresse des Kunden
+ * @param firstname Vorname des Kunden
+ * @param lastname Nachname des Kunden
+ * @param title Titel des Mediums
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record ReminderLoan(Long borrowingId, LocalDate duedate, Long customerId, String email,
+                           String firstname, String lastname, String title) {}
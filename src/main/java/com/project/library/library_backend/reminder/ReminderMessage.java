@@ -0,0 +1,25 @@
+package com.project.library.library_backend.reminder;
+
+/**
+ * Nachricht an einen Kunden, die über den {@link ReminderDispatcher} versendet wird.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public interface ReminderMessage {
+
+    /**
+     * @return Empfänger
+     */
+    String email();
+
+    /**
+     * @return Betreff der Nachricht
+     */
+    String subject();
+
+    /**
+     * @return Text der Nachricht
+     */
+    String text();
+}
@@ -0,0 +1,138 @@
+package com.project.library.library_backend.reminder;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Konfiguration der Erinnerungen an fällige Ausleihen.
+ *
+ * Beispiel (application.properties):
+ * - library.reminders.enabled=true
+ * - library.reminders.cron=0 0 7 * * *
+ * - library.reminders.days-before=3
+ * - library.reminders.messages-per-second=5
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "library.reminders")
+public class ReminderProperties {
+
+    /**
+     * Aktiviert die täglichen Erinnerungen.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Zeitpunkt des täglichen Laufs.
+     */
+    private String cron = "0 0 7 * * *";
+
+    /**
+     * Anzahl Tage vor der Fälligkeit, an denen erinnert wird.
+     */
+    private int daysBefore = 3;
+
+    /**
+     * Anzahl Ausleihen pro Abfrage.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Grösse der Versand-Warteschlange.
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Maximale Anzahl Nachrichten pro Sekunde an den Mail-Server.
+     */
+    private double messagesPerSecond = 5;
+
+    /**
+     * Anzahl Nachrichten, die ohne Pause versendet werden dürfen.
+     */
+    private int burst = 10;
+
+    /**
+     * Absender der Nachrichten.
+     */
+    private String from = "bibliothek@localhost";
+
+    /**
+     * Verzeichnis für abgelegte Nachrichten, solange kein eigener {@link ReminderSender} registriert ist.
+     */
+    private String outbox = "data/outbox";
+
+    // Getter und Setter
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public int getDaysBefore() {
+        return daysBefore;
+    }
+
+    public void setDaysBefore(int daysBefore) {
+        this.daysBefore = daysBefore;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public double getMessagesPerSecond() {
+        return messagesPerSecond;
+    }
+
+    public void setMessagesPerSecond(double messagesPerSecond) {
+        this.messagesPerSecond = messagesPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getOutbox() {
+        return outbox;
+    }
+
+    public void setOutbox(String outbox) {
+        this.outbox = outbox;
+    }
+}
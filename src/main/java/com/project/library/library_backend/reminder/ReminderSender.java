@@ -0,0 +1,23 @@
+package com.project.library.library_backend.reminder;
+
+import java.io.IOException;
+
+/**
+ * Versendet Erinnerungen und andere Nachrichten an Kunden, z. B. per SMTP.
+ *
+ * Ist keine eigene Implementierung als Bean registriert, werden die Nachrichten vom
+ * {@link FileReminderSender} als Dateien abgelegt.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public interface ReminderSender {
+
+    /**
+     * Versendet eine Nachricht.
+     *
+     * @param message Nachricht, z. B. eine {@link ReminderDigest Erinnerung}
+     * @throws IOException wenn die Nachricht nicht versendet werden konnte
+     */
+    void send(ReminderMessage message) throws IOException;
+}
@@ -0,0 +1,184 @@
+package com.project.library.library_backend.reminder;
+
+import com.project.library.library_backend.repository.BorrowingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Erinnert Kunden an bald fällige Ausleihen.
+ *
+ * Einmal täglich werden die Ausleihen, die in genau {@code daysBefore} Tagen fällig sind, über
+ * den Index auf (duedate, customerid, id) blockweise gelesen (Keyset-Paginierung, höchstens
+ * {@code chunkSize} Zeilen pro Abfrage). Die Ausleihen werden pro E-Mail-Adresse zu einer
+ * {@link ReminderDigest Sammel-Erinnerung} zusammengefasst und über den
+ * {@link ReminderDispatcher} mit begrenzter Rate versendet. Da jede Ausleihe nur an einem Tag
+ * im Fenster liegt, wird sie ohne zusätzlichen Zustand genau einmal erinnert.
+ *
+ * Jeder Block wird sofort eingereiht, bevor der nächste gelesen wird; es liegt also nie mehr
+ * als ein Block im Speicher, und eine volle Warteschlange bremst das Lesen. Da die Ausleihen
+ * eines Kunden aufeinander folgen, werden nur die Ausleihen des letzten Kunden eines Blocks
+ * zurückgehalten und mit dem nächsten Block versendet; jeder Kunde erhält so eine einzige
+ * Nachricht. Teilen sich mehrere Kunden eine Adresse, können es mehrere sein.
+ *
+ * Der Lauf findet in einem eigenen Thread statt, damit eine volle Warteschlange keine anderen
+ * geplanten Aufgaben blockiert. Im Cluster sollten Erinnerungen nur auf einer Instanz
+ * aktiviert sein.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class ReminderService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderService.class);
+
+    private final BorrowingRepository borrowingRepository;
+
+    private final ReminderDispatcher dispatcher;
+
+    private final int daysBefore;
+
+    private final int chunkSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "reminder-scan");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ReminderService(BorrowingRepository borrowingRepository, ReminderDispatcher dispatcher,
+                           int daysBefore, int chunkSize) {
+        this.borrowingRepository = borrowingRepository;
+        this.dispatcher = dispatcher;
+        this.daysBefore = daysBefore;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Startet den täglichen Lauf, sofern der vorherige abgeschlossen ist.
+     */
+    @Scheduled(cron = "${library.reminders.cron:0 0 7 * * *}")
+    public void scheduleRun() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Erinnerungen: vorheriger Lauf ist noch nicht abgeschlossen");
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                remind(LocalDate.now().plusDays(daysBefore));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Erinnerungen fehlgeschlagen", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * Erinnert an alle Ausleihen, die an einem Tag fällig sind.
+     *
+     * @param duedate Fälligkeitsdatum
+     * @return Anzahl eingereihter Erinnerungen
+     */
+    public int remind(LocalDate duedate) throws InterruptedException {
+        int loans = 0;
+        int messages = 0;
+        LocalDate afterDuedate = duedate.minusDays(1);
+        long afterCustomerId = 0;
+        long afterId = 0;
+        List<ReminderLoan> heldBack = List.of();
+        while (true) {
+            List<ReminderLoan> chunk = borrowingRepository.findReminderLoans(duedate, duedate, afterDuedate,
+                    afterCustomerId, afterId, PageRequest.of(0, chunkSize));
+            boolean more = chunk.size() == chunkSize;
+            List<ReminderLoan> ready = new ArrayList<>(heldBack.size() + chunk.size());
+            ready.addAll(heldBack);
+            ready.addAll(chunk);
+            // Der letzte Kunde kann im nächsten Block weitere Ausleihen haben
+            heldBack = more ? holdBackLastCustomer(ready) : List.of();
+            for (ReminderDigest digest : group(ready)) {
+                dispatcher.enqueue(digest);
+                messages++;
+            }
+            loans += chunk.size();
+            if (!more) {
+                break;
+            }
+            ReminderLoan last = chunk.get(chunk.size() - 1);
+            afterDuedate = last.duedate();
+            afterCustomerId = last.customerId();
+            afterId = last.borrowingId();
+        }
+        log.info("Erinnerungen für {}: {} Ausleihen, {} Nachrichten", duedate, loans, messages);
+        return messages;
+    }
+
+    /**
+     * Entfernt die Ausleihen des letzten Kunden am Ende der Liste.
+     *
+     * @param loans Ausleihen nach Fälligkeit und Kunde sortiert; wird verkürzt
+     * @return Entfernte Ausleihen in ihrer Reihenfolge
+     */
+    static List<ReminderLoan> holdBackLastCustomer(List<ReminderLoan> loans) {
+        int from = loans.size();
+        if (from == 0) {
+            return List.of();
+        }
+        ReminderLoan last = loans.get(from - 1);
+        while (from > 0 && loans.get(from - 1).customerId().equals(last.customerId())
+                && loans.get(from - 1).duedate().equals(last.duedate())) {
+            from--;
+        }
+        List<ReminderLoan> tail = loans.subList(from, loans.size());
+        List<ReminderLoan> heldBack = List.copyOf(tail);
+        tail.clear();
+        return heldBack;
+    }
+
+    /**
+     * Fasst Ausleihen pro E-Mail-Adresse (ohne Gross-/Kleinschreibung) zusammen.
+     * Ausleihen von Kunden ohne E-Mail-Adresse werden übersprungen.
+     *
+     * @param loans Ausleihen
+     * @return Eine Erinnerung pro Adresse, in der Reihenfolge der ersten Ausleihe
+     */
+    static List<ReminderDigest> group(Collection<ReminderLoan> loans) {
+        Map<String, List<ReminderLoan>> byEmail = new LinkedHashMap<>();
+        for (ReminderLoan loan : loans) {
+            if (loan.email() == null || loan.email().isBlank()) {
+                continue;
+            }
+            byEmail.computeIfAbsent(loan.email().trim().toLowerCase(Locale.ROOT), e -> new ArrayList<>()).add(loan);
+        }
+        List<ReminderDigest> digests = new ArrayList<>(byEmail.size());
+        for (List<ReminderLoan> group : byEmail.values()) {
+            group.sort(Comparator.comparing(ReminderLoan::duedate).thenComparing(ReminderLoan::title,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+            digests.add(new ReminderDigest(group.get(0).email().trim(), List.copyOf(group)));
+        }
+        return digests;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
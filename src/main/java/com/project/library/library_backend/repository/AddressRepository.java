@@ -1,10 +1,13 @@
 package com.project.library.library_backend.repository;
 
+import com.project.library.library_backend.catalog.AddressEntry;
 import com.project.library.library_backend.model.Address;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +26,7 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
      *
      * @return Liste aller Adressen
      */
+    @Transactional(readOnly = true)
     List<Address> findAll();
 
     /**
@@ -31,6 +35,7 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
      * @param city Stadtname
      * @return Liste aller passenden Adressen
      */
+    @Transactional(readOnly = true)
     List<Address> findByCity(String city);
 
     /**
@@ -39,16 +44,39 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
      * @param plz Postleitzahl
      * @return Liste aller passenden Adressen
      */
+    @Transactional(readOnly = true)
     List<Address> findByPlz(String plz);
     
     /**
      * Findet eine Adresse anhand Straße + Stadt (z.B. für Duplikatsvermeidung).
      *
-     * @param street Straße und Hausnummer
+     * @param streetandnum Straße und Hausnummer
      * @param city   Stadtname
      * @return Optional mit Adresse, falls vorhanden
      */
-    @Query("SELECT a FROM Address a WHERE a.streetAndNum = :street AND a.city = :city")
+    @Transactional(readOnly = true)
+    @Query("SELECT a FROM Address a WHERE a.streetandnum = :streetandnum AND a.city = :city")
     Optional<Address> findByStreetAndCity(@Param("streetandnum") String streetandnum, @Param("city") String city);
 
+    /**
+     * Gibt alle Adressen als Katalogeinträge zurück.
+     *
+     * @return Liste aller Katalogeinträge
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.project.library.library_backend.catalog.AddressEntry("
+            + "a.id, a.streetandnum, a.city, a.plz) FROM Address a")
+    List<AddressEntry> findAllCatalogEntries();
+
+    /**
+     * Gibt die Adressen mit den angegebenen IDs als Katalogeinträge zurück.
+     *
+     * @param ids IDs der Adressen
+     * @return Liste der gefundenen Katalogeinträge
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.project.library.library_backend.catalog.AddressEntry("
+            + "a.id, a.streetandnum, a.city, a.plz) FROM Address a WHERE a.id IN :ids")
+    List<AddressEntry> findCatalogEntriesByIdIn(@Param("ids") Collection<Long> ids);
+
 }
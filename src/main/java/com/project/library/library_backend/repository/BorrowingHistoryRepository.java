@@ -0,0 +1,72 @@
+package com.project.library.library_backend.repository;
+
+import com.project.library.library_backend.model.BorrowingHistory;
+import com.project.library.library_backend.model.BorrowingHistoryId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository-Interface für den Zugriff auf abgeschlossene Ausleihen.
+ * Neue Einträge entstehen ausschliesslich bei der Rückgabe über {@link BorrowingRepository#archiveByIdIn}.
+ *
+ * Alle Suchen sind auf einen Zeitraum des Ausleihdatums beschränkt, damit MariaDB nur die
+ * betroffenen Partitionen liest (Partition Pruning).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public interface BorrowingHistoryRepository extends JpaRepository<BorrowingHistory, BorrowingHistoryId> {
+
+    /**
+     * Sucht die abgeschlossenen Ausleihen eines Kunden in einem Zeitraum, die neuesten zuerst.
+     *
+     * @param customerId ID des Kunden
+     * @param from Frühestes Ausleihdatum (inklusive)
+     * @param to Spätestes Ausleihdatum (inklusive)
+     * @return Liste der abgeschlossenen Ausleihen
+     */
+    @Transactional(readOnly = true)
+    List<BorrowingHistory> findByCustomeridAndDateborrowedBetweenOrderByDateborrowedDesc(Long customerId, LocalDate from, LocalDate to);
+
+    /**
+     * Sucht die abgeschlossenen Ausleihen eines Mediums in einem Zeitraum, die neuesten zuerst.
+     *
+     * @param mediaId ID des Mediums
+     * @param from Frühestes Ausleihdatum (inklusive)
+     * @param to Spätestes Ausleihdatum (inklusive)
+     * @return Liste der abgeschlossenen Ausleihen
+     */
+    @Transactional(readOnly = true)
+    List<BorrowingHistory> findByMediaidAndDateborrowedBetweenOrderByDateborrowedDesc(Long mediaId, LocalDate from, LocalDate to);
+
+    /**
+     * Gibt die IDs von Einträgen zurück, die vor einem Datum ausgeliehen wurden (für blockweises Löschen).
+     *
+     * @param before Stichtag (exklusive)
+     * @param pageable Anzahl der gelieferten IDs
+     * @return IDs der gefundenen Einträge
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT h.id FROM BorrowingHistory h WHERE h.dateborrowed < :before")
+    List<Long> findIdsByDateborrowedBefore(@Param("before") LocalDate before, Pageable pageable);
+
+    /**
+     * Löscht Einträge, die vor einem Datum ausgeliehen wurden, beschränkt auf die angegebenen IDs.
+     *
+     * @param before Stichtag (exklusive)
+     * @param ids IDs der Einträge
+     * @return Anzahl gelöschter Einträge
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM BorrowingHistory h WHERE h.dateborrowed < :before AND h.id IN :ids")
+    int deleteByDateborrowedBeforeAndIdIn(@Param("before") LocalDate before, @Param("ids") Collection<Long> ids);
+}
@@ -1,8 +1,19 @@
 package com.project.library.library_backend.repository;
 
+import com.project.library.library_backend.catalog.LoanEntry;
 import com.project.library.library_backend.model.Borrowing;
+import com.project.library.library_backend.reminder.ReminderLoan;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +32,7 @@ public interface BorrowingRepository extends JpaRepository<Borrowing, Long> {
      *
      * @return Liste aller Ausleihen
      */
+    @Transactional(readOnly = true)
     List<Borrowing> findAll();
 
     /**
@@ -29,6 +41,7 @@ public interface BorrowingRepository extends JpaRepository<Borrowing, Long> {
      * @param mediaId ID des Mediums
      * @return Optional mit Ausleihe, falls vorhanden
      */
+    @Transactional(readOnly = true)
     Optional<Borrowing> findByMedia_Id(Long mediaId);
 
     /**
@@ -37,5 +50,123 @@ public interface BorrowingRepository extends JpaRepository<Borrowing, Long> {
      * @param customerId ID des Kunden
      * @return Liste aller passenden Ausleihen
      */
+    @Transactional(readOnly = true)
     List<Borrowing> findByCustomer_Id(Long customerId);
+
+    /**
+     * Gibt alle Ausleihen als Katalogeinträge zurück (ohne Kunde und Medium zu laden).
+     *
+     * @return Liste aller Katalogeinträge
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.project.library.library_backend.catalog.LoanEntry("
+            + "b.id, b.customer.id, b.media.id, b.dateborrowed, b.duedate, b.extended_on) FROM Borrowing b")
+    List<LoanEntry> findAllCatalogEntries();
+
+    /**
+     * Liest fällige Ausleihen blockweise über den Index auf (duedate, customerid, id), jeweils ab
+     * der zuletzt gelesenen Ausleihe (Keyset-Paginierung statt OFFSET). Die Ausleihen eines
+     * Kunden mit demselben Fälligkeitsdatum folgen dadurch direkt aufeinander.
+     *
+     * @param from Frühestes Fälligkeitsdatum (inklusive)
+     * @param to Spätestes Fälligkeitsdatum (inklusive)
+     * @param afterDuedate Fälligkeitsdatum der zuletzt gelesenen Ausleihe
+     * @param afterCustomerId Kunden-ID der zuletzt gelesenen Ausleihe (0 für den ersten Block)
+     * @param afterId ID der zuletzt gelesenen Ausleihe (0 für den ersten Block)
+     * @param pageable Blockgrösse
+     * @return Ausleihen mit Kunde und Titel, nach Fälligkeit, Kunde und ID sortiert
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.project.library.library_backend.reminder.ReminderLoan("
+            + "b.id, b.duedate, c.id, c.email, c.firstname, c.lastname, m.title) "
+            + "FROM Borrowing b JOIN b.customer c JOIN b.media m "
+            + "WHERE b.duedate BETWEEN :from AND :to "
+            + "AND (b.duedate > :afterDuedate OR (b.duedate = :afterDuedate AND (b.customer.id > :afterCustomerId "
+            + "OR (b.customer.id = :afterCustomerId AND b.id > :afterId)))) "
+            + "ORDER BY b.duedate, b.customer.id, b.id")
+    List<ReminderLoan> findReminderLoans(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                         @Param("afterDuedate") LocalDate afterDuedate,
+                                         @Param("afterCustomerId") Long afterCustomerId, @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    /**
+     * Gibt die Ausleihen mit den angegebenen IDs als Katalogeinträge zurück.
+     *
+     * @param ids IDs der Ausleihen
+     * @return Liste der gefundenen Katalogeinträge
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.project.library.library_backend.catalog.LoanEntry("
+            + "b.id, b.customer.id, b.media.id, b.dateborrowed, b.duedate, b.extended_on) FROM Borrowing b WHERE b.id IN :ids")
+    List<LoanEntry> findCatalogEntriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sperrt die Ausleihen mit den angegebenen IDs für die Rückgabe und gibt die vorhandenen IDs zurück.
+     * Gleichzeitige Rückgaben derselben Ausleihe warten dadurch aufeinander.
+     *
+     * @param ids IDs der Ausleihen
+     * @return IDs der vorhandenen Ausleihen
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id FROM Borrowing b WHERE b.id IN :ids")
+    List<Long> lockIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sperrt die Ausleihe eines Mediums und gibt die ID des ausleihenden Kunden zurück.
+     * Vormerkung und Rückgabe desselben Mediums werden dadurch nacheinander ausgeführt.
+     *
+     * @param mediaId ID des Mediums
+     * @return ID des Kunden oder leer, wenn das Medium nicht ausgeliehen ist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.customer.id FROM Borrowing b WHERE b.media.id = :mediaId")
+    List<Long> lockCustomerIdsByMediaId(@Param("mediaId") Long mediaId);
+
+    /**
+     * Gibt die IDs der Medien der angegebenen Ausleihen zurück.
+     *
+     * @param ids IDs der Ausleihen
+     * @return IDs der ausgeliehenen Medien
+     */
+    @Query("SELECT b.media.id FROM Borrowing b WHERE b.id IN :ids")
+    List<Long> findMediaIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Verlängert eine Ausleihe mit einem einzigen UPDATE, ohne Kunde und Medium zu laden.
+     * Das Fälligkeitsdatum wird nie verkürzt.
+     *
+     * @param id ID der Ausleihe
+     * @param extendedOn Datum der Verlängerung
+     * @param duedate Neues Fälligkeitsdatum
+     * @return Anzahl geänderter Zeilen (0, wenn die Ausleihe nicht existiert)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Borrowing b SET b.extended_on = :extendedOn, b.duedate = "
+            + "CASE WHEN b.duedate IS NULL OR b.duedate < :duedate THEN :duedate ELSE b.duedate END "
+            + "WHERE b.id = :id")
+    int extend(@Param("id") Long id, @Param("extendedOn") LocalDate extendedOn, @Param("duedate") LocalDate duedate);
+
+    /**
+     * Kopiert die Ausleihen mit den angegebenen IDs in die Tabelle "borrowing_history".
+     *
+     * @param ids IDs der Ausleihen
+     * @param returnedOn Datum der Rückgabe
+     * @return Anzahl archivierter Ausleihen
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO borrowing_history (id, dateborrowed, duedate, extended_on, returnedon, customerid, mediaid) "
+            + "SELECT id, COALESCE(dateborrowed, :returnedOn), duedate, extended_on, :returnedOn, customerid, mediaid "
+            + "FROM borrowing WHERE id IN :ids",
+            nativeQuery = true)
+    int archiveByIdIn(@Param("ids") Collection<Long> ids, @Param("returnedOn") LocalDate returnedOn);
+
+    /**
+     * Löscht die Ausleihen mit den angegebenen IDs mit einem einzigen DELETE.
+     *
+     * @param ids IDs der Ausleihen
+     * @return Anzahl gelöschter Ausleihen
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Borrowing b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,83 @@
+package com.project.library.library_backend.repository;
+
+import com.project.library.library_backend.model.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository-Interface für den Zugriff auf das Änderungsprotokoll.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    /**
+     * Sucht die Änderungen nach einer bestimmten Sequenznummer, aufsteigend sortiert.
+     *
+     * @param seq Letzte bereits bekannte Sequenznummer
+     * @param pageable Seitengrösse
+     * @return Liste der folgenden Änderungen
+     */
+    @Transactional(readOnly = true)
+    List<ChangeLogEntry> findBySeqGreaterThanOrderBySeqAsc(Long seq, Pageable pageable);
+
+    /**
+     * Gibt die höchste Sequenznummer aller Änderungen vor einem Zeitpunkt zurück.
+     *
+     * @param before Zeitpunkt
+     * @return Höchste Sequenznummer oder null, falls keine Änderung existiert
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT MAX(c.seq) FROM ChangeLogEntry c WHERE c.changedat < :before")
+    Long findMaxSeqBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * Sucht die Änderungen einer Entity-Art in einem Sequenzbereich, aufsteigend sortiert.
+     *
+     * @param entitytype Art der Entity (z. B. "media")
+     * @param since Letzte bereits bekannte Sequenznummer (exklusive)
+     * @param upTo Höchste Sequenznummer (inklusive)
+     * @param pageable Seitengrösse
+     * @return Liste der Änderungen
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT c FROM ChangeLogEntry c WHERE c.entitytype = :entitytype AND c.seq > :since AND c.seq <= :upTo ORDER BY c.seq")
+    List<ChangeLogEntry> findChanges(@Param("entitytype") String entitytype, @Param("since") Long since,
+                                     @Param("upTo") Long upTo, Pageable pageable);
+
+    /**
+     * @return Kleinste noch vorhandene Sequenznummer oder null, falls das Protokoll leer ist
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT MIN(c.seq) FROM ChangeLogEntry c")
+    Long findMinSeq();
+
+    /**
+     * @return Höchste Sequenznummer oder null, falls das Protokoll leer ist
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT MAX(c.seq) FROM ChangeLogEntry c")
+    Long findMaxSeq();
+
+    /**
+     * Löscht einen Block von Einträgen bis und mit einer Grenze in aufsteigender Reihenfolge.
+     * Als schreibende Anweisung läuft sie immer auf der primären Datenquelle; aufgerufen wird
+     * sie, bis sie keine Zeile mehr betrifft.
+     *
+     * @param upTo Höchste Sequenznummer
+     * @param limit Höchstens zu löschende Einträge
+     * @return Anzahl gelöschter Einträge
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM change_log WHERE seq <= :upTo ORDER BY seq LIMIT :limit", nativeQuery = true)
+    int deleteUpTo(@Param("upTo") Long upTo, @Param("limit") int limit);
+}
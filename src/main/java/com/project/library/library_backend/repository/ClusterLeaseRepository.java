@@ -0,0 +1,92 @@
+package com.project.library.library_backend.repository;
+
+import com.project.library.library_backend.model.ClusterLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Repository-Interface für die Leases der Medien-ID-Bereiche.
+ *
+ * Alle Änderungen sind einzelne, bedingte Anweisungen, so dass zwei Instanzen nie gleichzeitig
+ * dieselbe gültige Lease halten. Ablaufzeitpunkte werden ausschliesslich mit der Uhr der
+ * Datenbank (CURRENT_TIMESTAMP) berechnet und verglichen; abweichende Uhren der Instanzen
+ * spielen dadurch keine Rolle.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public interface ClusterLeaseRepository extends JpaRepository<ClusterLease, Long> {
+
+    /**
+     * Sucht alle Leases, die nach der Uhr der Datenbank noch gültig sind.
+     *
+     * @return Gültige Leases
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT * FROM cluster_lease WHERE expiresat > CURRENT_TIMESTAMP(6)", nativeQuery = true)
+    List<ClusterLease> findValid();
+
+    /**
+     * Legt eine Lease für einen Bereich an, der noch keine hat.
+     *
+     * @param rangeid Bereich
+     * @param owner ID der Instanz
+     * @param durationMicros Gültigkeit ab jetzt in Mikrosekunden
+     * @return 1; bei einer bestehenden Lease schlägt das INSERT mit einer
+     *         {@link org.springframework.dao.DataIntegrityViolationException} fehl
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO cluster_lease (rangeid, owner, expiresat) "
+            + "VALUES (:rangeid, :owner, TIMESTAMPADD(MICROSECOND, :duration, CURRENT_TIMESTAMP(6)))",
+            nativeQuery = true)
+    int insertLease(@Param("rangeid") Long rangeid, @Param("owner") String owner,
+                    @Param("duration") long durationMicros);
+
+    /**
+     * Übernimmt oder verlängert eine Lease, sofern sie der Instanz gehört oder abgelaufen ist.
+     *
+     * @param rangeid Bereich
+     * @param owner ID der Instanz
+     * @param durationMicros Gültigkeit ab jetzt in Mikrosekunden
+     * @return 1, wenn die Instanz die Lease jetzt hält, sonst 0
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE cluster_lease SET owner = :owner, "
+            + "expiresat = TIMESTAMPADD(MICROSECOND, :duration, CURRENT_TIMESTAMP(6)) "
+            + "WHERE rangeid = :rangeid AND (owner = :owner OR expiresat < CURRENT_TIMESTAMP(6))",
+            nativeQuery = true)
+    int acquire(@Param("rangeid") Long rangeid, @Param("owner") String owner,
+                @Param("duration") long durationMicros);
+
+    /**
+     * Verlängert alle noch gültigen Leases einer Instanz.
+     *
+     * @param owner ID der Instanz
+     * @param durationMicros Gültigkeit ab jetzt in Mikrosekunden
+     * @return Anzahl verlängerter Leases
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE cluster_lease SET expiresat = TIMESTAMPADD(MICROSECOND, :duration, CURRENT_TIMESTAMP(6)) "
+            + "WHERE owner = :owner AND expiresat >= CURRENT_TIMESTAMP(6)",
+            nativeQuery = true)
+    int renew(@Param("owner") String owner, @Param("duration") long durationMicros);
+
+    /**
+     * Gibt alle Leases einer Instanz frei (beim Herunterfahren).
+     *
+     * @param owner ID der Instanz
+     * @return Anzahl freigegebener Leases
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ClusterLease l WHERE l.owner = :owner")
+    int release(@Param("owner") String owner);
+}
@@ -0,0 +1,60 @@
+package com.project.library.library_backend.repository;
+
+import com.project.library.library_backend.model.ClusterMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Repository-Interface für die Instanzen im Cluster.
+ *
+ * Heartbeats werden mit der Uhr der Datenbank (CURRENT_TIMESTAMP) geschrieben und verglichen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public interface ClusterMemberRepository extends JpaRepository<ClusterMember, String> {
+
+    /**
+     * Schreibt den Heartbeat einer Instanz und legt sie bei Bedarf an.
+     *
+     * @param nodeid ID der Instanz
+     * @param url Basis-URL der Instanz
+     * @return Anzahl geänderter Zeilen
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO cluster_member (nodeid, url, heartbeatat) VALUES (:nodeid, :url, CURRENT_TIMESTAMP(6)) "
+            + "ON DUPLICATE KEY UPDATE url = VALUES(url), heartbeatat = CURRENT_TIMESTAMP(6)",
+            nativeQuery = true)
+    int heartbeat(@Param("nodeid") String nodeid, @Param("url") String url);
+
+    /**
+     * Sucht die Instanzen mit einem Heartbeat innerhalb der angegebenen Zeit.
+     *
+     * @param timeoutMicros Zeit seit dem Heartbeat in Mikrosekunden
+     * @return Lebende Instanzen
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT * FROM cluster_member "
+            + "WHERE heartbeatat > TIMESTAMPADD(MICROSECOND, -:timeout, CURRENT_TIMESTAMP(6))",
+            nativeQuery = true)
+    List<ClusterMember> findAlive(@Param("timeout") long timeoutMicros);
+
+    /**
+     * Entfernt Instanzen, deren letzter Heartbeat länger als die angegebene Zeit zurückliegt.
+     *
+     * @param ageMicros Zeit seit dem Heartbeat in Mikrosekunden
+     * @return Anzahl entfernter Instanzen
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM cluster_member "
+            + "WHERE heartbeatat < TIMESTAMPADD(MICROSECOND, -:age, CURRENT_TIMESTAMP(6))",
+            nativeQuery = true)
+    int deleteExpired(@Param("age") long ageMicros);
+}
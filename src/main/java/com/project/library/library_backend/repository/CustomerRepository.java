@@ -1,10 +1,15 @@
 package com.project.library.library_backend.repository;
 
+import com.project.library.library_backend.catalog.CustomerEntry;
 import com.project.library.library_backend.model.Customer;
 import com.project.library.library_backend.model.Address;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +40,7 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      * @param lastname Nachname der Kunden
      * @return Liste aller Kunden mit übereinstimmendem Nachnamen
      */
+    @Transactional(readOnly = true)
     List<Customer> findByLastname(String lastname);
 
     /**
@@ -43,6 +49,7 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      * @param address Address-Objekt
      * @return Liste aller Kunden mit dieser Adresse
      */
+    @Transactional(readOnly = true)
     List<Customer> findByAddress(Address address);
 
     /**
@@ -52,5 +59,27 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      * @param id Eindeutige ID des Kunden
      * @return Optional mit gefundenem Kunden oder leer
      */
+    @Transactional(readOnly = true)
     Optional<Customer> findById(Long id);
+
+    /**
+     * Gibt alle Kunden als Katalogeinträge zurück (ohne Entities zu laden).
+     *
+     * @return Liste aller Katalogeinträge
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.project.library.library_backend.catalog.CustomerEntry("
+            + "c.id, c.firstname, c.lastname, c.birthdate, c.email, c.address.id) FROM Customer c")
+    List<CustomerEntry> findAllCatalogEntries();
+
+    /**
+     * Gibt die Kunden mit den angegebenen IDs als Katalogeinträge zurück.
+     *
+     * @param ids IDs der Kunden
+     * @return Liste der gefundenen Katalogeinträge
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.project.library.library_backend.catalog.CustomerEntry("
+            + "c.id, c.firstname, c.lastname, c.birthdate, c.email, c.address.id) FROM Customer c WHERE c.id IN :ids")
+    List<CustomerEntry> findCatalogEntriesByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,59 @@
+package com.project.library.library_backend.repository;
+
+import com.project.library.library_backend.model.Hold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Repository-Interface für den Zugriff auf Vormerkungen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    /**
+     * Gibt alle Vormerkungen in Warteschlangen-Reihenfolge zurück (zum Aufbau beim Start).
+     *
+     * @return Alle Vormerkungen, aufsteigend nach ID
+     */
+    @Transactional(readOnly = true)
+    List<Hold> findAllByOrderByIdAsc();
+
+    /**
+     * Sucht alle Vormerkungen eines Kunden.
+     *
+     * @param customerid ID des Kunden
+     * @return Vormerkungen, die ältesten zuerst
+     */
+    @Transactional(readOnly = true)
+    List<Hold> findByCustomeridOrderByIdAsc(Long customerid);
+
+    /**
+     * Sperrt die Vormerkungen eines Mediums und gibt sie in Warteschlangen-Reihenfolge zurück.
+     * Enthält auch Vormerkungen, die über andere Instanzen entstanden sind.
+     *
+     * @param mediaId ID des Mediums
+     * @return Vormerkungen, aufsteigend nach ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM Hold h WHERE h.mediaid = :mediaId ORDER BY h.id")
+    List<Hold> lockByMediaid(@Param("mediaId") Long mediaId);
+
+    /**
+     * Löscht eine Vormerkung mit einem einzigen DELETE.
+     *
+     * @param id ID der Vormerkung
+     * @return 1, wenn die Vormerkung gelöscht wurde, 0, wenn sie nicht (mehr) existiert
+     */
+    @Modifying
+    @Query("DELETE FROM Hold h WHERE h.id = :id")
+    int deleteHold(@Param("id") Long id);
+}
@@ -1,8 +1,13 @@
 package com.project.library.library_backend.repository;
 
+import com.project.library.library_backend.catalog.MediaEntry;
 import com.project.library.library_backend.model.Media;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +26,7 @@ public interface MediaRepository extends JpaRepository<Media, Long> {
      *
      * @return Liste aller Medien
      */
+    @Transactional(readOnly = true)
     List<Media> findAll();
 
     /**
@@ -29,6 +35,7 @@ public interface MediaRepository extends JpaRepository<Media, Long> {
      * @param title Titel des Mediums
      * @return Liste aller passenden Medien
      */
+    @Transactional(readOnly = true)
     List<Media> findByTitle(String title);
 
     /**
@@ -37,5 +44,45 @@ public interface MediaRepository extends JpaRepository<Media, Long> {
      * @param id ID des Mediums
      * @return Optional mit Medium, falls vorhanden
      */
+    @Transactional(readOnly = true)
     Optional<Media> findById(Long id);
+
+    /**
+     * Gibt alle Medien als Katalogeinträge zurück (ohne Entities zu laden).
+     *
+     * @return Liste aller Katalogeinträge
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.project.library.library_backend.catalog.MediaEntry("
+            + "m.id, m.title, m.author, m.genre, m.rating, m.isbn, m.shelfCode, m.fsk) FROM Media m")
+    List<MediaEntry> findAllCatalogEntries();
+
+    /**
+     * Gibt die Medien mit den angegebenen IDs als Katalogeinträge zurück.
+     *
+     * @param ids IDs der Medien
+     * @return Liste der gefundenen Katalogeinträge
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.project.library.library_backend.catalog.MediaEntry("
+            + "m.id, m.title, m.author, m.genre, m.rating, m.isbn, m.shelfCode, m.fsk) FROM Media m WHERE m.id IN :ids")
+    List<MediaEntry> findCatalogEntriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Gibt alle Medien (Exemplare) mit einer ISBN zurück.
+     *
+     * @param isbn ISBN
+     * @return Liste der gefundenen Medien, aufsteigend nach ID
+     */
+    @Transactional(readOnly = true)
+    List<Media> findByIsbnOrderByIdAsc(Long isbn);
+
+    /**
+     * Prüft, ob ein Medium mit der ISBN existiert.
+     *
+     * @param isbn ISBN
+     * @return true, falls vorhanden
+     */
+    @Transactional(readOnly = true)
+    boolean existsByIsbn(Long isbn);
 }
@@ -0,0 +1,207 @@
+package com.project.library.library_backend.serialization;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.project.library.library_backend.datasource.ReadYourWritesTracker;
+import com.project.library.library_backend.profiling.ListEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streamt Abfrageergebnisse mit einem {@link RowSerializer} direkt in die HTTP-Antwort.
+ *
+ * Die Zeilen werden mit einer festen Fetch-Size vom JDBC-Treiber gelesen (MariaDB liefert
+ * dann blockweise statt das ganze Ergebnis zu puffern) und sofort geschrieben. Der
+ * {@link JsonGenerator} schreibt in seinen internen Puffer, der aus dem Buffer-Pool der Factory
+ * stammt, und leert ihn blockweise in den Response-Stream. Weder die Liste noch die fertige
+ * Antwort liegt dadurch je vollständig im Speicher.
+ *
+ * Das Format richtet sich wie bei den übrigen Endpunkten nach dem Accept-Header (JSON, CBOR, Smile);
+ * Exporte werden als NDJSON (ein Objekt pro Zeile) geschrieben. Jede Liste wird als
+ * {@link ListEvent} für JFR aufgezeichnet.
+ *
+ * Der Body wird von Spring MVC in einem Async-Thread geschrieben. Der Client des
+ * {@link ReadYourWritesTracker} wird deshalb dorthin übertragen, damit ein Client nach einem
+ * Schreibzugriff auch beim Streamen von der primären Datenquelle liest.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Component
+public class JsonStreamer {
+
+    public static final String CBOR_VALUE = "application/cbor";
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final JsonFactory jsonFactory;
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private final JsonFactory cborFactory = new CBORFactory();
+
+    private final JsonFactory smileFactory = new SmileFactory();
+
+    /**
+     * Ausgabeformat.
+     */
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON_VALUE, true),
+        NDJSON(MediaType.APPLICATION_NDJSON_VALUE, false),
+        CBOR(CBOR_VALUE, true),
+        SMILE(SMILE_VALUE, true);
+
+        private final String contentType;
+
+        private final boolean array;
+
+        Format(String contentType, boolean array) {
+            this.contentType = contentType;
+            this.array = array;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Wählt das Format anhand des Accept-Headers; ohne passenden Typ JSON.
+         *
+         * @param accept Accept-Header oder null
+         * @return Format
+         */
+        public static Format fromAccept(String accept) {
+            if (accept == null) {
+                return JSON;
+            }
+            if (accept.contains(CBOR_VALUE)) {
+                return CBOR;
+            }
+            if (accept.contains(SMILE_VALUE)) {
+                return SMILE;
+            }
+            if (accept.contains(MediaType.APPLICATION_NDJSON_VALUE)) {
+                return NDJSON;
+            }
+            return JSON;
+        }
+    }
+
+    @Autowired
+    public JsonStreamer(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                        @Value("${library.serialization.fetch-size:500}") int fetchSize,
+                        ObjectProvider<ReadYourWritesTracker> readYourWritesTracker) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonFactory = objectMapper.getFactory();
+        this.readYourWritesTracker = readYourWritesTracker.getIfAvailable();
+    }
+
+    /**
+     * Erstellt eine gestreamte Antwort.
+     *
+     * @param serializer Abfrage und Serialisierer
+     * @param format Ausgabeformat
+     * @return Antwort, deren Body erst beim Schreiben gelesen wird
+     */
+    public ResponseEntity<StreamingResponseBody> response(RowSerializer serializer, Format format) {
+        String client = readYourWritesTracker != null ? readYourWritesTracker.currentClient() : null;
+        StreamingResponseBody body = client == null
+                ? out -> write(serializer, format, out)
+                : out -> {
+                    readYourWritesTracker.bind(client);
+                    try {
+                        write(serializer, format, out);
+                    } finally {
+                        readYourWritesTracker.unbind();
+                    }
+                };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+
+    /**
+     * Schreibt alle Zeilen der Abfrage in einer lesenden Transaktion (bei aktivem Routing
+     * auf einer Read-Replica).
+     *
+     * @param serializer Abfrage und Serialisierer
+     * @param format Ausgabeformat
+     * @param out Ziel; wird nicht geschlossen
+     * @return Anzahl geschriebener Zeilen
+     */
+    public long write(RowSerializer serializer, Format format, OutputStream out) throws IOException {
+        ListEvent event = new ListEvent();
+        event.begin();
+        try (JsonGenerator gen = factoryFor(format).createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (format == Format.NDJSON) {
+                gen.setRootValueSeparator(new SerializedString("\n"));
+            }
+            if (format.array) {
+                gen.writeStartArray();
+            }
+            long[] rows = new long[1];
+            try {
+                RowCallbackHandler handler = rs -> {
+                    try {
+                        serializer.write(rs, gen);
+                    } catch (IOException e) {
+                        // Client hat die Verbindung geschlossen: Abfrage abbrechen
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                };
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(serializer.sql(), handler));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (format.array) {
+                gen.writeEndArray();
+            }
+            if (format == Format.NDJSON) {
+                gen.writeRaw('\n');
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.list = serializer.name();
+                event.format = format.name();
+                event.rows = rows[0];
+                event.commit();
+            }
+            return rows[0];
+        }
+    }
+
+    private JsonFactory factoryFor(Format format) {
+        return switch (format) {
+            case CBOR -> cborFactory;
+            case SMILE -> smileFactory;
+            default -> jsonFactory;
+        };
+    }
+}
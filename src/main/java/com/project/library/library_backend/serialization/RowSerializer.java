@@ -0,0 +1,36 @@
+package com.project.library.library_backend.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Schreibt eine Zeile eines JDBC-ResultSets direkt als JSON-Objekt, ohne Entity und ohne Reflection.
+ *
+ * Jede Implementierung kennt ihre SQL-Abfrage und liest die Spalten über ihre Position.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public interface RowSerializer {
+
+    /**
+     * @return Name der Liste, z. B. "media" (für Auswertungen)
+     */
+    String name();
+
+    /**
+     * @return SQL-Abfrage, deren Zeilen geschrieben werden
+     */
+    String sql();
+
+    /**
+     * Schreibt die aktuelle Zeile als ein Objekt.
+     *
+     * @param rs ResultSet, positioniert auf der Zeile
+     * @param gen Ziel
+     */
+    void write(ResultSet rs, JsonGenerator gen) throws SQLException, IOException;
+}
@@ -0,0 +1,187 @@
+package com.project.library.library_backend.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Serialisierer für die Listen- und Export-Endpunkte von Medien, Kunden und Ausleihen.
+ *
+ * Die Ausgabe entspricht der von Jackson für die Entities erzeugten (gleiche Feldnamen,
+ * null-Felder werden wie bei {@code @JsonInclude(NON_NULL)} weggelassen, Datumswerte als
+ * "yyyy-MM-dd"). Die Feldnamen liegen als vorkodierte {@link SerializedString} vor, Werte werden
+ * direkt aus dem ResultSet geschrieben. Es entstehen keine Entities, keine Hibernate-Proxies und
+ * keine Zwischenobjekte ausser den Strings, die der JDBC-Treiber liefert.
+ *
+ * Bei einer Änderung an {@link com.project.library.library_backend.model.Media},
+ * {@link com.project.library.library_backend.model.Customer} oder
+ * {@link com.project.library.library_backend.model.Borrowing} muss die Klasse angepasst werden.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public final class RowSerializers {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString AUTHOR = new SerializedString("author");
+    private static final SerializableString GENRE = new SerializedString("genre");
+    private static final SerializableString RATING = new SerializedString("rating");
+    private static final SerializableString ISBN = new SerializedString("isbn");
+    private static final SerializableString SHELF_CODE = new SerializedString("shelfCode");
+    private static final SerializableString FSK = new SerializedString("fsk");
+    private static final SerializableString FIRSTNAME = new SerializedString("firstname");
+    private static final SerializableString LASTNAME = new SerializedString("lastname");
+    private static final SerializableString BIRTHDATE = new SerializedString("birthdate");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString ADDRESS = new SerializedString("address");
+    private static final SerializableString STREETANDNUM = new SerializedString("streetandnum");
+    private static final SerializableString CITY = new SerializedString("city");
+    private static final SerializableString PLZ = new SerializedString("plz");
+    private static final SerializableString DATEBORROWED = new SerializedString("dateborrowed");
+    private static final SerializableString DUEDATE = new SerializedString("duedate");
+    private static final SerializableString EXTENDED_ON = new SerializedString("extended_on");
+    private static final SerializableString CUSTOMER = new SerializedString("customer");
+    private static final SerializableString MEDIA_FIELD = new SerializedString("media");
+
+    private static final String MEDIA_COLUMNS = "m.id, m.title, m.author, m.genre, m.rating, m.isbn, m.shelf_code, m.fsk";
+
+    private static final String CUSTOMER_COLUMNS = "c.id, c.firstname, c.lastname, c.birthdate, c.email, "
+            + "a.id, a.streetandnum, a.city, a.plz";
+
+    private RowSerializers() {}
+
+    /**
+     * Alle Medien (wie GET /api/media).
+     */
+    public static final RowSerializer MEDIA = new RowSerializer() {
+        @Override
+        public String name() {
+            return "media";
+        }
+
+        @Override
+        public String sql() {
+            return "SELECT " + MEDIA_COLUMNS + " FROM media m ORDER BY m.id";
+        }
+
+        @Override
+        public void write(ResultSet rs, JsonGenerator gen) throws SQLException, IOException {
+            writeMedia(rs, 1, gen);
+        }
+    };
+
+    /**
+     * Alle Kunden inklusive Adresse (wie GET /api/customers).
+     */
+    public static final RowSerializer CUSTOMERS = new RowSerializer() {
+        @Override
+        public String name() {
+            return "customers";
+        }
+
+        @Override
+        public String sql() {
+            return "SELECT " + CUSTOMER_COLUMNS + " FROM customer c LEFT JOIN address a ON a.id = c.addressid ORDER BY c.id";
+        }
+
+        @Override
+        public void write(ResultSet rs, JsonGenerator gen) throws SQLException, IOException {
+            writeCustomer(rs, 1, gen);
+        }
+    };
+
+    /**
+     * Alle Ausleihen inklusive Kunde, Adresse und Medium (wie GET /api/borrowings).
+     */
+    public static final RowSerializer BORROWINGS = new RowSerializer() {
+        @Override
+        public String name() {
+            return "borrowings";
+        }
+
+        @Override
+        public String sql() {
+            return "SELECT b.id, b.dateborrowed, b.duedate, b.extended_on, " + CUSTOMER_COLUMNS + ", " + MEDIA_COLUMNS
+                    + " FROM borrowing b JOIN customer c ON c.id = b.customerid"
+                    + " LEFT JOIN address a ON a.id = c.addressid"
+                    + " JOIN media m ON m.id = b.mediaid ORDER BY b.id";
+        }
+
+        @Override
+        public void write(ResultSet rs, JsonGenerator gen) throws SQLException, IOException {
+            gen.writeStartObject();
+            writeLong(gen, ID, rs, 1);
+            writeString(gen, DATEBORROWED, rs.getString(2));
+            writeString(gen, DUEDATE, rs.getString(3));
+            writeString(gen, EXTENDED_ON, rs.getString(4));
+            gen.writeFieldName(CUSTOMER);
+            writeCustomer(rs, 5, gen);
+            gen.writeFieldName(MEDIA_FIELD);
+            writeMedia(rs, 14, gen);
+            gen.writeEndObject();
+        }
+    };
+
+    /**
+     * Schreibt ein Medium aus 8 Spalten ab {@code col} (siehe {@link #MEDIA_COLUMNS}).
+     */
+    private static void writeMedia(ResultSet rs, int col, JsonGenerator gen) throws SQLException, IOException {
+        gen.writeStartObject();
+        writeLong(gen, ID, rs, col);
+        writeString(gen, TITLE, rs.getString(col + 1));
+        writeString(gen, AUTHOR, rs.getString(col + 2));
+        writeString(gen, GENRE, rs.getString(col + 3));
+        // rating ist in der Entity ein int und wird daher immer geschrieben
+        gen.writeFieldName(RATING);
+        gen.writeNumber(rs.getInt(col + 4));
+        writeLong(gen, ISBN, rs, col + 5);
+        writeString(gen, SHELF_CODE, rs.getString(col + 6));
+        writeString(gen, FSK, rs.getString(col + 7));
+        gen.writeEndObject();
+    }
+
+    /**
+     * Schreibt einen Kunden mit Adresse aus 9 Spalten ab {@code col} (siehe {@link #CUSTOMER_COLUMNS}).
+     */
+    private static void writeCustomer(ResultSet rs, int col, JsonGenerator gen) throws SQLException, IOException {
+        gen.writeStartObject();
+        writeLong(gen, ID, rs, col);
+        writeString(gen, FIRSTNAME, rs.getString(col + 1));
+        writeString(gen, LASTNAME, rs.getString(col + 2));
+        writeString(gen, BIRTHDATE, rs.getString(col + 3));
+        writeString(gen, EMAIL, rs.getString(col + 4));
+        long addressId = rs.getLong(col + 5);
+        if (!rs.wasNull()) {
+            gen.writeFieldName(ADDRESS);
+            gen.writeStartObject();
+            gen.writeFieldName(ID);
+            gen.writeNumber(addressId);
+            writeString(gen, STREETANDNUM, rs.getString(col + 6));
+            writeString(gen, CITY, rs.getString(col + 7));
+            writeString(gen, PLZ, rs.getString(col + 8));
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeLong(JsonGenerator gen, SerializableString name, ResultSet rs, int col)
+            throws SQLException, IOException {
+        long value = rs.getLong(col);
+        if (!rs.wasNull()) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.library.library_backend.service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Hilfsklasse für Mehrfachabfragen ("Multi-Get") über eine Liste von IDs.
+ *
+ * Die IDs werden in Blöcken von höchstens {@link #CHUNK_SIZE} Einträgen über
+ * {@code findAllById} (eine IN-Abfrage pro Block) geladen. Das Ergebnis wird in der
+ * Reihenfolge der angefragten IDs zurückgegeben; doppelte IDs werden nur einmal geliefert,
+ * nicht vorhandene IDs werden übersprungen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public final class BatchLookup {
+
+    /**
+     * Maximale Anzahl IDs pro IN-Abfrage.
+     */
+    public static final int CHUNK_SIZE = 1000;
+
+    private BatchLookup() {}
+
+    /**
+     * Lädt alle Entities zu den angegebenen IDs in Anfragereihenfolge.
+     *
+     * @param repository Repository der Entity
+     * @param ids Angefragte IDs
+     * @param idOf Liefert die ID einer geladenen Entity
+     * @return Gefundene Entities in der Reihenfolge der IDs
+     */
+    public static <T> List<T> findAllInOrder(JpaRepository<T, Long> repository, List<Long> ids, Function<T, Long> idOf) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.remove(null);
+
+        Map<Long, T> found = new HashMap<>(distinct.size() * 2);
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size()));
+            for (T entity : repository.findAllById(chunk)) {
+                found.put(idOf.apply(entity), entity);
+            }
+        }
+
+        List<T> result = new ArrayList<>(found.size());
+        for (Long id : distinct) {
+            T entity = found.get(id);
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.library.library_backend.service;
+
+import com.project.library.library_backend.model.ChangeLogEntry;
+import com.project.library.library_backend.repository.ChangeLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Delta-Synchronisation für Clients (Zweigstellen, Mobile-App) über das Änderungsprotokoll.
+ *
+ * Ein Token ist die Sequenznummer der letzten übertragenen Änderung. Ein Aufruf liefert den
+ * aktuellen Stand aller Entities, die seit dem Token eingefügt oder geändert wurden, und die
+ * IDs der gelöschten Entities (Tombstones). Mehrere Änderungen an derselben Entity werden
+ * zusammengefasst. Der Aufwand hängt damit von der Anzahl Änderungen ab, nicht von der
+ * Grösse der Tabelle.
+ *
+ * Ablauf für einen Client:
+ * 1. Ohne Token aufrufen: liefert nur das aktuelle Token.
+ * 2. Einmal alle Daten laden (z. B. GET /api/media/export).
+ * 3. Danach mit dem jeweils letzten Token aufrufen, solange "more" true ist.
+ * Da immer der aktuelle Stand geliefert wird, schadet es nicht, wenn sich Schritt 1 und 2
+ * überschneiden; Änderungen werden höchstens mehrfach übertragen.
+ *
+ * Die Sequenznummern werden in Commit-Reihenfolge vergeben
+ * ({@link com.project.library.library_backend.catalog.CatalogChangeTracker}); eine später
+ * committete Änderung erhält nie eine Nummer unter einem bereits ausgegebenen Token. Ein Aufruf
+ * liest in einer einzigen lesenden Transaktion, damit höchste Nummer und Änderungen aus demselben
+ * Stand (und derselben Replica) stammen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Service
+public class ChangeFeed {
+
+    /**
+     * Maximale Anzahl Änderungen pro Seite.
+     */
+    public static final int MAX_LIMIT = 5000;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    /**
+     * Eine Seite von Änderungen.
+     *
+     * @param token Token für den nächsten Aufruf
+     * @param more true, wenn weitere Änderungen vorliegen und sofort nachgeladen werden sollen
+     * @param changed Aktueller Stand der eingefügten oder geänderten Entities
+     * @param deleted IDs der gelöschten Entities
+     */
+    public record Page<T>(long token, boolean more, List<T> changed, List<Long> deleted) {}
+
+    /**
+     * Liefert die Änderungen einer Entity-Art seit einem Token.
+     *
+     * @param entityType Art der Entity (siehe {@link com.project.library.library_backend.catalog.CatalogChangeTracker})
+     * @param since Token des letzten Aufrufs oder null für den Einstieg
+     * @param limit Maximale Anzahl Protokolleinträge pro Seite
+     * @param repository Repository der Entity
+     * @param idOf Liefert die ID einer Entity
+     * @return Seite mit Änderungen; leer, wenn das Token nicht (mehr) zum Protokoll passt
+     *         (Protokoll aufgeräumt oder Datenbank zurückgesetzt) und der Client neu laden muss
+     */
+    @Transactional(readOnly = true)
+    public <T> Optional<Page<T>> changes(String entityType, Long since, int limit,
+                                         JpaRepository<T, Long> repository, Function<T, Long> idOf) {
+        Long max = changeLogRepository.findMaxSeq();
+        long last = max != null ? max : 0L;
+        if (since == null) {
+            return Optional.of(new Page<>(last, false, List.of(), List.of()));
+        }
+        Long first = changeLogRepository.findMinSeq();
+        if (since < 0 || since > last || (first != null && since < first - 1)) {
+            return Optional.empty();
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<ChangeLogEntry> entries = since < last
+                ? changeLogRepository.findChanges(entityType, since, last, PageRequest.of(0, pageSize))
+                : List.of();
+        boolean more = entries.size() == pageSize;
+
+        Set<Long> ids = new LinkedHashSet<>();
+        entries.forEach(entry -> ids.add(entry.getEntityid()));
+        List<T> changed = BatchLookup.findAllInOrder(repository, new ArrayList<>(ids), idOf);
+        Set<Long> found = new HashSet<>();
+        changed.forEach(entity -> found.add(idOf.apply(entity)));
+        List<Long> deleted = ids.stream().filter(id -> !found.contains(id)).toList();
+
+        // Ohne weitere Seite darf das Token bis zur höchsten sichtbaren Nummer vorrücken: Bis
+        // dahin gibt es keine weiteren Änderungen dieser Art, und später committete sind grösser.
+        long token = more ? entries.get(entries.size() - 1).getSeq() : Math.max(since, last);
+        return Optional.of(new Page<>(token, more, changed, deleted));
+    }
+}
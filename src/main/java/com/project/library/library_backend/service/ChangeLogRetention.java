@@ -0,0 +1,74 @@
+package com.project.library.library_backend.service;
+
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.repository.ChangeLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Räumt das Änderungsprotokoll "change_log" auf.
+ *
+ * Ein nächtlicher Job löscht blockweise (DELETE ... LIMIT auf der primären Datenquelle, bis
+ * keine Zeile mehr betroffen ist) alle Einträge, die älter als die Aufbewahrungsfrist
+ * (library.sync.change-log-retention) sind. Der jüngste Eintrag bleibt immer erhalten, damit
+ * die kleinste Sequenznummer zeigt, bis wohin aufgeräumt wurde. Clients der Delta-Synchronisation
+ * mit einem älteren Token erhalten danach 410 Gone ({@link ChangeFeed}), ebenso wird ein
+ * Katalog-Snapshot mit älterer High-Water-Mark beim Start verworfen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Component
+public class ChangeLogRetention {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogRetention.class);
+
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private CatalogState catalogState;
+
+    /**
+     * Aufbewahrungsfrist der Einträge (0 = unbegrenzt).
+     */
+    @Value("${library.sync.change-log-retention:30d}")
+    private Duration retention;
+
+    /**
+     * Löscht die abgelaufenen Einträge.
+     *
+     * @return Anzahl gelöschter Einträge
+     */
+    @Scheduled(cron = "${library.sync.change-log-maintenance-cron:0 45 3 * * *}")
+    public int prune() {
+        if (retention.isZero() || retention.isNegative()) {
+            return 0;
+        }
+        Long expired = changeLogRepository.findMaxSeqBefore(LocalDateTime.now().minus(retention));
+        Long last = changeLogRepository.findMaxSeq();
+        if (expired == null || last == null) {
+            return 0;
+        }
+        long upTo = Math.min(expired, last - 1);
+        int deleted = 0;
+        int chunk;
+        while ((chunk = changeLogRepository.deleteUpTo(upTo, DELETE_CHUNK_SIZE)) > 0) {
+            deleted += chunk;
+        }
+        catalogState.forgetSequencesUpTo(upTo);
+        if (deleted > 0) {
+            log.info("{} abgelaufene Einträge aus dem Änderungsprotokoll gelöscht (bis Sequenznummer {})", deleted, upTo);
+        }
+        return deleted;
+    }
+}
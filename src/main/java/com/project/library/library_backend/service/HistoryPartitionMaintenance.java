@@ -0,0 +1,217 @@
+package com.project.library.library_backend.service;
+
+import com.project.library.library_backend.repository.BorrowingHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Pflege der Historientabelle "borrowing_history".
+ *
+ * Unter MariaDB wird die Tabelle beim Start nach "dateborrowed" in Jahrespartitionen aufgeteilt
+ * (RANGE COLUMNS, eine Partition "pJJJJ" pro Jahr und "pmax" für alles Spätere). Danach sorgt ein
+ * nächtlicher Job dafür, dass immer eine Partition für das kommende Jahr bereitsteht, und entfernt
+ * bei gesetzter Aufbewahrungsfrist abgelaufene Jahre mit DROP PARTITION. Auf Datenbanken ohne
+ * Partitionierung (z. B. H2) werden abgelaufene Einträge blockweise gelöscht.
+ *
+ * Abgeschlossene Ausleihen verlassen die Tabelle "borrowing" bereits bei der Rückgabe
+ * (siehe {@link LoanService#returnLoans}); die aktive Tabelle enthält nur offene Ausleihen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Component
+public class HistoryPartitionMaintenance implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryPartitionMaintenance.class);
+
+    static final String TABLE = "borrowing_history";
+
+    static final String MAX_PARTITION = "pmax";
+
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private static final String PARTITIONS_SQL = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BorrowingHistoryRepository borrowingHistoryRepository;
+
+    @Value("${library.history.partitioning.enabled:true}")
+    private boolean partitioningEnabled;
+
+    /**
+     * Aufbewahrungsfrist in Jahren (0 = unbegrenzt).
+     */
+    @Value("${library.history.retention-years:0}")
+    private int retentionYears;
+
+    private volatile Boolean partitionable;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        maintain();
+    }
+
+    /**
+     * Legt fehlende Partitionen an und entfernt abgelaufene Einträge.
+     */
+    @Scheduled(cron = "${library.history.maintenance-cron:0 30 3 * * *}")
+    public void maintain() {
+        int currentYear = LocalDate.now().getYear();
+        try {
+            if (partitioningEnabled && isPartitionable()) {
+                List<String> partitions = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, TABLE);
+                if (partitions.isEmpty()) {
+                    partitionTable(currentYear);
+                } else {
+                    addPartitions(partitions, currentYear + 1);
+                    dropExpiredPartitions(partitions, currentYear);
+                }
+            } else {
+                deleteExpiredRows(currentYear);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Pflege der Tabelle {} fehlgeschlagen: {}", TABLE, e.getMessage());
+        }
+    }
+
+    private void partitionTable(int currentYear) {
+        LocalDate oldest = jdbcTemplate.queryForObject("SELECT MIN(dateborrowed) FROM " + TABLE, LocalDate.class);
+        int fromYear = oldest != null ? Math.min(oldest.getYear(), currentYear) : currentYear;
+        long start = System.nanoTime();
+        jdbcTemplate.execute(partitionTableSql(fromYear, currentYear + 1));
+        log.info("Tabelle {} in Jahrespartitionen {}–{} aufgeteilt ({} ms)", TABLE, fromYear, currentYear + 1,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void addPartitions(List<String> partitions, int throughYear) {
+        int lastYear = lastYear(partitions);
+        if (lastYear < 0 || lastYear >= throughYear) {
+            return;
+        }
+        jdbcTemplate.execute(addPartitionsSql(lastYear + 1, throughYear));
+        log.info("Partitionen {}–{} zu {} hinzugefügt", lastYear + 1, throughYear, TABLE);
+    }
+
+    private void dropExpiredPartitions(List<String> partitions, int currentYear) {
+        if (retentionYears <= 0) {
+            return;
+        }
+        List<String> expired = expiredPartitions(partitions, currentYear - retentionYears);
+        if (!expired.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+            log.info("Abgelaufene Partitionen {} aus {} entfernt", expired, TABLE);
+        }
+    }
+
+    private void deleteExpiredRows(int currentYear) {
+        if (retentionYears <= 0) {
+            return;
+        }
+        LocalDate before = LocalDate.of(currentYear - retentionYears, 1, 1);
+        int deleted = 0;
+        List<Long> ids;
+        while (!(ids = borrowingHistoryRepository.findIdsByDateborrowedBefore(before,
+                PageRequest.of(0, DELETE_CHUNK_SIZE))).isEmpty()) {
+            deleted += borrowingHistoryRepository.deleteByDateborrowedBeforeAndIdIn(before, ids);
+        }
+        if (deleted > 0) {
+            log.info("{} abgelaufene Einträge aus {} gelöscht", deleted, TABLE);
+        }
+    }
+
+    private boolean isPartitionable() {
+        if (partitionable == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            partitionable = product != null && (product.toLowerCase(Locale.ROOT).contains("mariadb")
+                    || product.toLowerCase(Locale.ROOT).contains("mysql"));
+        }
+        return partitionable;
+    }
+
+    /**
+     * Erzeugt die DDL zur Aufteilung der Tabelle in Jahrespartitionen.
+     *
+     * @param fromYear Erstes Jahr mit eigener Partition
+     * @param toYear Letztes Jahr mit eigener Partition
+     */
+    static String partitionTableSql(int fromYear, int toYear) {
+        StringJoiner partitions = new StringJoiner(", ", "(", ")");
+        for (int year = fromYear; year <= toYear; year++) {
+            partitions.add(yearPartition(year));
+        }
+        partitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        return "ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(dateborrowed) " + partitions;
+    }
+
+    /**
+     * Erzeugt die DDL, die die Jahre fromYear bis toYear aus der Partition "pmax" herauslöst.
+     */
+    static String addPartitionsSql(int fromYear, int toYear) {
+        StringJoiner partitions = new StringJoiner(", ", "(", ")");
+        for (int year = fromYear; year <= toYear; year++) {
+            partitions.add(yearPartition(year));
+        }
+        partitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        return "ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO " + partitions;
+    }
+
+    /**
+     * @return Jahrespartitionen, deren Jahr vor dem angegebenen Jahr liegt
+     */
+    static List<String> expiredPartitions(List<String> partitions, int firstKeptYear) {
+        List<String> expired = new ArrayList<>();
+        for (String partition : partitions) {
+            int year = yearOf(partition);
+            if (year >= 0 && year < firstKeptYear) {
+                expired.add(partition);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * @return Höchstes Jahr mit eigener Partition oder -1, wenn keine Jahrespartition existiert
+     */
+    static int lastYear(List<String> partitions) {
+        int last = -1;
+        for (String partition : partitions) {
+            last = Math.max(last, yearOf(partition));
+        }
+        return last;
+    }
+
+    private static String yearPartition(int year) {
+        return "PARTITION p" + year + " VALUES LESS THAN ('" + (year + 1) + "-01-01')";
+    }
+
+    private static int yearOf(String partition) {
+        if (partition.length() != 5 || partition.charAt(0) != 'p') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(partition.substring(1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
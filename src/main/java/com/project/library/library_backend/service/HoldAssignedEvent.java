@@ -0,0 +1,19 @@
+package com.project.library.library_backend.service;
+
+/**
+ * Wird veröffentlicht, wenn ein zurückgegebenes Medium dem nächsten Kunden in der
+ * Warteschlange zugeteilt wurde.
+ *
+ * Das Ereignis wird innerhalb der Rückgabe-Transaktion veröffentlicht. Empfänger, die den Kunden
+ * benachrichtigen, sollten {@code @TransactionalEventListener} verwenden, damit bei einem Rollback
+ * keine Benachrichtigung verschickt wird.
+ *
+ * @param holdId ID der erfüllten Vormerkung
+ * @param mediaId ID des Mediums
+ * @param customerId ID des Kunden
+ * @param borrowingId ID der neu erstellten Ausleihe
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record HoldAssignedEvent(Long holdId, Long mediaId, Long customerId, Long borrowingId) {}
@@ -0,0 +1,321 @@
+package com.project.library.library_backend.service;
+
+import com.project.library.library_backend.model.Borrowing;
+import com.project.library.library_backend.model.Hold;
+import com.project.library.library_backend.policy.LoanPolicy;
+import com.project.library.library_backend.policy.LoanViolation;
+import com.project.library.library_backend.repository.BorrowingRepository;
+import com.project.library.library_backend.repository.CustomerRepository;
+import com.project.library.library_backend.repository.HoldRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vormerkungen (Reservationen) für ausgeliehene Medien.
+ *
+ * Pro Medium gibt es eine Warteschlange nach ID der Vormerkung ({@link ConcurrentSkipListMap},
+ * ohne Sperren), die beim Start aus der Tabelle "media_hold" aufgebaut wird. Die Tabelle bleibt
+ * die verbindliche Quelle: Eine Vormerkung gilt erst als erfüllt, wenn ihr DELETE eine Zeile
+ * gelöscht hat, so dass eine gleichzeitig stornierte Vormerkung nie zugeteilt wird.
+ *
+ * Bei der Rückgabe ({@link LoanService#returnLoans}) werden die Vormerkungen des Mediums aus der
+ * Tabelle gelesen (im Cluster können sie über andere Instanzen entstanden sein), das Medium in
+ * derselben Transaktion dem ersten Kunden ausgeliehen und ein {@link HoldAssignedEvent}
+ * veröffentlicht. Die lokale Warteschlange wird danach mit der Tabelle abgeglichen.
+ *
+ * Vormerkung und Zuteilung prüfen die Ausleihregeln ({@link LoanPolicy#checkHolder}). Eine
+ * Vormerkung wird nur angenommen, wenn der Kunde das Medium ausleihen dürfte. Verletzt der erste
+ * Kunde bei der Zuteilung eine Regel (z. B. inzwischen überfällige Ausleihen), wird er
+ * übersprungen und über ein {@link HoldSkippedEvent} informiert; seine Vormerkung bleibt für
+ * die nächste Rückgabe bestehen.
+ * Vormerkung und Rückgabe sperren dieselbe Ausleihe-Zeile; eine Vormerkung, die während einer
+ * Rückgabe entsteht, wird daher entweder noch zugeteilt oder mit "Medium verfügbar" abgelehnt.
+ *
+ * Metriken (über /actuator/metrics):
+ * - library.holds.placed → angenommene Vormerkungen
+ * - library.holds.assigned → bei Rückgaben zugeteilte Vormerkungen
+ * - library.holds.queued → offene Vormerkungen
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Service
+public class HoldService implements ApplicationRunner, MeterBinder {
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LoanPolicy loanPolicy;
+
+    /**
+     * Leihfrist in Tagen für zugeteilte Vormerkungen.
+     */
+    @Value("${library.loans.period-days:28}")
+    private int loanPeriodDays;
+
+    private final Map<Long, NavigableMap<Long, Hold>> queues = new ConcurrentHashMap<>();
+
+    private final LongAdder placed = new LongAdder();
+
+    private final LongAdder assigned = new LongAdder();
+
+    /**
+     * Ergebnis einer Vormerkung.
+     */
+    public enum Status {
+        /** Neu in die Warteschlange aufgenommen. */
+        QUEUED,
+        /** Der Kunde hatte das Medium bereits vorgemerkt. */
+        EXISTING,
+        /** Das Medium ist nicht ausgeliehen und kann direkt ausgeliehen werden. */
+        MEDIA_AVAILABLE,
+        /** Der Kunde hat das Medium selbst ausgeliehen. */
+        ALREADY_BORROWED,
+        /** Medium oder Kunde existiert nicht. */
+        NOT_FOUND,
+        /** Der Kunde verletzt eine Ausleihregel. */
+        INELIGIBLE
+    }
+
+    /**
+     * @param status Ergebnis
+     * @param hold Vormerkung (bei QUEUED und EXISTING)
+     * @param position Position in der Warteschlange, beginnend bei 1 (bei QUEUED und EXISTING)
+     * @param violations Verletzte Ausleihregeln (bei INELIGIBLE)
+     */
+    public record Placement(Status status, Hold hold, Integer position, List<LoanViolation> violations) {
+
+        public Placement(Status status, Hold hold, Integer position) {
+            this(status, hold, position, List.of());
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (Hold hold : holdRepository.findAllByOrderByIdAsc()) {
+            queueOf(hold.getMediaid()).put(hold.getId(), hold);
+        }
+    }
+
+    /**
+     * Merkt ein ausgeliehenes Medium für einen Kunden vor.
+     *
+     * @param mediaId ID des Mediums
+     * @param customerId ID des Kunden
+     * @return Ergebnis mit Vormerkung und Position
+     */
+    @Transactional
+    public Placement place(Long mediaId, Long customerId) {
+        if (!mediaRepository.existsById(mediaId) || !customerRepository.existsById(customerId)) {
+            return new Placement(Status.NOT_FOUND, null, null);
+        }
+        List<Long> borrowers = borrowingRepository.lockCustomerIdsByMediaId(mediaId);
+        if (borrowers.isEmpty()) {
+            return new Placement(Status.MEDIA_AVAILABLE, null, null);
+        }
+        if (borrowers.contains(customerId)) {
+            return new Placement(Status.ALREADY_BORROWED, null, null);
+        }
+        NavigableMap<Long, Hold> queue = queueOf(mediaId);
+        int position = 1;
+        for (Hold hold : queue.values()) {
+            if (hold.getCustomerid().equals(customerId)) {
+                return new Placement(Status.EXISTING, hold, position);
+            }
+            position++;
+        }
+        List<LoanViolation> violations = loanPolicy.checkHolder(customerId, mediaId);
+        if (!violations.isEmpty()) {
+            return new Placement(Status.INELIGIBLE, null, null, violations);
+        }
+
+        Hold hold = holdRepository.save(new Hold(mediaId, customerId));
+        // Noch vor dem Commit einreihen: Eine Rückgabe wartet auf die Sperre der Ausleihe und
+        // muss die Vormerkung danach in der Warteschlange vorfinden.
+        queue.put(hold.getId(), hold);
+        onRollback(() -> queue.remove(hold.getId()));
+        afterCommit(placed::increment);
+        return new Placement(Status.QUEUED, hold, queue.size());
+    }
+
+    /**
+     * Storniert eine Vormerkung.
+     *
+     * @param id ID der Vormerkung
+     * @return true, wenn die Vormerkung existierte
+     */
+    @Transactional
+    public boolean cancel(Long id) {
+        Hold hold = holdRepository.findById(id).orElse(null);
+        if (hold == null || holdRepository.deleteHold(id) == 0) {
+            return false;
+        }
+        afterCommit(() -> queueOf(hold.getMediaid()).remove(id));
+        return true;
+    }
+
+    /**
+     * Gibt die Warteschlange eines Mediums zurück.
+     *
+     * @param mediaId ID des Mediums
+     * @return Vormerkungen in der Reihenfolge, in der sie bedient werden
+     */
+    public List<Hold> findByMedia(Long mediaId) {
+        NavigableMap<Long, Hold> queue = queues.get(mediaId);
+        return queue != null ? List.copyOf(queue.values()) : List.of();
+    }
+
+    /**
+     * Gibt alle Vormerkungen eines Kunden zurück.
+     *
+     * @param customerId ID des Kunden
+     * @return Vormerkungen, die ältesten zuerst
+     */
+    public List<Hold> findByCustomer(Long customerId) {
+        return holdRepository.findByCustomeridOrderByIdAsc(customerId);
+    }
+
+    /**
+     * Teilt zurückgegebene Medien dem jeweils ersten Kunden der Warteschlange zu, der die
+     * Ausleihregeln erfüllt.
+     * Muss in der Rückgabe-Transaktion aufgerufen werden, nachdem die Ausleihen gelöscht wurden.
+     *
+     * @param mediaIds IDs der zurückgegebenen Medien
+     * @return Anzahl zugeteilter Vormerkungen
+     */
+    @Transactional
+    public int assignNext(Collection<Long> mediaIds) {
+        LocalDate today = LocalDate.now();
+        int count = 0;
+        for (Long mediaId : mediaIds) {
+            List<Hold> holds = holdRepository.lockByMediaid(mediaId);
+            if (holds.isEmpty()) {
+                NavigableMap<Long, Hold> queue = queues.get(mediaId);
+                if (queue != null && !queue.isEmpty()) {
+                    Long lastId = queue.lastKey();
+                    afterCommit(() -> synchronize(mediaId, List.of(), lastId));
+                }
+                continue;
+            }
+            List<Hold> remaining = new ArrayList<>(holds);
+            for (Hold hold : holds) {
+                if (!customerRepository.existsById(hold.getCustomerid())) {
+                    holdRepository.deleteHold(hold.getId());
+                    remaining.remove(hold);
+                    continue;
+                }
+                List<LoanViolation> violations = loanPolicy.checkHolder(hold.getCustomerid(), mediaId);
+                if (!violations.isEmpty()) {
+                    eventPublisher.publishEvent(new HoldSkippedEvent(hold.getId(), mediaId, hold.getCustomerid(),
+                            violations));
+                    continue;
+                }
+                // Bereits gesperrt gelesen; das DELETE entfernt die Zeile zusammen mit der Zuteilung
+                holdRepository.deleteHold(hold.getId());
+                remaining.remove(hold);
+                Borrowing borrowing = borrowingRepository.save(new Borrowing(today.plusDays(loanPeriodDays), today, null,
+                        customerRepository.getReferenceById(hold.getCustomerid()),
+                        mediaRepository.getReferenceById(mediaId)));
+                eventPublisher.publishEvent(new HoldAssignedEvent(hold.getId(), mediaId, hold.getCustomerid(),
+                        borrowing.getId()));
+                afterCommit(assigned::increment);
+                count++;
+                break;
+            }
+            Long lastId = holds.get(holds.size() - 1).getId();
+            afterCommit(() -> synchronize(mediaId, remaining, lastId));
+        }
+        return count;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("library.holds.placed", placed, LongAdder::sum).register(registry);
+        FunctionCounter.builder("library.holds.assigned", assigned, LongAdder::sum).register(registry);
+        Gauge.builder("library.holds.queued", queues, q -> q.values().stream().mapToInt(Map::size).sum())
+                .register(registry);
+    }
+
+    private NavigableMap<Long, Hold> queueOf(Long mediaId) {
+        return queues.computeIfAbsent(mediaId, id -> new ConcurrentSkipListMap<>());
+    }
+
+    /**
+     * Gleicht die lokale Warteschlange mit den gelesenen Vormerkungen ab: Fehlende werden
+     * eingereiht, nicht mehr vorhandene bis zur höchsten gelesenen ID entfernt. Spätere
+     * Vormerkungen sind erst nach dem Lesen entstanden und bleiben erhalten.
+     */
+    private void synchronize(Long mediaId, List<Hold> remaining, Long lastId) {
+        NavigableMap<Long, Hold> queue = queueOf(mediaId);
+        Set<Long> ids = new HashSet<>();
+        for (Hold hold : remaining) {
+            ids.add(hold.getId());
+            queue.putIfAbsent(hold.getId(), hold);
+        }
+        queue.headMap(lastId, true).keySet().removeIf(id -> !ids.contains(id));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
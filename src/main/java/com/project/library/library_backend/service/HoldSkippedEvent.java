@@ -0,0 +1,21 @@
+package com.project.library.library_backend.service;
+
+import com.project.library.library_backend.policy.LoanViolation;
+
+import java.util.List;
+
+/**
+ * Wird veröffentlicht, wenn ein Kunde bei der Zuteilung eines zurückgegebenen Mediums
+ * übersprungen wurde, weil er eine Ausleihregel verletzt. Seine Vormerkung bleibt bestehen.
+ *
+ * Wie {@link HoldAssignedEvent} wird das Ereignis innerhalb der Rückgabe-Transaktion veröffentlicht.
+ *
+ * @param holdId ID der übersprungenen Vormerkung
+ * @param mediaId ID des Mediums
+ * @param customerId ID des Kunden
+ * @param violations Verletzte Ausleihregeln
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record HoldSkippedEvent(Long holdId, Long mediaId, Long customerId, List<LoanViolation> violations) {}
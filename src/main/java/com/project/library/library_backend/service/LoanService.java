@@ -0,0 +1,157 @@
+package com.project.library.library_backend.service;
+
+import com.project.library.library_backend.catalog.CatalogChangeTracker;
+import com.project.library.library_backend.catalog.ChangeType;
+import com.project.library.library_backend.catalog.LoanEntry;
+import com.project.library.library_backend.model.BorrowingHistory;
+import com.project.library.library_backend.profiling.ReturnEvent;
+import com.project.library.library_backend.repository.BorrowingHistoryRepository;
+import com.project.library.library_backend.repository.BorrowingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rückgabe und Verlängerung von Ausleihen sowie Zugriff auf die Historie.
+ *
+ * Beide Operationen arbeiten mit gezielten UPDATE-, INSERT ... SELECT- und DELETE-Anweisungen,
+ * ohne die Ausleihe samt Kunde und Medium zu laden. Da dabei keine Entity-Callbacks ausgelöst
+ * werden, werden die Änderungen explizit an den {@link CatalogChangeTracker} gemeldet.
+ *
+ * Zurückgegebene Medien mit Vormerkungen werden in derselben Transaktion über den
+ * {@link HoldService} dem nächsten Kunden ausgeliehen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Service
+public class LoanService {
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private BorrowingHistoryRepository borrowingHistoryRepository;
+
+    @Autowired
+    private CatalogChangeTracker catalogChangeTracker;
+
+    @Autowired
+    private HoldService holdService;
+
+    /**
+     * Leihfrist in Tagen, gerechnet ab dem Tag der Verlängerung.
+     */
+    @Value("${library.loans.period-days:28}")
+    private int loanPeriodDays;
+
+    /**
+     * Standardzeitraum der Historiensuche in Jahren, wenn kein Startdatum angegeben ist.
+     */
+    @Value("${library.history.search-years:5}")
+    private int historySearchYears;
+
+    /**
+     * Verlängert eine Ausleihe bis heute plus Leihfrist. Ein späteres Fälligkeitsdatum bleibt erhalten.
+     *
+     * Der neue Stand wird nur als {@link LoanEntry} gelesen, ohne Kunde, Adresse und Medium zu laden.
+     *
+     * @param id ID der Ausleihe
+     * @return Verlängerte Ausleihe oder leer, wenn sie nicht existiert
+     */
+    @Transactional
+    public Optional<LoanEntry> extend(Long id) {
+        LocalDate today = LocalDate.now();
+        if (borrowingRepository.extend(id, today, today.plusDays(loanPeriodDays)) == 0) {
+            return Optional.empty();
+        }
+        Optional<LoanEntry> extended = borrowingRepository.findCatalogEntriesByIdIn(List.of(id)).stream().findFirst();
+        extended.ifPresent(entry -> catalogChangeTracker.loanSaved(entry, ChangeType.UPDATE));
+        return extended;
+    }
+
+    /**
+     * Gibt eine Ausleihe zurück.
+     *
+     * @param id ID der Ausleihe
+     * @return true, wenn die Ausleihe existierte und zurückgegeben wurde
+     */
+    @Transactional
+    public boolean returnLoan(Long id) {
+        return returnLoans(List.of(id)) == 1;
+    }
+
+    /**
+     * Gibt mehrere Ausleihen zurück. Die Ausleihen werden blockweise (höchstens
+     * {@link BatchLookup#CHUNK_SIZE} pro Block) in die Historie kopiert und gelöscht.
+     * Nicht vorhandene oder bereits zurückgegebene IDs werden übersprungen.
+     *
+     * @param ids IDs der Ausleihen
+     * @return Anzahl zurückgegebener Ausleihen
+     */
+    @Transactional
+    public int returnLoans(Collection<Long> ids) {
+        ReturnEvent event = new ReturnEvent();
+        event.begin();
+        LocalDate today = LocalDate.now();
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        int returned = 0;
+        for (int from = 0; from < distinct.size(); from += BatchLookup.CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + BatchLookup.CHUNK_SIZE, distinct.size()));
+            List<Long> existing = borrowingRepository.lockIdsByIdIn(chunk);
+            if (existing.isEmpty()) {
+                continue;
+            }
+            List<Long> mediaIds = borrowingRepository.findMediaIdsByIdIn(existing);
+            borrowingRepository.archiveByIdIn(existing, today);
+            returned += borrowingRepository.deleteByIdIn(existing);
+            catalogChangeTracker.loansDeleted(existing);
+            holdService.assignNext(mediaIds);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.borrowingId = distinct.size() == 1 ? distinct.get(0) : 0;
+            event.requested = distinct.size();
+            event.returned = returned;
+            event.commit();
+        }
+        return returned;
+    }
+
+    /**
+     * Sucht die abgeschlossenen Ausleihen eines Kunden. Die Suche ist immer auf einen Zeitraum
+     * beschränkt, damit nur die betroffenen Partitionen gelesen werden.
+     *
+     * @param customerId ID des Kunden
+     * @param from Frühestes Ausleihdatum oder null für den Standardzeitraum
+     * @param to Spätestes Ausleihdatum oder null für heute
+     * @return Abgeschlossene Ausleihen, die neuesten zuerst
+     */
+    public List<BorrowingHistory> findHistoryByCustomer(Long customerId, LocalDate from, LocalDate to) {
+        LocalDate until = to != null ? to : LocalDate.now();
+        return borrowingHistoryRepository.findByCustomeridAndDateborrowedBetweenOrderByDateborrowedDesc(
+                customerId, from != null ? from : until.minusYears(historySearchYears), until);
+    }
+
+    /**
+     * Sucht die abgeschlossenen Ausleihen eines Mediums, beschränkt auf einen Zeitraum.
+     *
+     * @param mediaId ID des Mediums
+     * @param from Frühestes Ausleihdatum oder null für den Standardzeitraum
+     * @param to Spätestes Ausleihdatum oder null für heute
+     * @return Abgeschlossene Ausleihen, die neuesten zuerst
+     */
+    public List<BorrowingHistory> findHistoryByMedia(Long mediaId, LocalDate from, LocalDate to) {
+        LocalDate until = to != null ? to : LocalDate.now();
+        return borrowingHistoryRepository.findByMediaidAndDateborrowedBetweenOrderByDateborrowedDesc(
+                mediaId, from != null ? from : until.minusYears(historySearchYears), until);
+    }
+}
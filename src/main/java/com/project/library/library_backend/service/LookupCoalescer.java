@@ -0,0 +1,95 @@
+package com.project.library.library_backend.service;
+
+import com.project.library.library_backend.model.Borrowing;
+import com.project.library.library_backend.model.Customer;
+import com.project.library.library_backend.model.Media;
+import com.project.library.library_backend.repository.BorrowingRepository;
+import com.project.library.library_backend.repository.CustomerRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Single-Flight-Schicht vor den häufigsten Einzelabfragen.
+ *
+ * Gleichzeitige Abfragen nach derselben ID (z. B. wenn viele Clients denselben neuen
+ * Bestseller abrufen) werden zu einem einzigen Datenbankzugriff zusammengefasst.
+ *
+ * Metriken (über /actuator/metrics):
+ * - library.lookups.calls → Anzahl Abfragen pro Lookup
+ * - library.lookups.collapsed → Anzahl zusammengefasster Abfragen pro Lookup
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Service
+public class LookupCoalescer implements MeterBinder {
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private final SingleFlight<Long, Optional<Media>> mediaById = new SingleFlight<>();
+
+    private final SingleFlight<Long, Optional<Borrowing>> borrowingByMedia = new SingleFlight<>();
+
+    private final SingleFlight<Long, Optional<Customer>> customerById = new SingleFlight<>();
+
+    /**
+     * Sucht ein Medium anhand der ID.
+     *
+     * @param id ID des Mediums
+     * @return Optional mit Medium, falls vorhanden
+     */
+    public Optional<Media> findMedia(Long id) {
+        return mediaById.execute(id, () -> mediaRepository.findById(id));
+    }
+
+    /**
+     * Sucht die Ausleihe zu einem Medium.
+     *
+     * @param mediaId ID des Mediums
+     * @return Optional mit Ausleihe, falls vorhanden
+     */
+    public Optional<Borrowing> findBorrowingByMedia(Long mediaId) {
+        return borrowingByMedia.execute(mediaId, () -> borrowingRepository.findByMedia_Id(mediaId));
+    }
+
+    /**
+     * Sucht einen Kunden anhand der ID.
+     *
+     * @param id ID des Kunden
+     * @return Optional mit Kunde, falls vorhanden
+     */
+    public Optional<Customer> findCustomer(Long id) {
+        return customerById.execute(id, () -> customerRepository.findById(id));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        register(registry, "media.findById", mediaById);
+        register(registry, "borrowing.findByMedia", borrowingByMedia);
+        register(registry, "customer.findById", customerById);
+    }
+
+    private static void register(MeterRegistry registry, String lookup, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("library.lookups.calls", flight, SingleFlight::getCalls)
+                .tag("lookup", lookup)
+                .description("Anzahl Einzelabfragen")
+                .register(registry);
+        FunctionCounter.builder("library.lookups.collapsed", flight, SingleFlight::getCollapsed)
+                .tag("lookup", lookup)
+                .description("Anzahl Abfragen, die an eine laufende Abfrage angehängt wurden")
+                .register(registry);
+    }
+}
@@ -0,0 +1,246 @@
+package com.project.library.library_backend.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Lokales Append-only-Journal für Metadaten-Änderungen an Medien.
+ *
+ * Jede Änderung wird als Datensatz angehängt:
+ * - int Länge der Nutzdaten
+ * - Nutzdaten: long Medium-ID, byte gesetzte Felder, danach die gesetzten Felder
+ * - int CRC32 der Nutzdaten
+ *
+ * Das Journal besteht aus nummerierten Dateien ("media-metadata.N.journal"). Mit {@link #rotate()}
+ * wird die aktive Datei abgeschlossen und eine neue begonnen; abgeschlossene Dateien können
+ * gelöscht werden, sobald ihre Änderungen in der Datenbank sind. Beim Lesen endet eine Datei beim
+ * ersten unvollständigen oder beschädigten Datensatz (z. B. nach einem Absturz mitten im Schreiben).
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class MediaMetadataJournal implements AutoCloseable {
+
+    private static final Pattern FILE_NAME = Pattern.compile("media-metadata\\.(\\d+)\\.journal");
+
+    private static final int RATING = 1;
+
+    private static final int SHELF_CODE = 2;
+
+    private static final int GENRE = 4;
+
+    private final Path directory;
+
+    private final Object syncLock = new Object();
+
+    private FileChannel channel;
+
+    private Path activeFile;
+
+    private long written;
+
+    private long synced;
+
+    /**
+     * Öffnet eine neue aktive Datei hinter allen vorhandenen Dateien.
+     *
+     * @param directory Verzeichnis des Journals
+     */
+    public MediaMetadataJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        List<Path> existing = files(directory);
+        long next = existing.isEmpty() ? 1 : sequenceOf(existing.get(existing.size() - 1)) + 1;
+        open(next);
+    }
+
+    /**
+     * Hängt eine Änderung an die aktive Datei an (noch ohne fsync).
+     *
+     * @return Position nach dem Datensatz, für {@link #sync(long)}
+     */
+    public synchronized long append(long mediaId, MediaMetadataUpdate update) throws IOException {
+        byte[] payload = encode(mediaId, update);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(payload.length + 8);
+        buffer.putInt(payload.length).put(payload).putInt((int) crc.getValue()).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        written += buffer.limit();
+        return written;
+    }
+
+    /**
+     * Schreibt das Journal mindestens bis zur angegebenen Position auf den Datenträger.
+     *
+     * Gleichzeitige Aufrufe werden zusammengefasst (Group Commit): ein fsync deckt alle
+     * Datensätze ab, die bis dahin angehängt wurden.
+     *
+     * @param position Position, die ein vorheriges {@link #append} geliefert hat
+     */
+    public void sync(long position) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            FileChannel current;
+            long target;
+            synchronized (this) {
+                current = channel;
+                target = written;
+            }
+            current.force(false);
+            synced = target;
+        }
+    }
+
+    /**
+     * Schliesst die aktive Datei ab und beginnt eine neue.
+     *
+     * @return Die abgeschlossene Datei
+     */
+    public Path rotate() throws IOException {
+        // Gleiche Sperrreihenfolge wie in sync(): erst syncLock, dann this
+        synchronized (syncLock) {
+            synchronized (this) {
+                Path closed = activeFile;
+                channel.force(false);
+                channel.close();
+                open(sequenceOf(closed) + 1);
+                return closed;
+            }
+        }
+    }
+
+    /**
+     * @return Die aktive Datei
+     */
+    public synchronized Path getActiveFile() {
+        return activeFile;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    /**
+     * Gibt alle Journal-Dateien eines Verzeichnisses in Schreibreihenfolge zurück.
+     */
+    public static List<Path> files(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.list(directory)) {
+            List<Path> files = new ArrayList<>(stream.filter(path -> FILE_NAME.matcher(path.getFileName().toString()).matches()).toList());
+            files.sort(Comparator.comparingLong(MediaMetadataJournal::sequenceOf));
+            return files;
+        }
+    }
+
+    /**
+     * Liest alle vollständigen Datensätze einer Datei in Schreibreihenfolge.
+     *
+     * @param file Journal-Datei
+     * @param consumer Erhält Medium-ID und Änderung
+     * @return Anzahl gelesener Datensätze
+     */
+    public static int replay(Path file, BiConsumer<Long, MediaMetadataUpdate> consumer) throws IOException {
+        int count = 0;
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            while (true) {
+                byte[] payload;
+                int checksum;
+                try {
+                    int length = in.readInt();
+                    if (length <= 0 || length > 1 << 20) {
+                        return count;
+                    }
+                    payload = in.readNBytes(length);
+                    if (payload.length != length) {
+                        return count;
+                    }
+                    checksum = in.readInt();
+                } catch (EOFException e) {
+                    return count;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    return count;
+                }
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                long mediaId = record.readLong();
+                int fields = record.readByte();
+                Integer rating = (fields & RATING) != 0 ? record.readInt() : null;
+                String shelfCode = (fields & SHELF_CODE) != 0 ? record.readUTF() : null;
+                String genre = (fields & GENRE) != 0 ? record.readUTF() : null;
+                consumer.accept(mediaId, new MediaMetadataUpdate(rating, shelfCode, genre));
+                count++;
+            }
+        }
+    }
+
+    private void open(long sequence) throws IOException {
+        activeFile = directory.resolve("media-metadata." + sequence + ".journal");
+        channel = FileChannel.open(activeFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        written = channel.size();
+        synced = written;
+    }
+
+    private static byte[] encode(long mediaId, MediaMetadataUpdate update) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(mediaId);
+            int fields = (update.rating() != null ? RATING : 0)
+                    | (update.shelfCode() != null ? SHELF_CODE : 0)
+                    | (update.genre() != null ? GENRE : 0);
+            out.writeByte(fields);
+            if (update.rating() != null) {
+                out.writeInt(update.rating());
+            }
+            if (update.shelfCode() != null) {
+                out.writeUTF(update.shelfCode());
+            }
+            if (update.genre() != null) {
+                out.writeUTF(update.genre());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long sequenceOf(Path file) {
+        Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Keine Journal-Datei: " + file);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.library.library_backend.service;
+
+/**
+ * Änderung der unkritischen Metadaten eines Mediums (Bewertung, Regalcode, Genre).
+ *
+ * Felder mit dem Wert null bleiben unverändert.
+ *
+ * @param rating Neue Bewertung oder null
+ * @param shelfCode Neuer Regalcode oder null
+ * @param genre Neues Genre oder null
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public record MediaMetadataUpdate(Integer rating, String shelfCode, String genre) {
+
+    /**
+     * Fasst diese Änderung mit einer neueren zusammen; gesetzte Felder der neueren Änderung gewinnen.
+     *
+     * @param newer Neuere Änderung
+     * @return Zusammengefasste Änderung
+     */
+    public MediaMetadataUpdate mergedWith(MediaMetadataUpdate newer) {
+        return new MediaMetadataUpdate(
+                newer.rating != null ? newer.rating : rating,
+                newer.shelfCode != null ? newer.shelfCode : shelfCode,
+                newer.genre != null ? newer.genre : genre);
+    }
+
+    /**
+     * @return true, wenn kein Feld gesetzt ist
+     */
+    public boolean isEmpty() {
+        return rating == null && shelfCode == null && genre == null;
+    }
+}
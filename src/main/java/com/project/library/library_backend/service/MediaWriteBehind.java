@@ -0,0 +1,283 @@
+package com.project.library.library_backend.service;
+
+import com.project.library.library_backend.catalog.CatalogChangeTracker;
+import com.project.library.library_backend.catalog.ChangeType;
+import com.project.library.library_backend.catalog.MediaEntry;
+import com.project.library.library_backend.cluster.ClusterNode;
+import com.project.library.library_backend.repository.MediaRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-Behind für unkritische Metadaten von Medien (Bewertung, Regalcode, Genre).
+ *
+ * Änderungen werden ins lokale {@link MediaMetadataJournal} geschrieben und sofort bestätigt.
+ * Pro Medium werden sie in einem Puffer zusammengefasst (mehrere Änderungen am selben Medium
+ * ergeben ein einziges UPDATE) und periodisch per JDBC-Batch in die Datenbank geschrieben.
+ * Nach einem erfolgreichen Flush werden die abgeschlossenen Journal-Dateien gelöscht; beim
+ * Start werden übrig gebliebene Journal-Dateien (z. B. nach einem Absturz) nachgespielt.
+ *
+ * Bis zum nächsten Flush liefern Lesezugriffe noch die alten Werte. Synchrone Schreibzugriffe
+ * auf ein Medium (PUT, DELETE) müssen vorher {@link #drain} aufrufen, sonst überschreibt der
+ * nächste Flush ihre Werte mit der älteren gepufferten Änderung.
+ *
+ * Im Cluster (library.cluster.enabled=true) ist Write-Behind abgeschaltet und jede Änderung
+ * wird sofort geschrieben: Der Puffer liegt nur auf der annehmenden Instanz, ein PUT oder DELETE
+ * auf einer anderen Instanz könnte ihn mit {@link #drain} nicht leeren, und der spätere Flush
+ * würde dessen Werte überschreiben. Ein Weiterleiten an eine zuständige Instanz wie bei
+ * Ausleihen wäre für diese unkritischen Felder unverhältnismässig. Journal-Dateien aus einem
+ * früheren Betrieb ohne Cluster werden beim Start trotzdem nachgespielt.
+ *
+ * Metriken (über /actuator/metrics):
+ * - library.media.writebehind.updates → angenommene Änderungen
+ * - library.media.writebehind.flushed → geschriebene Zeilen
+ * - library.media.writebehind.pending → Medien mit noch nicht geschriebenen Änderungen
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@Service
+public class MediaWriteBehind implements ApplicationRunner, DisposableBean, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaWriteBehind.class);
+
+    private static final String UPDATE_SQL = "UPDATE media SET rating = COALESCE(?, rating), "
+            + "shelf_code = COALESCE(?, shelf_code), genre = COALESCE(?, genre) WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private CatalogChangeTracker catalogChangeTracker;
+
+    @Value("${library.media.write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${library.media.write-behind.journal-dir:data/journal}")
+    private Path journalDirectory;
+
+    @Value("${library.cluster.node-id:}")
+    private String nodeId;
+
+    @Value("${library.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    /**
+     * fsync nach jeder Änderung (zusammengefasst über gleichzeitige Änderungen).
+     */
+    @Value("${library.media.write-behind.sync:true}")
+    private boolean sync;
+
+    private final Map<Long, MediaMetadataUpdate> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Abgeschlossene Journal-Dateien, deren Änderungen noch nicht sicher in der Datenbank sind.
+     */
+    private final List<Path> sealed = new ArrayList<>();
+
+    private final Object bufferLock = new Object();
+
+    private final Object flushLock = new Object();
+
+    private final LongAdder updates = new LongAdder();
+
+    private final LongAdder flushed = new LongAdder();
+
+    private volatile MediaMetadataJournal journal;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journalDirectory = ClusterNode.nodeDirectory(journalDirectory, nodeId);
+        List<Path> leftovers = MediaMetadataJournal.files(journalDirectory);
+        journal = new MediaMetadataJournal(journalDirectory);
+        int replayed = 0;
+        for (Path file : leftovers) {
+            replayed += MediaMetadataJournal.replay(file, (id, update) -> pending.merge(id, update, MediaMetadataUpdate::mergedWith));
+            sealed.add(file);
+        }
+        if (replayed > 0) {
+            log.info("{} Metadaten-Änderungen aus dem Journal nachgespielt", replayed);
+        }
+        flush();
+        if (clusterEnabled) {
+            if (!pending.isEmpty() || !sealed.isEmpty()) {
+                throw new IllegalStateException("Nachgespielte Metadaten-Änderungen konnten nicht geschrieben werden");
+            }
+            // Ohne geöffnetes Journal werden alle Änderungen sofort geschrieben
+            MediaMetadataJournal opened = journal;
+            journal = null;
+            opened.close();
+            Files.deleteIfExists(opened.getActiveFile());
+            log.info("Write-Behind für Metadaten im Cluster deaktiviert");
+        }
+    }
+
+    /**
+     * Nimmt eine Änderung an. Sie ist nach der Rückkehr im Journal gesichert und wird beim
+     * nächsten Flush in die Datenbank geschrieben. Ist Write-Behind deaktiviert, im Cluster oder
+     * der Start noch nicht abgeschlossen, wird sie sofort geschrieben.
+     *
+     * @param mediaId ID des Mediums
+     * @param update Änderung
+     */
+    public void submit(Long mediaId, MediaMetadataUpdate update) {
+        updates.increment();
+        if (!enabled || journal == null) {
+            // Deaktiviert oder Journal noch nicht geöffnet (Start noch nicht abgeschlossen)
+            write(Map.of(mediaId, update));
+            return;
+        }
+        try {
+            long position;
+            synchronized (bufferLock) {
+                position = journal.append(mediaId, update);
+                pending.merge(mediaId, update, MediaMetadataUpdate::mergedWith);
+            }
+            if (sync) {
+                journal.sync(position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal konnte nicht geschrieben werden", e);
+        }
+    }
+
+    /**
+     * Schreibt eine gepufferte Änderung am Medium sofort (mit allen anderen gepufferten) und
+     * wartet einen laufenden Flush ab. Danach kann das Medium synchron geschrieben werden, ohne
+     * dass ein Flush die Werte mit einer älteren Änderung überschreibt.
+     *
+     * @param mediaId ID des Mediums
+     * @throws IllegalStateException wenn die Änderung nicht geschrieben werden konnte
+     */
+    public void drain(Long mediaId) {
+        if (!enabled || journal == null) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (pending.containsKey(mediaId)) {
+                flush();
+            }
+            if (pending.containsKey(mediaId)) {
+                throw new IllegalStateException("Gepufferte Änderung an Medium " + mediaId + " konnte nicht geschrieben werden");
+            }
+        }
+    }
+
+    /**
+     * Schreibt alle gepufferten Änderungen in die Datenbank.
+     */
+    @Scheduled(fixedDelayString = "${library.media.write-behind.flush-interval:1000}")
+    public void flush() {
+        if (!enabled || journal == null) {
+            return;
+        }
+        synchronized (flushLock) {
+            Map<Long, MediaMetadataUpdate> batch = new LinkedHashMap<>();
+            synchronized (bufferLock) {
+                if (pending.isEmpty() && sealed.isEmpty()) {
+                    return;
+                }
+                try {
+                    sealed.add(journal.rotate());
+                } catch (IOException e) {
+                    log.warn("Journal konnte nicht rotiert werden: {}", e.getMessage());
+                    return;
+                }
+                for (Long id : List.copyOf(pending.keySet())) {
+                    batch.put(id, pending.remove(id));
+                }
+            }
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                // Neuere Änderungen aus der Zwischenzeit gewinnen
+                batch.forEach((id, update) -> pending.merge(id, update, (newer, older) -> older.mergedWith(newer)));
+                log.warn("Flush von {} Metadaten-Änderungen fehlgeschlagen: {}", batch.size(), e.getMessage());
+                return;
+            }
+            for (Path file : sealed) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Journal-Datei {} konnte nicht gelöscht werden: {}", file, e.getMessage());
+                }
+            }
+            sealed.clear();
+        }
+    }
+
+    private void write(Map<Long, MediaMetadataUpdate> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        batch.forEach((id, update) -> rows.add(new Object[]{update.rating(), update.shelfCode(), update.genre(), id}));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+            List<Long> ids = new ArrayList<>(batch.keySet());
+            for (int from = 0; from < ids.size(); from += BatchLookup.CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + BatchLookup.CHUNK_SIZE, ids.size()));
+                for (MediaEntry entry : mediaRepository.findCatalogEntriesByIdIn(chunk)) {
+                    catalogChangeTracker.mediaSaved(entry, ChangeType.UPDATE);
+                }
+            }
+        });
+        flushed.add(batch.size());
+    }
+
+    /**
+     * @return Anzahl Medien mit noch nicht geschriebenen Änderungen
+     */
+    int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("library.media.writebehind.updates", updates, LongAdder::sum).register(registry);
+        FunctionCounter.builder("library.media.writebehind.flushed", flushed, LongAdder::sum).register(registry);
+        Gauge.builder("library.media.writebehind.pending", this, MediaWriteBehind::pendingCount).register(registry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.library.library_backend.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Fasst gleichzeitige, identische Abfragen zu einer einzigen Ausführung zusammen ("Single-Flight").
+ *
+ * Der erste Aufrufer für einen Schlüssel führt den Loader aus, alle weiteren Aufrufer mit
+ * demselben Schlüssel warten auf dessen Ergebnis, solange die Abfrage noch läuft.
+ * Es wird nichts zwischengespeichert: ist die Abfrage abgeschlossen, löst der nächste Aufruf
+ * wieder eine neue Abfrage aus.
+ *
+ * @param <K> Typ des Schlüssels (z. B. die ID einer Entity)
+ * @param <V> Typ des Ergebnisses
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder collapsed = new LongAdder();
+
+    /**
+     * Führt den Loader für den Schlüssel aus oder hängt sich an eine bereits laufende Abfrage an.
+     *
+     * @param key Schlüssel der Abfrage
+     * @param loader Lädt den Wert, falls noch keine Abfrage für den Schlüssel läuft
+     * @return Ergebnis der (gemeinsamen) Abfrage
+     */
+    public V execute(K key, Supplier<V> loader) {
+        calls.increment();
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            collapsed.increment();
+            return await(running);
+        }
+        try {
+            V value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * @return Anzahl aller Aufrufe von {@link #execute(Object, Supplier)}
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return Anzahl der Aufrufe, die an eine laufende Abfrage angehängt wurden
+     */
+    public long getCollapsed() {
+        return collapsed.sum();
+    }
+
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
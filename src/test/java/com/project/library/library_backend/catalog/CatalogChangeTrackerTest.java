@@ -0,0 +1,121 @@
+package com.project.library.library_backend.catalog;
+
+import com.project.library.library_backend.model.Media;
+import com.project.library.library_backend.repository.MediaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link CatalogChangeTracker}.
+ *
+ * Tests:
+ * - Reihenfolge: Die Sequenznummern folgen der Commit-Reihenfolge, nicht der Reihenfolge der Änderungen.
+ * - Flush: Änderungen, die erst beim Flush im Commit gemeldet werden, landen im Protokoll und im Katalog.
+ *
+ * Die Transaktionen werden committet; die Daten werden danach wieder gelöscht.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CatalogChangeTracker.class, CatalogState.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CatalogChangeTrackerTest {
+
+    @Autowired
+    private CatalogChangeTracker catalogChangeTracker;
+
+    @Autowired
+    private CatalogState catalogState;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Eine Transaktion, die ihre Änderung zuerst meldet, aber später committet, erhält die
+     * grössere Sequenznummer.
+     */
+    @Test
+    void testSeqFollowsCommitOrder() throws Exception {
+        Long slowId = -9001L;
+        Long fastId = -9002L;
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+                catalogChangeTracker.mediaDeleted(slowId);
+                recorded.countDown();
+                await(release);
+            }));
+            assertTrue(recorded.await(10, TimeUnit.SECONDS));
+            transactionTemplate.executeWithoutResult(status -> catalogChangeTracker.mediaDeleted(fastId));
+            release.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+
+            assertTrue(seqOf(slowId) > seqOf(fastId));
+        } finally {
+            release.countDown();
+            jdbcTemplate.update("DELETE FROM change_log WHERE entitytype = ? AND entityid IN (?, ?)",
+                    CatalogChangeTracker.MEDIA, slowId, fastId);
+        }
+    }
+
+    /**
+     * Eine geänderte, nicht explizit gespeicherte Entity wird erst beim Commit geflusht; die
+     * Änderung wird trotzdem protokolliert und in den Katalog übernommen.
+     */
+    @Test
+    void testChangeReportedAtCommitFlush() {
+        List<Long> ids = new ArrayList<>();
+        try {
+            Media media = transactionTemplate.execute(status -> mediaRepository.save(
+                    new Media("Vorher", "Autor F", "Roman", 3, null, "F1", "0")));
+            ids.add(media.getId());
+            transactionTemplate.executeWithoutResult(status ->
+                    mediaRepository.findById(media.getId()).orElseThrow().setTitle("Nachher"));
+
+            assertEquals(2, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM change_log WHERE entitytype = ? AND entityid = ?",
+                    Integer.class, CatalogChangeTracker.MEDIA, media.getId()));
+            assertEquals("Nachher", catalogState.getMedia(media.getId()).title());
+        } finally {
+            for (Long id : ids) {
+                jdbcTemplate.update("DELETE FROM change_log WHERE entitytype = ? AND entityid = ?", CatalogChangeTracker.MEDIA, id);
+                jdbcTemplate.update("DELETE FROM media WHERE id = ?", id);
+            }
+        }
+    }
+
+    private long seqOf(Long entityId) {
+        return jdbcTemplate.queryForObject("SELECT seq FROM change_log WHERE entitytype = ? AND entityid = ?",
+                Long.class, CatalogChangeTracker.MEDIA, entityId);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
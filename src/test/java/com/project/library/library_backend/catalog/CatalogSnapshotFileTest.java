@@ -0,0 +1,63 @@
+package com.project.library.library_backend.catalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link CatalogSnapshotFile}.
+ *
+ * Prüft, dass ein geschriebener Snapshot unverändert gelesen werden kann
+ * und dass beschädigte Dateien erkannt werden.
+ */
+public class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Ein Snapshot wird vollständig und unverändert wieder eingelesen.
+     */
+    @Test
+    void testWriteAndRead() throws IOException {
+        Path file = tempDir.resolve("catalog.snapshot");
+        MediaEntry media = new MediaEntry(1L, "Testbuch", "Max Mustermann", "Roman", 5, 9781234567890L, "R1", "12");
+        MediaEntry sparse = new MediaEntry(2L, null, null, null, null, null, null, null);
+        CustomerEntry customer = new CustomerEntry(3L, "Sarah", "Schmid", LocalDate.of(1990, 5, 10), "sarah@schmid.ch", 7L);
+        LoanEntry loan = new LoanEntry(4L, 3L, 1L, LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 16), null);
+        AddressEntry address = new AddressEntry(7L, "Hauptstrasse 1", "Zürich", "8000");
+
+        CatalogSnapshotFile.write(file, 42L, List.of(media, sparse), List.of(customer), List.of(loan), List.of(address));
+        CatalogSnapshotFile.Snapshot snapshot = CatalogSnapshotFile.read(file);
+
+        assertEquals(42L, snapshot.highWaterMark());
+        assertEquals(List.of(media, sparse), snapshot.media());
+        assertEquals(List.of(customer), snapshot.customers());
+        assertEquals(List.of(loan), snapshot.loans());
+        assertEquals(List.of(address), snapshot.addresses());
+    }
+
+    /**
+     * Eine veränderte Datei wird anhand der Prüfsumme abgelehnt.
+     */
+    @Test
+    void testCorruptedSnapshotIsRejected() throws IOException {
+        Path file = tempDir.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(file, 1L,
+                List.of(new MediaEntry(1L, "Testbuch", "Autor X", "Roman", 4, 1234567890123L, "A1", "12+")),
+                List.of(), List.of(), List.of());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(file));
+    }
+}
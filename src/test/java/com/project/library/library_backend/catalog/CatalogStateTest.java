@@ -0,0 +1,88 @@
+package com.project.library.library_backend.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link CatalogState}.
+ *
+ * Prüft, dass verspätet eintreffende Änderungen den Katalog und die Listener nicht auf einen
+ * älteren Stand zurücksetzen.
+ */
+public class CatalogStateTest {
+
+    private CatalogState catalogState;
+
+    private final List<String> notifications = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        catalogState = new CatalogState();
+        catalogState.replaceAll(List.of(), List.of(), List.of(), List.of());
+        catalogState.addListener(new CatalogListener() {
+            @Override
+            public void mediaChanged(MediaEntry previous, MediaEntry current) {
+                notifications.add((previous != null ? previous.title() : "-") + ">"
+                        + (current != null ? current.title() : "-"));
+            }
+        });
+    }
+
+    /**
+     * Eine ältere Änderung nach einer neueren wird verworfen.
+     */
+    @Test
+    void testOutdatedPutIsIgnored() {
+        catalogState.putMedia(media(1L, "Neu"), 20);
+        catalogState.putMedia(media(1L, "Alt"), 10);
+
+        assertEquals("Neu", catalogState.getMedia(1L).title());
+        assertEquals(List.of("->Neu"), notifications);
+    }
+
+    /**
+     * Eine verspätete Änderung stellt ein gelöschtes Medium nicht wieder her.
+     */
+    @Test
+    void testPutAfterDeleteIsIgnored() {
+        catalogState.putMedia(media(1L, "Buch"), 10);
+        catalogState.removeMedia(1L, 30);
+        catalogState.putMedia(media(1L, "Buch 2"), 20);
+
+        assertNull(catalogState.getMedia(1L));
+        assertEquals(List.of("->Buch", "Buch>-"), notifications);
+    }
+
+    /**
+     * Nach dem Aufräumen des Protokolls wird wieder jede Änderung übernommen.
+     */
+    @Test
+    void testForgetSequences() {
+        catalogState.removeMedia(1L, 30);
+        catalogState.forgetSequencesUpTo(30);
+        catalogState.putMedia(media(1L, "Buch"), 20);
+
+        assertEquals("Buch", catalogState.getMedia(1L).title());
+    }
+
+    /**
+     * Änderungen ohne Sequenznummer werden immer übernommen.
+     */
+    @Test
+    void testUnsequencedPut() {
+        catalogState.putMedia(media(1L, "Neu"), 20);
+        catalogState.putMedia(media(1L, "Direkt"));
+
+        assertEquals("Direkt", catalogState.getMedia(1L).title());
+        assertEquals(List.of("->Neu", "Neu>Direkt"), notifications);
+    }
+
+    private static MediaEntry media(Long id, String title) {
+        return new MediaEntry(id, title, null, null, null, null, null, null);
+    }
+}
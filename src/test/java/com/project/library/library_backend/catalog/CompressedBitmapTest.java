@@ -0,0 +1,128 @@
+package com.project.library.library_backend.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link CompressedBitmap}.
+ *
+ * Die Operationen werden mit {@link BitSet} verglichen, mit dünn und dicht besetzten Blöcken.
+ */
+public class CompressedBitmapTest {
+
+    /**
+     * Einfügen, Entfernen und Nachschlagen.
+     */
+    @Test
+    void testAddRemoveContains() {
+        CompressedBitmap bitmap = CompressedBitmap.of(5, 3, 70000, 3);
+        assertEquals(3, bitmap.cardinality());
+        assertTrue(bitmap.contains(70000));
+        assertFalse(bitmap.contains(4));
+        assertEquals(List.of(3, 5, 70000), values(bitmap));
+
+        bitmap.remove(70000);
+        bitmap.remove(99);
+        assertEquals(List.of(3, 5), values(bitmap));
+        bitmap.remove(3);
+        bitmap.remove(5);
+        assertTrue(bitmap.isEmpty());
+    }
+
+    /**
+     * Ein Block wechselt an der Grenze zwischen Array und Bitmap, ohne Werte zu verlieren.
+     */
+    @Test
+    void testContainerConversion() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < CompressedBitmap.ARRAY_MAX + 100; i++) {
+            bitmap.add(i * 3);
+            expected.set(i * 3);
+        }
+        assertEquals(expected, toBitSet(bitmap));
+        for (int i = 0; i < 200; i++) {
+            bitmap.remove(i * 3);
+            expected.clear(i * 3);
+        }
+        assertEquals(expected.cardinality(), bitmap.cardinality());
+        assertEquals(expected, toBitSet(bitmap));
+    }
+
+    /**
+     * UND, ODER, UND-NICHT und die Anzahl der Schnittmenge stimmen mit BitSet überein.
+     */
+    @Test
+    void testSetOperations() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            BitSet a = new BitSet();
+            BitSet b = new BitSet();
+            // wechselnd dünne und dichte Blöcke über mehrere Schlüssel
+            CompressedBitmap x = random(random, a, round % 2 == 0 ? 0.02 : 0.5);
+            CompressedBitmap y = random(random, b, round % 3 == 0 ? 0.5 : 0.03);
+
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            BitSet andNot = (BitSet) a.clone();
+            andNot.andNot(b);
+
+            assertEquals(and, toBitSet(CompressedBitmap.and(x, y)));
+            assertEquals(and.cardinality(), CompressedBitmap.andCardinality(x, y));
+            assertEquals(or, toBitSet(CompressedBitmap.or(x, y)));
+            assertEquals(andNot, toBitSet(CompressedBitmap.andNot(x, y)));
+            assertEquals(a, toBitSet(x));
+        }
+    }
+
+    /**
+     * Die Iteration bricht ab, sobald die Aktion false zurückgibt.
+     */
+    @Test
+    void testForEachStops() {
+        CompressedBitmap bitmap = CompressedBitmap.of(1, 2, 3, 100000);
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(value -> {
+            values.add(value);
+            return values.size() < 2;
+        });
+        assertEquals(List.of(1, 2), values);
+    }
+
+    private static CompressedBitmap random(Random random, BitSet expected, double density) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < 3 * 65536; i++) {
+            if (random.nextDouble() < density) {
+                bitmap.add(i);
+                expected.set(i);
+            }
+        }
+        return bitmap;
+    }
+
+    private static BitSet toBitSet(CompressedBitmap bitmap) {
+        BitSet bits = new BitSet();
+        bitmap.forEach(value -> {
+            bits.set(value);
+            return true;
+        });
+        return bits;
+    }
+
+    private static List<Integer> values(CompressedBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(value -> {
+            values.add(value);
+            return true;
+        });
+        return values;
+    }
+}
@@ -0,0 +1,109 @@
+package com.project.library.library_backend.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link CustomerIndex}.
+ *
+ * Der Index wird direkt über einen {@link CatalogState} ohne Spring-Kontext gefüllt.
+ */
+public class CustomerIndexTest {
+
+    private CatalogState catalogState;
+
+    private CustomerIndex customerIndex;
+
+    @BeforeEach
+    void setUp() {
+        catalogState = new CatalogState();
+        customerIndex = new CustomerIndex(catalogState);
+        catalogState.replaceAll(List.of(), List.of(
+                customer(1L, "Hans", "Müller", LocalDate.of(1980, 1, 1), "hans.mueller@example.ch"),
+                customer(2L, "Hans", "Meier", LocalDate.of(1975, 5, 5), "hmeier@example.ch"),
+                customer(3L, "Anna", "Meyer-Schmid", LocalDate.of(1980, 1, 1), "anna@example.ch"),
+                customer(4L, "Hans", "Müller", LocalDate.of(1990, 3, 3), "h.mueller@example.ch")), List.of(), List.of());
+    }
+
+    /**
+     * Präfixe von Vor- und Nachnamen, Umlaute in beiden Schreibweisen.
+     */
+    @Test
+    void testPrefixSearch() {
+        assertEquals(List.of(1L, 4L), ids(customerIndex.search("Mül", null, 10)));
+        assertEquals(List.of(1L, 4L), ids(customerIndex.search("muel hans", null, 10)));
+        assertEquals(List.of(3L), ids(customerIndex.search("schmid", null, 10)));
+    }
+
+    /**
+     * Tippfehler werden über die Kölner Phonetik gefunden, exakte Treffer stehen zuerst.
+     */
+    @Test
+    void testPhoneticSearch() {
+        List<Long> ids = ids(customerIndex.search("Maier", null, 10));
+        assertEquals(List.of(2L, 3L), ids);
+        assertEquals(List.of(2L), ids(customerIndex.search("Meier", null, 10)).subList(0, 1));
+    }
+
+    /**
+     * Das Geburtsdatum grenzt gleichnamige Kunden ein und funktioniert auch ohne Suchtext.
+     */
+    @Test
+    void testBirthdateFilter() {
+        assertEquals(List.of(4L), ids(customerIndex.search("müller", LocalDate.of(1990, 3, 3), 10)));
+        assertEquals(List.of(3L, 1L), ids(customerIndex.search(null, LocalDate.of(1980, 1, 1), 10)));
+        assertTrue(customerIndex.search(null, null, 10).isEmpty());
+    }
+
+    /**
+     * Suche nach E-Mail-Präfix.
+     */
+    @Test
+    void testEmailSearch() {
+        assertEquals(List.of(4L), ids(customerIndex.search("h.mue", null, 10)));
+    }
+
+    /**
+     * Änderungen und Löschungen werden inkrementell übernommen.
+     */
+    @Test
+    void testIncrementalUpdate() {
+        catalogState.putCustomer(customer(2L, "Hans", "Huber", LocalDate.of(1975, 5, 5), "hmeier@example.ch"));
+        assertEquals(List.of(3L), ids(customerIndex.search("meier", null, 10)));
+        assertEquals(List.of(2L), ids(customerIndex.search("hub", null, 10)));
+
+        catalogState.removeCustomer(2L);
+        assertTrue(customerIndex.search("huber", null, 10).isEmpty());
+
+        catalogState.putCustomer(customer(5L, "Jürg", "Schmidt", null, null));
+        assertEquals(List.of(5L, 3L), ids(customerIndex.search("schmidt", null, 10)));
+    }
+
+    /**
+     * Die Normalisierung hängt nicht von der Standard-Locale ab (türkisch: "I" nicht zu "ı").
+     */
+    @Test
+    void testNormalizeIgnoresDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            assertEquals("ida", CustomerIndex.normalize("IDA"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private static CustomerEntry customer(Long id, String firstname, String lastname, LocalDate birthdate, String email) {
+        return new CustomerEntry(id, firstname, lastname, birthdate, email, null);
+    }
+
+    private static List<Long> ids(List<CustomerEntry> customers) {
+        return customers.stream().map(CustomerEntry::id).toList();
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.library.library_backend.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link IsbnIndex}.
+ *
+ * Der Index wird direkt über einen {@link CatalogState} ohne Spring-Kontext gefüllt.
+ */
+public class IsbnIndexTest {
+
+    /**
+     * Exemplare werden gefunden, Änderungen und Löschungen nachgeführt.
+     */
+    @Test
+    void testLookup() {
+        CatalogState catalogState = new CatalogState();
+        IsbnIndex index = new IsbnIndex(catalogState);
+        catalogState.replaceAll(List.of(media(1L, 9783161484100L), media(2L, 9783161484100L), media(3L, null)),
+                List.of(), List.of(), List.of());
+
+        assertArrayEquals(new long[] {1, 2}, index.mediaIds(9783161484100L));
+        assertTrue(index.contains(9783161484100L));
+        assertFalse(index.contains(9780306406157L));
+
+        catalogState.putMedia(media(2L, 9780306406157L));
+        catalogState.putMedia(media(4L, 9780306406157L));
+        catalogState.removeMedia(1L);
+        assertFalse(index.contains(9783161484100L));
+        assertArrayEquals(new long[] {2, 4}, index.mediaIds(9780306406157L));
+    }
+
+    /**
+     * Auch weit über die beim Laden vorgesehene Anzahl hinaus wird jede ISBN gefunden
+     * (der Bloom-Filter wird neu aufgebaut) und fast jede unbekannte sofort verworfen.
+     */
+    @Test
+    void testGrowth() {
+        CatalogState catalogState = new CatalogState();
+        IsbnIndex index = new IsbnIndex(catalogState);
+        catalogState.replaceAll(List.of(), List.of(), List.of(), List.of());
+        for (long id = 1; id <= 20_000; id++) {
+            catalogState.putMedia(media(id, 9_780_000_000_000L + id * 7));
+        }
+        for (long id = 1; id <= 20_000; id++) {
+            assertTrue(index.contains(9_780_000_000_000L + id * 7));
+        }
+
+        BloomFilter filter = new BloomFilter(20_000, 0.01);
+        List<Long> unknown = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            filter.add(9_780_000_000_000L + id * 7);
+            unknown.add(9_790_000_000_000L + id * 7);
+        }
+        long falsePositives = unknown.stream().filter(filter::mightContain).count();
+        assertTrue(falsePositives < 400, "Falsche Treffer: " + falsePositives);
+        unknown.forEach(isbn -> assertFalse(index.contains(isbn)));
+    }
+
+    private static MediaEntry media(Long id, Long isbn) {
+        return new MediaEntry(id, "Titel " + id, null, null, null, isbn, null, null);
+    }
+}
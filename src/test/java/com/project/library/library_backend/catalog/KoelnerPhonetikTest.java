@@ -0,0 +1,66 @@
+package com.project.library.library_backend.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link KoelnerPhonetik}.
+ *
+ * Die erwarteten Codes stammen aus der Beschreibung des Verfahrens (Postel, 1969).
+ */
+public class KoelnerPhonetikTest {
+
+    /**
+     * Bekannte Beispiele inklusive Umlauten und Bindestrich.
+     */
+    @Test
+    void testKnownCodes() {
+        assertEquals("3412", KoelnerPhonetik.encode("Wikipedia"));
+        assertEquals("65752682", KoelnerPhonetik.encode("Müller-Lüdenscheidt"));
+        assertEquals("17863", KoelnerPhonetik.encode("Breschnew"));
+    }
+
+    /**
+     * Gleich klingende Schreibweisen ergeben denselben Code.
+     */
+    @Test
+    void testSimilarNamesShareCode() {
+        String meier = KoelnerPhonetik.encode("Meier");
+        assertEquals(meier, KoelnerPhonetik.encode("Maier"));
+        assertEquals(meier, KoelnerPhonetik.encode("Mayer"));
+        assertEquals(meier, KoelnerPhonetik.encode("Meyer"));
+        assertEquals(KoelnerPhonetik.encode("Schmidt"), KoelnerPhonetik.encode("Schmitt"));
+        assertEquals(KoelnerPhonetik.encode("Müller"), KoelnerPhonetik.encode("Mueller"));
+    }
+
+    /**
+     * ß wird wie "ss" behandelt, unabhängig von der Standard-Locale (türkisch: "i" nicht zu "İ").
+     */
+    @Test
+    void testDefaultLocaleAndSharpS() {
+        assertEquals(KoelnerPhonetik.encode("Strasse"), KoelnerPhonetik.encode("Straße"));
+        String imhof = KoelnerPhonetik.encode("Imhof");
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            assertEquals(imhof, KoelnerPhonetik.encode("imhof"));
+            assertEquals(imhof, KoelnerPhonetik.encode("IMHOF"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    /**
+     * Kontextregeln für C und X.
+     */
+    @Test
+    void testContextRules() {
+        assertEquals("4", KoelnerPhonetik.encode("Ca"));
+        assertEquals("8", KoelnerPhonetik.encode("Ce"));
+        assertEquals("048", KoelnerPhonetik.encode("Axe"));
+        assertEquals("", KoelnerPhonetik.encode("123"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.project.library.library_backend.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link LongHashIndex}.
+ */
+public class LongHashIndexTest {
+
+    /**
+     * Mehrere Werte pro Schlüssel, doppelte Paare werden ignoriert.
+     */
+    @Test
+    void testMultipleValues() {
+        LongHashIndex index = new LongHashIndex(4);
+        index.put(9783161484100L, 3);
+        index.put(9783161484100L, 1);
+        index.put(9783161484100L, 3);
+        index.put(9780306406157L, 2);
+
+        assertEquals(3, index.size());
+        assertArrayEquals(new long[] {1, 3}, index.get(9783161484100L));
+        assertTrue(index.remove(9783161484100L, 1));
+        assertFalse(index.remove(9783161484100L, 1));
+        assertArrayEquals(new long[] {3}, index.get(9783161484100L));
+        assertTrue(index.containsKey(9780306406157L));
+        assertFalse(index.containsKey(42L));
+        assertArrayEquals(new long[0], index.get(42L));
+        assertThrows(IllegalArgumentException.class, () -> index.put(Long.MIN_VALUE, 1));
+    }
+
+    /**
+     * Zufällige Einfüge- und Löschfolgen (mit Wachstum der Tabelle und Zurückschieben beim
+     * Löschen) ergeben denselben Inhalt wie eine gewöhnliche Map.
+     */
+    @Test
+    void testAgainstMap() {
+        Random random = new Random(11);
+        LongHashIndex index = new LongHashIndex(0);
+        Map<Long, TreeSet<Long>> expected = new HashMap<>();
+        List<long[]> pairs = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            if (!pairs.isEmpty() && random.nextInt(3) == 0) {
+                long[] pair = pairs.remove(random.nextInt(pairs.size()));
+                assertEquals(expected.get(pair[0]).remove(pair[1]), index.remove(pair[0], pair[1]));
+            } else {
+                long key = 9_780_000_000_000L + random.nextInt(5_000);
+                long value = random.nextInt(1_000_000);
+                if (expected.computeIfAbsent(key, k -> new TreeSet<>()).add(value)) {
+                    pairs.add(new long[] {key, value});
+                }
+                index.put(key, value);
+            }
+        }
+        assertEquals(pairs.size(), index.size());
+        for (Map.Entry<Long, TreeSet<Long>> entry : expected.entrySet()) {
+            long[] values = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+            assertArrayEquals(values, index.get(entry.getKey()), "Schlüssel " + entry.getKey());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.project.library.library_backend.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link MediaFacetIndex}.
+ *
+ * Der Index wird direkt über einen {@link CatalogState} ohne Spring-Kontext gefüllt.
+ */
+public class MediaFacetIndexTest {
+
+    private CatalogState catalogState;
+
+    private MediaFacetIndex mediaFacetIndex;
+
+    @BeforeEach
+    void setUp() {
+        catalogState = new CatalogState();
+        mediaFacetIndex = new MediaFacetIndex(catalogState);
+        catalogState.replaceAll(List.of(
+                media(1L, "Tolkien", "Fantasy", 5, "12"),
+                media(2L, "Tolkien", "Fantasy", 4, "6"),
+                media(3L, "Pratchett", "Fantasy", 3, "12"),
+                media(4L, "King", "Horror", 4, "18"),
+                media(5L, "Glauser", "Krimi", 5, "12")), List.of(), List.of(loan(100L, 2L)), List.of());
+    }
+
+    /**
+     * Genre = Fantasy, FSK bis 12, mindestens 4 Sterne, verfügbar.
+     */
+    @Test
+    void testCombinedFilter() {
+        MediaFacetIndex.Result result = mediaFacetIndex.query(
+                new MediaFacetIndex.Query(Set.of("Fantasy"), null, null, 12, 4, true), 10, 10);
+        assertEquals(1, result.total());
+        assertEquals(List.of(1L), result.media().stream().map(MediaEntry::id).toList());
+
+        // ohne Verfügbarkeit kommt die ausgeliehene Nummer 2 dazu
+        result = mediaFacetIndex.query(new MediaFacetIndex.Query(Set.of("Fantasy"), null, null, 12, 4, null), 10, 10);
+        assertEquals(List.of(1L, 2L), result.media().stream().map(MediaEntry::id).toList());
+    }
+
+    /**
+     * Die Zähler einer Facette ignorieren den Filter desselben Felds.
+     */
+    @Test
+    void testFacetCounts() {
+        MediaFacetIndex.Result result = mediaFacetIndex.query(
+                new MediaFacetIndex.Query(Set.of("Fantasy"), null, null, null, null, null), 0, 10);
+        assertEquals(3, result.total());
+        assertTrue(result.media().isEmpty());
+        assertEquals(List.of(value("Fantasy", 3), value("Horror", 1), value("Krimi", 1)),
+                result.facets().get(MediaFacetIndex.GENRE));
+        assertEquals(List.of(value("6", 1), value("12", 2)), result.facets().get(MediaFacetIndex.FSK));
+        assertEquals(List.of(value("3", 1), value("4", 1), value("5", 1)), result.facets().get(MediaFacetIndex.RATING));
+        assertEquals(List.of(value("Tolkien", 2), value("Pratchett", 1)), result.facets().get(MediaFacetIndex.AUTHOR));
+        assertEquals(List.of(value(MediaFacetIndex.AVAILABLE, 2), value(MediaFacetIndex.BORROWED, 1)),
+                result.facets().get(MediaFacetIndex.AVAILABILITY));
+    }
+
+    /**
+     * Änderungen an Medien und Ausleihen werden inkrementell übernommen.
+     */
+    @Test
+    void testIncrementalUpdate() {
+        MediaFacetIndex.Query available = new MediaFacetIndex.Query(null, null, null, null, null, true);
+        assertEquals(4, mediaFacetIndex.query(available, 10, 10).total());
+
+        catalogState.removeLoan(100L);
+        catalogState.putLoan(loan(101L, 5L));
+        assertEquals(List.of(1L, 2L, 3L, 4L),
+                mediaFacetIndex.query(available, 10, 10).media().stream().map(MediaEntry::id).toList());
+
+        catalogState.putMedia(media(4L, "King", "Fantasy", 4, "16"));
+        catalogState.removeMedia(3L);
+        MediaFacetIndex.Result result = mediaFacetIndex.query(
+                new MediaFacetIndex.Query(Set.of("Fantasy"), null, null, null, null, null), 10, 10);
+        assertEquals(List.of(1L, 2L, 4L), result.media().stream().map(MediaEntry::id).toList());
+        assertEquals(List.of(value("Fantasy", 3), value("Krimi", 1)), result.facets().get(MediaFacetIndex.GENRE));
+    }
+
+    /**
+     * FSK-Werte mit Zusatz wie "12+" werden beim Filtern und Sortieren wie die Zahl behandelt.
+     */
+    @Test
+    void testFskWithSuffix() {
+        catalogState.putMedia(media(6L, "Funke", "Fantasy", 4, "12+"));
+        catalogState.putMedia(media(7L, "Funke", "Fantasy", 4, "FSK 16"));
+
+        MediaFacetIndex.Result result = mediaFacetIndex.query(
+                new MediaFacetIndex.Query(Set.of("Fantasy"), null, null, 12, null, null), 10, 10);
+        assertEquals(List.of(1L, 2L, 3L, 6L), result.media().stream().map(MediaEntry::id).toList());
+
+        result = mediaFacetIndex.query(new MediaFacetIndex.Query(Set.of("Fantasy"), null, null, null, null, null), 0, 10);
+        assertEquals(List.of(value("6", 1), value("12", 2), value("12+", 1), value("FSK 16", 1)),
+                result.facets().get(MediaFacetIndex.FSK));
+    }
+
+    private static MediaEntry media(Long id, String author, String genre, int rating, String fsk) {
+        return new MediaEntry(id, "Titel " + id, author, genre, rating, null, null, fsk);
+    }
+
+    private static LoanEntry loan(Long id, Long mediaId) {
+        return new LoanEntry(id, 1L, mediaId, LocalDate.now(), LocalDate.now().plusDays(28), null);
+    }
+
+    private static MediaFacetIndex.FacetValue value(String value, int count) {
+        return new MediaFacetIndex.FacetValue(value, count);
+    }
+}
@@ -0,0 +1,110 @@
+package com.project.library.library_backend.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link PostalCodeIndex}.
+ *
+ * Der Index wird direkt über einen {@link CatalogState} ohne Spring-Kontext gefüllt.
+ */
+public class PostalCodeIndexTest {
+
+    private CatalogState catalogState;
+
+    private PostalCodeIndex postalCodeIndex;
+
+    @BeforeEach
+    void setUp() {
+        catalogState = new CatalogState();
+        postalCodeIndex = new PostalCodeIndex(catalogState);
+        catalogState.replaceAll(List.of(), List.of(
+                customer(1L, 10L), customer(2L, 10L), customer(3L, 11L), customer(4L, 12L), customer(5L, 13L)),
+                List.of(), List.of(
+                address(10L, "8000"), address(11L, "8001"), address(12L, "8050"), address(13L, "3000"),
+                address(14L, "8400")));
+    }
+
+    /**
+     * Summe und Aufteilung unter einem Präfix.
+     */
+    @Test
+    void testPrefixQuery() {
+        PostalCodeIndex.Report report = postalCodeIndex.query("80", null, null, 3);
+        assertEquals(3, report.addresses());
+        assertEquals(4, report.customers());
+        assertEquals(List.of(new PostalCodeStats("800", 2, 3), new PostalCodeStats("805", 1, 1)), report.groups());
+
+        PostalCodeIndex.Report all = postalCodeIndex.query("", null, null, 1);
+        assertEquals(5, all.addresses());
+        assertEquals(List.of(new PostalCodeStats("3", 1, 1), new PostalCodeStats("8", 4, 4)), all.groups());
+    }
+
+    /**
+     * Bereichsabfragen berücksichtigen nur PLZ innerhalb der Grenzen.
+     */
+    @Test
+    void testRangeQuery() {
+        PostalCodeIndex.Report report = postalCodeIndex.query("", "8001", "8099", 2);
+        assertEquals(2, report.addresses());
+        assertEquals(2, report.customers());
+        assertEquals(List.of(new PostalCodeStats("80", 2, 2)), report.groups());
+    }
+
+    /**
+     * Änderungen an Kunden und Adressen werden inkrementell übernommen.
+     */
+    @Test
+    void testIncrementalUpdates() {
+        catalogState.putCustomer(customer(6L, 14L));
+        catalogState.putCustomer(customer(1L, 13L));
+        catalogState.putAddress(address(11L, "3001"));
+        catalogState.removeAddress(12L);
+
+        assertEquals(List.of(new PostalCodeStats("8000", 1, 1), new PostalCodeStats("8400", 1, 1)),
+                postalCodeIndex.query("8", null, null, 4).groups());
+        assertEquals(List.of(new PostalCodeStats("3000", 1, 2), new PostalCodeStats("3001", 1, 1)),
+                postalCodeIndex.query("3", null, null, 4).groups());
+        assertEquals(0, postalCodeIndex.query("805", null, null, 3).addresses());
+    }
+
+    /**
+     * Kunden, deren Adresse erst später eintrifft, werden nachträglich gezählt.
+     */
+    @Test
+    void testCustomerBeforeAddress() {
+        catalogState.putCustomer(customer(7L, 20L));
+        assertEquals(0, postalCodeIndex.query("9", null, null, 1).customers());
+        catalogState.putAddress(address(20L, "9000"));
+        assertEquals(1, postalCodeIndex.query("9", null, null, 1).customers());
+    }
+
+    /**
+     * PLZ mit Buchstaben werden unabhängig von der Standard-Locale gross geschrieben
+     * (türkisch: "i" nicht zu "İ").
+     */
+    @Test
+    void testNormalizeIgnoresDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            assertEquals("SW1A1AA", PostalCodeIndex.normalize("sw1a 1aa"));
+            assertEquals("IP12", PostalCodeIndex.normalize("ip1 2"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private static CustomerEntry customer(Long id, Long addressId) {
+        return new CustomerEntry(id, "Vorname", "Nachname", null, null, addressId);
+    }
+
+    private static AddressEntry address(Long id, String plz) {
+        return new AddressEntry(id, "Strasse " + id, "Ort", plz);
+    }
+}
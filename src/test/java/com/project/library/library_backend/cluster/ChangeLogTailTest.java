@@ -0,0 +1,110 @@
+package com.project.library.library_backend.cluster;
+
+import com.project.library.library_backend.catalog.CatalogSnapshotService;
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.catalog.MediaEntry;
+import com.project.library.library_backend.model.ChangeLogEntry;
+import com.project.library.library_backend.model.Media;
+import com.project.library.library_backend.repository.ChangeLogRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link ChangeLogTail}.
+ *
+ * Änderungen einer anderen Instanz werden nachgestellt, indem Entity und Protokolleintrag
+ * direkt gespeichert werden (ohne {@link com.project.library.library_backend.catalog.CatalogChangeTracker}).
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CatalogSnapshotService.class, CatalogState.class})
+@TestPropertySource(properties = "library.catalog.snapshot.enabled=false")
+public class ChangeLogTailTest {
+
+    @Autowired
+    private CatalogState catalogState;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ChangeLogTail tail;
+
+    @BeforeEach
+    void setup() {
+        assertTrue(catalogState.isLoaded());
+        tail = new ChangeLogTail(catalogState, catalogSnapshotService, changeLogRepository, transactionManager);
+        tail.poll();
+    }
+
+    /**
+     * Ein neues Medium einer anderen Instanz erscheint nach dem nächsten Abfragen im Katalog.
+     */
+    @Test
+    void testInsertFromOtherNode() {
+        Media media = mediaRepository.save(new Media("Fremdes Buch", "Autor Y", "Roman", 3, 9781111111111L, "C3", "6"));
+        log("media", media.getId(), "INSERT");
+
+        tail.poll();
+
+        MediaEntry entry = catalogState.getMedia(media.getId());
+        assertNotNull(entry);
+        assertEquals("Fremdes Buch", entry.title());
+    }
+
+    /**
+     * Eine gelöschte Entity wird aus dem Katalog entfernt.
+     */
+    @Test
+    void testDeleteFromOtherNode() {
+        catalogState.putMedia(new MediaEntry(-42L, "Gelöscht", null, null, null, null, null, null));
+        log("media", -42L, "DELETE");
+
+        tail.poll();
+
+        assertNull(catalogState.getMedia(-42L));
+    }
+
+    /**
+     * Bereits verarbeitete Einträge werden nicht erneut angewendet.
+     */
+    @Test
+    void testEntriesAreAppliedOnce() {
+        Media media = mediaRepository.save(new Media("Einmal", "Autor Z", "Sachbuch", 2, 9782222222222L, "D4", "0"));
+        log("media", media.getId(), "INSERT");
+        tail.poll();
+
+        catalogState.putMedia(new MediaEntry(media.getId(), "Lokal", null, null, null, null, null, null));
+        tail.poll();
+
+        assertEquals("Lokal", catalogState.getMedia(media.getId()).title());
+    }
+
+    private void log(String type, Long id, String operation) {
+        ChangeLogEntry entry = new ChangeLogEntry();
+        entry.setEntitytype(type);
+        entry.setEntityid(id);
+        entry.setOperation(operation);
+        entry.setChangedat(LocalDateTime.now());
+        changeLogRepository.save(entry);
+    }
+}
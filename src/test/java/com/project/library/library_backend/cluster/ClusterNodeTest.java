@@ -0,0 +1,174 @@
+package com.project.library.library_backend.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.library.library_backend.repository.ClusterLeaseRepository;
+import com.project.library.library_backend.repository.ClusterMemberRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link ClusterNode}.
+ *
+ * Zwei Instanzen teilen sich die Datenbank; die zuständige Instanz "b" wird durch einen lokalen
+ * HTTP-Server ersetzt, der die weitergeleiteten Anfragen aufzeichnet.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ClusterNodeTest {
+
+    private static final long MEDIA_ID = 987_654_321L;
+
+    private static final String SECRET = "geheim";
+
+    @Autowired
+    private ClusterMemberRepository memberRepository;
+
+    @Autowired
+    private ClusterLeaseRepository leaseRepository;
+
+    private HttpServer peer;
+
+    private final List<Map<String, String>> forwarded = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger caughtUp = new AtomicInteger();
+
+    private ClusterNode nodeA;
+
+    private ClusterNode nodeB;
+
+    @BeforeEach
+    void setup() throws IOException {
+        peer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        peer.createContext("/api/borrowings", exchange -> {
+            forwarded.add(Map.of(
+                    "forwardedBy", String.valueOf(exchange.getRequestHeaders().getFirst(ClusterNode.FORWARDED_HEADER)),
+                    "secret", String.valueOf(exchange.getRequestHeaders().getFirst(ClusterNode.SECRET_HEADER)),
+                    "body", new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+            byte[] response = "{\"id\":42}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(201, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        peer.start();
+
+        ClusterProperties properties = new ClusterProperties();
+        properties.setSecret(SECRET);
+        ObjectMapper objectMapper = new ObjectMapper();
+        nodeB = new ClusterNode(properties, memberRepository, leaseRepository, objectMapper, caughtUp::incrementAndGet, "test-b",
+                "http://localhost:" + peer.getAddress().getPort());
+        nodeA = new ClusterNode(properties, memberRepository, leaseRepository, objectMapper, () -> {}, "test-a",
+                "http://localhost:1");
+        nodeB.heartbeat();
+        assertTrue(nodeB.ownerOf(MEDIA_ID).isEmpty());
+        nodeA.heartbeat();
+        nodeB.heartbeat();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.destroy();
+        nodeB.destroy();
+        peer.stop(0);
+    }
+
+    /**
+     * Eine Ausleihe für ein Medium der anderen Instanz wird mit ID und Geheimnis weitergeleitet;
+     * deren Antwort wird unverändert zurückgegeben.
+     */
+    @Test
+    void testForwardToOwner() {
+        AtomicInteger local = new AtomicInteger();
+
+        ResponseEntity<?> response = nodeA.checkout(MEDIA_ID, null, null, Map.of("note", "x"), () -> {
+            local.incrementAndGet();
+            return ResponseEntity.ok().build();
+        });
+
+        assertEquals(201, response.getStatusCode().value());
+        assertEquals("{\"id\":42}", new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+        assertEquals(0, local.get());
+        assertEquals(1, forwarded.size());
+        assertEquals("test-a", forwarded.get(0).get("forwardedBy"));
+        assertEquals(SECRET, forwarded.get(0).get("secret"));
+        assertEquals("{\"note\":\"x\"}", forwarded.get(0).get("body"));
+    }
+
+    /**
+     * Eine weitergeleitete Anfrage mit gültigem Geheimnis wird lokal entschieden, auch wenn die
+     * Instanz selbst nicht zuständig ist.
+     */
+    @Test
+    void testTrustedForwardIsLocal() {
+        AtomicInteger local = new AtomicInteger();
+
+        ResponseEntity<?> response = nodeA.checkout(MEDIA_ID, "test-b", SECRET, Map.of(), () -> {
+            local.incrementAndGet();
+            return ResponseEntity.ok().build();
+        });
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1, local.get());
+        assertTrue(forwarded.isEmpty());
+    }
+
+    /**
+     * Ein vom Client gesetzter Weiterleitungs-Header ohne passendes Geheimnis wird ignoriert.
+     */
+    @Test
+    void testForgedForwardIsRouted() {
+        AtomicInteger local = new AtomicInteger();
+
+        nodeA.checkout(MEDIA_ID, "test-b", null, Map.of(), () -> {
+            local.incrementAndGet();
+            return ResponseEntity.ok().build();
+        });
+        nodeA.checkout(MEDIA_ID, "test-b", "falsch", Map.of(), () -> {
+            local.incrementAndGet();
+            return ResponseEntity.ok().build();
+        });
+
+        assertEquals(0, local.get());
+        assertEquals(2, forwarded.size());
+    }
+
+    /**
+     * Die Änderungen anderer Instanzen werden nur bei der Übernahme eines Bereichs nachgeholt,
+     * nicht bei jeder Entscheidung mit einer bereits eigenen Lease.
+     */
+    @Test
+    void testCatchUpOnAcquire() {
+        assertEquals(1, caughtUp.get());
+        assertTrue(nodeB.ownerOf(MEDIA_ID).isEmpty());
+        assertEquals(1, caughtUp.get());
+    }
+
+    /**
+     * Journal und Inventurläufe liegen pro node-id in einem eigenen Unterverzeichnis.
+     */
+    @Test
+    void testNodeDirectory() {
+        assertEquals(Path.of("data/journal"), ClusterNode.nodeDirectory(Path.of("data/journal"), ""));
+        assertEquals(Path.of("data/journal/a"), ClusterNode.nodeDirectory(Path.of("data/journal"), "a"));
+        assertThrows(IllegalArgumentException.class, () -> ClusterNode.nodeDirectory(Path.of("data"), "../b"));
+    }
+}
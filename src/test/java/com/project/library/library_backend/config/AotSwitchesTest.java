@@ -0,0 +1,41 @@
+package com.project.library.library_backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link AotSwitches}.
+ *
+ * Die Eigenschaften werden als Map übergeben, ohne Spring-Kontext.
+ */
+public class AotSwitchesTest {
+
+    /**
+     * Nicht gesetzte Schalter gelten mit ihrem Standardwert, "TRUE" wie "true".
+     */
+    @Test
+    void testEvaluate() {
+        Properties values = AotSwitches.evaluate(Map.of("library.cluster.enabled", "TRUE")::get);
+
+        assertEquals("true", values.getProperty("library.cluster.enabled"));
+        assertEquals("false", values.getProperty("library.ratelimit.enabled"));
+        assertEquals("true", values.getProperty("library.idempotency.enabled"));
+    }
+
+    /**
+     * Nur Schalter mit anderem Ergebnis als zur Build-Zeit werden gemeldet.
+     */
+    @Test
+    void testDifferences() {
+        Properties built = AotSwitches.evaluate(Map.<String, String>of()::get);
+
+        assertEquals(List.of(), AotSwitches.differences(built, Map.of("library.cluster.enabled", "false")::get));
+        assertEquals(List.of("library.cluster.enabled (Build: false, Start: true)"),
+                AotSwitches.differences(built, Map.of("library.cluster.enabled", "true")::get));
+    }
+}
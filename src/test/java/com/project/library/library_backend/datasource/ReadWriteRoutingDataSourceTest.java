@@ -0,0 +1,102 @@
+package com.project.library.library_backend.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den {@link ReadWriteRoutingDataSource}.
+ *
+ * Zwei In-Memory-Datenbanken (H2) stehen für die primäre Datenquelle und eine Replica.
+ * Jede enthält eine Tabelle "marker" mit ihrem Namen, so ist sichtbar, wohin eine Abfrage geleitet wurde.
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private ReplicaHealthChecker healthChecker;
+
+    private ReadYourWritesTracker tracker;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        DataSource primary = embedded("primary");
+        DataSource replica = embedded("replica");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica);
+        healthChecker = new ReplicaHealthChecker(replicas, Duration.ofSeconds(5), "");
+        tracker = new ReadYourWritesTracker(Duration.ofSeconds(5));
+
+        DataSource routing = ReadWriteRoutingDataSource.wrap(primary, healthChecker, tracker);
+        jdbcTemplate = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    /**
+     * Lesende Transaktionen gehen an die Replica, schreibende an die primäre Datenquelle.
+     */
+    @Test
+    void testReadOnlyGoesToReplica() {
+        healthChecker.check();
+        assertEquals("replica", readMarker(true));
+        assertEquals("primary", readMarker(false));
+    }
+
+    /**
+     * Ohne gesunde Replica wird auch lesend die primäre Datenquelle verwendet.
+     */
+    @Test
+    void testFallbackWithoutHealthyReplica() {
+        assertEquals("primary", readMarker(true));
+    }
+
+    /**
+     * Nach einem Schreibzugriff liest derselbe Client von der primären Datenquelle.
+     */
+    @Test
+    void testReadYourWrites() {
+        healthChecker.check();
+        tracker.bind("kiosk-1");
+        try {
+            readMarker(false);
+            assertEquals("primary", readMarker(true));
+        } finally {
+            tracker.unbind();
+        }
+
+        tracker.bind("kiosk-2");
+        try {
+            assertEquals("replica", readMarker(true));
+        } finally {
+            tracker.unbind();
+        }
+    }
+
+    private String readMarker(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    private static DataSource embedded(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(20))");
+        jdbc.execute("DELETE FROM marker");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,105 @@
+package com.project.library.library_backend.fines;
+
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.catalog.CustomerEntry;
+import com.project.library.library_backend.catalog.LoanEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link FinesEngine}.
+ *
+ * Die Ausleihen werden direkt über einen {@link CatalogState} ohne Spring-Kontext gefüllt.
+ */
+public class FinesEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 1);
+
+    /**
+     * Gebühr pro Tag, Höchstgebühr und Kulanzfrist (nicht für verlängerte Ausleihen).
+     */
+    @Test
+    void testFinesOfCustomer() {
+        CatalogState catalogState = new CatalogState();
+        FinesEngine engine = new FinesEngine(catalogState, 50, 2000, 2, 1024, Duration.ZERO);
+        catalogState.replaceAll(List.of(), List.of(customer(1L), customer(2L)), List.of(
+                loan(100L, 1L, TODAY.minusDays(10), null),
+                loan(101L, 1L, TODAY.minusDays(10), TODAY.minusDays(20)),
+                loan(102L, 1L, TODAY.minusDays(100), null),
+                loan(103L, 1L, TODAY.plusDays(5), null),
+                loan(104L, 2L, TODAY.minusDays(1), null)), List.of());
+
+        FinesEngine.CustomerFines fines = engine.finesOf(1L, TODAY).orElseThrow();
+        assertEquals(List.of(102L, 100L, 101L), fines.loans().stream().map(FinesEngine.LoanFine::loanId).toList());
+        assertEquals(2000, fines.loans().get(0).fee());
+        assertEquals(8 * 50, fines.loans().get(1).fee());
+        assertEquals(10, fines.loans().get(1).daysOverdue());
+        assertEquals(10 * 50, fines.loans().get(2).fee());
+        assertEquals(2000 + 400 + 500, fines.balance());
+
+        assertEquals(0, engine.finesOf(2L, TODAY).orElseThrow().balance());
+        assertEquals(List.of(), engine.finesOf(3L, TODAY).orElseThrow().loans());
+    }
+
+    /**
+     * Rückgaben werden bei der nächsten Abfrage berücksichtigt; vor dem Laden gibt es kein Ergebnis.
+     */
+    @Test
+    void testRecomputeAfterChange() {
+        CatalogState catalogState = new CatalogState();
+        FinesEngine engine = new FinesEngine(catalogState, 50, -1, 0, 1024, Duration.ZERO);
+        assertTrue(engine.finesOf(1L, TODAY).isEmpty());
+
+        catalogState.replaceAll(List.of(), List.of(customer(1L)),
+                List.of(loan(100L, 1L, TODAY.minusDays(3), null), loan(101L, 1L, TODAY.minusDays(4), null)), List.of());
+        assertEquals(350, engine.finesOf(1L, TODAY).orElseThrow().balance());
+        assertEquals(450, engine.finesOf(1L, TODAY.plusDays(1)).orElseThrow().balance());
+
+        catalogState.removeLoan(101L);
+        assertEquals(150, engine.finesOf(1L, TODAY).orElseThrow().balance());
+    }
+
+    /**
+     * Die parallele Berechnung liefert dasselbe wie eine einfache Schleife über die Ausleihen.
+     */
+    @Test
+    void testParallelMatchesSequential() {
+        Random random = new Random(42);
+        List<LoanEntry> loans = new ArrayList<>();
+        for (long id = 1; id <= 50_000; id++) {
+            LocalDate due = TODAY.plusDays(random.nextInt(200) - 150);
+            loans.add(loan(id, (long) random.nextInt(5_000), due, random.nextInt(4) == 0 ? due.minusDays(28) : null));
+        }
+        LoanColumns columns = LoanColumns.of(loans, 3);
+        int day = (int) TODAY.toEpochDay();
+
+        FinesEngine engine = new FinesEngine(new CatalogState(), 30, 1500, 3, 1000, Duration.ZERO);
+        int[] fees = new int[columns.size];
+        long[] balances = new long[columns.customerIds.length];
+        engine.compute(columns, day, fees, balances);
+
+        long[] expected = new long[5_000];
+        for (LoanEntry loan : loans) {
+            long days = TODAY.toEpochDay() - loan.duedate().toEpochDay() - (loan.extendedOn() == null ? 3 : 0);
+            expected[loan.customerId().intValue()] += Math.min(Math.max(days, 0) * 30, 1500);
+        }
+        for (int c = 0; c < columns.customerIds.length; c++) {
+            assertEquals(expected[(int) columns.customerIds[c]], balances[c], "Kunde " + columns.customerIds[c]);
+        }
+    }
+
+    private static CustomerEntry customer(Long id) {
+        return new CustomerEntry(id, "Vorname", "Nachname " + id, null, null, null);
+    }
+
+    private static LoanEntry loan(Long id, Long customerId, LocalDate duedate, LocalDate extendedOn) {
+        return new LoanEntry(id, customerId, 1L, duedate.minusDays(28), duedate, extendedOn);
+    }
+}
@@ -0,0 +1,110 @@
+package com.project.library.library_backend.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link IdempotencyFilter}.
+ *
+ * Die nachgelagerte Kette liest den Body und gibt ihn mit einer laufenden Nummer zurück, so
+ * dass erkennbar ist, ob eine Anfrage ausgeführt oder wiederholt wurde.
+ */
+public class IdempotencyFilterTest {
+
+    private IdempotencyFilter filter;
+
+    private final AtomicInteger executed = new AtomicInteger();
+
+    private final FilterChain chain = (request, response) -> {
+        byte[] body = request.getInputStream().readAllBytes();
+        HttpServletResponse http = (HttpServletResponse) response;
+        http.setStatus(201);
+        http.setContentType("application/json");
+        http.getOutputStream().write(("{\"call\":" + executed.incrementAndGet() + ",\"body\":"
+                + new String(body, StandardCharsets.UTF_8) + "}").getBytes(StandardCharsets.UTF_8));
+    };
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(new IdempotencyStore(TimeUnit.HOURS.toNanos(1), 100), 1024,
+                Duration.ofSeconds(1), "X-API-Key");
+    }
+
+    /**
+     * Eine Wiederholung erhält die gespeicherte Antwort, ohne erneut ausgeführt zu werden; die
+     * ausgeführte Anfrage sieht den vollständigen Body.
+     */
+    @Test
+    void testReplay() throws Exception {
+        MockHttpServletResponse first = send("k1", "key-a", "{\"mediaId\":1}");
+        MockHttpServletResponse retry = send("k1", "key-a", "{\"mediaId\":1}");
+
+        assertEquals(1, executed.get());
+        assertEquals(201, first.getStatus());
+        assertEquals("{\"call\":1,\"body\":{\"mediaId\":1}}", first.getContentAsString());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+    }
+
+    /**
+     * Derselbe Schlüssel von einem anderen Client ist eine eigene Anfrage.
+     */
+    @Test
+    void testScopedByClient() throws Exception {
+        send("k1", "key-a", "{\"mediaId\":1}");
+        MockHttpServletResponse other = send("k1", "key-b", "{\"mediaId\":1}");
+
+        assertEquals(2, executed.get());
+        assertNull(other.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("{\"call\":2,\"body\":{\"mediaId\":1}}", other.getContentAsString());
+    }
+
+    /**
+     * Derselbe Schlüssel für einen anderen Body wird abgelehnt.
+     */
+    @Test
+    void testDifferentBodyRejected() throws Exception {
+        send("k1", "key-a", "{\"mediaId\":1}");
+        MockHttpServletResponse reused = send("k1", "key-a", "{\"mediaId\":2}");
+
+        assertEquals(1, executed.get());
+        assertEquals(422, reused.getStatus());
+    }
+
+    /**
+     * Anfragen ohne Schlüssel werden immer ausgeführt.
+     */
+    @Test
+    void testWithoutKey() throws Exception {
+        send(null, "key-a", "{}");
+        send(null, "key-a", "{}");
+
+        assertEquals(2, executed.get());
+    }
+
+    private MockHttpServletResponse send(String key, String client, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/borrowings");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.KEY_HEADER, key);
+        }
+        request.addHeader("X-API-Key", client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,125 @@
+package com.project.library.library_backend.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link IdempotencyStore}.
+ *
+ * Die Zeit wird explizit übergeben, damit die Tests nicht von der Systemuhr abhängen.
+ */
+public class IdempotencyStoreTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final IdempotencyStore.StoredResponse CREATED =
+            new IdempotencyStore.StoredResponse(200, "application/json", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * Nur die erste Anfrage wird ausgeführt, Wiederholungen erhalten deren Antwort.
+     */
+    @Test
+    void testDuplicateGetsStoredResponse() {
+        IdempotencyStore store = new IdempotencyStore(60 * SECOND, 100);
+        IdempotencyStore.Claim first = store.claim("k", "POST /api/borrowings", 0);
+        assertTrue(first.first());
+        store.complete(first.entry(), CREATED);
+
+        IdempotencyStore.Claim retry = store.claim("k", "POST /api/borrowings", SECOND);
+        assertFalse(retry.first());
+        assertSame(CREATED, retry.entry().response().join());
+        assertEquals("POST /api/borrowings", retry.entry().fingerprint());
+    }
+
+    /**
+     * Eine Wiederholung während der laufenden ersten Anfrage wartet auf deren Ergebnis.
+     */
+    @Test
+    void testInFlightDuplicateWaits() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(60 * SECOND, 100);
+        IdempotencyStore.Claim first = store.claim("k", "f", 0);
+
+        CompletableFuture<IdempotencyStore.StoredResponse> retry = CompletableFuture.supplyAsync(() -> {
+            IdempotencyStore.Claim claim = store.claim("k", "f", 0);
+            assertFalse(claim.first());
+            return claim.entry().response().join();
+        });
+        Thread.sleep(50);
+        assertFalse(retry.isDone());
+
+        store.complete(first.entry(), CREATED);
+        assertSame(CREATED, retry.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Nach einem verworfenen Versuch wird die nächste Wiederholung wieder ausgeführt.
+     */
+    @Test
+    void testAbandonAllowsRetry() {
+        IdempotencyStore store = new IdempotencyStore(60 * SECOND, 100);
+        IdempotencyStore.Claim first = store.claim("k", "f", 0);
+        IdempotencyStore.Claim waiting = store.claim("k", "f", 0);
+        store.abandon(first.entry());
+
+        assertNull(waiting.entry().response().join());
+        assertTrue(store.claim("k", "f", 0).first());
+    }
+
+    /**
+     * Antworten verfallen nach der Aufbewahrungsdauer.
+     */
+    @Test
+    void testExpiry() {
+        IdempotencyStore store = new IdempotencyStore(60 * SECOND, 100);
+        store.complete(store.claim("a", "f", 0).entry(), CREATED);
+        store.complete(store.claim("b", "f", 30 * SECOND).entry(), CREATED);
+
+        assertFalse(store.claim("a", "f", 59 * SECOND).first());
+        assertTrue(store.claim("a", "f", 60 * SECOND).first());
+        assertFalse(store.claim("b", "f", 60 * SECOND).first());
+    }
+
+    /**
+     * Bei voller Kapazität werden die ältesten Einträge verworfen.
+     */
+    @Test
+    void testBounded() {
+        IdempotencyStore store = new IdempotencyStore(60 * SECOND, 3);
+        for (int i = 0; i < 10; i++) {
+            store.complete(store.claim("k" + i, "f", i).entry(), CREATED);
+            assertTrue(store.size() <= 3);
+        }
+        assertFalse(store.claim("k9", "f", 10).first());
+        assertTrue(store.claim("k0", "f", 10).first());
+    }
+
+    /**
+     * Ein Eintrag, dessen erste Anfrage noch läuft, wird weder bei voller Kapazität noch nach
+     * Ablauf verworfen; eine Wiederholung wartet weiterhin auf ihn.
+     */
+    @Test
+    void testInFlightNotEvicted() {
+        IdempotencyStore store = new IdempotencyStore(60 * SECOND, 2);
+        IdempotencyStore.Claim running = store.claim("a", "f", 0);
+        store.complete(store.claim("b", "f", 1).entry(), CREATED);
+        store.complete(store.claim("c", "f", 2).entry(), CREATED);
+        store.complete(store.claim("d", "f", 3).entry(), CREATED);
+
+        IdempotencyStore.Claim retry = store.claim("a", "f", 4);
+        assertFalse(retry.first());
+        assertSame(running.entry(), retry.entry());
+        assertTrue(store.claim("b", "f", 5).first());
+
+        IdempotencyStore.Claim late = store.claim("a", "f", 61 * SECOND);
+        assertFalse(late.first());
+        assertSame(running.entry(), late.entry());
+
+        store.complete(running.entry(), CREATED);
+        assertTrue(store.claim("a", "f", 121 * SECOND).first());
+    }
+}
@@ -0,0 +1,77 @@
+package com.project.library.library_backend.inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link ExternalSorter}.
+ */
+public class ExternalSorterTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Viele Läufe (mehr als der Fan-in) ergeben dieselbe Reihenfolge wie ein Sortieren im Speicher.
+     */
+    @Test
+    void testSortWithRuns() throws IOException {
+        Random random = new Random(7);
+        List<Scan> scans = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            scans.add(new Scan(random.nextInt(3_000) + 1, random.nextInt(5) == 0 ? null : "R" + random.nextInt(20)));
+        }
+
+        List<Scan> sorted = new ArrayList<>();
+        try (ExternalSorter sorter = new ExternalSorter(directory, 100, 4)) {
+            for (Scan scan : scans) {
+                sorter.add(scan);
+            }
+            assertTrue(sorter.runs() > 0 && sorter.runs() < 4);
+            assertEquals(scans.size(), sorter.size());
+            ExternalSorter.Cursor cursor = sorter.sorted();
+            for (Scan scan = cursor.next(); scan != null; scan = cursor.next()) {
+                sorted.add(scan);
+            }
+        }
+        Collections.sort(scans);
+        assertEquals(scans, sorted);
+        assertEquals(0, files());
+    }
+
+    /**
+     * Passt alles in den Speicher, wird keine Datei geschrieben.
+     */
+    @Test
+    void testInMemory() throws IOException {
+        try (ExternalSorter sorter = new ExternalSorter(directory, 100, 4)) {
+            sorter.add(new Scan(3, "B"));
+            sorter.add(new Scan(1, "A"));
+            sorter.add(new Scan(3, "A"));
+            ExternalSorter.Cursor cursor = sorter.sorted();
+            assertEquals(0, files());
+            assertEquals(new Scan(1, "A"), cursor.peek());
+            assertEquals(new Scan(1, "A"), cursor.next());
+            assertEquals(new Scan(3, "A"), cursor.next());
+            assertEquals(new Scan(3, "B"), cursor.next());
+            assertNull(cursor.next());
+        }
+    }
+
+    private long files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.library.library_backend.inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link InventoryReconciler} und das Einlesen der Scan-Datei.
+ */
+public class InventoryReconcilerTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Jede Art von Abweichung wird gemeldet, richtig eingeordnete Medien nur gezählt.
+     */
+    @Test
+    void testReconcile() throws IOException {
+        String file = """
+                # Regal A
+                1;A
+                2,b
+                2;A
+                9;A
+                4\tC
+                1;A
+                abc;A
+                5
+
+                """;
+        List<InventoryItem> items = new ArrayList<>();
+        InventoryReconciler.Summary summary;
+        try (ExternalSorter sorter = new ExternalSorter(directory, 2, 2)) {
+            long invalid = 0;
+            for (String line : file.lines().map(String::strip).toList()) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                Scan scan = InventoryService.parse(line);
+                if (scan == null) {
+                    invalid++;
+                } else {
+                    sorter.add(scan);
+                }
+            }
+            InventoryReconciler reconciler = new InventoryReconciler(sorter.sorted(), items::add);
+            reconciler.media(1, "Richtig", "A", false);
+            reconciler.media(2, "Zwei Regale", "B", false);
+            reconciler.media(3, "Fehlt", "A", false);
+            reconciler.media(4, "Ausgeliehen und gescannt", "C", true);
+            reconciler.media(5, "Ohne Regal", null, false);
+            reconciler.media(6, "Ausgeliehen", "D", true);
+            summary = reconciler.finish(sorter.size(), invalid);
+        }
+
+        assertEquals(List.of(
+                new InventoryItem(InventoryItem.Status.MISPLACED, 2, "Zwei Regale", "B", List.of("A", "b")),
+                new InventoryItem(InventoryItem.Status.MISSING, 3, "Fehlt", "A", null),
+                new InventoryItem(InventoryItem.Status.LENT_SCANNED, 4, "Ausgeliehen und gescannt", "C", List.of("C")),
+                new InventoryItem(InventoryItem.Status.LENT, 6, "Ausgeliehen", "D", null),
+                new InventoryItem(InventoryItem.Status.UNKNOWN, 9, null, null, List.of("A"))), items);
+        assertEquals(new InventoryReconciler.Summary(7, 1, 6, 4, 1, 1, 1, 1, 1), summary);
+    }
+
+    /**
+     * Medien müssen aufsteigend nach ID kommen.
+     */
+    @Test
+    void testMediaOrder() throws IOException {
+        try (ExternalSorter sorter = new ExternalSorter(directory, 10, 2)) {
+            InventoryReconciler reconciler = new InventoryReconciler(sorter.sorted(), item -> {});
+            reconciler.media(2, "B", null, false);
+            assertThrows(IllegalStateException.class, () -> reconciler.media(2, "B", null, false));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.project.library.library_backend.policy;
+
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.catalog.CustomerEntry;
+import com.project.library.library_backend.catalog.LoanEntry;
+import com.project.library.library_backend.catalog.MediaEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link LoanPolicy}.
+ *
+ * Die Zähler werden direkt über einen {@link CatalogState} ohne Spring-Kontext gefüllt.
+ */
+public class LoanPolicyTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private CatalogState catalogState;
+
+    private LoanPolicy loanPolicy;
+
+    @BeforeEach
+    void setUp() {
+        LoanPolicyProperties properties = new LoanPolicyProperties();
+        properties.setMaxLoans(2);
+        catalogState = new CatalogState();
+        loanPolicy = new LoanPolicy(properties, catalogState);
+        catalogState.replaceAll(List.of(media(10L, "0"), media(11L, "FSK 16"), media(12L, "12"), media(13L, null)),
+                List.of(customer(1L, TODAY.minusYears(30)), customer(2L, TODAY.minusYears(14)), customer(3L, null)),
+                List.of(loan(100L, 1L, 13L, TODAY.plusDays(10))), List.of());
+    }
+
+    /**
+     * Ohne Einschränkungen ist die Ausleihe erlaubt.
+     */
+    @Test
+    void testAllowed() {
+        assertEquals(List.of(), loanPolicy.check(1L, 10L));
+        assertEquals(List.of(), loanPolicy.check(2L, 12L));
+    }
+
+    /**
+     * Unbekannte Kunden und Medien werden ohne weitere Prüfung gemeldet.
+     */
+    @Test
+    void testUnknown() {
+        assertEquals(List.of(LoanPolicy.CUSTOMER_UNKNOWN, LoanPolicy.MEDIA_UNKNOWN), rules(loanPolicy.check(99L, 99L)));
+    }
+
+    /**
+     * Altersfreigabe, auch ohne bekanntes Geburtsdatum.
+     */
+    @Test
+    void testAge() {
+        assertEquals(List.of(LoanPolicy.AGE), rules(loanPolicy.check(2L, 11L)));
+        assertEquals(List.of(LoanPolicy.AGE), rules(loanPolicy.check(3L, 12L)));
+        assertEquals(List.of(), loanPolicy.check(3L, 10L));
+    }
+
+    /**
+     * Alle verletzten Regeln werden gemeinsam gemeldet und folgen den offenen Ausleihen.
+     */
+    @Test
+    void testAllViolations() {
+        catalogState.putLoan(loan(101L, 2L, 10L, TODAY.minusDays(3)));
+        catalogState.putLoan(loan(102L, 2L, 12L, TODAY.plusDays(5)));
+        assertEquals(List.of(LoanPolicy.MAX_LOANS, LoanPolicy.OVERDUE, LoanPolicy.AGE), rules(loanPolicy.check(2L, 11L)));
+        assertEquals(List.of(LoanPolicy.MAX_LOANS, LoanPolicy.OVERDUE, LoanPolicy.MEDIA_BORROWED),
+                rules(loanPolicy.check(2L, 13L)));
+
+        // Rückgabe der überfälligen Ausleihe hebt Sperre und Höchstzahl auf
+        catalogState.removeLoan(101L);
+        assertEquals(List.of(LoanPolicy.MEDIA_BORROWED), rules(loanPolicy.check(1L, 12L)));
+        assertEquals(List.of(), loanPolicy.check(2L, 10L));
+    }
+
+    /**
+     * Deaktivierte Regeln werden nicht geprüft.
+     */
+    @Test
+    void testDisabledRules() {
+        LoanPolicyProperties properties = new LoanPolicyProperties();
+        properties.setAgeCheck(false);
+        properties.setSingleLoanPerMedia(false);
+        LoanPolicy relaxed = new LoanPolicy(properties, catalogState);
+        catalogState.replaceAll(catalogState.allMedia().stream().toList(), catalogState.allCustomers().stream().toList(),
+                catalogState.allLoans().stream().toList(), List.of());
+        assertEquals(List.of(), relaxed.check(2L, 13L));
+    }
+
+    /**
+     * FSK-Angaben werden in ein Mindestalter umgerechnet.
+     */
+    @Test
+    void testRequiredAge() {
+        assertEquals(0, LoanPolicy.requiredAge(null));
+        assertEquals(0, LoanPolicy.requiredAge("ohne"));
+        assertEquals(12, LoanPolicy.requiredAge("12"));
+        assertEquals(18, LoanPolicy.requiredAge("FSK 18"));
+    }
+
+    /**
+     * Für Vormerkungen zählt die Verfügbarkeit des Mediums nicht, alle anderen Regeln schon.
+     */
+    @Test
+    void testCheckHolder() {
+        assertEquals(List.of(LoanPolicy.MEDIA_BORROWED), rules(loanPolicy.check(2L, 13L)));
+        assertEquals(List.of(), loanPolicy.checkHolder(2L, 13L));
+
+        catalogState.putLoan(loan(101L, 2L, 10L, TODAY.minusDays(3)));
+        assertEquals(List.of(LoanPolicy.OVERDUE), rules(loanPolicy.checkHolder(2L, 13L)));
+        assertEquals(List.of(LoanPolicy.AGE), rules(loanPolicy.checkHolder(3L, 11L)));
+    }
+
+    private static List<String> rules(List<LoanViolation> violations) {
+        return violations.stream().map(LoanViolation::rule).toList();
+    }
+
+    private static MediaEntry media(Long id, String fsk) {
+        return new MediaEntry(id, "Titel " + id, "Autor", "Roman", 3, null, null, fsk);
+    }
+
+    private static CustomerEntry customer(Long id, LocalDate birthdate) {
+        return new CustomerEntry(id, "Vorname", "Nachname " + id, birthdate, null, null);
+    }
+
+    private static LoanEntry loan(Long id, Long customerId, Long mediaId, LocalDate duedate) {
+        return new LoanEntry(id, customerId, mediaId, duedate.minusDays(28), duedate, null);
+    }
+}
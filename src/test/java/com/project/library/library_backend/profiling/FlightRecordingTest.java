@@ -0,0 +1,72 @@
+package com.project.library.library_backend.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link FlightRecording}.
+ *
+ * Startet eine Aufzeichnung mit dem Profil library.jfc und prüft, dass die Events der
+ * Bibliothek mit ihren Feldern in der abgelegten Datei stehen.
+ */
+public class FlightRecordingTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testDumpContainsLibraryEvents() throws Exception {
+        FlightRecording recording;
+        try (Reader settings = new InputStreamReader(
+                FlightRecordingTest.class.getResourceAsStream("/jfr/library.jfc"), StandardCharsets.UTF_8)) {
+            recording = new FlightRecording(settings, Duration.ofMinutes(1), 10_000_000, dir);
+        }
+        recording.start();
+        try {
+            CheckoutEvent checkout = new CheckoutEvent();
+            checkout.begin();
+            checkout.customerId = 7;
+            checkout.mediaId = 42;
+            checkout.status = 200;
+            checkout.commit();
+
+            List<String> found = SearchEvent.record("media.title", () -> "Dune",
+                    () -> List.of("Dune", "Dune Messiah"), List::size);
+            assertEquals(2, found.size());
+
+            Path file = recording.dump();
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Files.delete(file);
+
+            RecordedEvent recordedCheckout = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("library.Checkout")).findFirst().orElseThrow();
+            assertEquals(42, recordedCheckout.getLong("mediaId"));
+            assertEquals(200, recordedCheckout.getInt("status"));
+        } finally {
+            recording.destroy();
+        }
+    }
+
+    @Test
+    void testRepositoryRows() {
+        assertEquals(3, RepositoryEventInterceptor.rows(List.of(1, 2, 3), List.class));
+        assertEquals(1, RepositoryEventInterceptor.rows(Optional.of(1), Optional.class));
+        assertEquals(0, RepositoryEventInterceptor.rows(Optional.empty(), Optional.class));
+        assertEquals(5, RepositoryEventInterceptor.rows(5, int.class));
+        assertEquals(-1, RepositoryEventInterceptor.rows(null, void.class));
+        assertEquals(0, RepositoryEventInterceptor.rows(null, Object.class));
+    }
+}
@@ -0,0 +1,46 @@
+package com.project.library.library_backend.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link AdaptiveConcurrencyLimiter}.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    /**
+     * Die Reserve steht nur priorisierten Anfragen zur Verfügung.
+     */
+    @Test
+    void testPriorityReserve() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, 2.0, 0.2);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.tryAcquire(false));
+        }
+        assertFalse(limiter.tryAcquire(false));
+        assertTrue(limiter.tryAcquire(true));
+        assertTrue(limiter.tryAcquire(true));
+        assertFalse(limiter.tryAcquire(true));
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    /**
+     * Steigt die Latenz deutlich über die Grundlatenz, sinkt das Limit.
+     */
+    @Test
+    void testLimitDecreasesWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 5, 200, 2.0, 0.0);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire(false));
+            limiter.release(1_000_000);
+        }
+        int before = limiter.getLimit();
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire(false));
+            limiter.release(50_000_000);
+        }
+        assertTrue(limiter.getLimit() < before, "Limit " + limiter.getLimit() + " nicht unter " + before);
+        assertTrue(limiter.getLimit() >= 5);
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.library.library_backend.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für die Kosten von Anfragen im {@link RateLimiter}.
+ */
+public class RateLimiterTest {
+
+    private final RateLimiter rateLimiter = new RateLimiter(new RateLimitProperties());
+
+    /**
+     * Ganze Tabellen kosten mehr, auch mit Parametern, die nicht einschränken.
+     */
+    @Test
+    void testFullTableCost() {
+        assertEquals(10, rateLimiter.costOf("GET", "/api/media", Set.of()));
+        assertEquals(10, rateLimiter.costOf("GET", "/api/media", Set.of("x")));
+        assertEquals(1, rateLimiter.costOf("GET", "/api/media", Set.of("ids")));
+        assertEquals(1, rateLimiter.costOf("POST", "/api/media", Set.of()));
+        assertEquals(1, rateLimiter.costOf("GET", "/api/media/5", Set.of()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.library.library_backend.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link TokenBucket}.
+ *
+ * Die Zeit wird explizit übergeben, damit die Tests nicht von der Systemuhr abhängen.
+ */
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Ein voller Bucket erlaubt genau seine Kapazität als Burst.
+     */
+    @Test
+    void testBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, bucket.tryConsume(1, 0), "Anfrage " + i);
+        }
+        assertTrue(bucket.tryConsume(1, 0) > 0);
+        assertEquals(0, bucket.available(0));
+    }
+
+    /**
+     * Die Wartezeit entspricht der Zeit bis zur Auffüllung der fehlenden Tokens.
+     */
+    @Test
+    void testRetryAfterMatchesRefill() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+        assertEquals(0, bucket.tryConsume(10, 0));
+        long wait = bucket.tryConsume(5, 0);
+        assertEquals(SECOND / 2, wait);
+        assertEquals(0, bucket.tryConsume(5, wait));
+    }
+
+    /**
+     * Teure Anfragen verbrauchen entsprechend mehr Tokens.
+     */
+    @Test
+    void testWeightedCost() {
+        TokenBucket bucket = new TokenBucket(20, 10, 0);
+        assertEquals(0, bucket.tryConsume(10, 0));
+        assertEquals(10, bucket.available(0));
+        assertEquals(0, bucket.tryConsume(10, 0));
+        assertTrue(bucket.tryConsume(10, 0) > 0);
+        assertTrue(bucket.isFull(2 * SECOND));
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.library.library_backend.reminder;
+
+import com.project.library.library_backend.policy.LoanPolicy;
+import com.project.library.library_backend.policy.LoanViolation;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link HoldNotice}.
+ */
+public class HoldNoticeTest {
+
+    /**
+     * Eine Zuteilung nennt das Fälligkeitsdatum der neuen Ausleihe.
+     */
+    @Test
+    void testAssigned() {
+        HoldNotice notice = new HoldNotice("anna@example.ch", "Anna", "Muster", "Dune", LocalDate.of(2025, 3, 14),
+                List.of());
+
+        assertTrue(notice.assigned());
+        assertEquals("Vormerkung bereit: Dune", notice.subject());
+        assertTrue(notice.text().startsWith("Guten Tag Anna Muster"));
+        assertTrue(notice.text().contains("\"Dune\" wurde Ihnen ausgeliehen und ist fällig am 14.03.2025"));
+    }
+
+    /**
+     * Ein übersprungener Kunde erfährt die Gründe und dass seine Vormerkung bestehen bleibt.
+     */
+    @Test
+    void testSkipped() {
+        HoldNotice notice = new HoldNotice("anna@example.ch", "Anna", "Muster", "Dune", null,
+                List.of(new LoanViolation(LoanPolicy.OVERDUE, "Der Kunde hat überfällige Ausleihen")));
+
+        assertFalse(notice.assigned());
+        assertEquals("Vormerkung zurückgestellt: Dune", notice.subject());
+        assertTrue(notice.text().contains("- Der Kunde hat überfällige Ausleihen\n"));
+        assertTrue(notice.text().contains("Ihre Vormerkung bleibt bestehen."));
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.library.library_backend.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link ReminderDispatcher}.
+ *
+ * Prüft Reihenfolge, Versandrate und den Umgang mit fehlgeschlagenen Nachrichten.
+ */
+public class ReminderDispatcherTest {
+
+    /**
+     * Nach dem Burst werden Nachrichten höchstens mit der konfigurierten Rate versendet.
+     */
+    @Test
+    void testRateLimited() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        ReminderDispatcher dispatcher = new ReminderDispatcher(digest -> received.add(digest.email()), 2, 20, 2);
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < 6; i++) {
+                dispatcher.enqueue(digest("kunde" + i + "@example.ch"));
+            }
+            awaitCount(dispatcher::getSent, 6);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // 2 sofort, 4 weitere mit 20 pro Sekunde
+            assertTrue(millis >= 180, "Dauer " + millis + " ms");
+            assertEquals(List.of("kunde0@example.ch", "kunde1@example.ch", "kunde2@example.ch",
+                    "kunde3@example.ch", "kunde4@example.ch", "kunde5@example.ch"), received);
+            assertEquals(6, dispatcher.getSent());
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    /**
+     * Eine fehlgeschlagene Nachricht wird gezählt und hält die folgenden nicht auf.
+     */
+    @Test
+    void testFailureDoesNotStopDispatch() throws Exception {
+        ReminderDispatcher dispatcher = new ReminderDispatcher(digest -> {
+            if (digest.email().startsWith("fehler")) {
+                throw new IOException("Mail-Server nicht erreichbar");
+            }
+        }, 10, 1000, 10);
+        try {
+            dispatcher.enqueue(digest("fehler@example.ch"));
+            dispatcher.enqueue(digest("ok@example.ch"));
+            awaitCount(() -> dispatcher.getSent() + dispatcher.getFailed(), 2);
+            assertEquals(1, dispatcher.getFailed());
+            assertEquals(1, dispatcher.getSent());
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    /**
+     * Wartet auf die Zähler des Dispatchers; sie werden erst nach dem Versand erhöht, ein
+     * Signal aus dem Sender käme zu früh.
+     */
+    private static void awaitCount(LongSupplier count, long expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count.getAsLong() < expected) {
+            assertTrue(System.nanoTime() - deadline < 0, "Zähler " + count.getAsLong() + " statt " + expected);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private static ReminderDigest digest(String email) {
+        return new ReminderDigest(email, List.of(
+                new ReminderLoan(1L, LocalDate.of(2025, 3, 14), 1L, email, "Anna", "Muster", "Dune")));
+    }
+}
@@ -0,0 +1,75 @@
+package com.project.library.library_backend.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für das Zusammenfassen von Erinnerungen in {@link ReminderService}.
+ */
+public class ReminderServiceTest {
+
+    private static final LocalDate DUE = LocalDate.of(2025, 3, 14);
+
+    /**
+     * Ausleihen derselben Adresse ergeben eine Nachricht, unabhängig von Gross-/Kleinschreibung
+     * und vom Kunden; Kunden ohne Adresse werden übersprungen.
+     */
+    @Test
+    void testGroupByEmail() {
+        List<ReminderDigest> digests = ReminderService.group(List.of(
+                loan(1L, 10L, "anna@example.ch", "Dune"),
+                loan(2L, 11L, "max@example.ch", "Faust"),
+                loan(3L, 10L, "Anna@Example.ch ", "Emil und die Detektive"),
+                loan(4L, 12L, null, "Momo"),
+                loan(5L, 13L, "anna@example.ch", "Heidi")));
+
+        assertEquals(2, digests.size());
+        ReminderDigest anna = digests.get(0);
+        assertEquals("anna@example.ch", anna.email());
+        assertEquals(List.of(1L, 3L, 5L), anna.loans().stream().map(ReminderLoan::borrowingId).sorted().toList());
+        assertEquals(List.of("Dune", "Emil und die Detektive", "Heidi"),
+                anna.loans().stream().map(ReminderLoan::title).toList());
+        assertEquals("max@example.ch", digests.get(1).email());
+    }
+
+    /**
+     * Der Text enthält alle Titel mit Fälligkeitsdatum.
+     */
+    @Test
+    void testDigestText() {
+        ReminderDigest digest = ReminderService.group(List.of(
+                loan(1L, 10L, "anna@example.ch", "Dune"),
+                loan(2L, 10L, "anna@example.ch", "Heidi"))).get(0);
+
+        assertEquals("Erinnerung: 2 Rückgaben bald fällig", digest.subject());
+        assertTrue(digest.text().contains("- Dune (fällig am 14.03.2025)"));
+        assertTrue(digest.text().contains("- Heidi (fällig am 14.03.2025)"));
+    }
+
+    /**
+     * Die Ausleihen des letzten Kunden eines Blocks werden zurückgehalten, damit sie mit denen
+     * aus dem nächsten Block in eine Nachricht kommen.
+     */
+    @Test
+    void testHoldBackLastCustomer() {
+        List<ReminderLoan> loans = new ArrayList<>(List.of(
+                loan(1L, 10L, "anna@example.ch", "Dune"),
+                loan(2L, 11L, "max@example.ch", "Faust"),
+                loan(3L, 11L, "max@example.ch", "Momo")));
+
+        List<ReminderLoan> heldBack = ReminderService.holdBackLastCustomer(loans);
+
+        assertEquals(List.of(2L, 3L), heldBack.stream().map(ReminderLoan::borrowingId).toList());
+        assertEquals(List.of(1L), loans.stream().map(ReminderLoan::borrowingId).toList());
+        assertEquals(List.of(), ReminderService.holdBackLastCustomer(new ArrayList<>()));
+    }
+
+    private static ReminderLoan loan(Long id, Long customerId, String email, String title) {
+        return new ReminderLoan(id, DUE, customerId, email, "Anna", "Muster", title);
+    }
+}
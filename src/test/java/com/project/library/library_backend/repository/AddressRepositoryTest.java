@@ -65,6 +65,18 @@ public class AddressRepositoryTest {
         assertEquals("8001", updated.getPlz());
     }
 
+    /**
+     * Testet die Suche nach Strasse und Stadt.
+     */
+    @Test
+    void testFindByStreetAndCity() {
+        Address saved = addressRepository.save(address);
+        Optional<Address> found = addressRepository.findByStreetAndCity("Hauptstrasse 1", "Zürich");
+        assertTrue(found.isPresent());
+        assertEquals(saved.getId(), found.get().getId());
+        assertFalse(addressRepository.findByStreetAndCity("Hauptstrasse 1", "Bern").isPresent());
+    }
+
     /**
      * Testet das Löschen einer Adresse.
      */
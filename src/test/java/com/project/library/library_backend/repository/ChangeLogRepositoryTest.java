@@ -0,0 +1,82 @@
+package com.project.library.library_backend.repository;
+
+import com.project.library.library_backend.model.ChangeLogEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für das ChangeLogRepository.
+ *
+ * Prüft die Abfrage der Änderungen pro Entity-Art, auf der die Delta-Synchronisation aufbaut.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ChangeLogRepositoryTest {
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    /**
+     * Nur Änderungen der angefragten Art im Bereich (since, upTo], aufsteigend und seitenweise.
+     */
+    @Test
+    void testFindChanges() {
+        ChangeLogEntry first = changeLogRepository.save(entry("media", 1L, "INSERT"));
+        changeLogRepository.save(entry("customer", 1L, "INSERT"));
+        ChangeLogEntry second = changeLogRepository.save(entry("media", 2L, "UPDATE"));
+        ChangeLogEntry third = changeLogRepository.save(entry("media", 1L, "DELETE"));
+        long since = first.getSeq() - 1;
+
+        List<Long> all = changeLogRepository.findChanges("media", since, third.getSeq(), PageRequest.of(0, 10))
+                .stream().map(ChangeLogEntry::getSeq).toList();
+        assertEquals(List.of(first.getSeq(), second.getSeq(), third.getSeq()), all);
+
+        List<Long> page = changeLogRepository.findChanges("media", since, third.getSeq(), PageRequest.of(0, 2))
+                .stream().map(ChangeLogEntry::getSeq).toList();
+        assertEquals(List.of(first.getSeq(), second.getSeq()), page);
+
+        List<Long> bounded = changeLogRepository.findChanges("media", first.getSeq(), second.getSeq(), PageRequest.of(0, 10))
+                .stream().map(ChangeLogEntry::getSeq).toList();
+        assertEquals(List.of(second.getSeq()), bounded);
+
+        assertEquals(third.getSeq(), changeLogRepository.findMaxSeq());
+        assertTrue(changeLogRepository.findMinSeq() <= first.getSeq());
+    }
+
+    /**
+     * Aufräumen: Einträge bis zur Grenze blockweise löschen, bis keiner mehr betroffen ist.
+     */
+    @Test
+    void testDeleteUpTo() {
+        ChangeLogEntry first = changeLogRepository.save(entry("media", 1L, "INSERT"));
+        ChangeLogEntry second = changeLogRepository.save(entry("media", 1L, "UPDATE"));
+        ChangeLogEntry third = changeLogRepository.save(entry("media", 1L, "DELETE"));
+        changeLogRepository.flush();
+
+        assertEquals(1, changeLogRepository.deleteUpTo(second.getSeq(), 1));
+        int deleted;
+        while ((deleted = changeLogRepository.deleteUpTo(second.getSeq(), 1)) > 0) {
+            assertEquals(1, deleted);
+        }
+        assertTrue(changeLogRepository.findById(first.getSeq()).isEmpty());
+        assertTrue(changeLogRepository.findById(second.getSeq()).isEmpty());
+        assertEquals(third.getSeq(), changeLogRepository.findMinSeq());
+    }
+
+    private static ChangeLogEntry entry(String type, Long id, String operation) {
+        ChangeLogEntry entry = new ChangeLogEntry();
+        entry.setEntitytype(type);
+        entry.setEntityid(id);
+        entry.setOperation(operation);
+        entry.setChangedat(LocalDateTime.now());
+        return entry;
+    }
+}
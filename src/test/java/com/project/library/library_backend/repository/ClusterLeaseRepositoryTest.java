@@ -0,0 +1,59 @@
+package com.project.library.library_backend.repository;
+
+import com.project.library.library_backend.model.ClusterLease;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für das ClusterLeaseRepository.
+ *
+ * Prüft, dass eine gültige Lease nur von ihrem Inhaber verlängert und erst nach Ablauf von
+ * einer anderen Instanz übernommen werden kann. Abgelaufene Leases entstehen mit negativer Dauer,
+ * da der Ablauf nach der Uhr der Datenbank berechnet wird.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ClusterLeaseRepositoryTest {
+
+    private static final long RANGE = 987654L;
+
+    private static final long SECOND = 1_000_000L;
+
+    @Autowired
+    private ClusterLeaseRepository clusterLeaseRepository;
+
+    @Test
+    void testAcquireAndRenew() {
+        assertEquals(1, clusterLeaseRepository.insertLease(RANGE, "a", 10 * SECOND));
+
+        // Gültige Lease: andere Instanz kann nicht übernehmen, Inhaber kann verlängern
+        assertEquals(0, clusterLeaseRepository.acquire(RANGE, "b", 10 * SECOND));
+        assertEquals(1, clusterLeaseRepository.acquire(RANGE, "a", 20 * SECOND));
+        assertTrue(clusterLeaseRepository.renew("a", 30 * SECOND) >= 1);
+        assertEquals(0, clusterLeaseRepository.renew("b", 30 * SECOND));
+
+        // Abgelaufen (nach der Uhr der Datenbank): b übernimmt, a kann nicht mehr verlängern
+        assertEquals(1, clusterLeaseRepository.acquire(RANGE, "a", -SECOND));
+        assertEquals(0, clusterLeaseRepository.renew("a", 10 * SECOND));
+        assertEquals(1, clusterLeaseRepository.acquire(RANGE, "b", 10 * SECOND));
+
+        assertEquals(0, clusterLeaseRepository.release("a"));
+        assertTrue(clusterLeaseRepository.release("b") >= 1);
+        assertTrue(clusterLeaseRepository.findById(RANGE).isEmpty());
+    }
+
+    @Test
+    void testFindValid() {
+        clusterLeaseRepository.insertLease(RANGE, "a", 10 * SECOND);
+        clusterLeaseRepository.insertLease(RANGE + 1, "a", -SECOND);
+
+        assertTrue(clusterLeaseRepository.findValid().stream()
+                .map(ClusterLease::getRangeid).anyMatch(id -> id == RANGE));
+        assertTrue(clusterLeaseRepository.findValid().stream()
+                .map(ClusterLease::getRangeid).noneMatch(id -> id == RANGE + 1));
+    }
+}
@@ -0,0 +1,51 @@
+package com.project.library.library_backend.repository;
+
+import com.project.library.library_backend.model.Hold;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für das HoldRepository.
+ *
+ * Prüft die Reihenfolge der Warteschlange und das Löschen einer Vormerkung bei der Zuteilung.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class HoldRepositoryTest {
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    /**
+     * Vormerkungen werden in der Reihenfolge ihrer Erstellung geliefert.
+     */
+    @Test
+    void testQueueOrder() {
+        Hold first = holdRepository.save(new Hold(1L, 10L));
+        Hold second = holdRepository.save(new Hold(1L, 11L));
+        Hold other = holdRepository.save(new Hold(2L, 10L));
+
+        List<Long> all = holdRepository.findAllByOrderByIdAsc().stream().map(Hold::getId).toList();
+        assertEquals(List.of(first.getId(), second.getId(), other.getId()), all);
+
+        List<Long> ofCustomer = holdRepository.findByCustomeridOrderByIdAsc(10L).stream().map(Hold::getId).toList();
+        assertEquals(List.of(first.getId(), other.getId()), ofCustomer);
+    }
+
+    /**
+     * Eine Vormerkung kann nur einmal gelöscht (zugeteilt oder storniert) werden.
+     */
+    @Test
+    void testDeleteHoldOnlyOnce() {
+        Hold hold = holdRepository.save(new Hold(3L, 12L));
+        assertEquals(1, holdRepository.deleteHold(hold.getId()));
+        assertEquals(0, holdRepository.deleteHold(hold.getId()));
+        assertFalse(holdRepository.findById(hold.getId()).isPresent());
+    }
+}
@@ -74,4 +74,15 @@ public class MediaRepositoryTest {
         mediaRepository.deleteById(saved.getId());
         assertFalse(mediaRepository.findById(saved.getId()).isPresent());
     }
+
+    /**
+     * Testet die Suche und die Prüfung auf Dubletten anhand der ISBN.
+     */
+    @Test
+    void testFindByIsbn() {
+        Media saved = mediaRepository.save(media);
+        assertTrue(mediaRepository.existsByIsbn(1234567890123L));
+        assertTrue(mediaRepository.findByIsbnOrderByIdAsc(1234567890123L).stream()
+                .anyMatch(found -> found.getId().equals(saved.getId())));
+    }
 }
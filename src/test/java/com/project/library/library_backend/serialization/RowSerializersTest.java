@@ -0,0 +1,151 @@
+package com.project.library.library_backend.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.library.library_backend.model.Address;
+import com.project.library.library_backend.model.Borrowing;
+import com.project.library.library_backend.model.Customer;
+import com.project.library.library_backend.model.Media;
+import com.project.library.library_backend.repository.AddressRepository;
+import com.project.library.library_backend.repository.BorrowingRepository;
+import com.project.library.library_backend.repository.CustomerRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link RowSerializers}.
+ *
+ * Die direkt aus dem ResultSet geschriebenen Objekte müssen dem entsprechen, was Jackson aus
+ * den Entities erzeugt (wie bei GET /api/media, /api/customers und /api/borrowings):
+ * gleiche Feldnamen, null-Felder weggelassen, Daten als yyyy-MM-dd.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureJson
+@Import(JsonStreamer.class)
+public class RowSerializersTest {
+
+    @Autowired
+    private JsonStreamer jsonStreamer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    private Media media;
+
+    private Media mediaWithoutOptionals;
+
+    private Customer customer;
+
+    private Customer customerWithoutOptionals;
+
+    private Borrowing borrowing;
+
+    private Borrowing extendedBorrowing;
+
+    @BeforeEach
+    void setup() {
+        Address address = addressRepository.save(new Address("Testweg 5", "Bern", "3000"));
+
+        customer = new Customer("Sarah", "Schmid", LocalDate.of(1990, 5, 10), "sarah@schmid.ch");
+        customer.setAddress(address);
+        customer = customerRepository.save(customer);
+        Customer other = new Customer("Tim", "Keller", null, null);
+        other.setAddress(new Address("Hauptgasse 1", "Thun", null));
+        customerWithoutOptionals = customerRepository.save(other);
+
+        media = mediaRepository.save(new Media("Testbuch", "Max Mustermann", "Roman", 5, 9781234567890L, "R1", "12"));
+        mediaWithoutOptionals = mediaRepository.save(new Media("Ohne ISBN", null, null, 0, null, null, null));
+
+        borrowing = borrowingRepository.save(new Borrowing(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1),
+                null, customer, media));
+        extendedBorrowing = borrowingRepository.save(new Borrowing(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 1, 15),
+                LocalDate.of(2024, 2, 10), customerWithoutOptionals, mediaWithoutOptionals));
+        borrowingRepository.flush();
+    }
+
+    /**
+     * Medien stimmen mit der Jackson-Ausgabe überein, auch wenn optionale Felder fehlen.
+     */
+    @Test
+    void testMediaMatchesJackson() throws IOException {
+        JsonNode rows = stream(RowSerializers.MEDIA);
+
+        assertEquals(jackson(media), find(rows, media.getId()));
+        assertEquals(jackson(mediaWithoutOptionals), find(rows, mediaWithoutOptionals.getId()));
+    }
+
+    /**
+     * Kunden stimmen mit der Jackson-Ausgabe überein, auch ohne Geburtsdatum, E-Mail und PLZ.
+     */
+    @Test
+    void testCustomersMatchJackson() throws IOException {
+        JsonNode rows = stream(RowSerializers.CUSTOMERS);
+
+        assertEquals(jackson(customer), find(rows, customer.getId()));
+        assertEquals(jackson(customerWithoutOptionals), find(rows, customerWithoutOptionals.getId()));
+    }
+
+    /**
+     * Ausleihen stimmen inklusive Kunde, Adresse und Medium mit der Jackson-Ausgabe überein.
+     */
+    @Test
+    void testBorrowingsMatchJackson() throws IOException {
+        JsonNode rows = stream(RowSerializers.BORROWINGS);
+
+        assertEquals(jackson(borrowing), find(rows, borrowing.getId()));
+        assertEquals(jackson(extendedBorrowing), find(rows, extendedBorrowing.getId()));
+    }
+
+    private JsonNode stream(RowSerializer serializer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        jsonStreamer.write(serializer, JsonStreamer.Format.JSON, out);
+        JsonNode rows = objectMapper.readTree(out.toByteArray());
+        assertTrue(rows.isArray());
+        return rows;
+    }
+
+    /**
+     * Serialisiert über Text, damit Zahlen gleich typisiert sind wie beim Einlesen des Streams.
+     */
+    private JsonNode jackson(Object entity) throws IOException {
+        return objectMapper.readTree(objectMapper.writeValueAsString(entity));
+    }
+
+    private static JsonNode find(JsonNode rows, long id) {
+        for (JsonNode row : rows) {
+            if (row.path("id").asLong() == id) {
+                return row;
+            }
+        }
+        fail("Zeile " + id + " fehlt");
+        return null;
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.library.library_backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link BatchLookup}.
+ *
+ * Das Repository ist ein Proxy, der die IDs jedes findAllById-Aufrufs festhält und nur die
+ * positiven IDs "findet", in umgekehrter Reihenfolge wie eine Datenbank ohne ORDER BY.
+ */
+public class BatchLookupTest {
+
+    private record Item(Long id) {}
+
+    private final List<List<Long>> calls = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private final JpaRepository<Item, Long> repository = (JpaRepository<Item, Long>) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] {JpaRepository.class}, (proxy, method, args) -> {
+                if (!method.getName().equals("findAllById")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                List<Long> ids = new ArrayList<>();
+                ((Iterable<Long>) args[0]).forEach(ids::add);
+                calls.add(ids);
+                List<Item> found = new ArrayList<>();
+                for (int i = ids.size() - 1; i >= 0; i--) {
+                    if (ids.get(i) > 0) {
+                        found.add(new Item(ids.get(i)));
+                    }
+                }
+                return found;
+            });
+
+    /**
+     * Das Ergebnis folgt der angefragten Reihenfolge; fehlende IDs werden übersprungen.
+     */
+    @Test
+    void testRequestOrder() {
+        List<Item> items = BatchLookup.findAllInOrder(repository, List.of(5L, -1L, 3L, 9L), Item::id);
+
+        assertEquals(List.of(5L, 3L, 9L), items.stream().map(Item::id).toList());
+        assertEquals(1, calls.size());
+    }
+
+    /**
+     * Doppelte IDs und null werden nur einmal bzw. gar nicht abgefragt und geliefert.
+     */
+    @Test
+    void testDuplicates() {
+        List<Item> items = BatchLookup.findAllInOrder(repository, Arrays.asList(7L, 2L, 7L, null, 2L, 4L), Item::id);
+
+        assertEquals(List.of(7L, 2L, 4L), items.stream().map(Item::id).toList());
+        assertEquals(List.of(List.of(7L, 2L, 4L)), calls);
+    }
+
+    /**
+     * Mehr als {@link BatchLookup#CHUNK_SIZE} IDs werden auf mehrere Abfragen verteilt; das
+     * Ergebnis bleibt über die Blockgrenzen hinweg in Anfragereihenfolge.
+     */
+    @Test
+    void testChunks() {
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, 2 * BatchLookup.CHUNK_SIZE + 1).boxed().toList());
+        ids.add(1L);
+
+        List<Item> items = BatchLookup.findAllInOrder(repository, ids, Item::id);
+
+        assertEquals(List.of(BatchLookup.CHUNK_SIZE, BatchLookup.CHUNK_SIZE, 1),
+                calls.stream().map(List::size).toList());
+        assertEquals(ids.subList(0, ids.size() - 1), items.stream().map(Item::id).toList());
+    }
+
+    /**
+     * Genau {@link BatchLookup#CHUNK_SIZE} IDs ergeben eine Abfrage, ohne IDs keine.
+     */
+    @Test
+    void testChunkBoundary() {
+        BatchLookup.findAllInOrder(repository, LongStream.rangeClosed(1, BatchLookup.CHUNK_SIZE).boxed().toList(),
+                Item::id);
+        assertEquals(1, calls.size());
+
+        calls.clear();
+        assertTrue(BatchLookup.findAllInOrder(repository, List.of(), Item::id).isEmpty());
+        assertTrue(calls.isEmpty());
+    }
+}
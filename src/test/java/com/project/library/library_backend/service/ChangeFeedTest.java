@@ -0,0 +1,161 @@
+package com.project.library.library_backend.service;
+
+import com.project.library.library_backend.catalog.CatalogChangeTracker;
+import com.project.library.library_backend.model.ChangeLogEntry;
+import com.project.library.library_backend.model.Media;
+import com.project.library.library_backend.repository.ChangeLogRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link ChangeFeed}.
+ *
+ * Die Protokolleinträge werden direkt gespeichert (ohne {@link CatalogChangeTracker}).
+ *
+ * Tests:
+ * - Einstieg: Ohne Token wird nur das aktuelle Token geliefert.
+ * - Zusammenfassen: Mehrere Änderungen an einer Entity ergeben einen Eintrag mit dem aktuellen Stand.
+ * - Tombstones: Gelöschte Entities erscheinen nur als ID.
+ * - Seiten: Das Token einer vollen Seite zeigt auf ihren letzten Eintrag.
+ * - 410: Nach dem Aufräumen des Protokolls ist ein altes Token ungültig.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ChangeFeed.class)
+public class ChangeFeedTest {
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    private long start;
+
+    @BeforeEach
+    void setup() {
+        start = changeFeed.changes(CatalogChangeTracker.MEDIA, null, 100, mediaRepository, Media::getId)
+                .orElseThrow().token();
+    }
+
+    /**
+     * Ohne Token gibt es keine Änderungen, nur das Token des aktuellen Stands.
+     */
+    @Test
+    void testInitialToken() {
+        ChangeLogEntry entry = log(CatalogChangeTracker.MEDIA, -1L, "DELETE");
+
+        ChangeFeed.Page<Media> page = changes(null, 100).orElseThrow();
+
+        assertEquals(entry.getSeq(), page.token());
+        assertFalse(page.more());
+        assertTrue(page.changed().isEmpty());
+        assertTrue(page.deleted().isEmpty());
+    }
+
+    /**
+     * Einfügen und mehrfaches Ändern derselben Entity ergeben einen Eintrag mit dem aktuellen
+     * Stand; gelöschte Entities erscheinen als Tombstone, andere Entity-Arten gar nicht.
+     */
+    @Test
+    void testChangedAndDeleted() {
+        Media media = mediaRepository.save(new Media("Neu", "Autor N", "Roman", 3, null, "N1", "0"));
+        log(CatalogChangeTracker.MEDIA, media.getId(), "INSERT");
+        media.setTitle("Geändert");
+        mediaRepository.saveAndFlush(media);
+        log(CatalogChangeTracker.MEDIA, media.getId(), "UPDATE");
+        log(CatalogChangeTracker.MEDIA, -42L, "DELETE");
+        ChangeLogEntry last = log(CatalogChangeTracker.CUSTOMER, -43L, "DELETE");
+
+        ChangeFeed.Page<Media> page = changes(start, 100).orElseThrow();
+
+        assertFalse(page.more());
+        assertEquals(List.of(media.getId()), page.changed().stream().map(Media::getId).toList());
+        assertEquals("Geändert", page.changed().get(0).getTitle());
+        assertEquals(List.of(-42L), page.deleted());
+        assertEquals(last.getSeq(), page.token());
+
+        ChangeFeed.Page<Media> next = changes(page.token(), 100).orElseThrow();
+        assertTrue(next.changed().isEmpty());
+        assertTrue(next.deleted().isEmpty());
+        assertEquals(page.token(), next.token());
+    }
+
+    /**
+     * Eine volle Seite meldet weitere Änderungen; ihr Token zeigt auf den letzten gelieferten
+     * Eintrag, so dass die nächste Seite lückenlos anschliesst.
+     */
+    @Test
+    void testPaging() {
+        log(CatalogChangeTracker.MEDIA, -1L, "DELETE");
+        ChangeLogEntry second = log(CatalogChangeTracker.MEDIA, -2L, "DELETE");
+        ChangeLogEntry third = log(CatalogChangeTracker.MEDIA, -3L, "DELETE");
+
+        ChangeFeed.Page<Media> page = changes(start, 2).orElseThrow();
+        assertTrue(page.more());
+        assertEquals(List.of(-1L, -2L), page.deleted());
+        assertEquals(second.getSeq(), page.token());
+
+        ChangeFeed.Page<Media> rest = changes(page.token(), 2).orElseThrow();
+        assertFalse(rest.more());
+        assertEquals(List.of(-3L), rest.deleted());
+        assertEquals(third.getSeq(), rest.token());
+    }
+
+    /**
+     * Tokens vor dem aufgeräumten Teil des Protokolls oder nach seinem Ende sind ungültig (410);
+     * ein Token direkt vor dem ältesten verbliebenen Eintrag bleibt gültig.
+     */
+    @Test
+    void testPrunedTokenIsGone() {
+        ChangeLogEntry first = log(CatalogChangeTracker.MEDIA, -1L, "DELETE");
+        ChangeLogEntry second = log(CatalogChangeTracker.MEDIA, -2L, "DELETE");
+        log(CatalogChangeTracker.MEDIA, -3L, "DELETE");
+        prune(second.getSeq());
+
+        assertTrue(changes(first.getSeq() - 1, 100).isEmpty());
+        assertEquals(List.of(-3L), changes(second.getSeq(), 100).orElseThrow().deleted());
+        assertTrue(changes(changeLogRepository.findMaxSeq() + 1, 100).isEmpty());
+        assertTrue(changes(-1L, 100).isEmpty());
+    }
+
+    private Optional<ChangeFeed.Page<Media>> changes(Long since, int limit) {
+        return changeFeed.changes(CatalogChangeTracker.MEDIA, since, limit, mediaRepository, Media::getId);
+    }
+
+    private ChangeLogEntry log(String type, Long id, String operation) {
+        ChangeLogEntry entry = new ChangeLogEntry();
+        entry.setEntitytype(type);
+        entry.setEntityid(id);
+        entry.setOperation(operation);
+        entry.setChangedat(LocalDateTime.now());
+        return changeLogRepository.saveAndFlush(entry);
+    }
+
+    /**
+     * Löscht das Protokoll bis und mit {@code upTo}, wie {@link ChangeLogRetention}.
+     */
+    private void prune(long upTo) {
+        int deleted;
+        do {
+            deleted = changeLogRepository.deleteUpTo(upTo, 1000);
+        } while (deleted > 0);
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.library.library_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für die DDL-Erzeugung von {@link HistoryPartitionMaintenance}.
+ */
+public class HistoryPartitionMaintenanceTest {
+
+    /**
+     * Die erste Aufteilung erzeugt eine Partition pro Jahr und eine Partition für alles Spätere.
+     */
+    @Test
+    void testPartitionTableSql() {
+        assertEquals("ALTER TABLE borrowing_history PARTITION BY RANGE COLUMNS(dateborrowed) ("
+                        + "PARTITION p2025 VALUES LESS THAN ('2026-01-01'), "
+                        + "PARTITION p2026 VALUES LESS THAN ('2027-01-01'), "
+                        + "PARTITION pmax VALUES LESS THAN (MAXVALUE))",
+                HistoryPartitionMaintenance.partitionTableSql(2025, 2026));
+    }
+
+    /**
+     * Neue Jahre werden aus der Partition pmax herausgelöst.
+     */
+    @Test
+    void testAddPartitionsSql() {
+        assertEquals("ALTER TABLE borrowing_history REORGANIZE PARTITION pmax INTO ("
+                        + "PARTITION p2027 VALUES LESS THAN ('2028-01-01'), "
+                        + "PARTITION pmax VALUES LESS THAN (MAXVALUE))",
+                HistoryPartitionMaintenance.addPartitionsSql(2027, 2027));
+    }
+
+    /**
+     * Nur Jahrespartitionen vor dem ersten aufbewahrten Jahr laufen ab, pmax nie.
+     */
+    @Test
+    void testExpiredPartitions() {
+        List<String> partitions = List.of("p2019", "p2020", "p2021", "pmax");
+        assertEquals(List.of("p2019", "p2020"), HistoryPartitionMaintenance.expiredPartitions(partitions, 2021));
+        assertEquals(2021, HistoryPartitionMaintenance.lastYear(partitions));
+        assertEquals(-1, HistoryPartitionMaintenance.lastYear(List.of("pmax")));
+    }
+}
@@ -0,0 +1,261 @@
+package com.project.library.library_backend.service;
+
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.catalog.CustomerEntry;
+import com.project.library.library_backend.catalog.LoanEntry;
+import com.project.library.library_backend.catalog.MediaEntry;
+import com.project.library.library_backend.model.Address;
+import com.project.library.library_backend.model.Borrowing;
+import com.project.library.library_backend.model.Customer;
+import com.project.library.library_backend.model.Hold;
+import com.project.library.library_backend.model.Media;
+import com.project.library.library_backend.policy.LoanPolicy;
+import com.project.library.library_backend.policy.LoanPolicyConfig;
+import com.project.library.library_backend.repository.AddressRepository;
+import com.project.library.library_backend.repository.BorrowingRepository;
+import com.project.library.library_backend.repository.CustomerRepository;
+import com.project.library.library_backend.repository.HoldRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link HoldService}.
+ *
+ * Tests:
+ * - Vormerken: verfügbares Medium, eigene Ausleihe, bestehende und neue Vormerkung.
+ * - Zuteilung: stornierte und verwaiste Vormerkungen am Anfang der Warteschlange werden
+ *   übersprungen, ebenso Kunden, die eine Ausleihregel verletzen (mit {@link HoldSkippedEvent}).
+ * - Rollback: Eine Vormerkung aus einer zurückgerollten Transaktion verschwindet aus der Warteschlange.
+ *
+ * Der Katalog wird vor jedem Test mit den Testdaten geladen, damit die Ausleihregeln greifen.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({HoldService.class, CatalogState.class, LoanPolicyConfig.class})
+@RecordApplicationEvents
+public class HoldServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private CatalogState catalogState;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Customer borrower;
+
+    private Customer first;
+
+    private Customer second;
+
+    private Media borrowed;
+
+    private Media available;
+
+    private Borrowing loan;
+
+    @BeforeEach
+    void setup() {
+        Address address = addressRepository.save(new Address("Wartegasse 2", "Bern", "3000"));
+        borrower = customer("Ben", address);
+        first = customer("Fia", address);
+        second = customer("Sam", address);
+        borrowed = mediaRepository.save(new Media("Vorgemerkt", "Autor V", "Roman", 4, null, "V1", "0"));
+        available = mediaRepository.save(new Media("Im Regal", "Autor R", "Roman", 4, null, "V2", "0"));
+        loan = borrowingRepository.saveAndFlush(new Borrowing(TODAY.plusDays(10), TODAY, null, borrower, borrowed));
+        catalogState.replaceAll(List.of(MediaEntry.of(borrowed), MediaEntry.of(available)),
+                List.of(CustomerEntry.of(borrower), CustomerEntry.of(first), CustomerEntry.of(second)),
+                List.of(LoanEntry.of(loan)), List.of());
+    }
+
+    /**
+     * Ein nicht ausgeliehenes Medium wird nicht vorgemerkt.
+     */
+    @Test
+    void testPlaceMediaAvailable() {
+        assertEquals(HoldService.Status.MEDIA_AVAILABLE, holdService.place(available.getId(), first.getId()).status());
+        assertTrue(holdService.findByMedia(available.getId()).isEmpty());
+    }
+
+    /**
+     * Wer das Medium selbst ausgeliehen hat, kann es nicht vormerken.
+     */
+    @Test
+    void testPlaceAlreadyBorrowed() {
+        assertEquals(HoldService.Status.ALREADY_BORROWED, holdService.place(borrowed.getId(), borrower.getId()).status());
+    }
+
+    /**
+     * Unbekannte Medien und Kunden werden gemeldet.
+     */
+    @Test
+    void testPlaceNotFound() {
+        assertEquals(HoldService.Status.NOT_FOUND, holdService.place(-1L, first.getId()).status());
+        assertEquals(HoldService.Status.NOT_FOUND, holdService.place(borrowed.getId(), -1L).status());
+    }
+
+    /**
+     * Neue Vormerkungen werden hinten eingereiht; eine zweite Vormerkung desselben Kunden
+     * liefert die bestehende mit ihrer Position.
+     */
+    @Test
+    void testPlaceQueuedAndExisting() {
+        HoldService.Placement placed = holdService.place(borrowed.getId(), first.getId());
+        assertEquals(HoldService.Status.QUEUED, placed.status());
+        assertEquals(1, placed.position());
+
+        HoldService.Placement again = holdService.place(borrowed.getId(), first.getId());
+        assertEquals(HoldService.Status.EXISTING, again.status());
+        assertEquals(placed.hold().getId(), again.hold().getId());
+        assertEquals(1, again.position());
+
+        HoldService.Placement next = holdService.place(borrowed.getId(), second.getId());
+        assertEquals(HoldService.Status.QUEUED, next.status());
+        assertEquals(2, next.position());
+        assertEquals(List.of(first.getId(), second.getId()),
+                holdService.findByMedia(borrowed.getId()).stream().map(Hold::getCustomerid).toList());
+    }
+
+    /**
+     * Eine stornierte Vormerkung und eine Vormerkung ohne Kunden am Anfang werden übersprungen;
+     * das Medium geht an den nächsten Kunden.
+     */
+    @Test
+    void testAssignNextSkipsCancelledAndMissingHead() {
+        Hold orphan = holdRepository.saveAndFlush(new Hold(borrowed.getId(), -5L));
+        Hold cancelled = holdService.place(borrowed.getId(), first.getId()).hold();
+        holdService.place(borrowed.getId(), second.getId());
+        assertTrue(holdService.cancel(cancelled.getId()));
+        returnLoan();
+
+        assertEquals(1, holdService.assignNext(List.of(borrowed.getId())));
+
+        assertEquals(List.of(second.getId()), borrowingRepository.lockCustomerIdsByMediaId(borrowed.getId()));
+        assertFalse(holdRepository.existsById(orphan.getId()));
+        assertEquals(List.of(), holdRepository.lockByMediaid(borrowed.getId()));
+        List<HoldAssignedEvent> assigned = events.stream(HoldAssignedEvent.class).toList();
+        assertEquals(1, assigned.size());
+        assertEquals(second.getId(), assigned.get(0).customerId());
+        assertNotNull(assigned.get(0).borrowingId());
+    }
+
+    /**
+     * Ein Kunde mit überfälligen Ausleihen wird übersprungen und behält seine Vormerkung.
+     */
+    @Test
+    void testAssignNextSkipsIneligible() {
+        Hold skipped = holdService.place(borrowed.getId(), first.getId()).hold();
+        holdService.place(borrowed.getId(), second.getId());
+        catalogState.putLoan(new LoanEntry(-7L, first.getId(), available.getId(), TODAY.minusDays(30),
+                TODAY.minusDays(1), null));
+        returnLoan();
+
+        assertEquals(1, holdService.assignNext(List.of(borrowed.getId())));
+
+        assertEquals(List.of(second.getId()), borrowingRepository.lockCustomerIdsByMediaId(borrowed.getId()));
+        assertTrue(holdRepository.existsById(skipped.getId()));
+        List<HoldSkippedEvent> skippedEvents = events.stream(HoldSkippedEvent.class).toList();
+        assertEquals(1, skippedEvents.size());
+        assertEquals(first.getId(), skippedEvents.get(0).customerId());
+        assertEquals(LoanPolicy.OVERDUE, skippedEvents.get(0).violations().get(0).rule());
+        assertEquals(second.getId(), events.stream(HoldAssignedEvent.class).findFirst().orElseThrow().customerId());
+    }
+
+    /**
+     * Wird die Transaktion einer Vormerkung zurückgerollt, verschwindet sie wieder aus der
+     * Warteschlange; nach einem Commit bleibt sie.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testRollbackRemovesQueuedHold() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long[] ids = transaction.execute(status -> {
+            Address address = addressRepository.save(new Address("Rollbackweg 1", "Bern", "3000"));
+            Customer holder = customer("Rolf", address);
+            Customer other = customer("Rita", address);
+            Media media = mediaRepository.save(new Media("Zurückgerollt", "Autor Z", "Roman", 4, null, "V3", "0"));
+            Borrowing borrowing = borrowingRepository.save(new Borrowing(TODAY.plusDays(10), TODAY, null, holder, media));
+            catalogState.putCustomer(CustomerEntry.of(other));
+            catalogState.putMedia(MediaEntry.of(media));
+            return new Long[] {address.getId(), holder.getId(), other.getId(), media.getId(), borrowing.getId()};
+        });
+        Long mediaId = ids[3];
+        try {
+            transaction.executeWithoutResult(status -> {
+                assertEquals(HoldService.Status.QUEUED, holdService.place(mediaId, ids[2]).status());
+                assertEquals(1, holdService.findByMedia(mediaId).size());
+                status.setRollbackOnly();
+            });
+            assertTrue(holdService.findByMedia(mediaId).isEmpty());
+
+            transaction.executeWithoutResult(status -> holdService.place(mediaId, ids[2]));
+            assertEquals(1, holdService.findByMedia(mediaId).size());
+        } finally {
+            jdbcTemplate.update("DELETE FROM media_hold WHERE mediaid = ?", mediaId);
+            jdbcTemplate.update("DELETE FROM borrowing WHERE id = ?", ids[4]);
+            jdbcTemplate.update("DELETE FROM media WHERE id = ?", mediaId);
+            jdbcTemplate.update("DELETE FROM customer WHERE id IN (?, ?)", ids[1], ids[2]);
+            jdbcTemplate.update("DELETE FROM address WHERE id = ?", ids[0]);
+        }
+    }
+
+    private Customer customer(String firstname, Address address) {
+        Customer customer = new Customer(firstname, "Warter", LocalDate.of(1980, 1, 1), firstname + "@example.ch");
+        customer.setAddress(address);
+        return customerRepository.save(customer);
+    }
+
+    /**
+     * Gibt die Ausleihe zurück, wie es {@link LoanService#returnLoans} vor der Zuteilung tut.
+     */
+    private void returnLoan() {
+        borrowingRepository.deleteById(loan.getId());
+        borrowingRepository.flush();
+        catalogState.removeLoan(loan.getId());
+    }
+}
@@ -0,0 +1,262 @@
+package com.project.library.library_backend.service;
+
+import com.project.library.library_backend.catalog.CatalogChangeTracker;
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.catalog.LoanEntry;
+import com.project.library.library_backend.model.Address;
+import com.project.library.library_backend.model.Borrowing;
+import com.project.library.library_backend.model.BorrowingHistory;
+import com.project.library.library_backend.model.Customer;
+import com.project.library.library_backend.model.Hold;
+import com.project.library.library_backend.model.Media;
+import com.project.library.library_backend.policy.LoanPolicyConfig;
+import com.project.library.library_backend.repository.AddressRepository;
+import com.project.library.library_backend.repository.BorrowingHistoryRepository;
+import com.project.library.library_backend.repository.BorrowingRepository;
+import com.project.library.library_backend.repository.CustomerRepository;
+import com.project.library.library_backend.repository.HoldRepository;
+import com.project.library.library_backend.repository.MediaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link LoanService}.
+ *
+ * Tests:
+ * - Rückgabe: Ausleihen werden per INSERT ... SELECT in die Historie kopiert und gelöscht.
+ * - Blöcke: IDs über mehrere Blöcke von {@link BatchLookup#CHUNK_SIZE} werden alle verarbeitet.
+ * - Sperre: Zwei gleichzeitige Rückgaben derselben Ausleihe archivieren sie nur einmal.
+ * - Vormerkung: Ein zurückgegebenes, vorgemerktes Medium geht an den nächsten Kunden.
+ * - Verlängerung: Das Fälligkeitsdatum wird nie verkürzt.
+ *
+ * @author Basil Ramseyer
+ * @version 1.0
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({LoanService.class, HoldService.class, CatalogChangeTracker.class, CatalogState.class, LoanPolicyConfig.class})
+public class LoanServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private BorrowingHistoryRepository borrowingHistoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Customer customer;
+
+    private Borrowing first;
+
+    private Borrowing second;
+
+    @BeforeEach
+    void setup() {
+        customer = customer();
+        first = borrow(TODAY.minusDays(30), TODAY.minusDays(2), null);
+        second = borrow(TODAY.minusDays(10), TODAY.plusDays(18), null);
+    }
+
+    /**
+     * Zurückgegebene Ausleihen liegen danach mit Rückgabedatum in der Historie; doppelte und
+     * nicht vorhandene IDs werden übersprungen.
+     */
+    @Test
+    void testReturnLoansArchives() {
+        int returned = loanService.returnLoans(List.of(first.getId(), first.getId(), second.getId(), -1L));
+
+        assertEquals(2, returned);
+        assertFalse(borrowingRepository.existsById(first.getId()));
+        assertFalse(borrowingRepository.existsById(second.getId()));
+        List<BorrowingHistory> history = history();
+        assertEquals(List.of(second.getId(), first.getId()), history.stream().map(BorrowingHistory::getId).toList());
+        BorrowingHistory archived = history.get(1);
+        assertEquals(TODAY.minusDays(30), archived.getDateborrowed());
+        assertEquals(TODAY.minusDays(2), archived.getDuedate());
+        assertEquals(TODAY, archived.getReturnedon());
+    }
+
+    /**
+     * Wird ein vorgemerktes Medium zurückgegeben (auch über DELETE /api/borrowings/{id}), erhält
+     * es der erste Kunde der Warteschlange in derselben Transaktion.
+     */
+    @Test
+    void testReturnAssignsNextHold() {
+        Customer waiting = new Customer("Mia", "Keller", LocalDate.of(1990, 6, 1), "mia@keller.ch");
+        waiting.setAddress(customer.getAddress());
+        waiting = customerRepository.save(waiting);
+        Long mediaId = first.getMedia().getId();
+        Hold hold = holdRepository.saveAndFlush(new Hold(mediaId, waiting.getId()));
+
+        assertTrue(loanService.returnLoan(first.getId()));
+
+        assertEquals(List.of(waiting.getId()), borrowingRepository.lockCustomerIdsByMediaId(mediaId));
+        assertFalse(holdRepository.existsById(hold.getId()));
+    }
+
+    /**
+     * Liegen die Ausleihen in verschiedenen Blöcken, werden alle Blöcke archiviert und gelöscht.
+     */
+    @Test
+    void testReturnLoansAcrossChunks() {
+        List<Long> ids = new ArrayList<>();
+        ids.add(first.getId());
+        for (long i = 1; i <= BatchLookup.CHUNK_SIZE; i++) {
+            ids.add(-i);
+        }
+        ids.add(second.getId());
+
+        assertEquals(2, loanService.returnLoans(ids));
+        assertFalse(borrowingRepository.existsById(first.getId()));
+        assertFalse(borrowingRepository.existsById(second.getId()));
+        assertEquals(2, history().size());
+    }
+
+    /**
+     * Eine zweite Rückgabe derselben Ausleihe wartet auf die Sperre der ersten und findet die
+     * Ausleihe danach nicht mehr; sie wird nur einmal archiviert.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testConcurrentReturnArchivesOnce() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long[] ids = transaction.execute(status -> {
+            Customer committed = customer();
+            Borrowing borrowing = borrow(committed, TODAY.minusDays(5), TODAY.plusDays(23), null);
+            return new Long[] {committed.getId(), committed.getAddress().getId(), borrowing.getMedia().getId(),
+                    borrowing.getId()};
+        });
+        Long loanId = ids[3];
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Integer> firstReturn = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+                int returned = loanService.returnLoans(List.of(loanId));
+                locked.countDown();
+                await(release);
+                return returned;
+            }));
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            CompletableFuture<Integer> secondReturn = CompletableFuture.supplyAsync(
+                    () -> transaction.execute(status -> loanService.returnLoans(List.of(loanId))));
+
+            assertThrows(TimeoutException.class, () -> secondReturn.get(300, TimeUnit.MILLISECONDS));
+            release.countDown();
+
+            assertEquals(1, firstReturn.get(10, TimeUnit.SECONDS));
+            assertEquals(0, secondReturn.get(10, TimeUnit.SECONDS));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM borrowing_history WHERE id = ?", Integer.class, loanId));
+        } finally {
+            release.countDown();
+            jdbcTemplate.update("DELETE FROM borrowing_history WHERE id = ?", loanId);
+            jdbcTemplate.update("DELETE FROM borrowing WHERE id = ?", loanId);
+            jdbcTemplate.update("DELETE FROM media WHERE id = ?", ids[2]);
+            jdbcTemplate.update("DELETE FROM customer WHERE id = ?", ids[0]);
+            jdbcTemplate.update("DELETE FROM address WHERE id = ?", ids[1]);
+        }
+    }
+
+    /**
+     * Eine überfällige Ausleihe wird bis heute plus Leihfrist verlängert.
+     */
+    @Test
+    void testExtendOverdue() {
+        LoanEntry extended = loanService.extend(first.getId()).orElseThrow();
+
+        assertEquals(TODAY.plusDays(28), extended.duedate());
+        assertEquals(TODAY, extended.extendedOn());
+        assertEquals(customer.getId(), extended.customerId());
+    }
+
+    /**
+     * Ein späteres Fälligkeitsdatum bleibt bei der Verlängerung erhalten.
+     */
+    @Test
+    void testExtendNeverShortens() {
+        Borrowing late = borrow(TODAY, TODAY.plusDays(60), null);
+
+        LoanEntry extended = loanService.extend(late.getId()).orElseThrow();
+
+        assertEquals(TODAY.plusDays(60), extended.duedate());
+        assertEquals(TODAY, extended.extendedOn());
+    }
+
+    /**
+     * Eine nicht vorhandene Ausleihe kann nicht verlängert werden.
+     */
+    @Test
+    void testExtendMissing() {
+        assertTrue(loanService.extend(-1L).isEmpty());
+    }
+
+    private Customer customer() {
+        Customer created = new Customer("Lea", "Meier", LocalDate.of(1985, 3, 1), "lea@meier.ch");
+        created.setAddress(addressRepository.save(new Address("Leihweg 1", "Bern", "3000")));
+        return customerRepository.save(created);
+    }
+
+    private Borrowing borrow(LocalDate dateborrowed, LocalDate duedate, LocalDate extendedOn) {
+        return borrow(customer, dateborrowed, duedate, extendedOn);
+    }
+
+    private Borrowing borrow(Customer borrower, LocalDate dateborrowed, LocalDate duedate, LocalDate extendedOn) {
+        Media media = mediaRepository.save(new Media("Leihbuch", "Autor L", "Roman", 3, null, "L1", "0"));
+        return borrowingRepository.saveAndFlush(new Borrowing(duedate, dateborrowed, extendedOn, borrower, media));
+    }
+
+    private List<BorrowingHistory> history() {
+        return borrowingHistoryRepository.findByCustomeridAndDateborrowedBetweenOrderByDateborrowedDesc(
+                customer.getId(), TODAY.minusYears(1), TODAY);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.project.library.library_backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link MediaMetadataJournal}.
+ *
+ * Prüft das Nachspielen in Schreibreihenfolge, die Rotation und den Umgang mit einem
+ * abgeschnittenen letzten Datensatz.
+ */
+public class MediaMetadataJournalTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Geschriebene Änderungen werden vollständig und in Reihenfolge nachgespielt.
+     */
+    @Test
+    void testAppendAndReplay() throws IOException {
+        Path file;
+        try (MediaMetadataJournal journal = new MediaMetadataJournal(directory)) {
+            journal.sync(journal.append(1L, new MediaMetadataUpdate(4, null, null)));
+            journal.sync(journal.append(2L, new MediaMetadataUpdate(null, "R12", "Krimi")));
+            journal.sync(journal.append(1L, new MediaMetadataUpdate(null, "R07", null)));
+            file = journal.getActiveFile();
+        }
+
+        List<Long> ids = new ArrayList<>();
+        List<MediaMetadataUpdate> updates = new ArrayList<>();
+        assertEquals(3, MediaMetadataJournal.replay(file, (id, update) -> {
+            ids.add(id);
+            updates.add(update);
+        }));
+        assertEquals(List.of(1L, 2L, 1L), ids);
+        assertEquals(new MediaMetadataUpdate(4, null, null), updates.get(0));
+        assertEquals(new MediaMetadataUpdate(null, "R12", "Krimi"), updates.get(1));
+        assertEquals(new MediaMetadataUpdate(4, "R07", null), updates.get(0).mergedWith(updates.get(2)));
+    }
+
+    /**
+     * Nach einer Rotation beginnt eine neue Datei; alle Dateien werden in Schreibreihenfolge gefunden.
+     */
+    @Test
+    void testRotate() throws IOException {
+        try (MediaMetadataJournal journal = new MediaMetadataJournal(directory)) {
+            journal.append(1L, new MediaMetadataUpdate(1, null, null));
+            Path first = journal.rotate();
+            journal.append(2L, new MediaMetadataUpdate(2, null, null));
+            assertNotEquals(first, journal.getActiveFile());
+            assertEquals(List.of(first, journal.getActiveFile()), MediaMetadataJournal.files(directory));
+        }
+        try (MediaMetadataJournal reopened = new MediaMetadataJournal(directory)) {
+            assertEquals(3, MediaMetadataJournal.files(directory).size());
+            assertEquals(reopened.getActiveFile(), MediaMetadataJournal.files(directory).get(2));
+        }
+    }
+
+    /**
+     * Ein unvollständiger letzter Datensatz (Absturz beim Schreiben) wird ignoriert.
+     */
+    @Test
+    void testTruncatedTailIsIgnored() throws IOException {
+        Path file;
+        try (MediaMetadataJournal journal = new MediaMetadataJournal(directory)) {
+            journal.append(1L, new MediaMetadataUpdate(5, null, null));
+            journal.append(2L, new MediaMetadataUpdate(3, "R01", null));
+            file = journal.getActiveFile();
+        }
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 3), StandardOpenOption.TRUNCATE_EXISTING);
+
+        List<Long> ids = new ArrayList<>();
+        assertEquals(1, MediaMetadataJournal.replay(file, (id, update) -> ids.add(id)));
+        assertEquals(List.of(1L), ids);
+    }
+}
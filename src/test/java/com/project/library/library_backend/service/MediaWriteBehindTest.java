@@ -0,0 +1,110 @@
+package com.project.library.library_backend.service;
+
+import com.project.library.library_backend.catalog.CatalogChangeTracker;
+import com.project.library.library_backend.catalog.CatalogState;
+import com.project.library.library_backend.model.Media;
+import com.project.library.library_backend.repository.MediaRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link MediaWriteBehind}.
+ *
+ * Der Ablauf von PUT und DELETE im MediaController (erst {@link MediaWriteBehind#drain},
+ * dann synchron speichern) wird direkt über Repository und Write-Behind nachgestellt.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MediaWriteBehind.class, CatalogChangeTracker.class, CatalogState.class})
+public class MediaWriteBehindTest {
+
+    @TempDir
+    static Path journalDirectory;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("library.media.write-behind.journal-dir", journalDirectory::toString);
+        registry.add("library.media.write-behind.enabled", () -> "true");
+    }
+
+    @Autowired
+    private MediaWriteBehind mediaWriteBehind;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Media media;
+
+    @BeforeEach
+    void setup() throws IOException {
+        mediaWriteBehind.run(null);
+        media = mediaRepository.saveAndFlush(new Media("Testbuch", "Autor X", "Roman", 4, 1234567890123L, "A1", "12+"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mediaWriteBehind.destroy();
+    }
+
+    /**
+     * PATCH, dann PUT, dann Flush: der PUT gewinnt, die ältere gepufferte Änderung wird vorher
+     * geschrieben und überschreibt ihn nicht mehr.
+     */
+    @Test
+    void testPutAfterPatch() {
+        mediaWriteBehind.submit(media.getId(), new MediaMetadataUpdate(5, "Z9", null));
+
+        mediaWriteBehind.drain(media.getId());
+        assertEquals(5, rating());
+        Media loaded = mediaRepository.findById(media.getId()).orElseThrow();
+        loaded.setRating(2);
+        loaded.setShelfCode("B2");
+        mediaRepository.saveAndFlush(loaded);
+
+        mediaWriteBehind.flush();
+        assertEquals(2, rating());
+        assertEquals("B2", jdbcTemplate.queryForObject("SELECT shelf_code FROM media WHERE id = ?", String.class, media.getId()));
+    }
+
+    /**
+     * Nach PATCH und DELETE bleibt keine Änderung im Puffer zurück.
+     */
+    @Test
+    void testDeleteAfterPatch() {
+        mediaWriteBehind.submit(media.getId(), new MediaMetadataUpdate(5, null, null));
+
+        mediaWriteBehind.drain(media.getId());
+        mediaRepository.deleteById(media.getId());
+        mediaRepository.flush();
+
+        assertEquals(0, mediaWriteBehind.pendingCount());
+        mediaWriteBehind.flush();
+        assertFalse(mediaRepository.existsById(media.getId()));
+    }
+
+    private int rating() {
+        entityManager.clear();
+        return jdbcTemplate.queryForObject("SELECT rating FROM media WHERE id = ?", Integer.class, media.getId());
+    }
+}
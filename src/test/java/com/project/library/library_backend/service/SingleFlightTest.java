@@ -0,0 +1,96 @@
+package com.project.library.library_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für {@link SingleFlight}.
+ *
+ * Prüft, dass gleichzeitige Abfragen mit demselben Schlüssel nur einmal ausgeführt werden
+ * und dass abgeschlossene Abfragen nicht zwischengespeichert werden.
+ */
+public class SingleFlightTest {
+
+    /**
+     * Gleichzeitige Abfragen mit demselben Schlüssel teilen sich ein Ergebnis.
+     */
+    @Test
+    void testConcurrentCallsAreCollapsed() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> flight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "Testbuch";
+                })));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (flight.getCollapsed() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("Testbuch", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(callers, flight.getCalls());
+        assertEquals(callers - 1, flight.getCollapsed());
+    }
+
+    /**
+     * Nach Abschluss einer Abfrage löst der nächste Aufruf eine neue Abfrage aus.
+     */
+    @Test
+    void testCompletedCallsAreNotCached() {
+        SingleFlight<Long, Integer> flight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute(1L, loads::incrementAndGet);
+        int second = flight.execute(1L, loads::incrementAndGet);
+
+        assertEquals(2, second);
+        assertEquals(0, flight.getCollapsed());
+    }
+
+    /**
+     * Fehler des Loaders werden an den Aufrufer weitergegeben.
+     */
+    @Test
+    void testLoaderExceptionIsPropagated() {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        assertThrows(IllegalStateException.class, () -> flight.execute(1L, () -> {
+            throw new IllegalStateException("DB nicht erreichbar");
+        }));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}